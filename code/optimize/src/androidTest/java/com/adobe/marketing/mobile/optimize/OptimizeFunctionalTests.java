@@ -1102,8 +1102,8 @@ public class OptimizeFunctionalTests {
                 "https://ns.adobe.com/personalization/json-content-item", offer.getSchema());
         Assert.assertEquals(OfferType.JSON, offer.getType());
         Assert.assertEquals("{\"device\":\"mobile\"}", offer.getContent());
-        Assert.assertNull(offer.getCharacteristics());
-        Assert.assertNull(offer.getLanguage());
+        Assert.assertTrue(offer.getCharacteristics().isEmpty());
+        Assert.assertTrue(offer.getLanguage().isEmpty());
     }
 
     // 8
@@ -1546,7 +1546,7 @@ public class OptimizeFunctionalTests {
                         testScopeDetails, new TypeReference<Map<String, Object>>() {});
 
         Offer offer = new Offer.Builder("246315", OfferType.TEXT, "Text Offer!!").build();
-        // Set the proposition soft reference to Offer
+        // Set the proposition reference in Offer
         OptimizeProposition optimizeProposition =
                 new OptimizeProposition(
                         "AT:eyJhY3Rpdml0eUlkIjoiMTI1NTg5IiwiZXhwZXJpZW5jZUlkIjoiMCJ9",
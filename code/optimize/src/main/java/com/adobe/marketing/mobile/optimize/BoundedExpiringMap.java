@@ -0,0 +1,148 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.optimize;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code BoundedExpiringMap} class keeps values for a limited time, up to a maximum number of
+ * entries.
+ *
+ * <p>Entries are removed when they are read with {@link #remove(String)}, when they expire, or when
+ * the map is full and a new entry is added, in which case the oldest entry is evicted. Expired
+ * entries are purged whenever the map is accessed, so it never holds more than {@code maxSize}
+ * entries regardless of how many are added and never read.
+ *
+ * @param <V> the type of the values.
+ */
+final class BoundedExpiringMap<V> {
+    private final int maxSize;
+    private final long timeToLiveMillis;
+
+    // Insertion-ordered map so the oldest entries, which expire first, are iterated first.
+    private final LinkedHashMap<String, Entry<V>> entries = new LinkedHashMap<>();
+
+    /**
+     * Constructor creates a {@code BoundedExpiringMap} with the given limits.
+     *
+     * @param maxSize {@code int} containing the maximum number of entries.
+     * @param timeToLiveMillis {@code long} containing the time in milliseconds after which an
+     *     entry expires.
+     */
+    BoundedExpiringMap(final int maxSize, final long timeToLiveMillis) {
+        this.maxSize = maxSize;
+        this.timeToLiveMillis = timeToLiveMillis;
+    }
+
+    /**
+     * Adds the given {@code value} for the given {@code key}, replacing any previous value.
+     *
+     * @param key {@link String} key.
+     * @param value value to be added.
+     */
+    void put(final String key, final V value) {
+        put(key, value, currentTimeMillis());
+    }
+
+    /**
+     * Removes and returns the value for the given {@code key}.
+     *
+     * @param key {@link String} key.
+     * @return the value, or null if there is none or if it is expired.
+     */
+    V remove(final String key) {
+        return remove(key, currentTimeMillis());
+    }
+
+    /**
+     * Checks whether a value which is not expired is kept for the given {@code key}, without
+     * removing it.
+     *
+     * @param key {@link String} key.
+     * @return {@code boolean} indicating whether the map contains the key.
+     */
+    boolean containsKey(final String key) {
+        return containsKey(key, currentTimeMillis());
+    }
+
+    /**
+     * Returns the number of entries which are not expired.
+     *
+     * @return {@code int} containing the number of entries.
+     */
+    int size() {
+        return size(currentTimeMillis());
+    }
+
+    /** Removes all the entries. */
+    synchronized void clear() {
+        entries.clear();
+    }
+
+    synchronized void put(final String key, final V value, final long now) {
+        purgeExpired(now);
+        // Removed first so the entry moves to the end of the insertion order.
+        entries.remove(key);
+        entries.put(key, new Entry<>(value, now + timeToLiveMillis));
+
+        final Iterator<String> iterator = entries.keySet().iterator();
+        while (entries.size() > maxSize && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    synchronized V remove(final String key, final long now) {
+        purgeExpired(now);
+        final Entry<V> entry = entries.remove(key);
+        return entry != null ? entry.value : null;
+    }
+
+    synchronized boolean containsKey(final String key, final long now) {
+        purgeExpired(now);
+        return entries.containsKey(key);
+    }
+
+    synchronized int size(final long now) {
+        purgeExpired(now);
+        return entries.size();
+    }
+
+    private static long currentTimeMillis() {
+        // Monotonic time, so entries keep expiring in insertion order if the wall clock changes.
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+    }
+
+    private void purgeExpired(final long now) {
+        final Iterator<Map.Entry<String, Entry<V>>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().getValue().expiresAt > now) {
+                // Entries are added with the same time to live, the remaining ones expire later.
+                break;
+            }
+            iterator.remove();
+        }
+    }
+
+    private static final class Entry<V> {
+        final V value;
+        final long expiresAt;
+
+        Entry(final V value, final long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.optimize;
+
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.RandomAccess;
+
+/**
+ * {@code CompactList} class is an immutable {@code List} backed by an array sized to its elements.
+ *
+ * <p>Its hash code is computed once at construction.
+ *
+ * @param <E> the type of elements in this list.
+ */
+final class CompactList<E> extends AbstractList<E> implements RandomAccess {
+    private final Object[] elements;
+    private final int hashCode;
+
+    private CompactList(final Object[] elements) {
+        this.elements = elements;
+
+        int hash = 1;
+        for (final Object element : elements) {
+            hash = 31 * hash + (element == null ? 0 : element.hashCode());
+        }
+        this.hashCode = hash;
+    }
+
+    /**
+     * Creates a {@code CompactList} containing the elements of the given {@code collection}.
+     *
+     * @param collection {@code Collection<E>} whose elements are to be placed in the {@link
+     *     CompactList}.
+     * @param <E> the type of elements.
+     * @return {@code CompactList<E>} containing the given elements.
+     */
+    static <E> CompactList<E> copyOf(final Collection<? extends E> collection) {
+        return new CompactList<>(collection.toArray());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(final int index) {
+        return (E) elements[index];
+    }
+
+    @Override
+    public int size() {
+        return elements.length;
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) return true;
+        if (o instanceof CompactList && hashCode != o.hashCode()) return false;
+        return super.equals(o);
+    }
+}
@@ -0,0 +1,160 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.optimize;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * {@code CompactMap} class is an immutable {@code Map} backed by sorted key and value arrays.
+ *
+ * <p>It uses less memory than a {@link java.util.HashMap} for the small maps found in proposition
+ * and offer data, and its hash code is computed once at construction. Lookups are done with a
+ * binary search over the keys.
+ *
+ * @param <V> the type of mapped values.
+ */
+final class CompactMap<V> extends AbstractMap<String, V> {
+    private static final Comparator<String> KEY_COMPARATOR =
+            new Comparator<String>() {
+                @Override
+                public int compare(final String first, final String second) {
+                    if (first == null) {
+                        return second == null ? 0 : -1;
+                    }
+                    return second == null ? 1 : first.compareTo(second);
+                }
+            };
+
+    private final String[] keys;
+    private final Object[] values;
+    private final int hashCode;
+    private Set<Map.Entry<String, V>> entrySet;
+
+    private CompactMap(final String[] keys, final Object[] values) {
+        this.keys = keys;
+        this.values = values;
+
+        int hash = 0;
+        for (int i = 0; i < keys.length; i++) {
+            hash += (keys[i] == null ? 0 : keys[i].hashCode())
+                    ^ (values[i] == null ? 0 : values[i].hashCode());
+        }
+        this.hashCode = hash;
+    }
+
+    /**
+     * Creates a {@code CompactMap} containing the entries of the given {@code map}.
+     *
+     * <p>The entries are copied as they are, nested maps and lists are not converted.
+     *
+     * @param map {@code Map<String, V>} whose entries are to be placed in the {@link CompactMap}.
+     * @param <V> the type of mapped values.
+     * @return {@code CompactMap<V>} containing the given entries.
+     */
+    static <V> CompactMap<V> copyOf(final Map<String, ? extends V> map) {
+        final String[] keys = new String[map.size()];
+        int index = 0;
+        for (final String key : map.keySet()) {
+            keys[index++] = key;
+        }
+        Arrays.sort(keys, KEY_COMPARATOR);
+
+        final Object[] values = new Object[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            values[i] = map.get(keys[i]);
+        }
+        return new CompactMap<>(keys, values);
+    }
+
+    @Override
+    public int size() {
+        return keys.length;
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(final Object key) {
+        final int index = indexOf(key);
+        return index >= 0 ? (V) values[index] : null;
+    }
+
+    @Override
+    public Set<Map.Entry<String, V>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new EntrySet();
+        }
+        return entrySet;
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) return true;
+        if (o instanceof CompactMap && hashCode != o.hashCode()) return false;
+        return super.equals(o);
+    }
+
+    private int indexOf(final Object key) {
+        if (key != null && !(key instanceof String)) {
+            return -1;
+        }
+        return Arrays.binarySearch(keys, (String) key, KEY_COMPARATOR);
+    }
+
+    private final class EntrySet extends AbstractSet<Map.Entry<String, V>> {
+        @Override
+        public int size() {
+            return keys.length;
+        }
+
+        @Override
+        public Iterator<Map.Entry<String, V>> iterator() {
+            return new Iterator<Map.Entry<String, V>>() {
+                private int index = 0;
+
+                @Override
+                public boolean hasNext() {
+                    return index < keys.length;
+                }
+
+                @Override
+                @SuppressWarnings("unchecked")
+                public Map.Entry<String, V> next() {
+                    if (index >= keys.length) {
+                        throw new NoSuchElementException();
+                    }
+                    final Map.Entry<String, V> entry =
+                            new AbstractMap.SimpleImmutableEntry<>(
+                                    keys[index], (V) values[index]);
+                    index++;
+                    return entry;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,176 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.optimize;
+
+import com.adobe.marketing.mobile.services.Log;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code EdgeCircuitBreaker} class stops sending Edge personalization query requests while the
+ * Edge network is failing.
+ *
+ * <p>The circuit opens after {@value #FAILURE_THRESHOLD} consecutive Edge requests time out or
+ * fail with a server error, and requests are not allowed while it is open. After {@value
+ * #OPEN_DURATION_MILLIS} milliseconds, a single probe request is allowed in the half-open state:
+ * the circuit closes if it succeeds, and opens again if it fails.
+ */
+class EdgeCircuitBreaker {
+    private static final String SELF_TAG = "EdgeCircuitBreaker";
+
+    static final int FAILURE_THRESHOLD = 5;
+    static final long OPEN_DURATION_MILLIS = 30000L;
+
+    /** Circuit breaker states. */
+    enum State {
+        CLOSED("closed"),
+        OPEN("open"),
+        HALF_OPEN("halfopen");
+
+        private final String value;
+
+        State(final String value) {
+            this.value = value;
+        }
+
+        /**
+         * Returns the state value sent in the state change event data.
+         *
+         * @return {@link String} containing the state value.
+         */
+        String getValue() {
+            return value;
+        }
+    }
+
+    /** Interface used by the circuit breaker to report its state changes. */
+    interface StateListener {
+        /**
+         * Called when the circuit breaker state changes.
+         *
+         * @param state {@link State} the circuit breaker changed to.
+         */
+        void onStateChanged(State state);
+    }
+
+    private final StateListener stateListener;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long stateChangedAt;
+
+    /**
+     * Constructor creates an {@code EdgeCircuitBreaker} using the provided {@code stateListener}.
+     *
+     * @param stateListener {@link StateListener} instance.
+     */
+    EdgeCircuitBreaker(final StateListener stateListener) {
+        this.stateListener = stateListener;
+    }
+
+    /**
+     * Checks whether an Edge request can be sent.
+     *
+     * <p>Once the open duration has elapsed, the circuit changes to the half-open state and this
+     * method allows a single probe request. Another probe is allowed if the result of the previous
+     * one isn't recorded within the open duration.
+     *
+     * @return {@code boolean} indicating whether the request can be sent.
+     */
+    boolean allowRequest() {
+        return allowRequest(currentTimeMillis());
+    }
+
+    /** Records an Edge request which completed without a server error. */
+    void recordSuccess() {
+        recordSuccess(currentTimeMillis());
+    }
+
+    /** Records an Edge request which timed out or failed with a server error. */
+    void recordFailure() {
+        recordFailure(currentTimeMillis());
+    }
+
+    /**
+     * Returns the current circuit breaker state.
+     *
+     * @return {@link State} of the circuit breaker.
+     */
+    synchronized State getState() {
+        return state;
+    }
+
+    boolean allowRequest(final long now) {
+        synchronized (this) {
+            if (state == State.CLOSED) {
+                return true;
+            }
+            if (now - stateChangedAt < OPEN_DURATION_MILLIS) {
+                return false;
+            }
+            if (state == State.HALF_OPEN) {
+                // The previous probe result was not recorded, allow another one.
+                stateChangedAt = now;
+                return true;
+            }
+            changeState(State.HALF_OPEN, now);
+        }
+        notifyStateChanged(State.HALF_OPEN);
+        return true;
+    }
+
+    void recordSuccess(final long now) {
+        synchronized (this) {
+            consecutiveFailures = 0;
+            if (state == State.CLOSED) {
+                return;
+            }
+            changeState(State.CLOSED, now);
+        }
+        notifyStateChanged(State.CLOSED);
+    }
+
+    void recordFailure(final long now) {
+        final int failureCount;
+        synchronized (this) {
+            failureCount = ++consecutiveFailures;
+            if (state == State.OPEN
+                    || (state == State.CLOSED && failureCount < FAILURE_THRESHOLD)) {
+                return;
+            }
+            changeState(State.OPEN, now);
+        }
+
+        Log.warning(
+                OptimizeConstants.LOG_TAG,
+                SELF_TAG,
+                "recordFailure - Pausing Edge personalization requests for %d ms after %d"
+                        + " consecutive failures.",
+                OPEN_DURATION_MILLIS,
+                failureCount);
+        notifyStateChanged(State.OPEN);
+    }
+
+    private void changeState(final State newState, final long now) {
+        state = newState;
+        stateChangedAt = now;
+    }
+
+    private void notifyStateChanged(final State newState) {
+        if (stateListener != null) {
+            stateListener.onStateChanged(newState);
+        }
+    }
+
+    private static long currentTimeMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+    }
+}
@@ -0,0 +1,105 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.optimize;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@code EdgeRequestTemplate} class creates the event data for the Edge personalization query
+ * requests, from fragments built once for a given {@link OptimizeConfiguration}.
+ *
+ * <p>The fragments which don't depend on the request, i.e. the supported schemas, the {@code
+ * sendCompletion} flag, the default XDM and the override {@code datasetId}, are immutable and
+ * shared by all the created event data, so each request only allocates its variable parts. The
+ * event data is copied when set on the Edge request {@code Event}.
+ */
+final class EdgeRequestTemplate {
+    private static final List<String> SCHEMAS =
+            Collections.unmodifiableList(OptimizeExtension.supportedSchemas);
+    private static final Map<String, Object> REQUEST =
+            Collections.<String, Object>singletonMap(
+                    OptimizeConstants.JsonKeys.REQUEST_SEND_COMPLETION, true);
+    private static final Map<String, Object> XDM =
+            Collections.<String, Object>singletonMap(
+                    OptimizeConstants.JsonKeys.EXPERIENCE_EVENT_TYPE,
+                    OptimizeConstants.JsonValues.EE_EVENT_TYPE_PERSONALIZATION);
+
+    private final String overrideDatasetId;
+
+    /**
+     * Constructor creates an {@code EdgeRequestTemplate} with the given {@code overrideDatasetId}.
+     *
+     * @param overrideDatasetId {@link String} containing the configured dataset ID, or null if
+     *     none.
+     */
+    EdgeRequestTemplate(final String overrideDatasetId) {
+        this.overrideDatasetId = overrideDatasetId;
+    }
+
+    /**
+     * Creates the Edge personalization query request event data for the given {@code scopes}.
+     *
+     * @param scopes {@code List<DecisionScope>} containing the requested scopes.
+     * @param inputXdm {@code Map<String, Object>} containing additional XDM data to be attached to
+     *     the request, or null if none.
+     * @param inputData {@code Map<String, Object>} containing additional free-form data to be
+     *     attached to the request, or null if none.
+     * @return {@code Map<String, Object>} containing the Edge request event data.
+     */
+    Map<String, Object> createEventData(
+            final List<DecisionScope> scopes,
+            final Map<String, Object> inputXdm,
+            final Map<String, Object> inputData) {
+        final Map<String, Object> edgeEventData = new HashMap<>();
+
+        // Add query
+        final List<String> scopeNames = new ArrayList<>(scopes.size());
+        for (final DecisionScope scope : scopes) {
+            scopeNames.add(scope.getName());
+        }
+        final Map<String, Object> queryPersonalization = new HashMap<>();
+        queryPersonalization.put(OptimizeConstants.JsonKeys.SCHEMAS, SCHEMAS);
+        queryPersonalization.put(OptimizeConstants.JsonKeys.DECISION_SCOPES, scopeNames);
+        edgeEventData.put(
+                OptimizeConstants.JsonKeys.QUERY,
+                Collections.singletonMap(
+                        OptimizeConstants.JsonKeys.QUERY_PERSONALIZATION, queryPersonalization));
+
+        // Add xdm
+        if (OptimizeUtils.isNullOrEmpty(inputXdm)) {
+            edgeEventData.put(OptimizeConstants.JsonKeys.XDM, XDM);
+        } else {
+            final Map<String, Object> xdm = new HashMap<>(inputXdm);
+            xdm.putAll(XDM);
+            edgeEventData.put(OptimizeConstants.JsonKeys.XDM, xdm);
+        }
+
+        // Add data
+        if (!OptimizeUtils.isNullOrEmpty(inputData)) {
+            edgeEventData.put(OptimizeConstants.JsonKeys.DATA, inputData);
+        }
+
+        // Add the flag to request sendCompletion
+        edgeEventData.put(OptimizeConstants.JsonKeys.REQUEST, REQUEST);
+
+        // Add override datasetId
+        if (overrideDatasetId != null) {
+            edgeEventData.put(OptimizeConstants.JsonKeys.DATASET_ID, overrideDatasetId);
+        }
+
+        return edgeEventData;
+    }
+}
@@ -0,0 +1,245 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.optimize;
+
+import com.adobe.marketing.mobile.services.Log;
+import com.adobe.marketing.mobile.util.DataReader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code ImpressionDeduplicator} class suppresses the repeated display interactions for the same
+ * proposition offer.
+ *
+ * <p>A display interaction is a duplicate if a display interaction for the same proposition and
+ * offer was tracked within the deduplication window or, without a window, in the current session. A
+ * session ends when the app stays in the background longer than {@value #SESSION_TIMEOUT_MILLIS}
+ * milliseconds. The tracked impressions are kept in a bounded, insertion-ordered map, so memory
+ * doesn't grow with the number of displayed offers: the oldest impressions are forgotten first.
+ */
+class ImpressionDeduplicator {
+    private static final String SELF_TAG = "ImpressionDeduplicator";
+
+    static final int MAX_TRACKED_IMPRESSIONS = 1000;
+    static final long SESSION_TIMEOUT_MILLIS = 300000L;
+
+    // Insertion-ordered map of the impression keys and the times they were last tracked, so the
+    // oldest impressions are iterated first.
+    private final LinkedHashMap<String, Long> trackedImpressions = new LinkedHashMap<>();
+    private long suppressedCount;
+    private long pausedAt = -1L;
+
+    /**
+     * Removes the display interactions tracked within the deduplication window, or in the current
+     * session, from the given proposition interactions {@code xdm}.
+     *
+     * <p>Proposition interactions other than display are returned unchanged.
+     *
+     * @param xdm {@code Map<String, Object>} containing the XDM data for the display interactions.
+     * @param windowMillis {@code long} containing the deduplication window in milliseconds, or 0 if
+     *     the interactions are deduplicated for the session.
+     * @return {@code Map<String, Object>} containing the XDM data without the duplicate
+     *     interactions, the given {@code xdm} if it contains none, or null if all the interactions
+     *     are duplicates.
+     */
+    Map<String, Object> deduplicate(final Map<String, Object> xdm, final long windowMillis) {
+        return deduplicate(xdm, windowMillis, currentTimeMillis());
+    }
+
+    /** Starts a new session if the app stayed in the background longer than the session timeout. */
+    void onLifecycleStart() {
+        onLifecycleStart(currentTimeMillis());
+    }
+
+    /** Records the time at which the app went to the background. */
+    void onLifecyclePause() {
+        onLifecyclePause(currentTimeMillis());
+    }
+
+    /** Forgets all the tracked impressions. */
+    synchronized void reset() {
+        trackedImpressions.clear();
+        pausedAt = -1L;
+    }
+
+    /**
+     * Returns the number of display interactions suppressed since the extension was registered.
+     *
+     * @return {@code long} containing the suppressed interactions count.
+     */
+    synchronized long getSuppressedCount() {
+        return suppressedCount;
+    }
+
+    Map<String, Object> deduplicate(
+            final Map<String, Object> xdm, final long windowMillis, final long now) {
+        final String eventType =
+                DataReader.optString(xdm, OptimizeConstants.JsonKeys.EXPERIENCE_EVENT_TYPE, null);
+        if (!OptimizeConstants.JsonValues.EE_EVENT_TYPE_PROPOSITION_DISPLAY.equals(eventType)) {
+            return xdm;
+        }
+
+        final Map<String, Object> experience =
+                DataReader.optTypedMap(
+                        Object.class, xdm, OptimizeConstants.JsonKeys.EXPERIENCE, null);
+        final Map<String, Object> decisioning =
+                DataReader.optTypedMap(
+                        Object.class,
+                        experience,
+                        OptimizeConstants.JsonKeys.EXPERIENCE_DECISIONING,
+                        null);
+        final List<Map<String, Object>> propositions =
+                DataReader.optTypedListOfMap(
+                        Object.class,
+                        decisioning,
+                        OptimizeConstants.JsonKeys.DECISIONING_PROPOSITIONS,
+                        null);
+        if (propositions == null) {
+            return xdm;
+        }
+
+        final List<Map<String, Object>> trackedPropositions = new ArrayList<>();
+        int duplicateCount = 0;
+        final long totalSuppressedCount;
+        synchronized (this) {
+            purgeExpired(windowMillis, now);
+
+            for (final Map<String, Object> proposition : propositions) {
+                final String propositionId =
+                        DataReader.optString(
+                                proposition,
+                                OptimizeConstants.JsonKeys.DECISIONING_PROPOSITIONS_ID,
+                                null);
+                final List<Map<String, Object>> items =
+                        DataReader.optTypedListOfMap(
+                                Object.class,
+                                proposition,
+                                OptimizeConstants.JsonKeys.DECISIONING_PROPOSITIONS_ITEMS,
+                                null);
+                if (propositionId == null || items == null) {
+                    trackedPropositions.add(proposition);
+                    continue;
+                }
+
+                final List<Map<String, Object>> trackedItems = new ArrayList<>();
+                for (final Map<String, Object> item : items) {
+                    final String offerId =
+                            DataReader.optString(
+                                    item,
+                                    OptimizeConstants.JsonKeys.DECISIONING_PROPOSITIONS_ITEMS_ID,
+                                    null);
+                    if (offerId != null && !track(propositionId, offerId, now)) {
+                        duplicateCount++;
+                    } else {
+                        trackedItems.add(item);
+                    }
+                }
+
+                if (trackedItems.size() == items.size()) {
+                    trackedPropositions.add(proposition);
+                } else if (!trackedItems.isEmpty()) {
+                    final Map<String, Object> trackedProposition = new HashMap<>(proposition);
+                    trackedProposition.put(
+                            OptimizeConstants.JsonKeys.DECISIONING_PROPOSITIONS_ITEMS,
+                            trackedItems);
+                    trackedPropositions.add(trackedProposition);
+                }
+            }
+
+            suppressedCount += duplicateCount;
+            totalSuppressedCount = suppressedCount;
+        }
+
+        if (duplicateCount == 0) {
+            return xdm;
+        }
+
+        Log.trace(
+                OptimizeConstants.LOG_TAG,
+                SELF_TAG,
+                "deduplicate - Suppressed %d duplicate display interaction(s), suppressed count:"
+                        + " (%d).",
+                duplicateCount,
+                totalSuppressedCount);
+        if (trackedPropositions.isEmpty()) {
+            return null;
+        }
+
+        final Map<String, Object> trackedDecisioning = new HashMap<>(decisioning);
+        trackedDecisioning.put(
+                OptimizeConstants.JsonKeys.DECISIONING_PROPOSITIONS, trackedPropositions);
+        final Map<String, Object> trackedExperience = new HashMap<>(experience);
+        trackedExperience.put(
+                OptimizeConstants.JsonKeys.EXPERIENCE_DECISIONING, trackedDecisioning);
+        final Map<String, Object> trackedXdm = new HashMap<>(xdm);
+        trackedXdm.put(OptimizeConstants.JsonKeys.EXPERIENCE, trackedExperience);
+        return trackedXdm;
+    }
+
+    synchronized void onLifecycleStart(final long now) {
+        if (pausedAt >= 0L && now - pausedAt >= SESSION_TIMEOUT_MILLIS) {
+            trackedImpressions.clear();
+        }
+        pausedAt = -1L;
+    }
+
+    synchronized void onLifecyclePause(final long now) {
+        pausedAt = now;
+    }
+
+    /**
+     * Records the impression for the given {@code propositionId} and {@code offerId}, unless it is
+     * already tracked.
+     *
+     * @return {@code boolean} indicating whether the impression was recorded.
+     */
+    private boolean track(final String propositionId, final String offerId, final long now) {
+        // The proposition ID length prefix keeps the key unique for any pair of IDs.
+        final String key = propositionId.length() + ":" + propositionId + offerId;
+        if (trackedImpressions.containsKey(key)) {
+            return false;
+        }
+
+        trackedImpressions.put(key, now);
+        final Iterator<String> iterator = trackedImpressions.keySet().iterator();
+        while (trackedImpressions.size() > MAX_TRACKED_IMPRESSIONS && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+        return true;
+    }
+
+    private void purgeExpired(final long windowMillis, final long now) {
+        if (windowMillis <= 0L) {
+            return;
+        }
+
+        final Iterator<Long> iterator = trackedImpressions.values().iterator();
+        while (iterator.hasNext()) {
+            if (now - iterator.next() < windowMillis) {
+                // Impressions are iterated in the order they were tracked, the remaining ones are
+                // more recent.
+                break;
+            }
+            iterator.remove();
+        }
+    }
+
+    private static long currentTimeMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+    }
+}
@@ -0,0 +1,226 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.optimize;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@code InternPool} class keeps a single instance of the strings repeated across propositions and
+ * offers, such as schemas and {@code scopeDetails} and {@code meta} keys, so each of them is
+ * retained only once in the propositions cache.
+ *
+ * <p>Only map keys, schemas and language codes are added to the pool. String values in maps, such
+ * as activity identifiers, correlation IDs and event tokens, are mostly unique, they are only
+ * replaced with the pooled instance of the known values, e.g. decision providers and schemas, and
+ * are never added to the pool.
+ *
+ * <p>Maps and lists are copied to immutable {@link CompactMap} and {@link CompactList} instances,
+ * which are returned as they are when interned again.
+ *
+ * <p>The pool is bounded, once it is full strings are returned as they are. Long strings, which
+ * are unlikely to be repeated, are not pooled.
+ */
+final class InternPool {
+    static final int MAX_POOL_SIZE = 4096;
+    static final int MAX_INTERNED_LENGTH = 256;
+
+    private static final ConcurrentHashMap<String, String> pool = new ConcurrentHashMap<>();
+
+    static {
+        final String[] commonStrings = {
+            // scopeDetails keys
+            "decisionProvider",
+            "activity",
+            "experience",
+            "strategies",
+            "characteristics",
+            "correlationID",
+            "algorithmID",
+            "trafficType",
+            "step",
+            "eventTokens",
+            "display",
+            "click",
+            // Decision providers
+            "TGT",
+            "EXD",
+            // Formats
+            "application/json",
+            "text/plain",
+            "text/html",
+            // Schemas
+            OptimizeConstants.JsonValues.SCHEMA_TARGET_HTML,
+            OptimizeConstants.JsonValues.SCHEMA_TARGET_JSON,
+            OptimizeConstants.JsonValues.SCHEMA_TARGET_DEFAULT,
+            OptimizeConstants.JsonValues.SCHEMA_OFFER_HTML,
+            OptimizeConstants.JsonValues.SCHEMA_OFFER_JSON,
+            OptimizeConstants.JsonValues.SCHEMA_OFFER_IMAGE,
+            OptimizeConstants.JsonValues.SCHEMA_OFFER_TEXT
+        };
+        for (final String value : commonStrings) {
+            pool.put(value, value);
+        }
+    }
+
+    private InternPool() {}
+
+    /**
+     * Returns the pooled instance of the given {@code value}.
+     *
+     * @param value {@link String} to be interned.
+     * @return {@code String} pooled instance equal to {@code value}, or {@code value} itself if it
+     *     is null, too long or the pool is full.
+     */
+    static String intern(final String value) {
+        if (value == null || value.length() > MAX_INTERNED_LENGTH) {
+            return value;
+        }
+
+        final String pooledValue = pool.get(value);
+        if (pooledValue != null) {
+            return pooledValue;
+        }
+        if (pool.size() >= MAX_POOL_SIZE) {
+            return value;
+        }
+
+        final String existingValue = pool.putIfAbsent(value, value);
+        return existingValue != null ? existingValue : value;
+    }
+
+    /**
+     * Returns an immutable copy of the given {@code map} with interned keys and known string
+     * values, including the keys and values of nested maps and lists.
+     *
+     * @param map {@code Map<String, Object>} to be interned.
+     * @return {@code Map<String, Object>} containing the interned data, a shared immutable empty
+     *     map if {@code map} is empty, or null if {@code map} is null.
+     */
+    static Map<String, Object> internMap(final Map<String, Object> map) {
+        if (map == null) {
+            return null;
+        }
+        if (map.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        if (map instanceof CompactMap) {
+            return map;
+        }
+
+        final Map<String, Object> internedMap = new HashMap<>(mapCapacity(map.size()));
+        for (final Map.Entry<String, Object> entry : map.entrySet()) {
+            internedMap.put(intern(entry.getKey()), internValue(entry.getValue()));
+        }
+        return CompactMap.copyOf(internedMap);
+    }
+
+    /**
+     * Returns an immutable copy of the given {@code list} with interned elements.
+     *
+     * @param list {@code List<String>} to be interned.
+     * @return {@code List<String>} containing the interned elements, or a shared immutable empty
+     *     list if {@code list} is null or empty.
+     */
+    static List<String> internStringList(final List<String> list) {
+        if (list == null || list.isEmpty()) {
+            return Collections.emptyList();
+        }
+        if (list instanceof CompactList) {
+            return list;
+        }
+
+        final String[] internedElements = new String[list.size()];
+        int index = 0;
+        for (final String element : list) {
+            internedElements[index++] = intern(element);
+        }
+        return CompactList.copyOf(Arrays.asList(internedElements));
+    }
+
+    /**
+     * Returns an immutable copy of the given {@code map} with interned keys and known values.
+     *
+     * @param map {@code Map<String, String>} to be interned.
+     * @return {@code Map<String, String>} containing the interned entries, or a shared immutable
+     *     empty map if {@code map} is null or empty.
+     */
+    static Map<String, String> internStringMap(final Map<String, String> map) {
+        if (map == null || map.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        if (map instanceof CompactMap) {
+            return map;
+        }
+
+        final Map<String, String> internedMap = new HashMap<>(mapCapacity(map.size()));
+        for (final Map.Entry<String, String> entry : map.entrySet()) {
+            internedMap.put(intern(entry.getKey()), internKnownValue(entry.getValue()));
+        }
+        return CompactMap.copyOf(internedMap);
+    }
+
+    /**
+     * Returns the number of pooled strings.
+     *
+     * @return {@code int} containing the pool size.
+     */
+    static int size() {
+        return pool.size();
+    }
+
+    /**
+     * Returns the pooled instance of the given {@code value} if it is already pooled, without
+     * adding it to the pool.
+     *
+     * @param value {@link String} value to be interned.
+     * @return {@code String} pooled instance equal to {@code value}, or {@code value} itself if it
+     *     is not pooled.
+     */
+    private static String internKnownValue(final String value) {
+        if (value == null || value.length() > MAX_INTERNED_LENGTH) {
+            return value;
+        }
+
+        final String pooledValue = pool.get(value);
+        return pooledValue != null ? pooledValue : value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object internValue(final Object value) {
+        if (value instanceof String) {
+            return internKnownValue((String) value);
+        } else if (value instanceof Map) {
+            return internMap((Map<String, Object>) value);
+        } else if (value instanceof List) {
+            if (value instanceof CompactList) {
+                return value;
+            }
+            final List<?> list = (List<?>) value;
+            final Object[] internedElements = new Object[list.size()];
+            int index = 0;
+            for (final Object element : list) {
+                internedElements[index++] = internValue(element);
+            }
+            return CompactList.copyOf(Arrays.asList(internedElements));
+        }
+        return value;
+    }
+
+    private static int mapCapacity(final int size) {
+        return (int) (size / 0.75f) + 1;
+    }
+}
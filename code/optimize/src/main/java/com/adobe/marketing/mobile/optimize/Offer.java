@@ -16,8 +16,7 @@ import com.adobe.marketing.mobile.MobileCore;
 import com.adobe.marketing.mobile.services.Log;
 import com.adobe.marketing.mobile.util.DataReader;
 import com.adobe.marketing.mobile.util.DataReaderException;
-import java.lang.ref.SoftReference;
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -36,8 +35,17 @@ public class Offer {
     private List<String> language;
     private String content;
     private Map<String, String> characteristics;
+    // Computed once in Builder#build(), Offer attributes cannot change afterwards.
+    private int hashCode;
 
-    SoftReference<OptimizeProposition> propositionReference;
+    // Containing proposition, set once when the proposition is created and kept for as long as the
+    // offer is reachable.
+    OptimizeProposition propositionReference;
+
+    // Interaction XDM data generated on first use and reused afterwards, as the offer and its
+    // proposition cannot change.
+    private volatile Map<String, Object> displayInteractionXdm;
+    private volatile Map<String, Object> tapInteractionXdm;
 
     /**
      * Private constructor.
@@ -68,9 +76,9 @@ public class Offer {
             offer.etag = "";
             offer.score = 0;
             offer.schema = "";
-            offer.meta = new HashMap<>();
-            offer.language = new ArrayList<>();
-            offer.characteristics = new HashMap<>();
+            offer.meta = Collections.emptyMap();
+            offer.language = Collections.emptyList();
+            offer.characteristics = Collections.emptyMap();
             didBuild = false;
         }
 
@@ -115,13 +123,15 @@ public class Offer {
         public Builder setSchema(final String schema) {
             throwIfAlreadyBuilt();
 
-            offer.schema = schema;
+            offer.schema = InternPool.intern(schema);
             return this;
         }
 
         /**
          * Sets the metadata for this {@code Offer}.
          *
+         * <p>An immutable copy of the provided {@code meta} is set.
+         *
          * @param meta {@code Map<String, Object>} containing {@link Offer} metadata.
          * @return this Offer {@link Builder}
          * @throws UnsupportedOperationException if this method is invoked after {@link
@@ -130,13 +140,15 @@ public class Offer {
         public Builder setMeta(final Map<String, Object> meta) {
             throwIfAlreadyBuilt();
 
-            offer.meta = meta;
+            offer.meta = InternPool.internMap(meta);
             return this;
         }
 
         /**
          * Sets the language for this {@code Offer}.
          *
+         * <p>An immutable copy of the provided {@code language} is set.
+         *
          * @param language {@code List<String>} containing supported {@link Offer} language.
          * @return this Offer {@link Builder}
          * @throws UnsupportedOperationException if this method is invoked after {@link
@@ -145,13 +157,15 @@ public class Offer {
         public Builder setLanguage(final List<String> language) {
             throwIfAlreadyBuilt();
 
-            offer.language = language;
+            offer.language = InternPool.internStringList(language);
             return this;
         }
 
         /**
          * Sets the characteristics for this {@code Offer}.
          *
+         * <p>An immutable copy of the provided {@code characteristics} is set.
+         *
          * @param characteristics {@code Map<String, String>} containing {@link Offer}
          *     characteristics.
          * @return this Offer {@link Builder}
@@ -161,7 +175,7 @@ public class Offer {
         public Builder setCharacteristics(final Map<String, String> characteristics) {
             throwIfAlreadyBuilt();
 
-            offer.characteristics = characteristics;
+            offer.characteristics = InternPool.internStringMap(characteristics);
             return this;
         }
 
@@ -174,6 +188,17 @@ public class Offer {
             throwIfAlreadyBuilt();
             didBuild = true;
 
+            offer.hashCode =
+                    Objects.hash(
+                            offer.id,
+                            offer.etag,
+                            offer.score,
+                            offer.schema,
+                            offer.type,
+                            offer.language,
+                            offer.content,
+                            offer.characteristics);
+
             return offer;
         }
 
@@ -224,7 +249,7 @@ public class Offer {
     /**
      * Gets the {@code Offer} metadata.
      *
-     * @return {@code Map<String, Object>} containing the {@link Offer} metadata.
+     * @return immutable {@code Map<String, Object>} containing the {@link Offer} metadata.
      */
     public Map<String, Object> getMeta() {
         return meta;
@@ -242,7 +267,8 @@ public class Offer {
     /**
      * Gets the {@code Offer} language.
      *
-     * @return {@code List<String>} containing the supported {@link Offer} language.
+     * @return immutable {@code List<String>} containing the supported {@link Offer} language, or
+     *     an empty list if none is available.
      */
     public List<String> getLanguage() {
         return language;
@@ -260,7 +286,8 @@ public class Offer {
     /**
      * Gets the {@code Offer} characteristics.
      *
-     * @return {@code Map<String, String>} containing the {@link Offer} characteristics.
+     * @return immutable {@code Map<String, String>} containing the {@link Offer}
+     *     characteristics, or an empty map if none are available.
      */
     public Map<String, String> getCharacteristics() {
         return characteristics;
@@ -269,10 +296,11 @@ public class Offer {
     /**
      * Gets the containing {@code OptimizeProposition} for this {@code Offer}.
      *
-     * @return {@link OptimizeProposition} instance.
+     * @return {@link OptimizeProposition} instance, or null if the offer is not contained in a
+     *     proposition.
      */
     public OptimizeProposition getProposition() {
-        return propositionReference.get();
+        return propositionReference;
     }
 
     /**
@@ -282,7 +310,7 @@ public class Offer {
      * @see Offer#trackWithData(Map)
      */
     public void displayed() {
-        trackWithData(generateDisplayInteractionXdm());
+        trackWithData(getDisplayInteractionXdm());
     }
 
     /**
@@ -292,7 +320,7 @@ public class Offer {
      * @see Offer#trackWithData(Map)
      */
     public void tapped() {
-        trackWithData(generateTapInteractionXdm());
+        trackWithData(getTapInteractionXdm());
     }
 
     /**
@@ -305,12 +333,31 @@ public class Offer {
      * <p>Note: The Edge sendEvent API can be used to dispatch this data in an Experience Event
      * along with any additional XDM, free-form data, and override dataset identifier.
      *
+     * <p>The returned map is a copy, which can be modified by the caller.
+     *
      * @return {@code Map<String, Object>} containing the XDM data for the proposition interaction.
      * @see Offer#generateInteractionXdm(String)
      */
     public Map<String, Object> generateDisplayInteractionXdm() {
-        return generateInteractionXdm(
-                OptimizeConstants.JsonValues.EE_EVENT_TYPE_PROPOSITION_DISPLAY);
+        return OptimizeUtils.mutableCopy(getDisplayInteractionXdm());
+    }
+
+    /**
+     * Returns the display interaction XDM data for this offer, generated once and shared by the
+     * later calls.
+     *
+     * @return immutable {@code Map<String, Object>} containing the XDM data for the proposition
+     *     interaction, or null if the offer is not contained in a proposition.
+     */
+    Map<String, Object> getDisplayInteractionXdm() {
+        Map<String, Object> xdm = displayInteractionXdm;
+        if (xdm == null) {
+            xdm =
+                    generateInteractionXdm(
+                            OptimizeConstants.JsonValues.EE_EVENT_TYPE_PROPOSITION_DISPLAY);
+            displayInteractionXdm = xdm;
+        }
+        return xdm;
     }
 
     /**
@@ -323,12 +370,31 @@ public class Offer {
      * <p>Note: The Edge sendEvent API can be used to dispatch this data in an Experience Event
      * along with any additional XDM, free-form data, and override dataset identifier.
      *
+     * <p>The returned map is a copy, which can be modified by the caller.
+     *
      * @return {@code Map<String, Object>} containing the XDM data for the proposition interaction.
      * @see Offer#generateInteractionXdm(String)
      */
     public Map<String, Object> generateTapInteractionXdm() {
-        return generateInteractionXdm(
-                OptimizeConstants.JsonValues.EE_EVENT_TYPE_PROPOSITION_INTERACT);
+        return OptimizeUtils.mutableCopy(getTapInteractionXdm());
+    }
+
+    /**
+     * Returns the tap interaction XDM data for this offer, generated once and shared by the later
+     * calls.
+     *
+     * @return immutable {@code Map<String, Object>} containing the XDM data for the proposition
+     *     interaction, or null if the offer is not contained in a proposition.
+     */
+    Map<String, Object> getTapInteractionXdm() {
+        Map<String, Object> xdm = tapInteractionXdm;
+        if (xdm == null) {
+            xdm =
+                    generateInteractionXdm(
+                            OptimizeConstants.JsonValues.EE_EVENT_TYPE_PROPOSITION_INTERACT);
+            tapInteractionXdm = xdm;
+        }
+        return xdm;
     }
 
     /**
@@ -336,54 +402,20 @@ public class Offer {
      * OptimizeProposition Interactions} field group from this {@code OptimizeProposition} offer and
      * given {@code experienceEventType}.
      *
-     * <p>The method returns null if the proposition reference within the offer is released and no
-     * longer valid.
+     * <p>The method returns null if the offer is not contained in a proposition.
      *
      * @param experienceEventType {@link String} containing the event type for the Experience Event
-     * @return {@code Map<String, Object>} containing the XDM data for the proposition interaction.
+     * @return immutable {@code Map<String, Object>} containing the XDM data for the proposition
+     *     interaction.
      */
     private Map<String, Object> generateInteractionXdm(final String experienceEventType) {
-        if (propositionReference == null || propositionReference.get() == null) {
+        final OptimizeProposition optimizeProposition = getProposition();
+        if (optimizeProposition == null) {
             return null;
         }
 
-        OptimizeProposition optimizeProposition = propositionReference.get();
-        final Map<String, Object> propositionsData = new HashMap<>();
-        propositionsData.put(
-                OptimizeConstants.JsonKeys.DECISIONING_PROPOSITIONS_ID,
-                optimizeProposition.getId());
-        propositionsData.put(
-                OptimizeConstants.JsonKeys.DECISIONING_PROPOSITIONS_SCOPE,
-                optimizeProposition.getScope());
-        propositionsData.put(
-                OptimizeConstants.JsonKeys.DECISIONING_PROPOSITIONS_SCOPEDETAILS,
-                optimizeProposition.getScopeDetails());
-
-        final Map<String, Object> propositionItem = new HashMap<>();
-        propositionItem.put(OptimizeConstants.JsonKeys.DECISIONING_PROPOSITIONS_ITEMS_ID, id);
-
-        final List<Map<String, Object>> propositionItemsList = new ArrayList<>();
-        propositionItemsList.add(propositionItem);
-
-        // Add list containing proposition item ids.
-        propositionsData.put(
-                OptimizeConstants.JsonKeys.DECISIONING_PROPOSITIONS_ITEMS, propositionItemsList);
-
-        final List<Map<String, Object>> decisioningPropositions = new ArrayList<>();
-        decisioningPropositions.add(propositionsData);
-
-        final Map<String, Object> experienceDecisioning = new HashMap<>();
-        experienceDecisioning.put(
-                OptimizeConstants.JsonKeys.DECISIONING_PROPOSITIONS, decisioningPropositions);
-
-        final Map<String, Object> experience = new HashMap<>();
-        experience.put(OptimizeConstants.JsonKeys.EXPERIENCE_DECISIONING, experienceDecisioning);
-
-        final Map<String, Object> xdm = new HashMap<>();
-        xdm.put(OptimizeConstants.JsonKeys.EXPERIENCE, experience);
-        xdm.put(OptimizeConstants.JsonKeys.EXPERIENCE_EVENT_TYPE, experienceEventType);
-
-        return xdm;
+        return optimizeProposition.generateInteractionXdm(
+                experienceEventType, Collections.singletonList(this));
     }
 
     /**
@@ -396,7 +428,7 @@ public class Offer {
      * @param xdm {@code Map<String, Object>} containing the XDM data for the proposition
      *     interactions.
      */
-    private void trackWithData(final Map<String, Object> xdm) {
+    static void trackWithData(final Map<String, Object> xdm) {
         if (OptimizeUtils.isNullOrEmpty(xdm)) {
             Log.debug(
                     OptimizeConstants.LOG_TAG,
@@ -451,13 +483,13 @@ public class Offer {
             final String schema =
                     DataReader.getString(data, OptimizeConstants.JsonKeys.PAYLOAD_ITEM_SCHEMA);
 
+            // Nested maps and lists are read without copying, event data is immutable. The Builder
+            // keeps compact copies with interned strings of the data retained in the cache.
             final Map<String, Object> meta =
-                    DataReader.getTypedMap(
-                            Object.class, data, OptimizeConstants.JsonKeys.PAYLOAD_ITEM_META);
+                    OptimizeUtils.getMap(data, OptimizeConstants.JsonKeys.PAYLOAD_ITEM_META);
 
             final Map<String, Object> offerData =
-                    DataReader.getTypedMap(
-                            Object.class, data, OptimizeConstants.JsonKeys.PAYLOAD_ITEM_DATA);
+                    OptimizeUtils.getMap(data, OptimizeConstants.JsonKeys.PAYLOAD_ITEM_DATA);
 
             if (!OptimizeUtils.isNullOrEmpty(offerData)) {
                 final String nestedId =
@@ -483,10 +515,10 @@ public class Offer {
                                                 offerData,
                                                 OptimizeConstants.JsonKeys.PAYLOAD_ITEM_DATA_TYPE));
                 final List<String> language =
-                        DataReader.getStringList(
+                        OptimizeUtils.getStringList(
                                 offerData, OptimizeConstants.JsonKeys.PAYLOAD_ITEM_DATA_LANGUAGE);
                 final Map<String, String> characteristics =
-                        DataReader.getStringMap(
+                        OptimizeUtils.getStringMap(
                                 offerData,
                                 OptimizeConstants.JsonKeys.PAYLOAD_ITEM_DATA_CHARACTERISTICS);
 
@@ -581,9 +613,10 @@ public class Offer {
         if (o == null || getClass() != o.getClass()) return false;
 
         Offer that = (Offer) o;
+        if (hashCode != that.hashCode) return false;
         if (id != null ? !id.equals(that.id) : that.id != null) return false;
-        if (score != that.score) return false;
         if (etag != null ? !etag.equals(that.etag) : that.etag != null) return false;
+        if (score != that.score) return false;
         if (schema != null ? !schema.equals(that.schema) : that.schema != null) return false;
         if (meta != null ? !meta.equals(that.meta) : that.meta != null) return false;
         if (type != that.type) return false;
@@ -597,7 +630,7 @@ public class Offer {
 
     @Override
     public int hashCode() {
-        return Objects.hash(id, etag, score, schema, type, language, content, characteristics);
+        return hashCode;
     }
 
     private static String getContentFromOfferData(final Map<String, Object> offerData) {
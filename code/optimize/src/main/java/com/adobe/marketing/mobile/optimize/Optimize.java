@@ -23,6 +23,7 @@ import com.adobe.marketing.mobile.services.Log;
 import com.adobe.marketing.mobile.util.DataReader;
 import com.adobe.marketing.mobile.util.DataReaderException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -236,6 +237,28 @@ public class Optimize {
     public static void getPropositions(
             @NonNull final List<DecisionScope> decisionScopes,
             @NonNull final AdobeCallback<Map<DecisionScope, OptimizeProposition>> callback) {
+        getPropositions(decisionScopes, false, callback);
+    }
+
+    /**
+     * This API retrieves the previously fetched propositions, for the provided decision scopes,
+     * from the in-memory extension propositions cache.
+     *
+     * <p>Interactive requests, e.g. for rendering the content the user is waiting for, are served
+     * ahead of the other get propositions requests ready to be served. Like any get propositions
+     * request, they still wait for the update propositions requests sent before them for the same
+     * scopes.
+     *
+     * @param decisionScopes {@code List<DecisionScope>} containing scopes for which offers need to
+     *     be requested.
+     * @param interactive {@code boolean} indicating whether the request is interactive.
+     * @param callback {@code AdobeCallbackWithError<Map<DecisionScope, OptimizeProposition>>} which
+     *     will be invoked when decision propositions are retrieved from the local cache.
+     */
+    public static void getPropositions(
+            @NonNull final List<DecisionScope> decisionScopes,
+            final boolean interactive,
+            @NonNull final AdobeCallback<Map<DecisionScope, OptimizeProposition>> callback) {
         if (OptimizeUtils.isNullOrEmpty(decisionScopes)) {
             Log.warning(
                     OptimizeConstants.LOG_TAG,
@@ -273,6 +296,11 @@ public class Optimize {
                 OptimizeConstants.EventDataKeys.REQUEST_TYPE,
                 OptimizeConstants.EventDataValues.REQUEST_TYPE_GET);
         eventData.put(OptimizeConstants.EventDataKeys.DECISION_SCOPES, flattenedDecisionScopes);
+        if (interactive) {
+            eventData.put(
+                    OptimizeConstants.EventDataKeys.REQUEST_PRIORITY,
+                    OptimizeConstants.EventDataValues.REQUEST_PRIORITY_INTERACTIVE);
+        }
 
         final Event event =
                 new Event.Builder(
@@ -342,6 +370,104 @@ public class Optimize {
                 });
     }
 
+    /**
+     * This API synchronously returns the previously fetched propositions, for the provided decision
+     * scopes, from the in-memory extension propositions cache.
+     *
+     * <p>Unlike {@link Optimize#getPropositions(List, AdobeCallback)}, it doesn't wait for the
+     * update propositions requests in progress and reads the propositions cache snapshot published
+     * last by the Optimize extension, so the returned propositions may be stale. It never blocks
+     * and can be called from the main thread, e.g. to render the first frame of a screen.
+     *
+     * @param decisionScopes {@code List<DecisionScope>} containing scopes for which propositions
+     *     need to be read.
+     * @return {@code Map<DecisionScope, OptimizeProposition>} containing the cached propositions,
+     *     decision scopes which are not cached are not contained in the map.
+     */
+    @NonNull public static Map<DecisionScope, OptimizeProposition> peekCachedPropositions(
+            @NonNull final List<DecisionScope> decisionScopes) {
+        if (OptimizeUtils.isNullOrEmpty(decisionScopes)) {
+            Log.warning(
+                    OptimizeConstants.LOG_TAG,
+                    SELF_TAG,
+                    "Cannot peek cached propositions, provided list of decision scopes is null or"
+                            + " empty.");
+            return Collections.emptyMap();
+        }
+
+        return PropositionsCacheView.getInstance().peek(decisionScopes);
+    }
+
+    /**
+     * This API synchronously returns the previously fetched offer with the provided identifier,
+     * from the in-memory extension propositions cache.
+     *
+     * <p>Like {@link Optimize#peekCachedPropositions(List)}, it doesn't go through the event hub
+     * and doesn't wait for the update propositions requests in progress.
+     *
+     * @param offerId {@code String} containing the offer identifier.
+     * @return {@link Offer} most recently cached with the identifier, or null if none.
+     */
+    @Nullable public static Offer peekCachedOffer(@NonNull final String offerId) {
+        if (OptimizeUtils.isNullOrEmpty(offerId)) {
+            Log.warning(
+                    OptimizeConstants.LOG_TAG,
+                    SELF_TAG,
+                    "Cannot peek cached offer, provided offer id is null or empty.");
+            return null;
+        }
+
+        return PropositionsCacheView.getInstance().getOffer(offerId);
+    }
+
+    /**
+     * This API synchronously returns the previously fetched proposition with the provided
+     * identifier, from the in-memory extension propositions cache.
+     *
+     * <p>Like {@link Optimize#peekCachedPropositions(List)}, it doesn't go through the event hub
+     * and doesn't wait for the update propositions requests in progress.
+     *
+     * @param propositionId {@code String} containing the proposition identifier.
+     * @return {@link OptimizeProposition} most recently cached with the identifier, or null if
+     *     none.
+     */
+    @Nullable public static OptimizeProposition peekCachedProposition(
+            @NonNull final String propositionId) {
+        if (OptimizeUtils.isNullOrEmpty(propositionId)) {
+            Log.warning(
+                    OptimizeConstants.LOG_TAG,
+                    SELF_TAG,
+                    "Cannot peek cached proposition, provided proposition id is null or empty.");
+            return null;
+        }
+
+        return PropositionsCacheView.getInstance().getProposition(propositionId);
+    }
+
+    /**
+     * This API synchronously returns the decision scopes for which propositions of the provided
+     * activity are cached in the in-memory extension propositions cache.
+     *
+     * <p>The activity identifier is read from the {@code activity} in the proposition {@code
+     * scopeDetails}. Like {@link Optimize#peekCachedPropositions(List)}, it doesn't go through the
+     * event hub and doesn't wait for the update propositions requests in progress.
+     *
+     * @param activityId {@code String} containing the activity identifier.
+     * @return {@code List<DecisionScope>} containing the decision scopes, or an empty list if none.
+     */
+    @NonNull public static List<DecisionScope> peekCachedScopesForActivity(
+            @NonNull final String activityId) {
+        if (OptimizeUtils.isNullOrEmpty(activityId)) {
+            Log.warning(
+                    OptimizeConstants.LOG_TAG,
+                    SELF_TAG,
+                    "Cannot peek cached decision scopes, provided activity id is null or empty.");
+            return Collections.emptyList();
+        }
+
+        return PropositionsCacheView.getInstance().getScopesForActivity(activityId);
+    }
+
     /**
      * This API registers a permanent callback which is invoked whenever the Edge extension
      * dispatches a response Event received from the Experience Edge Network upon a personalization
@@ -403,6 +529,137 @@ public class Optimize {
                 });
     }
 
+    /**
+     * This API subscribes to the propositions cached in the extension, for the provided decision
+     * scopes.
+     *
+     * <p>The callback is invoked right away with the cached propositions for the provided scopes,
+     * and then whenever the cached propositions for any of them change. Changes made while a
+     * callback invocation is pending are conflated, so the callback only receives the latest
+     * propositions. Callbacks are invoked on a background thread.
+     *
+     * @param decisionScopes {@code List<DecisionScope>} containing scopes to be subscribed to.
+     * @param callback {@code AdobeCallback<Map<DecisionScope, OptimizeProposition>>} which will be
+     *     invoked with the cached propositions for the provided scopes.
+     * @return {@link PropositionsSubscription} which can be cancelled to stop the callback
+     *     invocations, or null if the provided decision scopes are invalid.
+     */
+    @Nullable public static PropositionsSubscription subscribePropositions(
+            @NonNull final List<DecisionScope> decisionScopes,
+            @NonNull final AdobeCallback<Map<DecisionScope, OptimizeProposition>> callback) {
+        if (OptimizeUtils.isNullOrEmpty(decisionScopes)) {
+            Log.warning(
+                    OptimizeConstants.LOG_TAG,
+                    SELF_TAG,
+                    "Cannot subscribe to propositions, provided list of decision scopes is null or"
+                            + " empty.");
+            failWithError(callback, AdobeError.UNEXPECTED_ERROR);
+            return null;
+        }
+
+        final List<DecisionScope> validScopes = new ArrayList<>();
+        for (final DecisionScope scope : decisionScopes) {
+            if (!scope.isValid()) {
+                continue;
+            }
+            validScopes.add(scope);
+        }
+
+        if (validScopes.size() == 0) {
+            Log.warning(
+                    OptimizeConstants.LOG_TAG,
+                    SELF_TAG,
+                    "Cannot subscribe to propositions, provided list of decision scopes has no"
+                            + " valid scope.");
+            failWithError(callback, AdobeError.UNEXPECTED_ERROR);
+            return null;
+        }
+
+        return PropositionsSubscriptionRegistry.getInstance().subscribe(validScopes, callback);
+    }
+
+    /**
+     * This API dispatches an event for the Edge network extension to send a single Experience Event
+     * to the Edge network with the display interaction data for the provided offers.
+     *
+     * <p>The offers are grouped by proposition, so the data of each proposition, including its
+     * scope details, is sent once for all its displayed offers. Offers which are not contained in a
+     * proposition are skipped.
+     *
+     * @param offers {@code List<Offer>} containing the displayed offers.
+     * @see Optimize#generateDisplayInteractionXdm(List)
+     */
+    public static void displayed(@NonNull final List<Offer> offers) {
+        Offer.trackWithData(generateDisplayInteractionXdm(offers));
+    }
+
+    /**
+     * This API generates a map containing XDM formatted data for {@code Experience Event -
+     * OptimizeProposition Interactions} field group for the provided displayed offers.
+     *
+     * <p>The returned XDM data contains the {@code eventType} for the Experience Event with value
+     * {@code decisioning.propositionDisplay}, and the data of each proposition once, with the
+     * identifiers of all its provided offers.
+     *
+     * <p>Note: The Edge sendEvent API can be used to dispatch this data in an Experience Event
+     * along with any additional XDM, free-form data, and override dataset identifier.
+     *
+     * @param offers {@code List<Offer>} containing the displayed offers.
+     * @return immutable {@code Map<String, Object>} containing the XDM data for the proposition
+     *     interactions, or null if none of the offers is contained in a proposition.
+     */
+    @Nullable public static Map<String, Object> generateDisplayInteractionXdm(
+            @NonNull final List<Offer> offers) {
+        if (OptimizeUtils.isNullOrEmpty(offers)) {
+            Log.warning(
+                    OptimizeConstants.LOG_TAG,
+                    SELF_TAG,
+                    "Cannot generate the display interaction XDM, provided list of offers is null"
+                            + " or empty.");
+            return null;
+        }
+
+        return OptimizeProposition.generateBatchInteractionXdm(
+                OptimizeConstants.JsonValues.EE_EVENT_TYPE_PROPOSITION_DISPLAY, offers);
+    }
+
+    /**
+     * This API dispatches an event for the Edge network extension to send an Experience Event to
+     * the Edge network with the display interaction data for the provided offers of the cached
+     * proposition with the provided identifier.
+     *
+     * <p>The proposition and its offers are resolved from the propositions cache in the extension,
+     * so the {@link Offer} objects don't need to be kept after they are rendered. No event is sent
+     * if the proposition is not cached.
+     *
+     * @param propositionId {@link String} containing the proposition identifier.
+     * @param offerIds {@code String} array containing the identifiers of the displayed offers.
+     */
+    public static void trackDisplayed(
+            @NonNull final String propositionId, @NonNull final String... offerIds) {
+        trackById(
+                propositionId,
+                offerIds,
+                OptimizeConstants.EventDataValues.INTERACTION_TYPE_DISPLAY);
+    }
+
+    /**
+     * This API dispatches an event for the Edge network extension to send an Experience Event to
+     * the Edge network with the tap interaction data for the provided offers of the cached
+     * proposition with the provided identifier.
+     *
+     * <p>The proposition and its offers are resolved from the propositions cache in the extension,
+     * so the {@link Offer} objects don't need to be kept after they are rendered. No event is sent
+     * if the proposition is not cached.
+     *
+     * @param propositionId {@link String} containing the proposition identifier.
+     * @param offerIds {@code String} array containing the identifiers of the tapped offers.
+     */
+    public static void trackTapped(
+            @NonNull final String propositionId, @NonNull final String... offerIds) {
+        trackById(propositionId, offerIds, OptimizeConstants.EventDataValues.INTERACTION_TYPE_TAP);
+    }
+
     /** Clears the client-side in-memory propositions cache. */
     public static void clearCachedPropositions() {
         final Event event =
@@ -414,6 +671,62 @@ public class Optimize {
         MobileCore.dispatchEvent(event);
     }
 
+    /**
+     * Dispatches an event to track the interactions with the given {@code offerIds} of the cached
+     * proposition with the given {@code propositionId}.
+     *
+     * @param propositionId {@link String} containing the proposition identifier.
+     * @param offerIds {@code String} array containing the offer identifiers.
+     * @param interactionType {@code String} containing the interaction type.
+     */
+    private static void trackById(
+            final String propositionId, final String[] offerIds, final String interactionType) {
+        if (OptimizeUtils.isNullOrEmpty(propositionId)) {
+            Log.warning(
+                    OptimizeConstants.LOG_TAG,
+                    SELF_TAG,
+                    "Cannot track proposition interactions, provided proposition ID is null or"
+                            + " empty.");
+            return;
+        }
+
+        final List<String> validOfferIds = new ArrayList<>();
+        if (offerIds != null) {
+            for (final String offerId : offerIds) {
+                if (!OptimizeUtils.isNullOrEmpty(offerId)) {
+                    validOfferIds.add(offerId);
+                }
+            }
+        }
+
+        if (validOfferIds.isEmpty()) {
+            Log.warning(
+                    OptimizeConstants.LOG_TAG,
+                    SELF_TAG,
+                    "Cannot track proposition interactions, provided list of offer IDs has no"
+                            + " valid offer ID.");
+            return;
+        }
+
+        final Map<String, Object> eventData = new HashMap<>();
+        eventData.put(
+                OptimizeConstants.EventDataKeys.REQUEST_TYPE,
+                OptimizeConstants.EventDataValues.REQUEST_TYPE_TRACK_BY_ID);
+        eventData.put(OptimizeConstants.EventDataKeys.PROPOSITION_ID, propositionId);
+        eventData.put(OptimizeConstants.EventDataKeys.OFFER_IDS, validOfferIds);
+        eventData.put(OptimizeConstants.EventDataKeys.INTERACTION_TYPE, interactionType);
+
+        final Event event =
+                new Event.Builder(
+                                OptimizeConstants.EventNames.TRACK_PROPOSITIONS_REQUEST,
+                                OptimizeConstants.EventType.OPTIMIZE,
+                                OptimizeConstants.EventSource.REQUEST_CONTENT)
+                        .setEventData(eventData)
+                        .build();
+
+        MobileCore.dispatchEvent(event);
+    }
+
     /**
      * Invokes fail method with the provided {@code error}, if the callback is an instance of {@code
      * AdobeCallbackWithError}.
@@ -0,0 +1,202 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.optimize;
+
+import com.adobe.marketing.mobile.util.DataReader;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * {@code OptimizeConfiguration} class contains the Optimize settings read from the {@code
+ * Configuration} shared state.
+ *
+ * <p>The settings are read once when the instance is created, so the extension parses a given
+ * {@code Configuration} shared state only once and keeps the instance until the shared state
+ * changes.
+ */
+final class OptimizeConfiguration {
+    // Configuration used when the Configuration shared state is not available.
+    static final OptimizeConfiguration DEFAULT =
+            new OptimizeConfiguration(Collections.<String, Object>emptyMap());
+
+    private final Map<String, Object> configData;
+    private final String overrideDatasetId;
+    private final boolean prefetchEnabled;
+    private final long refreshInterval;
+    private final int refreshScopeCount;
+    private final boolean persistentCacheEnabled;
+    private final boolean sharedCacheEnabled;
+    private final int maxScopesPerRequest;
+    private final boolean impressionDedupEnabled;
+    private final long impressionDedupWindow;
+    private final EdgeRequestTemplate edgeRequestTemplate;
+
+    /**
+     * Constructor creates an {@code OptimizeConfiguration} from the given {@code configData}.
+     *
+     * @param configData {@code Map<String, Object>} containing configuration data.
+     */
+    OptimizeConfiguration(final Map<String, Object> configData) {
+        this.configData = configData;
+
+        final String datasetId =
+                DataReader.optString(
+                        configData,
+                        OptimizeConstants.Configuration.OPTIMIZE_OVERRIDE_DATASET_ID,
+                        null);
+        this.overrideDatasetId = OptimizeUtils.isNullOrEmpty(datasetId) ? null : datasetId;
+        this.prefetchEnabled =
+                DataReader.optBoolean(
+                        configData,
+                        OptimizeConstants.Configuration.OPTIMIZE_PREFETCH_ENABLED,
+                        false);
+        this.refreshInterval =
+                DataReader.optLong(
+                        configData, OptimizeConstants.Configuration.OPTIMIZE_REFRESH_INTERVAL, 0L);
+        this.refreshScopeCount =
+                DataReader.optInt(
+                        configData,
+                        OptimizeConstants.Configuration.OPTIMIZE_REFRESH_SCOPE_COUNT,
+                        PropositionsRefreshScheduler.DEFAULT_REFRESH_SCOPE_COUNT);
+        this.persistentCacheEnabled =
+                DataReader.optBoolean(
+                        configData,
+                        OptimizeConstants.Configuration.OPTIMIZE_PERSISTENT_CACHE_ENABLED,
+                        false);
+        this.sharedCacheEnabled =
+                DataReader.optBoolean(
+                        configData,
+                        OptimizeConstants.Configuration.OPTIMIZE_SHARED_CACHE_ENABLED,
+                        false);
+        this.maxScopesPerRequest =
+                DataReader.optInt(
+                        configData,
+                        OptimizeConstants.Configuration.OPTIMIZE_MAX_SCOPES_PER_REQUEST,
+                        0);
+        this.impressionDedupEnabled =
+                DataReader.optBoolean(
+                        configData,
+                        OptimizeConstants.Configuration.OPTIMIZE_IMPRESSION_DEDUP_ENABLED,
+                        false);
+        this.impressionDedupWindow =
+                DataReader.optLong(
+                        configData,
+                        OptimizeConstants.Configuration.OPTIMIZE_IMPRESSION_DEDUP_WINDOW,
+                        0L);
+        this.edgeRequestTemplate = new EdgeRequestTemplate(overrideDatasetId);
+    }
+
+    /**
+     * Checks whether this configuration was read from the given {@code configData}.
+     *
+     * <p>The configuration data is compared by reference, as the same map is returned for the
+     * {@code Configuration} shared state until it changes.
+     *
+     * @param configData {@code Map<String, Object>} containing configuration data.
+     * @return {@code boolean} indicating whether this configuration was read from the given data.
+     */
+    boolean isReadFrom(final Map<String, Object> configData) {
+        return this.configData == configData;
+    }
+
+    /**
+     * Returns the override {@code datasetId} for the Experience Events sent to the Edge network.
+     *
+     * @return {@link String} containing the dataset ID, or null if it is not configured.
+     */
+    String getOverrideDatasetId() {
+        return overrideDatasetId;
+    }
+
+    /**
+     * Returns whether predictive prefetching is enabled.
+     *
+     * @return {@code boolean} indicating whether prefetching is enabled.
+     */
+    boolean isPrefetchEnabled() {
+        return prefetchEnabled;
+    }
+
+    /**
+     * Returns the periodic propositions refresh interval.
+     *
+     * @return {@code long} containing the refresh interval in seconds, or 0 if it is disabled.
+     */
+    long getRefreshInterval() {
+        return refreshInterval;
+    }
+
+    /**
+     * Returns the maximum number of scopes refreshed on each periodic refresh.
+     *
+     * @return {@code int} containing the refreshed scopes count.
+     */
+    int getRefreshScopeCount() {
+        return refreshScopeCount;
+    }
+
+    /**
+     * Returns whether the persistent propositions cache is enabled.
+     *
+     * @return {@code boolean} indicating whether persistent cache is enabled.
+     */
+    boolean isPersistentCacheEnabled() {
+        return persistentCacheEnabled;
+    }
+
+    /**
+     * Returns whether the propositions cache sharing across the app processes is enabled.
+     *
+     * @return {@code boolean} indicating whether shared cache is enabled.
+     */
+    boolean isSharedCacheEnabled() {
+        return sharedCacheEnabled;
+    }
+
+    /**
+     * Returns the maximum number of scopes sent in a single Edge personalization query request.
+     *
+     * @return {@code int} containing the maximum number of scopes, or 0 if it is not limited.
+     */
+    int getMaxScopesPerRequest() {
+        return maxScopesPerRequest;
+    }
+
+    /**
+     * Returns whether the repeated display interactions for the same proposition offer are
+     * suppressed.
+     *
+     * @return {@code boolean} indicating whether impression deduplication is enabled.
+     */
+    boolean isImpressionDedupEnabled() {
+        return impressionDedupEnabled;
+    }
+
+    /**
+     * Returns the window within which the repeated display interactions are suppressed.
+     *
+     * @return {@code long} containing the deduplication window in seconds, or 0 if the display
+     *     interactions are deduplicated for the session.
+     */
+    long getImpressionDedupWindow() {
+        return impressionDedupWindow;
+    }
+
+    /**
+     * Returns the template used to create the Edge personalization query requests.
+     *
+     * @return {@link EdgeRequestTemplate} for this configuration.
+     */
+    EdgeRequestTemplate getEdgeRequestTemplate() {
+        return edgeRequestTemplate;
+    }
+}
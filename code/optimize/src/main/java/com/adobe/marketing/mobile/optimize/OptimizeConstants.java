@@ -19,6 +19,8 @@ class OptimizeConstants {
     static final long DEFAULT_RESPONSE_CALLBACK_TIMEOUT = 500L;
     static final long GET_RESPONSE_CALLBACK_TIMEOUT = 10000L;
     static final long EDGE_CONTENT_COMPLETE_RESPONSE_TIMEOUT = 10000L;
+    static final int UPDATE_REQUEST_ERRORS_MAX_SIZE = 100;
+    static final long UPDATE_REQUEST_ERRORS_TIME_TO_LIVE = 60000L;
 
     static final String ACTIVITY_ID = "activityId";
     static final String XDM_ACTIVITY_ID = "xdm:activityId";
@@ -28,6 +30,10 @@ class OptimizeConstants {
     static final String XDM_ITEM_COUNT = "xdm:itemCount";
     static final String XDM_NAME = "xdm:name";
 
+    static final String DATA_STORE_NAME = "com.adobe.optimize";
+    static final String PROPOSITIONS_SNAPSHOT_FILE_NAME =
+            "com.adobe.optimize.propositions.snapshot";
+
     static final String ERROR_UNKNOWN = "unknown";
     static final Integer UNKNOWN_STATUS = 0;
 
@@ -44,6 +50,10 @@ class OptimizeConstants {
                 "Edge Optimize Proposition Interaction Request";
         static final String OPTIMIZE_RESPONSE = "Optimize Response";
         static final String OPTIMIZE_UPDATE_COMPLETE = "Optimize Update Propositions Complete";
+        static final String PREFETCH_PROPOSITIONS_REQUEST =
+                "Optimize Prefetch Propositions Request";
+        static final String REFRESH_PROPOSITIONS_REQUEST = "Optimize Refresh Propositions Request";
+        static final String CIRCUIT_BREAKER_STATE_CHANGE = "Optimize Circuit Breaker State Change";
 
         private EventNames() {}
     }
@@ -52,6 +62,8 @@ class OptimizeConstants {
         static final String OPTIMIZE = "com.adobe.eventType.optimize";
         static final String EDGE = "com.adobe.eventType.edge";
         static final String GENERIC_IDENTITY = "com.adobe.eventType.generic.identity";
+        static final String GENERIC_LIFECYCLE = "com.adobe.eventType.generic.lifecycle";
+        static final String HUB = "com.adobe.eventType.hub";
 
         private EventType() {}
     }
@@ -64,6 +76,7 @@ class OptimizeConstants {
         static final String NOTIFICATION = "com.adobe.eventSource.notification";
         static final String EDGE_PERSONALIZATION_DECISIONS = "personalization:decisions";
         static final String CONTENT_COMPLETE = "com.adobe.eventSource.contentComplete";
+        static final String SHARED_STATE = "com.adobe.eventSource.sharedState";
 
         private EventSource() {}
     }
@@ -79,6 +92,13 @@ class OptimizeConstants {
         static final String PROPOSITION_INTERACTIONS = "propositioninteractions";
         static final String REQUEST_EVENT_ID = "requestEventId";
         static final String COMPLETED_UPDATE_EVENT_ID = "completedUpdateRequestForEventId";
+        static final String LIFECYCLE_ACTION = "action";
+        static final String REQUEST_PRIORITY = "requestpriority";
+        static final String CIRCUIT_BREAKER_STATE = "circuitbreakerstate";
+        static final String PROPOSITION_ID = "propositionid";
+        static final String OFFER_IDS = "offerids";
+        static final String INTERACTION_TYPE = "interactiontype";
+        static final String STATE_OWNER = "stateowner";
 
         private EventDataKeys() {}
     }
@@ -87,6 +107,14 @@ class OptimizeConstants {
         static final String REQUEST_TYPE_UPDATE = "updatepropositions";
         static final String REQUEST_TYPE_GET = "getpropositions";
         static final String REQUEST_TYPE_TRACK = "trackpropositions";
+        static final String REQUEST_TYPE_TRACK_BY_ID = "trackpropositionsbyid";
+        static final String INTERACTION_TYPE_DISPLAY = "display";
+        static final String INTERACTION_TYPE_TAP = "tap";
+        static final String LIFECYCLE_START = "start";
+        static final String LIFECYCLE_PAUSE = "pause";
+        static final String REQUEST_PRIORITY_INTERACTIVE = "interactive";
+        static final String REQUEST_PRIORITY_NORMAL = "normal";
+        static final String REQUEST_PRIORITY_BACKGROUND = "background";
 
         private EventDataValues() {}
     }
@@ -103,6 +131,8 @@ class OptimizeConstants {
             static final String STATUS = "status";
             static final String TITLE = "title";
             static final String REPORT = "report";
+            // Retry delay in seconds, optionally returned in the error report.
+            static final String RETRY_AFTER = "retryAfter";
 
             private ErrorKeys() {}
         }
@@ -113,10 +143,24 @@ class OptimizeConstants {
     static final class Configuration {
         static final String EXTENSION_NAME = "com.adobe.module.configuration";
         static final String OPTIMIZE_OVERRIDE_DATASET_ID = "optimize.datasetId";
+        static final String OPTIMIZE_PREFETCH_ENABLED = "optimize.prefetchEnabled";
+        static final String OPTIMIZE_REFRESH_INTERVAL = "optimize.refreshInterval";
+        static final String OPTIMIZE_REFRESH_SCOPE_COUNT = "optimize.refreshScopeCount";
+        static final String OPTIMIZE_PERSISTENT_CACHE_ENABLED = "optimize.persistentCacheEnabled";
+        static final String OPTIMIZE_SHARED_CACHE_ENABLED = "optimize.sharedCacheEnabled";
+        static final String OPTIMIZE_MAX_SCOPES_PER_REQUEST = "optimize.maxScopesPerRequest";
+        static final String OPTIMIZE_IMPRESSION_DEDUP_ENABLED = "optimize.impressionDedupEnabled";
+        static final String OPTIMIZE_IMPRESSION_DEDUP_WINDOW = "optimize.impressionDedupWindow";
 
         private Configuration() {}
     }
 
+    static final class DataStoreKeys {
+        static final String SCOPE_TRANSITIONS = "scopetransitions";
+
+        private DataStoreKeys() {}
+    }
+
     static final class JsonKeys {
         static final String PAYLOAD_ID = "id";
         static final String PAYLOAD_SCOPE = "scope";
@@ -202,6 +246,16 @@ class OptimizeConstants {
             private Unexpected() {}
         }
 
+        static final class CircuitOpen {
+            static final Integer STATUS = 503;
+            static final String TITLE = "Service Unavailable";
+            static final String DETAIL =
+                    "Update proposition requests are paused after repeated Edge network failures,"
+                            + " cached propositions are returned.";
+
+            private CircuitOpen() {}
+        }
+
         private ErrorData() {}
     }
 
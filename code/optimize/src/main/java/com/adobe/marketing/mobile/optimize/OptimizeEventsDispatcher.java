@@ -0,0 +1,312 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.optimize;
+
+import com.adobe.marketing.mobile.Event;
+import com.adobe.marketing.mobile.services.Log;
+import com.adobe.marketing.mobile.util.SerialWorkDispatcher;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * {@code OptimizeEventsDispatcher} class maintains the processing order of update and get
+ * propositions events using priority lanes.
+ *
+ * <p>Queued update events are processed as soon as they are offered, and are retried on {@link
+ * #resume()} for as long as the {@link SerialWorkDispatcher.WorkHandler} reports them as not
+ * completed. A queued get event is processed only after all the update events queued before it
+ * are completed, except for {@link Priority#BACKGROUND} updates which don't share any scope with
+ * it. Get events ready to be processed are picked by priority, in the order they are queued
+ * within the same priority.
+ *
+ * <p>All the events are processed serially on the dispatcher thread.
+ */
+class OptimizeEventsDispatcher {
+    private static final String SELF_TAG = "OptimizeEventsDispatcher";
+
+    /** Processing priority of the queued events. */
+    enum Priority {
+        INTERACTIVE,
+        NORMAL,
+        BACKGROUND;
+
+        /**
+         * Returns the {@code Priority} for the given {@code priority} value.
+         *
+         * @param priority {@link String} containing the priority value from the event data.
+         * @return {@link Priority} for the given value, or {@link #NORMAL} if the value is null
+         *     or not recognized.
+         */
+        static Priority from(final String priority) {
+            if (OptimizeUtils.isNullOrEmpty(priority)) {
+                return NORMAL;
+            }
+
+            switch (priority.toLowerCase(Locale.ROOT)) {
+                case OptimizeConstants.EventDataValues.REQUEST_PRIORITY_INTERACTIVE:
+                    return INTERACTIVE;
+
+                case OptimizeConstants.EventDataValues.REQUEST_PRIORITY_BACKGROUND:
+                    return BACKGROUND;
+
+                default:
+                    return NORMAL;
+            }
+        }
+    }
+
+    private static final class QueuedEvent {
+        private final Event event;
+        private final Priority priority;
+        private final List<DecisionScope> scopes;
+        private final boolean isUpdate;
+        private boolean blocked;
+
+        private QueuedEvent(
+                final Event event,
+                final Priority priority,
+                final List<DecisionScope> scopes,
+                final boolean isUpdate) {
+            this.event = event;
+            this.priority = priority;
+            this.scopes = scopes;
+            this.isUpdate = isUpdate;
+        }
+    }
+
+    private final String name;
+    private final SerialWorkDispatcher.WorkHandler<Event> workHandler;
+    private final Executor executor;
+    private final Object queueMutex = new Object();
+    private final List<QueuedEvent> queue = new ArrayList<>();
+
+    private boolean started;
+    private boolean processing;
+    // Incremented on every resume so an event isn't blocked by a resume racing its processing.
+    private long resumeCount;
+
+    /**
+     * Constructor creates an {@code OptimizeEventsDispatcher} with the given {@code name} and
+     * {@code workHandler}.
+     *
+     * @param name {@link String} containing the dispatcher name, used for logging.
+     * @param workHandler {@link SerialWorkDispatcher.WorkHandler} used for processing the events.
+     */
+    OptimizeEventsDispatcher(
+            final String name, final SerialWorkDispatcher.WorkHandler<Event> workHandler) {
+        this(name, workHandler, Executors.newSingleThreadExecutor());
+    }
+
+    /**
+     * Constructor creates an {@code OptimizeEventsDispatcher} with the given {@code name}, {@code
+     * workHandler} and {@code executor}.
+     *
+     * @param name {@link String} containing the dispatcher name, used for logging.
+     * @param workHandler {@link SerialWorkDispatcher.WorkHandler} used for processing the events.
+     * @param executor {@link Executor} used for processing the events.
+     */
+    OptimizeEventsDispatcher(
+            final String name,
+            final SerialWorkDispatcher.WorkHandler<Event> workHandler,
+            final Executor executor) {
+        this.name = name;
+        this.workHandler = workHandler;
+        this.executor = executor;
+    }
+
+    /** Starts processing the queued events. */
+    void start() {
+        synchronized (queueMutex) {
+            if (started) {
+                return;
+            }
+            started = true;
+        }
+        scheduleProcessing();
+    }
+
+    /**
+     * Queues the given update {@code event}.
+     *
+     * @param event {@link Event} to be queued.
+     * @param priority {@link Priority} of the update request.
+     * @param scopes {@code List<DecisionScope>} containing the scopes requested by the update.
+     */
+    void offerUpdate(
+            final Event event, final Priority priority, final List<DecisionScope> scopes) {
+        offer(new QueuedEvent(event, priority, scopes, true));
+    }
+
+    /**
+     * Queues the given get {@code event}.
+     *
+     * @param event {@link Event} to be queued.
+     * @param priority {@link Priority} of the get request.
+     * @param scopes {@code List<DecisionScope>} containing the requested scopes, or null if they
+     *     are not known in which case the event waits for all the update events queued before it.
+     */
+    void offerGet(final Event event, final Priority priority, final List<DecisionScope> scopes) {
+        offer(new QueuedEvent(event, priority, scopes, false));
+    }
+
+    /** Resumes processing of the queued events which were not completed on the previous attempt. */
+    void resume() {
+        synchronized (queueMutex) {
+            resumeCount++;
+            for (final QueuedEvent queuedEvent : queue) {
+                queuedEvent.blocked = false;
+            }
+        }
+        scheduleProcessing();
+    }
+
+    /** Stops processing the queued events and releases the dispatcher thread. */
+    void shutdown() {
+        synchronized (queueMutex) {
+            started = false;
+            queue.clear();
+        }
+        if (executor instanceof ExecutorService) {
+            ((ExecutorService) executor).shutdown();
+        }
+    }
+
+    /**
+     * Returns the number of queued events.
+     *
+     * @return {@code int} containing the queue size.
+     */
+    int size() {
+        synchronized (queueMutex) {
+            return queue.size();
+        }
+    }
+
+    private void offer(final QueuedEvent queuedEvent) {
+        synchronized (queueMutex) {
+            queue.add(queuedEvent);
+        }
+        scheduleProcessing();
+    }
+
+    private void scheduleProcessing() {
+        synchronized (queueMutex) {
+            if (!started) {
+                return;
+            }
+        }
+
+        try {
+            executor.execute(this::processQueue);
+        } catch (final Exception e) {
+            Log.warning(
+                    OptimizeConstants.LOG_TAG,
+                    SELF_TAG,
+                    "scheduleProcessing - %s failed to schedule queue processing (%s).",
+                    name,
+                    e.getLocalizedMessage());
+        }
+    }
+
+    private void processQueue() {
+        synchronized (queueMutex) {
+            if (!started || processing) {
+                return;
+            }
+            processing = true;
+        }
+
+        while (true) {
+            final QueuedEvent queuedEvent;
+            final long processingResumeCount;
+            synchronized (queueMutex) {
+                queuedEvent = started ? nextEvent() : null;
+                if (queuedEvent == null) {
+                    processing = false;
+                    return;
+                }
+                processingResumeCount = resumeCount;
+            }
+
+            boolean completed;
+            try {
+                completed = workHandler.doWork(queuedEvent.event);
+            } catch (final Exception e) {
+                Log.warning(
+                        OptimizeConstants.LOG_TAG,
+                        SELF_TAG,
+                        "processQueue - %s failed to process event (%s) due to an exception"
+                                + " (%s)!",
+                        name,
+                        queuedEvent.event.getUniqueIdentifier(),
+                        e.getLocalizedMessage());
+                completed = true;
+            }
+
+            synchronized (queueMutex) {
+                if (completed) {
+                    queue.remove(queuedEvent);
+                } else if (processingResumeCount == resumeCount) {
+                    queuedEvent.blocked = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the next queued event to be processed.
+     *
+     * <p>Unblocked update events are returned first, in queue order. Otherwise, the highest
+     * priority get event which isn't waiting on an update event is returned.
+     *
+     * @return {@link QueuedEvent} to be processed, or null if no queued event is ready.
+     */
+    private QueuedEvent nextEvent() {
+        QueuedEvent nextGetEvent = null;
+        for (int i = 0; i < queue.size(); i++) {
+            final QueuedEvent queuedEvent = queue.get(i);
+            if (queuedEvent.blocked) {
+                continue;
+            }
+            if (queuedEvent.isUpdate) {
+                return queuedEvent;
+            }
+            if ((nextGetEvent == null || queuedEvent.priority.compareTo(nextGetEvent.priority) < 0)
+                    && !isWaitingOnUpdate(i)) {
+                nextGetEvent = queuedEvent;
+            }
+        }
+        return nextGetEvent;
+    }
+
+    private boolean isWaitingOnUpdate(final int index) {
+        final List<DecisionScope> scopes = queue.get(index).scopes;
+        for (int i = 0; i < index; i++) {
+            final QueuedEvent queuedEvent = queue.get(i);
+            if (!queuedEvent.isUpdate) {
+                continue;
+            }
+            if (queuedEvent.priority != Priority.BACKGROUND
+                    || OptimizeUtils.isNullOrEmpty(scopes)
+                    || OptimizeUtils.isNullOrEmpty(queuedEvent.scopes)
+                    || !Collections.disjoint(scopes, queuedEvent.scopes)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
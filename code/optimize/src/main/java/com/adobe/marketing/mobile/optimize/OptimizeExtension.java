@@ -23,33 +23,47 @@ import com.adobe.marketing.mobile.SharedStateResolution;
 import com.adobe.marketing.mobile.SharedStateResult;
 import com.adobe.marketing.mobile.SharedStateStatus;
 import com.adobe.marketing.mobile.services.Log;
+import com.adobe.marketing.mobile.services.NamedCollection;
+import com.adobe.marketing.mobile.services.ServiceProvider;
 import com.adobe.marketing.mobile.util.DataReader;
 import com.adobe.marketing.mobile.util.DataReaderException;
 import com.adobe.marketing.mobile.util.SerialWorkDispatcher;
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 class OptimizeExtension extends Extension {
 
     private static final String SELF_TAG = "OptimizeExtension";
 
-    // Concurrent Map containing the cached propositions returned in various
-    // personalization:decisions events
-    // for the same Edge personalization request.
+    // Immutable version of the cached propositions returned in various personalization:decisions
+    // events for the same Edge personalization request.
+    // Each cache update publishes a new version, readers never lock and always see a complete
+    // update. Updates are serialized on the cacheUpdateLock.
     // This is accessed from multiple threads.
-    private Map<DecisionScope, OptimizeProposition> cachedPropositions = new ConcurrentHashMap<>();
+    private volatile VersionedPropositions cachedPropositions = VersionedPropositions.EMPTY;
+
+    private final Object cacheUpdateLock = new Object();
+
+    // Offer ID, proposition ID and activity ID indexes over the cached propositions, updated along
+    // with the propositions cache, and replaced when the cache is cleared.
+    private volatile PropositionsCacheIndex cacheIndex = new PropositionsCacheIndex();
 
     // Events dispatcher used to maintain the processing order of update and get propositions
     // events.
     // It ensures any update propositions requests issued before a get propositions call are
     // completed
-    // and the get propositions request is fulfilled from the latest cached content.
-    private SerialWorkDispatcher eventsDispatcher =
-            new SerialWorkDispatcher(
+    // and the get propositions request is fulfilled from the latest cached content. Get requests
+    // only skip ahead of queued background priority updates for other scopes.
+    private OptimizeEventsDispatcher eventsDispatcher =
+            new OptimizeEventsDispatcher(
                     "OptimizeEventsDispatcher",
                     new SerialWorkDispatcher.WorkHandler<Event>() {
                         @Override
@@ -58,8 +72,7 @@ class OptimizeExtension extends Extension {
                                 handleGetPropositions(event);
                             } else if (event.getType()
                                     .equalsIgnoreCase(OptimizeConstants.EventType.EDGE)) {
-                                return !updateRequestEventIdsInProgress.containsKey(
-                                        event.getUniqueIdentifier());
+                                return isUpdateRequestCompleted(event.getUniqueIdentifier());
                             }
                             return true;
                         }
@@ -71,6 +84,32 @@ class OptimizeExtension extends Extension {
     private final Map<String, List<DecisionScope>> updateRequestEventIdsInProgress =
             new ConcurrentHashMap<>();
 
+    // Concurrent Map containing the cache generation, current when the request was sent, for Edge
+    // events that haven't yet received an Edge completion response.
+    // Responses to requests from an older generation, sent before the cache was cleared, are
+    // dropped.
+    // This is accessed from multiple threads.
+    private final Map<String, Long> updateRequestEventIdsGenerations = new ConcurrentHashMap<>();
+
+    // Concurrent Map containing the additional XDM and free-form data, keyed as in the update
+    // propositions request event data, of the last update request for each scope.
+    // Periodic refreshes and prefetches replay this context, and skip the scopes without one.
+    // This is accessed from multiple threads.
+    private final Map<DecisionScope, Map<String, Object>> scopeRequestContexts =
+            new ConcurrentHashMap<>();
+
+    // Concurrent Map containing the Edge event IDs of the scheduled or in progress retries, and the
+    // Edge event ID of the update request they retry, which is kept in the events dispatcher until
+    // all its retries are completed.
+    // This is accessed from multiple threads.
+    private final Map<String, String> retriedUpdateRequestEventIds = new ConcurrentHashMap<>();
+
+    // Concurrent Map containing the sharded update requests for the Edge event IDs of their
+    // shards, until the shard receives an Edge completion response.
+    // This is accessed from multiple threads.
+    private final Map<String, ShardedUpdateRequest> shardedUpdateRequests =
+            new ConcurrentHashMap<>();
+
     // Concurrent Map to accumulate propositions returned in various personalization:decisions
     // events
     // for the same Edge personalization request.
@@ -102,9 +141,88 @@ class OptimizeExtension extends Extension {
                     OptimizeConstants.HTTPResponseCodes.serviceUnavailable,
                     OptimizeConstants.HTTPResponseCodes.gatewayTimeout);
 
-    // Map containing the update event IDs and corresponding errors as received from Edge SDK
-    private static final Map<String, AEPOptimizeError> updateRequestEventIdsErrors =
-            new ConcurrentHashMap<>();
+    // Map containing the update event IDs and corresponding errors as received from Edge SDK.
+    // An error is removed when the Edge request response callback reads it, or when it expires
+    // after outliving the callback timeout.
+    // This is accessed from multiple threads.
+    private final BoundedExpiringMap<AEPOptimizeError> updateRequestEventIdsErrors =
+            new BoundedExpiringMap<>(
+                    OptimizeConstants.UPDATE_REQUEST_ERRORS_MAX_SIZE,
+                    OptimizeConstants.UPDATE_REQUEST_ERRORS_TIME_TO_LIVE);
+
+    // Map containing the update event IDs which failed with a recoverable error, and the
+    // corresponding retry delay in milliseconds returned by the Edge network, or 0 if none.
+    // An entry is removed when the Edge request response callback reads it to retry the failed
+    // scopes.
+    // This is accessed from multiple threads.
+    private final BoundedExpiringMap<Long> updateRequestEventIdsRetryDelays =
+            new BoundedExpiringMap<>(
+                    OptimizeConstants.UPDATE_REQUEST_ERRORS_MAX_SIZE,
+                    OptimizeConstants.UPDATE_REQUEST_ERRORS_TIME_TO_LIVE);
+
+    // Policy used to retry the scopes of update requests which failed with a recoverable error.
+    private UpdateRequestRetryPolicy retryPolicy = new UpdateRequestRetryPolicy();
+
+    // Circuit breaker used to pause Edge personalization query requests after repeated failures.
+    // Circuit breaker methods are synchronized as it is accessed from multiple threads.
+    private EdgeCircuitBreaker circuitBreaker =
+            new EdgeCircuitBreaker(this::dispatchCircuitBreakerStateChange);
+
+    // Deduplicator used to suppress the repeated display interactions for the same proposition
+    // offer, when impression deduplication is enabled in configuration.
+    private ImpressionDeduplicator impressionDeduplicator = new ImpressionDeduplicator();
+
+    // Scheduler used to periodically refresh the most frequently read cached scopes.
+    private PropositionsRefreshScheduler refreshScheduler =
+            new PropositionsRefreshScheduler(
+                    new PropositionsRefreshScheduler.RefreshHandler() {
+                        @Override
+                        public boolean isCached(final DecisionScope scope) {
+                            // Scopes not updated in this session, e.g. loaded from the snapshot,
+                            // are not refreshed as their request context is unknown.
+                            return cachedPropositions.contains(scope)
+                                    && scopeRequestContexts.containsKey(scope);
+                        }
+
+                        @Override
+                        public void refresh(final List<DecisionScope> scopes) {
+                            dispatchUpdatePropositionsRequests(
+                                    OptimizeConstants.EventNames.REFRESH_PROPOSITIONS_REQUEST,
+                                    scopes);
+                        }
+                    });
+
+    // Snapshot used to persist the propositions cache across app launches, lazily created.
+    // This is accessed from multiple threads, it is created on the propositionsSnapshotLock.
+    private volatile PropositionsSnapshot propositionsSnapshot;
+
+    private final Object propositionsSnapshotLock = new Object();
+
+    // Whether persistent or shared cache was enabled in the configuration when the propositions
+    // snapshot was last updated, or null if it was not updated yet.
+    // This is only accessed from the extension thread.
+    private Boolean propositionsSnapshotEnabled;
+
+    // Scope prefetcher used to predict the next requested scopes, lazily created when predictive
+    // prefetching is enabled in the configuration.
+    // This is accessed from multiple threads, it is created on the scopePrefetcherLock.
+    private volatile ScopePrefetcher scopePrefetcher;
+
+    private final Object scopePrefetcherLock = new Object();
+
+    // Configuration read from the last retrieved Configuration shared state, reused until the
+    // shared state changes.
+    // This is accessed from multiple threads.
+    private volatile OptimizeConfiguration configuration;
+
+    // Registry of the propositions subscriptions, notified directly when cached propositions
+    // change.
+    private PropositionsSubscriptionRegistry subscriptionRegistry =
+            PropositionsSubscriptionRegistry.getInstance();
+
+    // Immutable snapshot of the propositions cache read by the synchronous peek API, published
+    // again whenever cached propositions change.
+    private PropositionsCacheView cacheView = PropositionsCacheView.getInstance();
 
     /**
      * Constructor for {@code OptimizeExtension}.
@@ -124,7 +242,9 @@ class OptimizeExtension extends Extension {
      *       OptimizeConstants.EventType#GENERIC_IDENTITY} and source {@value
      *       OptimizeConstants.EventSource#REQUEST_RESET} Listener for {@code Event} type {@value
      *       OptimizeConstants.EventType#OPTIMIZE} and source {@value
-     *       OptimizeConstants.EventSource#CONTENT_COMPLETE}
+     *       OptimizeConstants.EventSource#CONTENT_COMPLETE} Listener for {@code Event} type {@value
+     *       OptimizeConstants.EventType#GENERIC_LIFECYCLE} and source {@value
+     *       OptimizeConstants.EventSource#REQUEST_CONTENT}
      * </ul>
      *
      * @param extensionApi {@link ExtensionApi} instance.
@@ -167,7 +287,40 @@ class OptimizeExtension extends Extension {
                         OptimizeConstants.EventSource.CONTENT_COMPLETE,
                         this::handleUpdatePropositionsCompleted);
 
+        // Register listener - Mobile Core `lifecycleStart()` and `lifecyclePause()` APIs dispatch
+        // generic lifecycle request content events.
+        getApi().registerEventListener(
+                        OptimizeConstants.EventType.GENERIC_LIFECYCLE,
+                        OptimizeConstants.EventSource.REQUEST_CONTENT,
+                        this::handleLifecycleRequest);
+
+        // Register listener - Configuration shared state updates apply the refresh settings
+        // without waiting for the next get propositions request.
+        getApi().registerEventListener(
+                        OptimizeConstants.EventType.HUB,
+                        OptimizeConstants.EventSource.SHARED_STATE,
+                        this::handleSharedStateUpdate);
+
         eventsDispatcher.start();
+        final Map<DecisionScope, OptimizeProposition> propositions =
+                cachedPropositions.getPropositions();
+        cacheView.publish(propositions, cacheIndex);
+        subscriptionRegistry.setCachedPropositions(propositions);
+    }
+
+    @Override
+    protected void onUnregistered() {
+        refreshScheduler.shutdown();
+        retryPolicy.shutdown();
+        eventsDispatcher.shutdown();
+        if (scopePrefetcher != null) {
+            scopePrefetcher.persist();
+        }
+        if (propositionsSnapshot != null) {
+            propositionsSnapshot.shutdown();
+        }
+        cacheView.publish(null, null);
+        subscriptionRegistry.setCachedPropositions(null);
     }
 
     @Override
@@ -248,11 +401,15 @@ class OptimizeExtension extends Extension {
                 // Queue the get propositions event in the events dispatcher to ensure any prior
                 // update requests are completed
                 // before it is processed.
-                eventsDispatcher.offer(event);
+                eventsDispatcher.offerGet(
+                        event, retrieveRequestPriority(eventData), retrieveRequestedScopes(event));
                 break;
             case OptimizeConstants.EventDataValues.REQUEST_TYPE_TRACK:
                 handleTrackPropositions(event);
                 break;
+            case OptimizeConstants.EventDataValues.REQUEST_TYPE_TRACK_BY_ID:
+                handleTrackPropositionsById(event);
+                break;
             default:
                 Log.debug(
                         OptimizeConstants.LOG_TAG,
@@ -277,8 +434,8 @@ class OptimizeExtension extends Extension {
     void handleUpdatePropositions(@NonNull final Event event) {
         final Map<String, Object> eventData = event.getEventData();
 
-        final Map<String, Object> configData = retrieveConfigurationSharedState(event);
-        if (OptimizeUtils.isNullOrEmpty(configData)) {
+        final OptimizeConfiguration configuration = retrieveConfiguration(event);
+        if (configuration == null) {
             Log.debug(
                     OptimizeConstants.LOG_TAG,
                     SELF_TAG,
@@ -303,83 +460,43 @@ class OptimizeExtension extends Extension {
                 return;
             }
 
-            final Map<String, Object> edgeEventData = new HashMap<>();
+            recordRequestContext(eventData, validScopes);
 
-            // Add query
-            final Map<String, Object> queryPersonalization = new HashMap<>();
-            queryPersonalization.put(OptimizeConstants.JsonKeys.SCHEMAS, supportedSchemas);
-
-            final List<String> validScopeNames = new ArrayList<>();
-            for (final DecisionScope scope : validScopes) {
-                validScopeNames.add(scope.getName());
-            }
-            queryPersonalization.put(OptimizeConstants.JsonKeys.DECISION_SCOPES, validScopeNames);
-
-            final Map<String, Object> query = new HashMap<>();
-            query.put(OptimizeConstants.JsonKeys.QUERY_PERSONALIZATION, queryPersonalization);
-            edgeEventData.put(OptimizeConstants.JsonKeys.QUERY, query);
-
-            // Add xdm
-            final Map<String, Object> xdm = new HashMap<>();
-            if (eventData.containsKey(OptimizeConstants.EventDataKeys.XDM)) {
-                final Map<String, Object> inputXdm =
-                        DataReader.getTypedMap(
-                                Object.class, eventData, OptimizeConstants.EventDataKeys.XDM);
-                if (!OptimizeUtils.isNullOrEmpty(inputXdm)) {
-                    xdm.putAll(inputXdm);
-                }
-            }
-            xdm.put(
-                    OptimizeConstants.JsonKeys.EXPERIENCE_EVENT_TYPE,
-                    OptimizeConstants.JsonValues.EE_EVENT_TYPE_PERSONALIZATION);
-            edgeEventData.put(OptimizeConstants.JsonKeys.XDM, xdm);
-
-            // Add data
-            final Map<String, Object> data = new HashMap<>();
-            if (eventData.containsKey(OptimizeConstants.EventDataKeys.DATA)) {
-                final Map<String, Object> inputData =
-                        DataReader.getTypedMap(
-                                Object.class, eventData, OptimizeConstants.EventDataKeys.DATA);
-                if (!OptimizeUtils.isNullOrEmpty(inputData)) {
-                    data.putAll(inputData);
-                    edgeEventData.put(OptimizeConstants.JsonKeys.DATA, data);
-                }
+            if (!circuitBreaker.allowRequest()) {
+                Log.debug(
+                        OptimizeConstants.LOG_TAG,
+                        SELF_TAG,
+                        "handleUpdatePropositions - Edge personalization requests are paused after"
+                                + " repeated failures, returning the cached propositions.");
+                getApi().dispatch(
+                                createResponseEvent(
+                                        event,
+                                        retrieveCachedPropositions(validScopes),
+                                        createCircuitOpenError()));
+                return;
             }
 
-            // Add the flag to request sendCompletion
-            final Map<String, Object> request = new HashMap<>();
-            request.put(OptimizeConstants.JsonKeys.REQUEST_SEND_COMPLETION, true);
-            edgeEventData.put(OptimizeConstants.JsonKeys.REQUEST, request);
-
-            // Add override datasetId
-            if (configData.containsKey(
-                    OptimizeConstants.Configuration.OPTIMIZE_OVERRIDE_DATASET_ID)) {
-                final String overrideDatasetId =
-                        DataReader.getString(
-                                configData,
-                                OptimizeConstants.Configuration.OPTIMIZE_OVERRIDE_DATASET_ID);
-                if (!OptimizeUtils.isNullOrEmpty(overrideDatasetId)) {
-                    edgeEventData.put(OptimizeConstants.JsonKeys.DATASET_ID, overrideDatasetId);
-                }
+            final int maxScopesPerRequest = configuration.getMaxScopesPerRequest();
+            if (maxScopesPerRequest > 0 && validScopes.size() > maxScopesPerRequest) {
+                dispatchShardedUpdateRequests(
+                        event, configuration, validScopes, maxScopesPerRequest);
+                return;
             }
 
-            final Event edgeEvent =
-                    new Event.Builder(
-                                    OptimizeConstants.EventNames.EDGE_PERSONALIZATION_REQUEST,
-                                    OptimizeConstants.EventType.EDGE,
-                                    OptimizeConstants.EventSource.REQUEST_CONTENT)
-                            .setEventData(edgeEventData)
-                            .chainToParentEvent(event)
-                            .build();
+            final Event edgeEvent = createEdgeRequestEvent(event, configuration, validScopes);
 
             // In AEP Response Event handle, `requestEventId` corresponds to the unique identifier
             // for the Edge request.
             // Storing the request event unique identifier to compare and process only the
             // anticipated response in the extension.
-            updateRequestEventIdsInProgress.put(edgeEvent.getUniqueIdentifier(), validScopes);
+            trackUpdateRequest(
+                    edgeEvent.getUniqueIdentifier(),
+                    validScopes,
+                    cachedPropositions.getGeneration());
 
             // add the Edge event to update propositions in the events queue.
-            eventsDispatcher.offer(edgeEvent);
+            eventsDispatcher.offerUpdate(
+                    edgeEvent, retrieveRequestPriority(eventData), validScopes);
 
             MobileCore.dispatchEventWithResponseCallback(
                     edgeEvent,
@@ -390,18 +507,16 @@ class OptimizeExtension extends Extension {
                             // response event failed or timed out, remove this event's unique
                             // identifier from the requested event IDs dictionary and kick-off
                             // queue.
-                            updateRequestEventIdsInProgress.remove(edgeEvent.getUniqueIdentifier());
+                            untrackUpdateRequest(edgeEvent.getUniqueIdentifier());
+                            updateRequestEventIdsErrors.remove(edgeEvent.getUniqueIdentifier());
+                            updateRequestEventIdsRetryDelays.remove(
+                                    edgeEvent.getUniqueIdentifier());
                             propositionsInProgress.clear();
-
-                            AEPOptimizeError aepOptimizeError;
-                            if (error == AdobeError.CALLBACK_TIMEOUT) {
-                                aepOptimizeError = AEPOptimizeError.Companion.getTimeoutError();
-                            } else {
-                                aepOptimizeError = AEPOptimizeError.Companion.getUnexpectedError();
-                            }
+                            circuitBreaker.recordFailure();
 
                             getApi().dispatch(
-                                            createResponseEventWithError(event, aepOptimizeError));
+                                            createResponseEventWithError(
+                                                    event, toAEPOptimizeError(error)));
 
                             eventsDispatcher.resume();
                         }
@@ -415,56 +530,41 @@ class OptimizeExtension extends Extension {
                                 return;
                             }
 
-                            final Map<String, Object> responseEventData = new HashMap<>();
-                            AEPOptimizeError aepOptimizeError =
-                                    updateRequestEventIdsErrors.get(requestEventId);
-                            if (aepOptimizeError != null) {
-                                responseEventData.put(
-                                        OptimizeConstants.EventDataKeys.RESPONSE_ERROR,
-                                        aepOptimizeError.toEventData());
+                            final Long retryAfterMillis =
+                                    updateRequestEventIdsRetryDelays.remove(requestEventId);
+                            if (retryAfterMillis != null) {
+                                // The request continues as a sharded request, so the propositions
+                                // returned so far are merged with the ones returned for the retry.
+                                final ShardedUpdateRequest retriedRequest =
+                                        new ShardedUpdateRequest(1);
+                                for (final Map.Entry<DecisionScope, OptimizeProposition> entry :
+                                        propositionsInProgress.entrySet()) {
+                                    retriedRequest.addProposition(
+                                            requestEventId, entry.getKey(), entry.getValue());
+                                }
+
+                                if (retryFailedScopes(
+                                        event,
+                                        configuration,
+                                        requestEventId,
+                                        validScopes,
+                                        retriedRequest,
+                                        retryAfterMillis)) {
+                                    retriedRequest.completeShard(
+                                            takeUpdateRequestError(requestEventId));
+                                    getApi().dispatch(
+                                                    createUpdateCompleteEvent(
+                                                            event, requestEventId));
+                                    return;
+                                }
                             }
 
-                            final List<Map<String, Object>> propositionsList = new ArrayList<>();
-
-                            for (Map.Entry<DecisionScope, OptimizeProposition> entry :
-                                    propositionsInProgress.entrySet()) {
-                                OptimizeProposition optimizeProposition = entry.getValue();
-                                propositionsList.add(optimizeProposition.toEventData());
-                            }
-
-                            responseEventData.put(
-                                    OptimizeConstants.EventDataKeys.PROPOSITIONS, propositionsList);
-
-                            final Event responseEvent =
-                                    new Event.Builder(
-                                                    OptimizeConstants.EventNames.OPTIMIZE_RESPONSE,
-                                                    OptimizeConstants.EventType.OPTIMIZE,
-                                                    OptimizeConstants.EventSource.RESPONSE_CONTENT)
-                                            .setEventData(responseEventData)
-                                            .inResponseToEvent(event)
-                                            .build();
-
-                            getApi().dispatch(responseEvent);
-
-                            final Event updateCompleteEvent =
-                                    new Event.Builder(
-                                                    OptimizeConstants.EventNames
-                                                            .OPTIMIZE_UPDATE_COMPLETE,
-                                                    OptimizeConstants.EventType.OPTIMIZE,
-                                                    OptimizeConstants.EventSource.CONTENT_COMPLETE)
-                                            .setEventData(
-                                                    new HashMap<String, Object>() {
-                                                        {
-                                                            put(
-                                                                    OptimizeConstants.EventDataKeys
-                                                                            .COMPLETED_UPDATE_EVENT_ID,
-                                                                    requestEventId);
-                                                        }
-                                                    })
-                                            .chainToParentEvent(event)
-                                            .build();
-
-                            getApi().dispatch(updateCompleteEvent);
+                            final AEPOptimizeError error = takeUpdateRequestError(requestEventId);
+                            recordEdgeRequestResult(error, retryAfterMillis != null);
+                            getApi().dispatch(
+                                            createResponseEvent(
+                                                    event, propositionsInProgress.values(), error));
+                            getApi().dispatch(createUpdateCompleteEvent(event, requestEventId));
                         }
                     });
         } catch (final Exception e) {
@@ -477,6 +577,472 @@ class OptimizeExtension extends Extension {
         }
     }
 
+    /**
+     * Dispatches the update propositions request {@code event} as multiple Edge personalization
+     * query requests, each containing at most {@code maxScopesPerRequest} of the given {@code
+     * validScopes}.
+     *
+     * <p>Sharding keeps each personalization query, and the decisions returned for it, within the
+     * payload size limits of the Edge Network. It doesn't make the requests faster, the Edge
+     * extension sends them one at a time from its queue, and each of them adds its own round trip.
+     *
+     * <p>The cache is updated as each Edge request completes. A single response event, containing
+     * the propositions returned for all of them, is dispatched for the update request {@code event}
+     * once all the Edge requests are completed, failed or timed out.
+     *
+     * @param event incoming update propositions request {@link Event}.
+     * @param configuration {@link OptimizeConfiguration} containing the Optimize settings.
+     * @param validScopes {@code List<DecisionScope>} containing the requested scopes.
+     * @param maxScopesPerRequest {@code int} containing the maximum number of scopes in an Edge
+     *     request.
+     * @throws DataReaderException if the event data cannot be read.
+     */
+    private void dispatchShardedUpdateRequests(
+            @NonNull final Event event,
+            @NonNull final OptimizeConfiguration configuration,
+            @NonNull final List<DecisionScope> validScopes,
+            final int maxScopesPerRequest)
+            throws DataReaderException {
+        final List<List<DecisionScope>> shards =
+                ShardedUpdateRequest.shard(validScopes, maxScopesPerRequest);
+        final List<Event> edgeEvents = new ArrayList<>();
+        for (final List<DecisionScope> shardScopes : shards) {
+            edgeEvents.add(createEdgeRequestEvent(event, configuration, shardScopes));
+        }
+
+        Log.debug(
+                OptimizeConstants.LOG_TAG,
+                SELF_TAG,
+                "handleUpdatePropositions - Sending the update propositions request for %d scopes"
+                        + " in %d Edge requests.",
+                validScopes.size(),
+                shards.size());
+
+        final ShardedUpdateRequest shardedRequest = new ShardedUpdateRequest(shards.size());
+        final long generation = cachedPropositions.getGeneration();
+        for (int i = 0; i < shards.size(); i++) {
+            dispatchShard(
+                    event,
+                    configuration,
+                    edgeEvents.get(i),
+                    shards.get(i),
+                    shardedRequest,
+                    generation,
+                    OptimizeConstants.EDGE_CONTENT_COMPLETE_RESPONSE_TIMEOUT);
+        }
+    }
+
+    /**
+     * Dispatches the given {@code edgeEvent}, requesting the given {@code shardScopes} for the
+     * update propositions request {@code event} sent in the given {@code shardedRequest}.
+     *
+     * <p>The response event for the update request {@code event} is dispatched when the last shard
+     * of the {@code shardedRequest} is completed, failed or timed out.
+     *
+     * @param event incoming update propositions request {@link Event}.
+     * @param configuration {@link OptimizeConfiguration} containing the Optimize settings.
+     * @param edgeEvent {@link Event} containing the Edge personalization query request.
+     * @param shardScopes {@code List<DecisionScope>} containing the scopes requested in the shard.
+     * @param shardedRequest {@link ShardedUpdateRequest} the shard belongs to.
+     * @param generation {@code long} containing the cache generation when the update request was
+     *     sent.
+     * @param timeoutMillis {@code long} containing the time, in milliseconds, to wait for the Edge
+     *     request to complete.
+     */
+    private void dispatchShard(
+            @NonNull final Event event,
+            @NonNull final OptimizeConfiguration configuration,
+            @NonNull final Event edgeEvent,
+            @NonNull final List<DecisionScope> shardScopes,
+            @NonNull final ShardedUpdateRequest shardedRequest,
+            final long generation,
+            final long timeoutMillis) {
+        trackUpdateRequest(edgeEvent.getUniqueIdentifier(), shardScopes, generation);
+        shardedUpdateRequests.put(edgeEvent.getUniqueIdentifier(), shardedRequest);
+        eventsDispatcher.offerUpdate(
+                edgeEvent, retrieveRequestPriority(event.getEventData()), shardScopes);
+
+        MobileCore.dispatchEventWithResponseCallback(
+                edgeEvent,
+                timeoutMillis,
+                new AdobeCallbackWithError<Event>() {
+                    @Override
+                    public void fail(final AdobeError error) {
+                        untrackUpdateRequest(edgeEvent.getUniqueIdentifier());
+                        updateRequestEventIdsErrors.remove(edgeEvent.getUniqueIdentifier());
+                        updateRequestEventIdsRetryDelays.remove(edgeEvent.getUniqueIdentifier());
+                        shardedUpdateRequests.remove(edgeEvent.getUniqueIdentifier());
+                        circuitBreaker.recordFailure();
+
+                        if (shardedRequest.completeShard(toAEPOptimizeError(error))) {
+                            dispatchShardedResponse(event, shardedRequest);
+                        }
+
+                        eventsDispatcher.resume();
+                    }
+
+                    @Override
+                    public void call(final Event callbackEvent) {
+                        final String requestEventId =
+                                OptimizeUtils.getRequestEventId(callbackEvent);
+                        if (OptimizeUtils.isNullOrEmpty(requestEventId)) {
+                            fail(AdobeError.UNEXPECTED_ERROR);
+                            return;
+                        }
+
+                        final Long retryAfterMillis =
+                                updateRequestEventIdsRetryDelays.remove(requestEventId);
+                        final boolean retried =
+                                retryAfterMillis != null
+                                        && retryFailedScopes(
+                                                event,
+                                                configuration,
+                                                requestEventId,
+                                                shardScopes,
+                                                shardedRequest,
+                                                retryAfterMillis);
+
+                        final AEPOptimizeError error = takeUpdateRequestError(requestEventId);
+                        if (!retried) {
+                            // The result of a retried request is recorded when the retry completes.
+                            recordEdgeRequestResult(error, retryAfterMillis != null);
+                        }
+                        if (shardedRequest.completeShard(error)) {
+                            dispatchShardedResponse(event, shardedRequest);
+                        }
+                        getApi().dispatch(createUpdateCompleteEvent(event, requestEventId));
+                    }
+                });
+    }
+
+    /**
+     * Retries the scopes, requested in the Edge request with the given {@code requestEventId}, for
+     * which no propositions were returned as the request failed with a recoverable error.
+     *
+     * <p>The failed scopes are requested in an additional shard of the given {@code
+     * shardedRequest}, after the delay given by the {@link UpdateRequestRetryPolicy}. The failed
+     * Edge request is then only tracked for its returned scopes, so the propositions cached for the
+     * failed scopes are kept until the retry completes.
+     *
+     * <p>The retry is tracked as soon as it is scheduled, and the failed Edge request is kept in
+     * the events dispatcher until the retry completes, so get requests queued after the update
+     * request are fulfilled with the propositions returned for the retry. The retry is only made if
+     * it can complete before the update request times out for its caller, and it is given the
+     * remaining time as its own timeout.
+     *
+     * @param event incoming update propositions request {@link Event}.
+     * @param configuration {@link OptimizeConfiguration} containing the Optimize settings.
+     * @param requestEventId {@link String} containing the unique identifier of the failed Edge
+     *     request event.
+     * @param requestedScopes {@code List<DecisionScope>} containing the scopes requested in the
+     *     failed Edge request.
+     * @param shardedRequest {@link ShardedUpdateRequest} containing the propositions returned for
+     *     the failed Edge request.
+     * @param retryAfterMillis {@code long} containing the retry delay returned by the Edge network
+     *     in milliseconds, or 0 if none.
+     * @return {@code boolean} indicating whether a retry is scheduled.
+     */
+    private boolean retryFailedScopes(
+            @NonNull final Event event,
+            @NonNull final OptimizeConfiguration configuration,
+            @NonNull final String requestEventId,
+            @NonNull final List<DecisionScope> requestedScopes,
+            @NonNull final ShardedUpdateRequest shardedRequest,
+            final long retryAfterMillis) {
+        final List<DecisionScope> returnedScopes =
+                new ArrayList<>(shardedRequest.getShardPropositions(requestEventId).keySet());
+        final List<DecisionScope> failedScopes = new ArrayList<>(requestedScopes);
+        failedScopes.removeAll(returnedScopes);
+        if (failedScopes.isEmpty() || !isCurrentGeneration(requestEventId)) {
+            // Scopes requested before the cache was cleared are not retried.
+            return false;
+        }
+        final long generation = updateRequestEventIdsGenerations.get(requestEventId);
+
+        final long remainingMillis =
+                event.getTimestamp()
+                        + OptimizeConstants.EDGE_CONTENT_COMPLETE_RESPONSE_TIMEOUT
+                        - System.currentTimeMillis();
+        final long retryDelayMillis =
+                retryPolicy.getRetryDelay(
+                        shardedRequest.getRetryCount(), retryAfterMillis, remainingMillis);
+        if (retryDelayMillis == UpdateRequestRetryPolicy.NO_RETRY) {
+            Log.debug(
+                    OptimizeConstants.LOG_TAG,
+                    SELF_TAG,
+                    "retryFailedScopes - Not retrying the update propositions request for %d"
+                            + " scope(s), retry budget is exhausted or the retry cannot complete"
+                            + " before the request times out.",
+                    failedScopes.size());
+            return false;
+        }
+
+        final Event retryEvent;
+        try {
+            retryEvent = createEdgeRequestEvent(event, configuration, failedScopes);
+        } catch (final DataReaderException e) {
+            Log.warning(
+                    OptimizeConstants.LOG_TAG,
+                    SELF_TAG,
+                    "retryFailedScopes - Cannot retry the update propositions request due to an"
+                            + " exception (%s)!",
+                    e.getLocalizedMessage());
+            return false;
+        }
+
+        Log.debug(
+                OptimizeConstants.LOG_TAG,
+                SELF_TAG,
+                "retryFailedScopes - Retrying the update propositions request for %d scope(s) in"
+                        + " %d ms.",
+                failedScopes.size(),
+                retryDelayMillis);
+
+        shardedRequest.addRetry();
+        updateRequestEventIdsInProgress.put(requestEventId, returnedScopes);
+
+        // A retry of a retry keeps the update request first retried in the events dispatcher.
+        final String retryEventId = retryEvent.getUniqueIdentifier();
+        final String retriedEventId = retriedUpdateRequestEventIds.get(requestEventId);
+        retriedUpdateRequestEventIds.put(
+                retryEventId, retriedEventId != null ? retriedEventId : requestEventId);
+        trackUpdateRequest(retryEventId, failedScopes, generation);
+        shardedUpdateRequests.put(retryEventId, shardedRequest);
+
+        final long retryTimeoutMillis = remainingMillis - retryDelayMillis;
+        retryPolicy.schedule(
+                () ->
+                        dispatchShard(
+                                event,
+                                configuration,
+                                retryEvent,
+                                failedScopes,
+                                shardedRequest,
+                                generation,
+                                retryTimeoutMillis),
+                retryDelayMillis);
+        return true;
+    }
+
+    /**
+     * Dispatches the response event, containing the merged propositions, for the update
+     * propositions request {@code event} sent in the given {@code shardedRequest}.
+     *
+     * @param event incoming update propositions request {@link Event}.
+     * @param shardedRequest {@link ShardedUpdateRequest} with all its shards completed.
+     */
+    private void dispatchShardedResponse(
+            final Event event, final ShardedUpdateRequest shardedRequest) {
+        getApi().dispatch(
+                        createResponseEvent(
+                                event,
+                                shardedRequest.getPropositions().values(),
+                                shardedRequest.getError()));
+    }
+
+    /**
+     * Records the result of a completed Edge personalization query request in the circuit breaker.
+     *
+     * <p>The request failed if the Edge network returned a server error, or a recoverable error
+     * which is not retried. Other errors, such as a scope not found, are returned by a responsive
+     * Edge network and the request succeeded.
+     *
+     * @param error {@link AEPOptimizeError} returned for the request, or null if none.
+     * @param recoverableError {@code boolean} indicating whether the request failed with a
+     *     recoverable error.
+     */
+    private void recordEdgeRequestResult(
+            final AEPOptimizeError error, final boolean recoverableError) {
+        final Integer status = error != null ? error.getStatus() : null;
+        if (recoverableError
+                || (status != null
+                        && status >= OptimizeConstants.HTTPResponseCodes.internalServerError)) {
+            circuitBreaker.recordFailure();
+        } else {
+            circuitBreaker.recordSuccess();
+        }
+    }
+
+    /**
+     * Dispatches {@value OptimizeConstants.EventType#OPTIMIZE}, {@value
+     * OptimizeConstants.EventSource#NOTIFICATION} event with the new circuit breaker {@code state},
+     * so the circuit breaker state changes can be monitored.
+     *
+     * @param state {@link EdgeCircuitBreaker.State} the circuit breaker changed to.
+     */
+    private void dispatchCircuitBreakerStateChange(final EdgeCircuitBreaker.State state) {
+        final Map<String, Object> eventData = new HashMap<>();
+        eventData.put(OptimizeConstants.EventDataKeys.CIRCUIT_BREAKER_STATE, state.getValue());
+
+        getApi().dispatch(
+                        new Event.Builder(
+                                        OptimizeConstants.EventNames.CIRCUIT_BREAKER_STATE_CHANGE,
+                                        OptimizeConstants.EventType.OPTIMIZE,
+                                        OptimizeConstants.EventSource.NOTIFICATION)
+                                .setEventData(eventData)
+                                .build());
+    }
+
+    /**
+     * Returns the cached propositions for the given {@code scopes}.
+     *
+     * @param scopes {@code List<DecisionScope>} containing the requested scopes.
+     * @return {@code List<OptimizeProposition>} containing the cached propositions.
+     */
+    private List<OptimizeProposition> retrieveCachedPropositions(final List<DecisionScope> scopes) {
+        final VersionedPropositions cache = cachedPropositions;
+        final List<OptimizeProposition> propositions = new ArrayList<>();
+        for (final DecisionScope scope : scopes) {
+            final OptimizeProposition proposition = cache.get(scope);
+            if (proposition != null) {
+                propositions.add(proposition);
+            }
+        }
+        return propositions;
+    }
+
+    /**
+     * Records the additional XDM and free-form data of the update propositions request, read from
+     * the given {@code eventData}, as the request context of the given {@code scopes}.
+     *
+     * @param eventData {@code Map<String, Object>} containing the update request event data.
+     * @param scopes {@code List<DecisionScope>} containing the requested scopes.
+     */
+    private void recordRequestContext(
+            @NonNull final Map<String, Object> eventData,
+            @NonNull final List<DecisionScope> scopes) {
+        final Map<String, Object> context = new HashMap<>();
+        if (eventData.get(OptimizeConstants.EventDataKeys.XDM) != null) {
+            context.put(
+                    OptimizeConstants.EventDataKeys.XDM,
+                    eventData.get(OptimizeConstants.EventDataKeys.XDM));
+        }
+        if (eventData.get(OptimizeConstants.EventDataKeys.DATA) != null) {
+            context.put(
+                    OptimizeConstants.EventDataKeys.DATA,
+                    eventData.get(OptimizeConstants.EventDataKeys.DATA));
+        }
+        for (final DecisionScope scope : scopes) {
+            scopeRequestContexts.put(scope, context);
+        }
+    }
+
+    /**
+     * Creates the error returned for update propositions requests while the circuit breaker is
+     * open.
+     *
+     * @return {@link AEPOptimizeError} instance.
+     */
+    private static AEPOptimizeError createCircuitOpenError() {
+        return new AEPOptimizeError(
+                null,
+                OptimizeConstants.ErrorData.CircuitOpen.STATUS,
+                OptimizeConstants.ErrorData.CircuitOpen.TITLE,
+                OptimizeConstants.ErrorData.CircuitOpen.DETAIL,
+                null,
+                AdobeError.SERVER_ERROR);
+    }
+
+    /**
+     * Creates the Edge personalization query request event for the given {@code scopes}.
+     *
+     * <p>The created event contains additional XDM and/ or free-form data, read from the update
+     * propositions request {@code event}, to be attached to the Edge request.
+     *
+     * @param event incoming update propositions request {@link Event}.
+     * @param configuration {@link OptimizeConfiguration} containing the Optimize settings.
+     * @param scopes {@code List<DecisionScope>} containing the requested scopes.
+     * @return {@link Event} to be dispatched to the Edge network extension.
+     * @throws DataReaderException if the event data cannot be read.
+     */
+    private Event createEdgeRequestEvent(
+            @NonNull final Event event,
+            @NonNull final OptimizeConfiguration configuration,
+            @NonNull final List<DecisionScope> scopes)
+            throws DataReaderException {
+        final Map<String, Object> eventData = event.getEventData();
+        final Map<String, Object> inputXdm =
+                eventData.containsKey(OptimizeConstants.EventDataKeys.XDM)
+                        ? DataReader.getTypedMap(
+                                Object.class, eventData, OptimizeConstants.EventDataKeys.XDM)
+                        : null;
+        final Map<String, Object> inputData =
+                eventData.containsKey(OptimizeConstants.EventDataKeys.DATA)
+                        ? DataReader.getTypedMap(
+                                Object.class, eventData, OptimizeConstants.EventDataKeys.DATA)
+                        : null;
+
+        final Map<String, Object> edgeEventData =
+                configuration.getEdgeRequestTemplate().createEventData(scopes, inputXdm, inputData);
+
+        return new Event.Builder(
+                        OptimizeConstants.EventNames.EDGE_PERSONALIZATION_REQUEST,
+                        OptimizeConstants.EventType.EDGE,
+                        OptimizeConstants.EventSource.REQUEST_CONTENT)
+                .setEventData(edgeEventData)
+                .chainToParentEvent(event)
+                .build();
+    }
+
+    /**
+     * Creates {@value OptimizeConstants.EventType#OPTIMIZE}, {@value
+     * OptimizeConstants.EventSource#RESPONSE_CONTENT} event with the given {@code propositions} and
+     * {@code error} in event data, in response to the update propositions request {@code event}.
+     *
+     * @param event incoming update propositions request {@link Event}.
+     * @param propositions {@code Collection<OptimizeProposition>} containing the returned
+     *     propositions.
+     * @param error {@link AEPOptimizeError} returned by the Edge network, or null if none.
+     * @return {@link Event} instance.
+     */
+    private Event createResponseEvent(
+            final Event event,
+            final Collection<OptimizeProposition> propositions,
+            final AEPOptimizeError error) {
+        final Map<String, Object> responseEventData = new HashMap<>();
+        if (error != null) {
+            responseEventData.put(
+                    OptimizeConstants.EventDataKeys.RESPONSE_ERROR, error.toEventData());
+        }
+
+        final List<Map<String, Object>> propositionsList = new ArrayList<>();
+        for (final OptimizeProposition optimizeProposition : propositions) {
+            propositionsList.add(optimizeProposition.toEventData());
+        }
+        responseEventData.put(OptimizeConstants.EventDataKeys.PROPOSITIONS, propositionsList);
+
+        return new Event.Builder(
+                        OptimizeConstants.EventNames.OPTIMIZE_RESPONSE,
+                        OptimizeConstants.EventType.OPTIMIZE,
+                        OptimizeConstants.EventSource.RESPONSE_CONTENT)
+                .setEventData(responseEventData)
+                .inResponseToEvent(event)
+                .build();
+    }
+
+    /**
+     * Creates {@value OptimizeConstants.EventType#OPTIMIZE}, {@value
+     * OptimizeConstants.EventSource#CONTENT_COMPLETE} event for the Edge request with the given
+     * {@code requestEventId}, chained to the update propositions request {@code event}.
+     *
+     * @param event incoming update propositions request {@link Event}.
+     * @param requestEventId {@link String} containing the unique identifier of the completed Edge
+     *     request event.
+     * @return {@link Event} instance.
+     */
+    private Event createUpdateCompleteEvent(final Event event, final String requestEventId) {
+        final Map<String, Object> eventData = new HashMap<>();
+        eventData.put(OptimizeConstants.EventDataKeys.COMPLETED_UPDATE_EVENT_ID, requestEventId);
+
+        return new Event.Builder(
+                        OptimizeConstants.EventNames.OPTIMIZE_UPDATE_COMPLETE,
+                        OptimizeConstants.EventType.OPTIMIZE,
+                        OptimizeConstants.EventSource.CONTENT_COMPLETE)
+                .setEventData(eventData)
+                .chainToParentEvent(event)
+                .build();
+    }
+
     /**
      * Handles the event with type {@value OptimizeConstants.EventType#OPTIMIZE} and source {@value
      * OptimizeConstants.EventSource#CONTENT_COMPLETE}.
@@ -487,6 +1053,7 @@ class OptimizeExtension extends Extension {
      * @param event incoming {@link Event} object to be processed.
      */
     void handleUpdatePropositionsCompleted(@NonNull final Event event) {
+        ShardedUpdateRequest shardedRequest = null;
         try {
             final String requestCompletedForEventId =
                     DataReader.getString(
@@ -503,21 +1070,42 @@ class OptimizeExtension extends Extension {
 
             final List<DecisionScope> requestedScopes =
                     updateRequestEventIdsInProgress.get(requestCompletedForEventId);
-            if (OptimizeUtils.isNullOrEmpty(requestedScopes)) {
+            // Requested scopes may be empty if all of them are being retried.
+            if (requestedScopes == null) {
                 Log.debug(
                         OptimizeConstants.LOG_TAG,
                         SELF_TAG,
                         "handleUpdatePropositionsCompleted - Ignoring Optimize complete event,"
-                            + " event Id is not being tracked for completion as requested scopes is"
-                            + " null or empty.");
+                                + " event Id is not being tracked for completion.");
                 return;
             }
 
-            // Update propositions in cache
-            updateCachedPropositions(requestedScopes);
+            // Propositions returned for a shard are kept in its sharded update request.
+            shardedRequest = shardedUpdateRequests.remove(requestCompletedForEventId);
+            final Map<DecisionScope, OptimizeProposition> returnedPropositions =
+                    shardedRequest != null
+                            ? shardedRequest.getShardPropositions(requestCompletedForEventId)
+                            : propositionsInProgress;
+
+            if (isCurrentGeneration(requestCompletedForEventId)) {
+                // Update propositions in cache
+                updateCachedPropositions(requestedScopes, returnedPropositions);
+                updatePropositionsSnapshot(event, requestedScopes, returnedPropositions);
+                if (scopePrefetcher != null) {
+                    scopePrefetcher.recordUpdateResult(
+                            requestedScopes, returnedPropositions.keySet());
+                }
+            } else {
+                Log.debug(
+                        OptimizeConstants.LOG_TAG,
+                        SELF_TAG,
+                        "handleUpdatePropositionsCompleted - Not caching the propositions, the"
+                                + " update request was sent before the propositions cache was"
+                                + " cleared.");
+            }
 
             // remove completed event's ID from the request event IDs dictionary.
-            updateRequestEventIdsInProgress.remove(requestCompletedForEventId);
+            untrackUpdateRequest(requestCompletedForEventId);
         } catch (final DataReaderException e) {
             Log.warning(
                     OptimizeConstants.LOG_TAG,
@@ -526,33 +1114,272 @@ class OptimizeExtension extends Extension {
                             + " complete event due to an exception (%s)!",
                     e.getLocalizedMessage());
         } finally {
-            propositionsInProgress.clear();
+            if (shardedRequest == null) {
+                propositionsInProgress.clear();
+            }
 
             // Resume events dispatcher processing after update propositions request is completed.
             eventsDispatcher.resume();
         }
     }
 
+    /**
+     * Tracks the Edge request with the given {@code requestEventId} until it is completed.
+     *
+     * @param requestEventId {@link String} containing the unique identifier of the Edge request
+     *     event.
+     * @param requestedScopes {@code List<DecisionScope>} containing the scopes requested in the
+     *     Edge request.
+     * @param generation {@code long} containing the cache generation when the update request was
+     *     sent.
+     */
+    private void trackUpdateRequest(
+            @NonNull final String requestEventId,
+            @NonNull final List<DecisionScope> requestedScopes,
+            final long generation) {
+        updateRequestEventIdsGenerations.put(requestEventId, generation);
+        updateRequestEventIdsInProgress.put(requestEventId, requestedScopes);
+    }
+
+    /**
+     * Stops tracking the Edge request with the given {@code requestEventId}.
+     *
+     * @param requestEventId {@link String} containing the unique identifier of the Edge request
+     *     event.
+     */
+    private void untrackUpdateRequest(@NonNull final String requestEventId) {
+        updateRequestEventIdsInProgress.remove(requestEventId);
+        updateRequestEventIdsGenerations.remove(requestEventId);
+        retriedUpdateRequestEventIds.remove(requestEventId);
+    }
+
+    /**
+     * Returns whether the Edge request with the given {@code requestEventId} is completed, along
+     * with all the retries of its failed scopes.
+     *
+     * @param requestEventId {@link String} containing the unique identifier of the Edge request
+     *     event.
+     * @return {@code boolean} indicating whether the request and its retries are completed.
+     */
+    boolean isUpdateRequestCompleted(@NonNull final String requestEventId) {
+        return !updateRequestEventIdsInProgress.containsKey(requestEventId)
+                && !retriedUpdateRequestEventIds.containsValue(requestEventId);
+    }
+
+    /**
+     * Returns whether the Edge request with the given {@code requestEventId} was sent in the
+     * current cache generation, i.e. after the propositions cache was last cleared.
+     *
+     * @param requestEventId {@link String} containing the unique identifier of the Edge request
+     *     event.
+     * @return {@code boolean} indicating whether the request belongs to the current generation.
+     */
+    private boolean isCurrentGeneration(@NonNull final String requestEventId) {
+        final Long generation = updateRequestEventIdsGenerations.get(requestEventId);
+        return generation != null && generation == cachedPropositions.getGeneration();
+    }
+
     /**
      * Updates the in-memory propositions cache with the returned propositions.
      *
      * <p>Any requested scopes for which no propositions are returned in personalization: decisions
-     * events are removed from the cache.
+     * events are removed from the cache. The returned and removed propositions are published as one
+     * new cache version, so readers never see a partially applied update.
      *
      * @param requestedScopes a {@code List<DecisionScope>} for which propositions are requested.
+     * @param returnedPropositions {@code Map<DecisionScope, OptimizeProposition>} containing the
+     *     accumulated propositions returned for the request.
      */
-    private void updateCachedPropositions(@NonNull final List<DecisionScope> requestedScopes) {
-        // update cache with accumulated propositions
-        cachedPropositions.putAll(propositionsInProgress);
-
+    private void updateCachedPropositions(
+            @NonNull final List<DecisionScope> requestedScopes,
+            @NonNull final Map<DecisionScope, OptimizeProposition> returnedPropositions) {
         // remove cached propositions for requested scopes for which no propositions are returned.
-        final List<DecisionScope> returnedScopes = new ArrayList<>(propositionsInProgress.keySet());
         final List<DecisionScope> scopesToRemove = new ArrayList<>(requestedScopes);
-        scopesToRemove.removeAll(returnedScopes);
+        scopesToRemove.removeAll(returnedPropositions.keySet());
+
+        // update cache with accumulated propositions
+        updateCache(returnedPropositions, scopesToRemove);
+    }
+
+    /**
+     * Publishes the next version of the in-memory propositions cache, with the given {@code
+     * updatedPropositions} and without the propositions for the given {@code removedScopes}.
+     *
+     * <p>The cache indexes, the synchronous cache view and the subscriptions are updated for the
+     * changed scopes only.
+     *
+     * @param updatedPropositions {@code Map<DecisionScope, OptimizeProposition>} containing the
+     *     propositions to be cached.
+     * @param removedScopes {@code Collection<DecisionScope>} containing the scopes to be removed
+     *     from the cache.
+     */
+    private void updateCache(
+            @NonNull final Map<DecisionScope, OptimizeProposition> updatedPropositions,
+            @NonNull final Collection<DecisionScope> removedScopes) {
+        synchronized (cacheUpdateLock) {
+            final VersionedPropositions currentCache = cachedPropositions;
+            final VersionedPropositions nextCache =
+                    currentCache.update(updatedPropositions, removedScopes);
+            if (nextCache == currentCache) {
+                return;
+            }
+            cachedPropositions = nextCache;
+
+            final List<DecisionScope> changedScopes = new ArrayList<>(updatedPropositions.keySet());
+            for (final Map.Entry<DecisionScope, OptimizeProposition> entry :
+                    updatedPropositions.entrySet()) {
+                cacheIndex.put(entry.getKey(), entry.getValue(), currentCache.get(entry.getKey()));
+            }
+            for (final DecisionScope scope : removedScopes) {
+                if (currentCache.contains(scope) && !updatedPropositions.containsKey(scope)) {
+                    cacheIndex.remove(scope, currentCache.get(scope));
+                    changedScopes.add(scope);
+                }
+            }
+
+            final Map<DecisionScope, OptimizeProposition> propositions =
+                    nextCache.getPropositions();
+            cacheView.publish(propositions, cacheIndex);
+            subscriptionRegistry.setCachedPropositions(propositions, changedScopes);
+        }
+    }
+
+    /**
+     * Writes the returned propositions to the propositions snapshot, if persistent or shared cache
+     * is enabled in the configuration.
+     *
+     * <p>The snapshot is deleted once when both are disabled, on the first update or after they
+     * were enabled, so a snapshot written in an earlier session is not left behind.
+     *
+     * <p>Only the propositions for the returned and requested scopes are written, propositions
+     * written to the snapshot for other scopes, possibly by other processes, are kept. The
+     * snapshot is written on a background thread, so the extension thread is not blocked on the
+     * file I/O.
+     *
+     * @param event {@link Event} used for retrieving the configuration shared state.
+     * @param requestedScopes a {@code List<DecisionScope>} for which propositions are requested.
+     * @param returnedPropositions {@code Map<DecisionScope, OptimizeProposition>} containing the
+     *     accumulated propositions returned for the request.
+     */
+    private void updatePropositionsSnapshot(
+            @NonNull final Event event,
+            @NonNull final List<DecisionScope> requestedScopes,
+            @NonNull final Map<DecisionScope, OptimizeProposition> returnedPropositions) {
+        final OptimizeConfiguration configuration = retrieveConfiguration(event);
+        final boolean enabled =
+                configuration != null
+                        && (configuration.isPersistentCacheEnabled()
+                                || configuration.isSharedCacheEnabled());
+        final boolean wasDisabled = Boolean.FALSE.equals(propositionsSnapshotEnabled);
+        propositionsSnapshotEnabled = enabled;
+        if (!enabled && wasDisabled) {
+            return;
+        }
 
-        for (final DecisionScope scope : scopesToRemove) {
-            cachedPropositions.remove(scope);
+        final PropositionsSnapshot snapshot = getPropositionsSnapshot();
+        if (snapshot == null) {
+            return;
+        }
+
+        if (!enabled) {
+            snapshot.clear();
+            return;
+        }
+
+        final List<DecisionScope> removedScopes = new ArrayList<>(requestedScopes);
+        removedScopes.removeAll(cachedPropositions.getPropositions().keySet());
+        snapshot.scheduleSave(returnedPropositions, removedScopes);
+    }
+
+    /**
+     * Updates the in-memory propositions cache from the propositions snapshot, if it was written
+     * by another process since it was last read.
+     *
+     * <p>Cached propositions are replaced with the ones in the snapshot, and removed if the
+     * snapshot doesn't contain them any more.
+     */
+    private void syncPropositionsFromSharedSnapshot() {
+        final PropositionsSnapshot snapshot = getPropositionsSnapshot();
+        if (snapshot == null || !snapshot.refresh()) {
+            return;
+        }
+
+        // Read and update the cache under the update lock, so no update is lost in between.
+        synchronized (cacheUpdateLock) {
+            final Map<DecisionScope, OptimizeProposition> updatedPropositions = new HashMap<>();
+            final List<DecisionScope> removedScopes = new ArrayList<>();
+            for (final Map.Entry<DecisionScope, OptimizeProposition> entry :
+                    cachedPropositions.getPropositions().entrySet()) {
+                final OptimizeProposition proposition = snapshot.load(entry.getKey());
+                if (proposition == null) {
+                    removedScopes.add(entry.getKey());
+                } else if (!proposition.equals(entry.getValue())) {
+                    updatedPropositions.put(entry.getKey(), proposition);
+                }
+            }
+            updateCache(updatedPropositions, removedScopes);
+        }
+    }
+
+    /**
+     * Loads the propositions for the given {@code scopes}, which are not in the in-memory cache,
+     * from the propositions snapshot.
+     *
+     * @param scopes {@code List<DecisionScope>} containing the requested scopes.
+     */
+    private void loadPropositionsFromSnapshot(@NonNull final List<DecisionScope> scopes) {
+        final PropositionsSnapshot snapshot = getPropositionsSnapshot();
+        if (snapshot == null) {
+            return;
+        }
+
+        // Read and update the cache under the update lock, so propositions cached in between are
+        // not replaced.
+        synchronized (cacheUpdateLock) {
+            final VersionedPropositions cache = cachedPropositions;
+            final Map<DecisionScope, OptimizeProposition> loadedPropositions = new HashMap<>();
+            for (final DecisionScope scope : scopes) {
+                if (cache.contains(scope)) {
+                    continue;
+                }
+                final OptimizeProposition proposition = snapshot.load(scope);
+                if (proposition != null) {
+                    loadedPropositions.put(scope, proposition);
+                }
+            }
+            updateCache(loadedPropositions, Collections.<DecisionScope>emptyList());
+        }
+    }
+
+    /**
+     * Returns the propositions snapshot stored in the application cache directory.
+     *
+     * @return {@link PropositionsSnapshot} instance, or null if the application cache directory is
+     *     not available.
+     */
+    private PropositionsSnapshot getPropositionsSnapshot() {
+        PropositionsSnapshot snapshot = propositionsSnapshot;
+        if (snapshot == null) {
+            synchronized (propositionsSnapshotLock) {
+                snapshot = propositionsSnapshot;
+                if (snapshot == null) {
+                    final File cacheDir =
+                            ServiceProvider.getInstance()
+                                    .getDeviceInfoService()
+                                    .getApplicationCacheDir();
+                    if (cacheDir != null) {
+                        snapshot =
+                                new PropositionsSnapshot(
+                                        new File(
+                                                cacheDir,
+                                                OptimizeConstants
+                                                        .PROPOSITIONS_SNAPSHOT_FILE_NAME));
+                        propositionsSnapshot = snapshot;
+                    }
+                }
+            }
         }
+        return snapshot;
     }
 
     /**
@@ -564,6 +1391,7 @@ class OptimizeExtension extends Extension {
      *
      * @param event incoming {@link Event} object to be processed.
      */
+    @SuppressWarnings("unchecked")
     void handleEdgeResponse(@NonNull final Event event) {
         try {
             final Map<String, Object> eventData = event.getEventData();
@@ -582,9 +1410,9 @@ class OptimizeExtension extends Extension {
                 return;
             }
 
-            final List<Map<String, Object>> payload =
-                    DataReader.getTypedListOfMap(
-                            Object.class, eventData, OptimizeConstants.Edge.PAYLOAD);
+            // The payload is read in a single pass without copying, event data is immutable.
+            final List<?> payload =
+                    OptimizeUtils.getList(eventData, OptimizeConstants.Edge.PAYLOAD);
             if (OptimizeUtils.isNullOrEmpty(payload)) {
                 Log.debug(
                         OptimizeConstants.LOG_TAG,
@@ -595,14 +1423,37 @@ class OptimizeExtension extends Extension {
                 return;
             }
 
+            if (!isCurrentGeneration(requestEventId)) {
+                Log.debug(
+                        OptimizeConstants.LOG_TAG,
+                        SELF_TAG,
+                        "handleEdgeResponse - Ignoring Edge event, the update request was sent"
+                                + " before the propositions cache was cleared.");
+                return;
+            }
+
+            // Propositions returned for a shard are accumulated in its sharded update request.
+            final ShardedUpdateRequest shardedRequest = shardedUpdateRequests.get(requestEventId);
             final Map<DecisionScope, OptimizeProposition> propositionsMap = new HashMap<>();
-            for (final Map<String, Object> propositionData : payload) {
+            for (final Object propositionData : payload) {
+                if (!(propositionData instanceof Map)) {
+                    continue;
+                }
+
                 final OptimizeProposition optimizeProposition =
-                        OptimizeProposition.fromEventData(propositionData);
+                        OptimizeProposition.fromEventData((Map<String, Object>) propositionData);
                 if (optimizeProposition != null
                         && !OptimizeUtils.isNullOrEmpty(optimizeProposition.getOffers())) {
                     final DecisionScope scope = new DecisionScope(optimizeProposition.getScope());
                     propositionsMap.put(scope, optimizeProposition);
+
+                    // accumulate the proposition in in-progress propositions dictionary as soon as
+                    // it is parsed.
+                    if (shardedRequest != null) {
+                        shardedRequest.addProposition(requestEventId, scope, optimizeProposition);
+                    } else {
+                        propositionsInProgress.put(scope, optimizeProposition);
+                    }
                 }
             }
 
@@ -616,9 +1467,6 @@ class OptimizeExtension extends Extension {
                 return;
             }
 
-            // accumulate propositions in in-progress propositions dictionary
-            propositionsInProgress.putAll(propositionsMap);
-
             final List<Map<String, Object>> propositionsList = new ArrayList<>();
             for (final OptimizeProposition optimizeProposition : propositionsMap.values()) {
                 propositionsList.add(optimizeProposition.toEventData());
@@ -729,12 +1577,24 @@ class OptimizeExtension extends Extension {
                         SELF_TAG,
                         "Recoverable error encountered: Status %d",
                         errorStatus);
+
+                // The failed scopes are retried when the Edge request completes.
+                final long retryAfterSeconds =
+                        DataReader.optLong(
+                                errorReport, OptimizeConstants.Edge.ErrorKeys.RETRY_AFTER, 0L);
+                updateRequestEventIdsRetryDelays.put(
+                        requestEventId, TimeUnit.SECONDS.toMillis(Math.max(retryAfterSeconds, 0L)));
                 return;
             } else {
                 AEPOptimizeError aepOptimizeError =
                         new AEPOptimizeError(
                                 errorType, errorStatus, errorTitle, errorDetail, errorReport, null);
                 updateRequestEventIdsErrors.put(requestEventId, aepOptimizeError);
+                Log.trace(
+                        OptimizeConstants.LOG_TAG,
+                        SELF_TAG,
+                        "handleEdgeErrorResponse - Pending update request errors count: (%d).",
+                        updateRequestEventIdsErrors.size());
             }
         } catch (final Exception e) {
             Log.warning(
@@ -776,10 +1636,22 @@ class OptimizeExtension extends Extension {
                 return;
             }
 
+            OptimizeConfiguration configuration = retrieveConfiguration(event);
+            if (configuration == null) {
+                configuration = OptimizeConfiguration.DEFAULT;
+            }
+            if (configuration.isSharedCacheEnabled()) {
+                syncPropositionsFromSharedSnapshot();
+            }
+            if (configuration.isSharedCacheEnabled() || configuration.isPersistentCacheEnabled()) {
+                loadPropositionsFromSnapshot(validScopes);
+            }
+
+            final VersionedPropositions cache = cachedPropositions;
             final List<Map<String, Object>> propositionsList = new ArrayList<>();
             for (final DecisionScope scope : validScopes) {
-                if (cachedPropositions.containsKey(scope)) {
-                    final OptimizeProposition optimizeProposition = cachedPropositions.get(scope);
+                if (cache.contains(scope)) {
+                    final OptimizeProposition optimizeProposition = cache.get(scope);
                     propositionsList.add(optimizeProposition.toEventData());
                 }
             }
@@ -798,6 +1670,12 @@ class OptimizeExtension extends Extension {
 
             getApi().dispatch(responseEvent);
 
+            refreshScheduler.recordRead(validScopes);
+            // Configuration updates are applied as they happen, this covers a configuration set
+            // before the extension was registered.
+            refreshScheduler.configure(
+                    configuration.getRefreshInterval(), configuration.getRefreshScopeCount());
+            prefetchNextScopes(configuration, validScopes);
         } catch (final Exception e) {
             Log.warning(
                     OptimizeConstants.LOG_TAG,
@@ -809,6 +1687,186 @@ class OptimizeExtension extends Extension {
         }
     }
 
+    /**
+     * Dispatches an update propositions request for the scopes likely to be requested after the
+     * given {@code requestedScopes}.
+     *
+     * <p>This method records the requested scopes in the navigation history and returns without
+     * dispatching an event if predictive prefetching is not enabled in the configuration. Predicted
+     * scopes which are already cached, or for which an update request is in progress, are not
+     * prefetched. Neither are the scopes not updated in this session, as the additional XDM and
+     * free-form data they are requested with is unknown.
+     *
+     * @param configuration {@link OptimizeConfiguration} containing the Optimize settings.
+     * @param requestedScopes {@code List<DecisionScope>} containing the requested scopes.
+     */
+    private void prefetchNextScopes(
+            @NonNull final OptimizeConfiguration configuration,
+            @NonNull final List<DecisionScope> requestedScopes) {
+        if (!configuration.isPrefetchEnabled()) {
+            return;
+        }
+
+        final List<DecisionScope> scopesToPrefetch = new ArrayList<>();
+        for (final DecisionScope scope : getScopePrefetcher().recordRequest(requestedScopes)) {
+            if (cachedPropositions.contains(scope)
+                    || isUpdateInProgress(scope)
+                    || !scopeRequestContexts.containsKey(scope)) {
+                continue;
+            }
+            scopesToPrefetch.add(scope);
+        }
+
+        if (scopesToPrefetch.isEmpty()) {
+            return;
+        }
+
+        Log.trace(
+                OptimizeConstants.LOG_TAG,
+                SELF_TAG,
+                "prefetchNextScopes - Prefetching propositions for %d predicted scope(s).",
+                scopesToPrefetch.size());
+        dispatchUpdatePropositionsRequests(
+                OptimizeConstants.EventNames.PREFETCH_PROPOSITIONS_REQUEST, scopesToPrefetch);
+    }
+
+    /**
+     * Returns the {@link ScopePrefetcher}, creating it with the Optimize data store on first use.
+     *
+     * @return {@link ScopePrefetcher} recording the scopes navigation history.
+     */
+    private ScopePrefetcher getScopePrefetcher() {
+        ScopePrefetcher prefetcher = scopePrefetcher;
+        if (prefetcher == null) {
+            synchronized (scopePrefetcherLock) {
+                prefetcher = scopePrefetcher;
+                if (prefetcher == null) {
+                    prefetcher = new ScopePrefetcher(getOptimizeDataStore());
+                    scopePrefetcher = prefetcher;
+                }
+            }
+        }
+        return prefetcher;
+    }
+
+    /**
+     * Clears the scopes navigation history, without creating the {@link ScopePrefetcher} if it is
+     * not used in this session.
+     *
+     * <p>The navigation history persisted in an earlier session, if any, is removed from the
+     * Optimize data store.
+     */
+    private void resetScopePrefetcher() {
+        synchronized (scopePrefetcherLock) {
+            if (scopePrefetcher != null) {
+                scopePrefetcher.reset();
+                return;
+            }
+
+            final NamedCollection dataStore = getOptimizeDataStore();
+            if (dataStore != null
+                    && dataStore.contains(OptimizeConstants.DataStoreKeys.SCOPE_TRANSITIONS)) {
+                dataStore.remove(OptimizeConstants.DataStoreKeys.SCOPE_TRANSITIONS);
+            }
+        }
+    }
+
+    private NamedCollection getOptimizeDataStore() {
+        return ServiceProvider.getInstance()
+                .getDataStoreService()
+                .getNamedCollection(OptimizeConstants.DATA_STORE_NAME);
+    }
+
+    /**
+     * Dispatches update propositions request events, with the given {@code eventName}, for the
+     * provided {@code scopes}.
+     *
+     * <p>Each scope is requested with the additional XDM and free-form data of its last update
+     * request, one event being dispatched for the scopes sharing the same data. Scopes without a
+     * recorded update request are skipped.
+     *
+     * @param eventName {@link String} containing the event name.
+     * @param scopes {@code List<DecisionScope>} containing the scopes to be updated.
+     */
+    private void dispatchUpdatePropositionsRequests(
+            final String eventName, final List<DecisionScope> scopes) {
+        final Map<Map<String, Object>, List<DecisionScope>> scopesByContext = new HashMap<>();
+        for (final DecisionScope scope : scopes) {
+            final Map<String, Object> context = scopeRequestContexts.get(scope);
+            if (context == null) {
+                continue;
+            }
+            List<DecisionScope> contextScopes = scopesByContext.get(context);
+            if (contextScopes == null) {
+                contextScopes = new ArrayList<>();
+                scopesByContext.put(context, contextScopes);
+            }
+            contextScopes.add(scope);
+        }
+
+        for (final Map.Entry<Map<String, Object>, List<DecisionScope>> entry :
+                scopesByContext.entrySet()) {
+            dispatchUpdatePropositionsRequest(eventName, entry.getValue(), entry.getKey());
+        }
+    }
+
+    /**
+     * Dispatches an update propositions request event, with the given {@code eventName}, for the
+     * provided {@code scopes}.
+     *
+     * <p>The event is handled by this extension like any update request issued with the {@link
+     * Optimize#updatePropositions(List, Map, Map)} API.
+     *
+     * @param eventName {@link String} containing the event name.
+     * @param scopes {@code List<DecisionScope>} containing the scopes to be updated.
+     * @param context {@code Map<String, Object>} containing the additional XDM and free-form data
+     *     to be attached to the request.
+     */
+    private void dispatchUpdatePropositionsRequest(
+            final String eventName,
+            final List<DecisionScope> scopes,
+            final Map<String, Object> context) {
+        final List<Map<String, Object>> flattenedDecisionScopes = new ArrayList<>();
+        for (final DecisionScope scope : scopes) {
+            flattenedDecisionScopes.add(scope.toEventData());
+        }
+
+        final Map<String, Object> eventData = new HashMap<>(context);
+        eventData.put(
+                OptimizeConstants.EventDataKeys.REQUEST_TYPE,
+                OptimizeConstants.EventDataValues.REQUEST_TYPE_UPDATE);
+        eventData.put(OptimizeConstants.EventDataKeys.DECISION_SCOPES, flattenedDecisionScopes);
+        eventData.put(
+                OptimizeConstants.EventDataKeys.REQUEST_PRIORITY,
+                OptimizeConstants.EventDataValues.REQUEST_PRIORITY_BACKGROUND);
+
+        final Event event =
+                new Event.Builder(
+                                eventName,
+                                OptimizeConstants.EventType.OPTIMIZE,
+                                OptimizeConstants.EventSource.REQUEST_CONTENT)
+                        .setEventData(eventData)
+                        .build();
+
+        getApi().dispatch(event);
+    }
+
+    /**
+     * Checks whether an update propositions request, which hasn't yet received an Edge completion
+     * response, contains the given {@code scope}.
+     *
+     * @param scope {@link DecisionScope} to be checked.
+     * @return {@code boolean} indicating whether an update is in progress for the scope.
+     */
+    private boolean isUpdateInProgress(final DecisionScope scope) {
+        for (final List<DecisionScope> requestedScopes : updateRequestEventIdsInProgress.values()) {
+            if (requestedScopes.contains(scope)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Handles the event with type {@value OptimizeConstants.EventType#OPTIMIZE} and source {@value
      * OptimizeConstants.EventSource#REQUEST_CONTENT}.
@@ -818,13 +1876,17 @@ class OptimizeExtension extends Extension {
      * override {@code datasetId} indicating the dataset which will be used for storing the
      * Experience Events sent to the Edge network.
      *
+     * <p>If impression deduplication is enabled in configuration, the display interactions already
+     * tracked for the same proposition offer within the deduplication window, or in the current
+     * session, are not sent again.
+     *
      * @param event incoming {@link Event} object to be processed.
      */
     void handleTrackPropositions(@NonNull final Event event) {
         final Map<String, Object> eventData = event.getEventData();
 
-        final Map<String, Object> configData = retrieveConfigurationSharedState(event);
-        if (OptimizeUtils.isNullOrEmpty(configData)) {
+        final OptimizeConfiguration configuration = retrieveConfiguration(event);
+        if (configuration == null) {
             Log.debug(
                     OptimizeConstants.LOG_TAG,
                     SELF_TAG,
@@ -848,52 +1910,234 @@ class OptimizeExtension extends Extension {
                 return;
             }
 
-            final Map<String, Object> edgeEventData = new HashMap<>();
-            edgeEventData.put(OptimizeConstants.JsonKeys.XDM, propositionInteractionsXdm);
-
-            // Add override datasetId
-            if (configData.containsKey(
-                    OptimizeConstants.Configuration.OPTIMIZE_OVERRIDE_DATASET_ID)) {
-                final String overrideDatasetId =
-                        DataReader.getString(
-                                configData,
-                                OptimizeConstants.Configuration.OPTIMIZE_OVERRIDE_DATASET_ID);
-                if (!OptimizeUtils.isNullOrEmpty(overrideDatasetId)) {
-                    edgeEventData.put(OptimizeConstants.JsonKeys.DATASET_ID, overrideDatasetId);
-                }
+            dispatchPropositionInteractions(configuration, propositionInteractionsXdm);
+
+        } catch (final Exception e) {
+            Log.warning(
+                    OptimizeConstants.LOG_TAG,
+                    SELF_TAG,
+                    "handleTrackPropositions - Failed to process track propositions request event"
+                            + " due to an exception (%s)!",
+                    e.getLocalizedMessage());
+        }
+    }
+
+    /**
+     * Handles the event with type {@value OptimizeConstants.EventType#OPTIMIZE} and source {@value
+     * OptimizeConstants.EventSource#REQUEST_CONTENT}.
+     *
+     * <p>This method resolves the proposition and offers with the identifiers in the incoming
+     * event from the propositions cache, and dispatches an event to the Edge network extension to
+     * send their interactions information to the Experience Edge network.
+     *
+     * @param event incoming {@link Event} object to be processed.
+     */
+    void handleTrackPropositionsById(@NonNull final Event event) {
+        final Map<String, Object> eventData = event.getEventData();
+
+        final OptimizeConfiguration configuration = retrieveConfiguration(event);
+        if (configuration == null) {
+            Log.debug(
+                    OptimizeConstants.LOG_TAG,
+                    SELF_TAG,
+                    "handleTrackPropositionsById - Cannot process the track propositions request"
+                            + " event, Configuration shared state is not available.");
+            return;
+        }
+
+        try {
+            final String propositionId =
+                    DataReader.getString(eventData, OptimizeConstants.EventDataKeys.PROPOSITION_ID);
+            final List<String> offerIds =
+                    OptimizeUtils.getStringList(
+                            eventData, OptimizeConstants.EventDataKeys.OFFER_IDS);
+            final String interactionType =
+                    DataReader.getString(
+                            eventData, OptimizeConstants.EventDataKeys.INTERACTION_TYPE);
+
+            final OptimizeProposition proposition = cacheIndex.getProposition(propositionId);
+            if (proposition == null) {
+                Log.debug(
+                        OptimizeConstants.LOG_TAG,
+                        SELF_TAG,
+                        "handleTrackPropositionsById - Cannot track the interactions, proposition"
+                                + " (%s) is not cached.",
+                        propositionId);
+                return;
             }
 
-            final Event edgeEvent =
-                    new Event.Builder(
-                                    OptimizeConstants.EventNames
-                                            .EDGE_PROPOSITION_INTERACTION_REQUEST,
-                                    OptimizeConstants.EventType.EDGE,
-                                    OptimizeConstants.EventSource.REQUEST_CONTENT)
-                            .setEventData(edgeEventData)
-                            .build();
+            final List<Offer> interactedOffers = new ArrayList<>();
+            for (final Offer offer : proposition.getOffers()) {
+                if (offerIds != null && offerIds.contains(offer.getId())) {
+                    interactedOffers.add(offer);
+                }
+            }
+            if (interactedOffers.isEmpty()) {
+                Log.debug(
+                        OptimizeConstants.LOG_TAG,
+                        SELF_TAG,
+                        "handleTrackPropositionsById - Cannot track the interactions, proposition"
+                                + " (%s) does not contain the provided offers.",
+                        propositionId);
+                return;
+            }
 
-            getApi().dispatch(edgeEvent);
+            final String experienceEventType =
+                    OptimizeConstants.EventDataValues.INTERACTION_TYPE_TAP.equals(interactionType)
+                            ? OptimizeConstants.JsonValues.EE_EVENT_TYPE_PROPOSITION_INTERACT
+                            : OptimizeConstants.JsonValues.EE_EVENT_TYPE_PROPOSITION_DISPLAY;
+            dispatchPropositionInteractions(
+                    configuration,
+                    proposition.generateInteractionXdm(experienceEventType, interactedOffers));
 
         } catch (final Exception e) {
             Log.warning(
                     OptimizeConstants.LOG_TAG,
                     SELF_TAG,
-                    "handleTrackPropositions - Failed to process track propositions request event"
-                            + " due to an exception (%s)!",
+                    "handleTrackPropositionsById - Failed to process track propositions request"
+                            + " event due to an exception (%s)!",
                     e.getLocalizedMessage());
         }
     }
 
+    /**
+     * Dispatches an event to the Edge network extension to send the given proposition interactions
+     * {@code xdm} to the Experience Edge network.
+     *
+     * <p>If impression deduplication is enabled in configuration, the display interactions already
+     * tracked for the same proposition offer are removed from the XDM data first, and no event is
+     * dispatched if none is left.
+     *
+     * @param configuration {@link OptimizeConfiguration} containing the Optimize settings.
+     * @param propositionInteractionsXdm {@code Map<String, Object>} containing the XDM data for the
+     *     proposition interactions.
+     */
+    private void dispatchPropositionInteractions(
+            @NonNull final OptimizeConfiguration configuration,
+            @NonNull final Map<String, Object> propositionInteractionsXdm) {
+        Map<String, Object> xdm = propositionInteractionsXdm;
+        if (configuration.isImpressionDedupEnabled()) {
+            xdm =
+                    impressionDeduplicator.deduplicate(
+                            xdm,
+                            TimeUnit.SECONDS.toMillis(
+                                    Math.max(configuration.getImpressionDedupWindow(), 0L)));
+            if (xdm == null) {
+                Log.trace(
+                        OptimizeConstants.LOG_TAG,
+                        SELF_TAG,
+                        "dispatchPropositionInteractions - Not sending the proposition"
+                                + " interactions, the display interactions are already tracked.");
+                return;
+            }
+        }
+
+        final Map<String, Object> edgeEventData = new HashMap<>();
+        edgeEventData.put(OptimizeConstants.JsonKeys.XDM, xdm);
+
+        // Add override datasetId
+        final String overrideDatasetId = configuration.getOverrideDatasetId();
+        if (overrideDatasetId != null) {
+            edgeEventData.put(OptimizeConstants.JsonKeys.DATASET_ID, overrideDatasetId);
+        }
+
+        final Event edgeEvent =
+                new Event.Builder(
+                                OptimizeConstants.EventNames.EDGE_PROPOSITION_INTERACTION_REQUEST,
+                                OptimizeConstants.EventType.EDGE,
+                                OptimizeConstants.EventSource.REQUEST_CONTENT)
+                        .setEventData(edgeEventData)
+                        .build();
+
+        getApi().dispatch(edgeEvent);
+    }
+
     /**
      * Handles the event with type {@value OptimizeConstants.EventType#OPTIMIZE} and source {@value
      * OptimizeConstants.EventSource#REQUEST_RESET}.
      *
-     * <p>This method clears previously cached propositions in the SDK.
+     * <p>This method clears previously cached propositions and tracked impressions in the SDK. When
+     * the identities are reset, the scopes navigation history is cleared as well.
+     *
+     * <p>The cache and its indexes are replaced with empty ones in a new cache generation, rather
+     * than cleared entry by entry, and the propositions returned afterwards for update requests
+     * sent before are dropped. The propositions snapshot is cleared along with the cache.
      *
      * @param event incoming {@link Event} object to be processed.
      */
     void handleClearPropositions(@NonNull final Event event) {
-        cachedPropositions.clear();
+        final PropositionsSnapshot snapshot = getPropositionsSnapshot();
+        synchronized (cacheUpdateLock) {
+            // Clear the snapshot before the cache, under the update lock, so propositions loaded
+            // from the snapshot can't be cached again in the new cache generation.
+            if (snapshot != null) {
+                snapshot.clear();
+            }
+            cachedPropositions = cachedPropositions.clear();
+            cacheIndex = new PropositionsCacheIndex();
+            final Map<DecisionScope, OptimizeProposition> propositions =
+                    cachedPropositions.getPropositions();
+            cacheView.publish(propositions, cacheIndex);
+            subscriptionRegistry.setCachedPropositions(propositions);
+        }
+        refreshScheduler.reset();
+        scopeRequestContexts.clear();
+        impressionDeduplicator.reset();
+        if (OptimizeConstants.EventType.GENERIC_IDENTITY.equalsIgnoreCase(event.getType())) {
+            resetScopePrefetcher();
+        }
+    }
+
+    /**
+     * Handles the event with type {@value OptimizeConstants.EventType#GENERIC_LIFECYCLE} and source
+     * {@value OptimizeConstants.EventSource#REQUEST_CONTENT}.
+     *
+     * <p>This method pauses the periodic propositions refresh when the app goes to the background
+     * and resumes it when the app comes back to the foreground. The tracked impressions are
+     * forgotten if the app stayed in the background longer than the session timeout. The scopes
+     * navigation history is persisted when the app goes to the background.
+     *
+     * @param event incoming {@link Event} object to be processed.
+     */
+    void handleLifecycleRequest(@NonNull final Event event) {
+        final String action =
+                DataReader.optString(
+                        event.getEventData(), OptimizeConstants.EventDataKeys.LIFECYCLE_ACTION, "");
+        if (OptimizeConstants.EventDataValues.LIFECYCLE_START.equals(action)) {
+            refreshScheduler.setPaused(false);
+            impressionDeduplicator.onLifecycleStart();
+        } else if (OptimizeConstants.EventDataValues.LIFECYCLE_PAUSE.equals(action)) {
+            refreshScheduler.setPaused(true);
+            impressionDeduplicator.onLifecyclePause();
+            if (scopePrefetcher != null) {
+                scopePrefetcher.persist();
+            }
+        }
+    }
+
+    /**
+     * Handles the event with type {@value OptimizeConstants.EventType#HUB} and source {@value
+     * OptimizeConstants.EventSource#SHARED_STATE}.
+     *
+     * <p>This method applies the propositions refresh settings when the {@code Configuration}
+     * shared state is updated.
+     *
+     * @param event incoming {@link Event} object to be processed.
+     */
+    void handleSharedStateUpdate(@NonNull final Event event) {
+        final String stateOwner =
+                DataReader.optString(
+                        event.getEventData(), OptimizeConstants.EventDataKeys.STATE_OWNER, "");
+        if (!OptimizeConstants.Configuration.EXTENSION_NAME.equals(stateOwner)) {
+            return;
+        }
+
+        final OptimizeConfiguration configuration = retrieveConfiguration(event);
+        if (configuration == null) {
+            return;
+        }
+        refreshScheduler.configure(
+                configuration.getRefreshInterval(), configuration.getRefreshScopeCount());
     }
 
     /**
@@ -912,6 +2156,31 @@ class OptimizeExtension extends Extension {
         return configurationSharedState != null ? configurationSharedState.getValue() : null;
     }
 
+    /**
+     * Retrieves the Optimize settings from the {@code Configuration} shared state versioned at the
+     * current {@code event}.
+     *
+     * <p>The settings are read again only if the shared state data differs from the one they were
+     * last read from.
+     *
+     * @param event incoming {@link Event} instance.
+     * @return {@link OptimizeConfiguration} instance, or null if the {@code Configuration} shared
+     *     state is not available or empty.
+     */
+    private OptimizeConfiguration retrieveConfiguration(final Event event) {
+        final Map<String, Object> configData = retrieveConfigurationSharedState(event);
+        if (OptimizeUtils.isNullOrEmpty(configData)) {
+            return null;
+        }
+
+        OptimizeConfiguration currentConfiguration = configuration;
+        if (currentConfiguration == null || !currentConfiguration.isReadFrom(configData)) {
+            currentConfiguration = new OptimizeConfiguration(configData);
+            configuration = currentConfiguration;
+        }
+        return currentConfiguration;
+    }
+
     /**
      * Retrieves the {@code List<DecisionScope>} containing valid scopes.
      *
@@ -954,6 +2223,54 @@ class OptimizeExtension extends Extension {
         return validScopes;
     }
 
+    /**
+     * Retrieves the decision scopes requested in the given {@code event}.
+     *
+     * <p>The scopes are not validated, they are only used for ordering the event in the events
+     * dispatcher.
+     *
+     * @param event {@link Event} containing the requested decision scopes.
+     * @return {@code List<DecisionScope>} containing the requested scopes, or null if they cannot
+     *     be retrieved from the event data.
+     */
+    private List<DecisionScope> retrieveRequestedScopes(final Event event) {
+        try {
+            final List<Map<String, Object>> decisionScopesData =
+                    DataReader.getTypedListOfMap(
+                            Object.class,
+                            event.getEventData(),
+                            OptimizeConstants.EventDataKeys.DECISION_SCOPES);
+            if (OptimizeUtils.isNullOrEmpty(decisionScopesData)) {
+                return null;
+            }
+
+            final List<DecisionScope> requestedScopes = new ArrayList<>();
+            for (final Map<String, Object> scopeData : decisionScopesData) {
+                final DecisionScope scope = DecisionScope.fromEventData(scopeData);
+                if (scope != null) {
+                    requestedScopes.add(scope);
+                }
+            }
+            return requestedScopes.isEmpty() ? null : requestedScopes;
+        } catch (final Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * Retrieves the events dispatcher priority for the request with the given {@code eventData}.
+     *
+     * @param eventData {@code Map<String, Object>} containing the request event data.
+     * @return {@link OptimizeEventsDispatcher.Priority} of the request, defaults to {@link
+     *     OptimizeEventsDispatcher.Priority#NORMAL}.
+     */
+    private OptimizeEventsDispatcher.Priority retrieveRequestPriority(
+            final Map<String, Object> eventData) {
+        return OptimizeEventsDispatcher.Priority.from(
+                DataReader.optString(
+                        eventData, OptimizeConstants.EventDataKeys.REQUEST_PRIORITY, null));
+    }
+
     /**
      * Creates {@value OptimizeConstants.EventType#OPTIMIZE}, {@value
      * OptimizeConstants.EventSource#RESPONSE_CONTENT} event with the given {@code error} in event
@@ -987,14 +2304,65 @@ class OptimizeExtension extends Extension {
                 .build();
     }
 
+    /**
+     * Removes and returns the error received from the Edge network for the Edge request with the
+     * given {@code requestEventId}.
+     *
+     * @param requestEventId {@link String} containing the unique identifier of the Edge request
+     *     event.
+     * @return {@link AEPOptimizeError} received, or null if none.
+     */
+    private AEPOptimizeError takeUpdateRequestError(final String requestEventId) {
+        final AEPOptimizeError error = updateRequestEventIdsErrors.remove(requestEventId);
+        Log.trace(
+                OptimizeConstants.LOG_TAG,
+                SELF_TAG,
+                "takeUpdateRequestError - Pending update request errors count: (%d).",
+                updateRequestEventIdsErrors.size());
+        return error;
+    }
+
+    /**
+     * Converts the given {@code error}, returned for an Edge request event dispatched with a
+     * response callback, to an {@link AEPOptimizeError}.
+     *
+     * @param error {@link AdobeError} returned.
+     * @return {@link AEPOptimizeError} instance.
+     */
+    private static AEPOptimizeError toAEPOptimizeError(final AdobeError error) {
+        if (error == AdobeError.CALLBACK_TIMEOUT) {
+            return AEPOptimizeError.Companion.getTimeoutError();
+        }
+        return AEPOptimizeError.Companion.getUnexpectedError();
+    }
+
     @VisibleForTesting
     Map<DecisionScope, OptimizeProposition> getCachedPropositions() {
-        return cachedPropositions;
+        return cachedPropositions.getPropositions();
+    }
+
+    @VisibleForTesting
+    long getCachedPropositionsVersion() {
+        return cachedPropositions.getVersion();
     }
 
     @VisibleForTesting
     void setCachedPropositions(final Map<DecisionScope, OptimizeProposition> cachedPropositions) {
-        this.cachedPropositions = cachedPropositions;
+        synchronized (cacheUpdateLock) {
+            // Replace all the cached propositions, in the same cache generation.
+            this.cachedPropositions =
+                    this.cachedPropositions.update(
+                            cachedPropositions, this.cachedPropositions.getPropositions().keySet());
+            cacheIndex.clear();
+            for (final Map.Entry<DecisionScope, OptimizeProposition> entry :
+                    cachedPropositions.entrySet()) {
+                cacheIndex.put(entry.getKey(), entry.getValue(), null);
+            }
+            final Map<DecisionScope, OptimizeProposition> propositions =
+                    this.cachedPropositions.getPropositions();
+            cacheView.publish(propositions, cacheIndex);
+            subscriptionRegistry.setCachedPropositions(propositions);
+        }
     }
 
     @VisibleForTesting
@@ -1017,11 +2385,61 @@ class OptimizeExtension extends Extension {
     @VisibleForTesting
     void setUpdateRequestEventIdsInProgress(
             final String eventId, final List<DecisionScope> expectedScopes) {
-        updateRequestEventIdsInProgress.put(eventId, expectedScopes);
+        trackUpdateRequest(eventId, expectedScopes, cachedPropositions.getGeneration());
+    }
+
+    @VisibleForTesting
+    BoundedExpiringMap<AEPOptimizeError> getUpdateRequestEventIdsErrors() {
+        return updateRequestEventIdsErrors;
+    }
+
+    @VisibleForTesting
+    Map<DecisionScope, Map<String, Object>> getScopeRequestContexts() {
+        return scopeRequestContexts;
+    }
+
+    @VisibleForTesting
+    void setRefreshScheduler(final PropositionsRefreshScheduler refreshScheduler) {
+        this.refreshScheduler = refreshScheduler;
+    }
+
+    @VisibleForTesting
+    void setScopePrefetcher(final ScopePrefetcher scopePrefetcher) {
+        this.scopePrefetcher = scopePrefetcher;
+    }
+
+    @VisibleForTesting
+    void setSubscriptionRegistry(final PropositionsSubscriptionRegistry subscriptionRegistry) {
+        this.subscriptionRegistry = subscriptionRegistry;
+    }
+
+    @VisibleForTesting
+    void setCacheView(final PropositionsCacheView cacheView) {
+        this.cacheView = cacheView;
+    }
+
+    @VisibleForTesting
+    void setPropositionsSnapshot(final PropositionsSnapshot propositionsSnapshot) {
+        this.propositionsSnapshot = propositionsSnapshot;
+    }
+
+    @VisibleForTesting
+    void setCircuitBreaker(final EdgeCircuitBreaker circuitBreaker) {
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    @VisibleForTesting
+    void setImpressionDeduplicator(final ImpressionDeduplicator impressionDeduplicator) {
+        this.impressionDeduplicator = impressionDeduplicator;
+    }
+
+    @VisibleForTesting
+    void setRetryPolicy(final UpdateRequestRetryPolicy retryPolicy) {
+        this.retryPolicy = retryPolicy;
     }
 
     @VisibleForTesting
-    void setEventsDispatcher(final SerialWorkDispatcher<Event> eventsDispatcher) {
+    void setEventsDispatcher(final OptimizeEventsDispatcher eventsDispatcher) {
         this.eventsDispatcher = eventsDispatcher;
     }
 }
@@ -12,10 +12,10 @@
 package com.adobe.marketing.mobile.optimize;
 
 import com.adobe.marketing.mobile.services.Log;
-import com.adobe.marketing.mobile.util.DataReader;
-import java.lang.ref.SoftReference;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -28,6 +28,11 @@ public class OptimizeProposition {
     private final List<Offer> offers;
     private final String scope;
     private final Map<String, Object> scopeDetails;
+    private final int hashCode;
+
+    // Reference XDM data generated on first use and reused afterwards, as the proposition cannot
+    // change.
+    private volatile Map<String, Object> referenceXdm;
 
     /**
      * Constructor creates a {@code OptimizeProposition} using the provided proposition {@code id},
@@ -45,13 +50,19 @@ public class OptimizeProposition {
             final Map<String, Object> scopeDetails) {
         this.id = id != null ? id : "";
         this.scope = scope != null ? scope : "";
-        this.scopeDetails = scopeDetails != null ? scopeDetails : new HashMap<>();
+        this.scopeDetails =
+                scopeDetails != null ? InternPool.internMap(scopeDetails) : Collections.emptyMap();
 
-        this.offers = offers != null ? offers : new ArrayList<>();
-        // Setting a soft reference to OptimizeProposition in each Offer
+        this.offers =
+                offers != null && !offers.isEmpty()
+                        ? CompactList.copyOf(offers)
+                        : Collections.<Offer>emptyList();
+        // Offers and scope details are immutable, their hash codes are computed once as well.
+        this.hashCode = Objects.hash(this.id, this.offers, this.scope, this.scopeDetails);
+        // Setting a reference to OptimizeProposition in each Offer
         for (final Offer o : this.offers) {
             if (o.propositionReference == null) {
-                o.propositionReference = new SoftReference<>(this);
+                o.propositionReference = this;
             }
         }
     }
@@ -68,7 +79,7 @@ public class OptimizeProposition {
     /**
      * Gets the {@code OptimizeProposition} items.
      *
-     * @return {@code List<Offer>} containing the {@link OptimizeProposition} items.
+     * @return immutable {@code List<Offer>} containing the {@link OptimizeProposition} items.
      */
     public List<Offer> getOffers() {
         return offers;
@@ -86,7 +97,8 @@ public class OptimizeProposition {
     /**
      * Gets the {@code OptimizeProposition} scope details.
      *
-     * @return {@code Map<String, Object>} containing the {@link OptimizeProposition} scope details.
+     * @return immutable {@code Map<String, Object>} containing the {@link OptimizeProposition}
+     *     scope details.
      */
     public Map<String, Object> getScopeDetails() {
         return scopeDetails;
@@ -98,19 +110,166 @@ public class OptimizeProposition {
      *
      * <p>The returned XDM data does not contain {@code eventType} for the Experience Event.
      *
+     * <p>The returned map is a copy, which can be modified by the caller, e.g. to add the {@code
+     * eventType}.
+     *
      * @return {@code Map<String, Object>} containing the XDM data for the proposition reference.
      */
     public Map<String, Object> generateReferenceXdm() {
-        final Map<String, Object> experienceDecisioning = new HashMap<>();
-        experienceDecisioning.put(OptimizeConstants.JsonKeys.DECISIONING_PROPOSITION_ID, id);
+        return OptimizeUtils.mutableCopy(getReferenceXdm());
+    }
+
+    /**
+     * Returns the reference XDM data for this proposition, generated once and shared by the later
+     * calls.
+     *
+     * @return immutable {@code Map<String, Object>} containing the XDM data for the proposition
+     *     reference.
+     */
+    Map<String, Object> getReferenceXdm() {
+        Map<String, Object> xdm = referenceXdm;
+        if (xdm == null) {
+            final Map<String, Object> experienceDecisioning =
+                    Collections.<String, Object>singletonMap(
+                            OptimizeConstants.JsonKeys.DECISIONING_PROPOSITION_ID, id);
+            final Map<String, Object> experience =
+                    Collections.<String, Object>singletonMap(
+                            OptimizeConstants.JsonKeys.EXPERIENCE_DECISIONING,
+                            experienceDecisioning);
+            xdm =
+                    Collections.<String, Object>singletonMap(
+                            OptimizeConstants.JsonKeys.EXPERIENCE, experience);
+            referenceXdm = xdm;
+        }
+        return xdm;
+    }
+
+    /**
+     * Generates a map containing XDM formatted data for {@code Experience Event -
+     * OptimizeProposition Interactions} field group from the given {@code interactedOffers} of
+     * this {@code OptimizeProposition} and given {@code experienceEventType}.
+     *
+     * @param experienceEventType {@link String} containing the event type for the Experience Event
+     * @param interactedOffers {@code List<Offer>} containing the offers interacted with.
+     * @return immutable {@code Map<String, Object>} containing the XDM data for the proposition
+     *     interaction.
+     */
+    Map<String, Object> generateInteractionXdm(
+            final String experienceEventType, final List<Offer> interactedOffers) {
+        return createInteractionXdm(
+                experienceEventType,
+                Collections.singletonList(createInteractionData(interactedOffers)));
+    }
 
-        final Map<String, Object> experience = new HashMap<>();
-        experience.put(OptimizeConstants.JsonKeys.EXPERIENCE_DECISIONING, experienceDecisioning);
+    /**
+     * Generates a map containing XDM formatted data for {@code Experience Event -
+     * OptimizeProposition Interactions} field group from the given {@code offers}, which may belong
+     * to different propositions, and given {@code experienceEventType}.
+     *
+     * <p>The offers are grouped by proposition, so the proposition data, including its {@code
+     * scopeDetails}, is added once for all its offers. Offers which are not contained in a
+     * proposition are skipped.
+     *
+     * @param experienceEventType {@link String} containing the event type for the Experience Event
+     * @param offers {@code List<Offer>} containing the offers interacted with.
+     * @return immutable {@code Map<String, Object>} containing the XDM data for the proposition
+     *     interactions, or null if none of the offers is contained in a proposition.
+     */
+    static Map<String, Object> generateBatchInteractionXdm(
+            final String experienceEventType, final List<Offer> offers) {
+        final Map<OptimizeProposition, List<Offer>> offersByProposition = new LinkedHashMap<>();
+        for (final Offer offer : offers) {
+            final OptimizeProposition proposition = offer != null ? offer.getProposition() : null;
+            if (proposition == null) {
+                continue;
+            }
+
+            List<Offer> propositionOffers = offersByProposition.get(proposition);
+            if (propositionOffers == null) {
+                propositionOffers = new ArrayList<>();
+                offersByProposition.put(proposition, propositionOffers);
+            }
+            if (!propositionOffers.contains(offer)) {
+                propositionOffers.add(offer);
+            }
+        }
+
+        if (offersByProposition.isEmpty()) {
+            return null;
+        }
+
+        final List<Map<String, Object>> propositionsData =
+                new ArrayList<>(offersByProposition.size());
+        for (final Map.Entry<OptimizeProposition, List<Offer>> entry :
+                offersByProposition.entrySet()) {
+            propositionsData.add(entry.getKey().createInteractionData(entry.getValue()));
+        }
+        return createInteractionXdm(
+                experienceEventType,
+                propositionsData.size() == 1
+                        ? Collections.singletonList(propositionsData.get(0))
+                        : Collections.unmodifiableList(propositionsData));
+    }
+
+    /**
+     * Creates the interaction data for the given {@code interactedOffers} of this {@code
+     * OptimizeProposition}.
+     *
+     * <p>The immutable {@code scopeDetails} of this proposition is referenced, not copied.
+     *
+     * @param interactedOffers {@code List<Offer>} containing the offers interacted with.
+     * @return immutable {@code Map<String, Object>} containing the proposition interaction data.
+     */
+    private Map<String, Object> createInteractionData(final List<Offer> interactedOffers) {
+        final Map<String, Object> propositionsData = new HashMap<>();
+        propositionsData.put(OptimizeConstants.JsonKeys.DECISIONING_PROPOSITIONS_ID, id);
+        propositionsData.put(OptimizeConstants.JsonKeys.DECISIONING_PROPOSITIONS_SCOPE, scope);
+        propositionsData.put(
+                OptimizeConstants.JsonKeys.DECISIONING_PROPOSITIONS_SCOPEDETAILS, scopeDetails);
+
+        // Add list containing proposition item ids.
+        final List<Map<String, Object>> propositionItems =
+                new ArrayList<>(interactedOffers.size());
+        for (final Offer offer : interactedOffers) {
+            propositionItems.add(
+                    Collections.<String, Object>singletonMap(
+                            OptimizeConstants.JsonKeys.DECISIONING_PROPOSITIONS_ITEMS_ID,
+                            offer.getId()));
+        }
+        propositionsData.put(
+                OptimizeConstants.JsonKeys.DECISIONING_PROPOSITIONS_ITEMS,
+                propositionItems.size() == 1
+                        ? Collections.singletonList(propositionItems.get(0))
+                        : Collections.unmodifiableList(propositionItems));
+
+        return Collections.unmodifiableMap(propositionsData);
+    }
+
+    /**
+     * Creates the interaction XDM data containing the given {@code propositionsData} and {@code
+     * experienceEventType}.
+     *
+     * @param experienceEventType {@link String} containing the event type for the Experience Event
+     * @param propositionsData immutable {@code List<Map<String, Object>>} containing the
+     *     proposition interaction data.
+     * @return immutable {@code Map<String, Object>} containing the XDM data for the proposition
+     *     interactions.
+     */
+    private static Map<String, Object> createInteractionXdm(
+            final String experienceEventType, final List<Map<String, Object>> propositionsData) {
+        final Map<String, Object> experienceDecisioning =
+                Collections.<String, Object>singletonMap(
+                        OptimizeConstants.JsonKeys.DECISIONING_PROPOSITIONS, propositionsData);
+
+        final Map<String, Object> experience =
+                Collections.<String, Object>singletonMap(
+                        OptimizeConstants.JsonKeys.EXPERIENCE_DECISIONING, experienceDecisioning);
 
         final Map<String, Object> xdm = new HashMap<>();
         xdm.put(OptimizeConstants.JsonKeys.EXPERIENCE, experience);
+        xdm.put(OptimizeConstants.JsonKeys.EXPERIENCE_EVENT_TYPE, experienceEventType);
 
-        return xdm;
+        return Collections.unmodifiableMap(xdm);
     }
 
     /**
@@ -122,6 +281,7 @@ public class OptimizeProposition {
      * @param data {@code Map<String, Object>} containing proposition data.
      * @return {@code OptimizeProposition} object or null.
      */
+    @SuppressWarnings("unchecked")
     public static OptimizeProposition fromEventData(final Map<String, Object> data) {
         if (OptimizeUtils.isNullOrEmpty(data)) {
             Log.debug(
@@ -153,17 +313,17 @@ public class OptimizeProposition {
                 return null;
             }
 
+            // Nested maps and lists are read without copying, event data is immutable. The
+            // constructor keeps a compact copy with interned strings of scopeDetails.
             final Map<String, Object> scopeDetails =
-                    DataReader.getTypedMap(
-                            Object.class, data, OptimizeConstants.JsonKeys.PAYLOAD_SCOPEDETAILS);
+                    OptimizeUtils.getMap(data, OptimizeConstants.JsonKeys.PAYLOAD_SCOPEDETAILS);
 
-            final List<Map<String, Object>> items =
-                    DataReader.getTypedListOfMap(
-                            Object.class, data, OptimizeConstants.JsonKeys.PAYLOAD_ITEMS);
-            List<Offer> offers = new ArrayList<>();
+            final List<?> items =
+                    OptimizeUtils.getList(data, OptimizeConstants.JsonKeys.PAYLOAD_ITEMS);
+            final List<Offer> offers = new ArrayList<>(items != null ? items.size() : 0);
             if (items != null) {
-                for (Map<String, Object> item : items) {
-                    final Offer offer = Offer.fromEventData(item);
+                for (final Object item : items) {
+                    final Offer offer = Offer.fromEventData((Map<String, Object>) item);
                     if (offer != null) {
                         offers.add(offer);
                     }
@@ -207,6 +367,7 @@ public class OptimizeProposition {
         if (o == null || getClass() != o.getClass()) return false;
 
         OptimizeProposition that = (OptimizeProposition) o;
+        if (hashCode != that.hashCode) return false;
         if (id != null ? !id.equals(that.id) : that.id != null) return false;
         if (offers != null ? !offers.equals(that.offers) : that.offers != null) return false;
         if (scope != null ? !scope.equals(that.scope) : that.scope != null) return false;
@@ -217,6 +378,6 @@ public class OptimizeProposition {
 
     @Override
     public int hashCode() {
-        return Objects.hash(id, offers, scope, scopeDetails);
+        return hashCode;
     }
 }
@@ -16,7 +16,10 @@ import com.adobe.marketing.mobile.AdobeError;
 import com.adobe.marketing.mobile.Event;
 import com.adobe.marketing.mobile.services.Log;
 import com.adobe.marketing.mobile.util.DataReader;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 class OptimizeUtils {
@@ -189,4 +192,131 @@ class OptimizeUtils {
         }
         return requestEventId;
     }
+
+    /**
+     * Returns the {@code Map} value for the given {@code key} in the given {@code data}, without
+     * copying it.
+     *
+     * <p>Unlike {@link DataReader#getTypedMap(Class, Map, String)}, the returned map is the
+     * instance contained in {@code data}, so it must not be modified by the caller. Event data maps
+     * are immutable and always keyed by {@code String}, so their keys are not checked.
+     *
+     * @param data input {@code Map<String, Object>} to be read.
+     * @param key {@link String} containing the key to be read.
+     * @return {@code Map<String, Object>} value for the key, or null if the value is null or not
+     *     present.
+     * @throws ClassCastException if the value is not a {@code Map}.
+     */
+    @SuppressWarnings("unchecked")
+    static Map<String, Object> getMap(final Map<String, Object> data, final String key) {
+        final Object value = data != null ? data.get(key) : null;
+        if (value == null) {
+            return null;
+        }
+        if (!(value instanceof Map)) {
+            throw new ClassCastException("Value for key (" + key + ") is not a Map.");
+        }
+        return (Map<String, Object>) value;
+    }
+
+    /**
+     * Returns the {@code List} value for the given {@code key} in the given {@code data}, without
+     * copying it.
+     *
+     * @param data input {@code Map<String, Object>} to be read.
+     * @param key {@link String} containing the key to be read.
+     * @return {@code List<?>} value for the key, or null if the value is null or not present.
+     * @throws ClassCastException if the value is not a {@code List}.
+     */
+    static List<?> getList(final Map<String, Object> data, final String key) {
+        final Object value = data != null ? data.get(key) : null;
+        if (value == null) {
+            return null;
+        }
+        if (!(value instanceof List)) {
+            throw new ClassCastException("Value for key (" + key + ") is not a List.");
+        }
+        return (List<?>) value;
+    }
+
+    /**
+     * Returns the {@code List<String>} value for the given {@code key} in the given {@code data},
+     * without copying it.
+     *
+     * @param data input {@code Map<String, Object>} to be read.
+     * @param key {@link String} containing the key to be read.
+     * @return {@code List<String>} value for the key, or null if the value is null or not present.
+     * @throws ClassCastException if the value is not a {@code List} of {@code String} elements.
+     */
+    @SuppressWarnings("unchecked")
+    static List<String> getStringList(final Map<String, Object> data, final String key) {
+        final List<?> list = getList(data, key);
+        if (list == null) {
+            return null;
+        }
+        for (final Object element : list) {
+            if (!(element instanceof String)) {
+                throw new ClassCastException("List for key (" + key + ") has non-String elements.");
+            }
+        }
+        return (List<String>) list;
+    }
+
+    /**
+     * Returns the {@code Map<String, String>} value for the given {@code key} in the given {@code
+     * data}, without copying it.
+     *
+     * @param data input {@code Map<String, Object>} to be read.
+     * @param key {@link String} containing the key to be read.
+     * @return {@code Map<String, String>} value for the key, or null if the value is null or not
+     *     present.
+     * @throws ClassCastException if the value is not a {@code Map} of {@code String} values.
+     */
+    @SuppressWarnings("unchecked")
+    static Map<String, String> getStringMap(final Map<String, Object> data, final String key) {
+        final Map<String, Object> map = getMap(data, key);
+        if (map == null) {
+            return null;
+        }
+        for (final Object value : map.values()) {
+            if (!(value instanceof String)) {
+                throw new ClassCastException("Map for key (" + key + ") has non-String values.");
+            }
+        }
+        return (Map<String, String>) (Map<String, ?>) map;
+    }
+
+    /**
+     * Returns a mutable deep copy of the given {@code map}, with its nested maps and lists copied
+     * as well.
+     *
+     * @param map input {@code Map<String, Object>} to be copied.
+     * @return {@code Map<String, Object>} mutable copy of the map, or null if the map is null.
+     */
+    static Map<String, Object> mutableCopy(final Map<String, Object> map) {
+        if (map == null) {
+            return null;
+        }
+        final Map<String, Object> copy = new HashMap<>();
+        for (final Map.Entry<String, Object> entry : map.entrySet()) {
+            copy.put(entry.getKey(), mutableCopyValue(entry.getValue()));
+        }
+        return copy;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object mutableCopyValue(final Object value) {
+        if (value instanceof Map) {
+            return mutableCopy((Map<String, Object>) value);
+        }
+        if (value instanceof List) {
+            final List<?> list = (List<?>) value;
+            final List<Object> copy = new ArrayList<>(list.size());
+            for (final Object element : list) {
+                copy.add(mutableCopyValue(element));
+            }
+            return copy;
+        }
+        return value;
+    }
 }
@@ -0,0 +1,181 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.optimize;
+
+import com.adobe.marketing.mobile.util.DataReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * {@code PropositionsCacheIndex} class keeps the secondary indexes over the {@code
+ * OptimizeExtension} propositions cache, so cached offers, propositions and scopes can be looked
+ * up by their identifiers without scanning the cache.
+ *
+ * <p>The indexes are updated incrementally whenever a proposition is cached for a scope or removed
+ * from the cache. The same offer or proposition identifier may be returned for more than one
+ * scope, a lookup returns the most recently cached one.
+ */
+final class PropositionsCacheIndex {
+    private static final String SCOPE_DETAILS_ACTIVITY = "activity";
+    private static final String SCOPE_DETAILS_ACTIVITY_ID = "id";
+
+    private final Map<String, List<Offer>> offersById = new HashMap<>();
+    private final Map<String, List<OptimizeProposition>> propositionsById = new HashMap<>();
+    private final Map<String, Set<DecisionScope>> scopesByActivityId = new HashMap<>();
+
+    /**
+     * Indexes the given {@code proposition} cached for the given {@code scope}, replacing the
+     * {@code previousProposition} cached for it, if any.
+     *
+     * @param scope {@link DecisionScope} for which the proposition is cached.
+     * @param proposition {@link OptimizeProposition} cached for the scope.
+     * @param previousProposition {@code OptimizeProposition} previously cached for the scope, or
+     *     null if none.
+     */
+    synchronized void put(
+            final DecisionScope scope,
+            final OptimizeProposition proposition,
+            final OptimizeProposition previousProposition) {
+        if (previousProposition != null) {
+            remove(scope, previousProposition);
+        }
+        if (proposition == null) {
+            return;
+        }
+
+        add(propositionsById, proposition.getId(), proposition);
+        for (final Offer offer : proposition.getOffers()) {
+            add(offersById, offer.getId(), offer);
+        }
+
+        final String activityId = getActivityId(proposition);
+        if (activityId != null) {
+            Set<DecisionScope> scopes = scopesByActivityId.get(activityId);
+            if (scopes == null) {
+                scopes = new LinkedHashSet<>();
+                scopesByActivityId.put(activityId, scopes);
+            }
+            scopes.add(scope);
+        }
+    }
+
+    /**
+     * Removes the given {@code proposition}, which was cached for the given {@code scope}, from
+     * the indexes.
+     *
+     * @param scope {@link DecisionScope} for which the proposition was cached.
+     * @param proposition {@link OptimizeProposition} removed from the cache.
+     */
+    synchronized void remove(final DecisionScope scope, final OptimizeProposition proposition) {
+        if (proposition == null) {
+            return;
+        }
+
+        remove(propositionsById, proposition.getId(), proposition);
+        for (final Offer offer : proposition.getOffers()) {
+            remove(offersById, offer.getId(), offer);
+        }
+
+        final String activityId = getActivityId(proposition);
+        final Set<DecisionScope> scopes =
+                activityId != null ? scopesByActivityId.get(activityId) : null;
+        if (scopes != null && scopes.remove(scope) && scopes.isEmpty()) {
+            scopesByActivityId.remove(activityId);
+        }
+    }
+
+    /** Removes all the propositions from the indexes. */
+    synchronized void clear() {
+        offersById.clear();
+        propositionsById.clear();
+        scopesByActivityId.clear();
+    }
+
+    /**
+     * Returns the cached offer with the given {@code offerId}.
+     *
+     * @param offerId {@link String} containing the offer identifier.
+     * @return {@link Offer} most recently cached with the identifier, or null if none.
+     */
+    synchronized Offer getOffer(final String offerId) {
+        return getLast(offersById.get(offerId));
+    }
+
+    /**
+     * Returns the cached proposition with the given {@code propositionId}.
+     *
+     * @param propositionId {@link String} containing the proposition identifier.
+     * @return {@link OptimizeProposition} most recently cached with the identifier, or null if
+     *     none.
+     */
+    synchronized OptimizeProposition getProposition(final String propositionId) {
+        return getLast(propositionsById.get(propositionId));
+    }
+
+    /**
+     * Returns the scopes for which propositions of the given {@code activityId} are cached.
+     *
+     * @param activityId {@link String} containing the activity identifier in the proposition
+     *     {@code scopeDetails}.
+     * @return {@code List<DecisionScope>} containing the scopes, or an empty list if none.
+     */
+    synchronized List<DecisionScope> getScopes(final String activityId) {
+        final Set<DecisionScope> scopes = scopesByActivityId.get(activityId);
+        return scopes != null ? new ArrayList<>(scopes) : Collections.<DecisionScope>emptyList();
+    }
+
+    private static <T> void add(final Map<String, List<T>> index, final String id, final T value) {
+        List<T> values = index.get(id);
+        if (values == null) {
+            // Identifiers are rarely repeated across scopes, start with a single element list.
+            values = new ArrayList<>(1);
+            index.put(id, values);
+        }
+        values.add(value);
+    }
+
+    private static <T> void remove(
+            final Map<String, List<T>> index, final String id, final T value) {
+        final List<T> values = index.get(id);
+        if (values == null) {
+            return;
+        }
+
+        // Remove the same instance, equal offers or propositions may be cached for other scopes.
+        for (int i = values.size() - 1; i >= 0; i--) {
+            if (values.get(i) == value) {
+                values.remove(i);
+                break;
+            }
+        }
+        if (values.isEmpty()) {
+            index.remove(id);
+        }
+    }
+
+    private static <T> T getLast(final List<T> values) {
+        return values != null && !values.isEmpty() ? values.get(values.size() - 1) : null;
+    }
+
+    private static String getActivityId(final OptimizeProposition proposition) {
+        final Map<String, Object> activity =
+                DataReader.optTypedMap(
+                        Object.class, proposition.getScopeDetails(), SCOPE_DETAILS_ACTIVITY, null);
+        final String activityId = DataReader.optString(activity, SCOPE_DETAILS_ACTIVITY_ID, null);
+        return OptimizeUtils.isNullOrEmpty(activityId) ? null : activityId;
+    }
+}
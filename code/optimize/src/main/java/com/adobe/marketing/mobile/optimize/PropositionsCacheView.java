@@ -0,0 +1,131 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.optimize;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@code PropositionsCacheView} class publishes an immutable snapshot of the {@code
+ * OptimizeExtension} propositions cache, along with the cache indexes, so the cached propositions
+ * can be read and looked up synchronously from any thread, including the main thread, without
+ * going through the event hub.
+ *
+ * <p>The extension publishes a new snapshot after every change to its cache. Readers never take a
+ * lock on the snapshot, they read the snapshot published last, which may not reflect the updates
+ * still in flight. Lookups go through the published {@link PropositionsCacheIndex}, which is
+ * updated right before the snapshot.
+ */
+final class PropositionsCacheView {
+    private static final PropositionsCacheView sharedInstance = new PropositionsCacheView();
+
+    // Immutable snapshot of the propositions cache, replaced as a whole on each publish.
+    private volatile Map<DecisionScope, OptimizeProposition> snapshot = Collections.emptyMap();
+
+    // Indexes over the propositions cache, replaced when the cache is cleared.
+    private volatile PropositionsCacheIndex index = new PropositionsCacheIndex();
+
+    /**
+     * Returns the view shared by the {@link Optimize} APIs and the {@code OptimizeExtension}.
+     *
+     * @return {@link PropositionsCacheView} shared instance.
+     */
+    static PropositionsCacheView getInstance() {
+        return sharedInstance;
+    }
+
+    /**
+     * Publishes the given {@code cachedPropositions} snapshot and its {@code cacheIndex}.
+     *
+     * <p>The snapshot is published as is, it must not be modified afterwards. Publishers are
+     * serialized by the {@code OptimizeExtension}, so an older snapshot is never published after a
+     * newer one.
+     *
+     * @param cachedPropositions {@code Map<DecisionScope, OptimizeProposition>} immutable map
+     *     containing the propositions cache, or null if it is not available.
+     * @param cacheIndex {@link PropositionsCacheIndex} containing the indexes over the propositions
+     *     cache, or null if it is not available.
+     */
+    void publish(
+            final Map<DecisionScope, OptimizeProposition> cachedPropositions,
+            final PropositionsCacheIndex cacheIndex) {
+        index = cacheIndex != null ? cacheIndex : new PropositionsCacheIndex();
+        snapshot =
+                cachedPropositions != null
+                        ? cachedPropositions
+                        : Collections.<DecisionScope, OptimizeProposition>emptyMap();
+    }
+
+    /**
+     * Returns the propositions for the given {@code scopes} from the last published snapshot.
+     *
+     * @param scopes {@code List<DecisionScope>} containing the scopes to be read.
+     * @return {@code Map<DecisionScope, OptimizeProposition>} containing the cached propositions
+     *     for the scopes, scopes which are not cached are not contained in the map.
+     */
+    Map<DecisionScope, OptimizeProposition> peek(final List<DecisionScope> scopes) {
+        // Read the volatile snapshot once, so all the scopes are read from the same snapshot.
+        final Map<DecisionScope, OptimizeProposition> propositions = snapshot;
+        final Map<DecisionScope, OptimizeProposition> result = new HashMap<>();
+        // Indexed loop, so no iterator is allocated for the scopes list.
+        for (int i = 0; i < scopes.size(); i++) {
+            final DecisionScope scope = scopes.get(i);
+            final OptimizeProposition proposition = propositions.get(scope);
+            if (proposition != null) {
+                result.put(scope, proposition);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the cached offer with the given {@code offerId}.
+     *
+     * @param offerId {@link String} containing the offer identifier.
+     * @return {@link Offer} most recently cached with the identifier, or null if none.
+     */
+    Offer getOffer(final String offerId) {
+        return index.getOffer(offerId);
+    }
+
+    /**
+     * Returns the cached proposition with the given {@code propositionId}.
+     *
+     * @param propositionId {@link String} containing the proposition identifier.
+     * @return {@link OptimizeProposition} most recently cached with the identifier, or null if
+     *     none.
+     */
+    OptimizeProposition getProposition(final String propositionId) {
+        return index.getProposition(propositionId);
+    }
+
+    /**
+     * Returns the scopes for which propositions of the given {@code activityId} are cached.
+     *
+     * @param activityId {@link String} containing the activity identifier.
+     * @return {@code List<DecisionScope>} containing the scopes, or an empty list if none.
+     */
+    List<DecisionScope> getScopesForActivity(final String activityId) {
+        return index.getScopes(activityId);
+    }
+
+    /**
+     * Returns the number of propositions in the last published snapshot.
+     *
+     * @return {@code int} containing the published propositions count.
+     */
+    int size() {
+        return snapshot.size();
+    }
+}
@@ -0,0 +1,312 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.optimize;
+
+import com.adobe.marketing.mobile.services.Log;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@code PropositionsRefreshScheduler} class periodically refreshes the most frequently read
+ * cached decision scopes.
+ *
+ * <p>Refreshes are scheduled on the configured interval with a random jitter, so devices don't
+ * refresh in lockstep, and are paused while the app is in the background. All the scopes due for a
+ * refresh are handed to the {@link RefreshHandler} at once so they can be fetched in a single Edge
+ * request.
+ *
+ * <p>Read counts are halved after each refresh, so scopes which are no longer read are eventually
+ * forgotten, and at most {@value #MAX_TRACKED_SCOPES} scopes are tracked at once.
+ */
+class PropositionsRefreshScheduler {
+    private static final String SELF_TAG = "PropositionsRefreshScheduler";
+
+    static final long MIN_REFRESH_INTERVAL_SECONDS = 30L;
+    static final int DEFAULT_REFRESH_SCOPE_COUNT = 5;
+    static final double REFRESH_JITTER_RATIO = 0.1;
+    static final int MAX_TRACKED_SCOPES = 256;
+
+    /** Interface used by the scheduler to look up cached scopes and to refresh them. */
+    interface RefreshHandler {
+        /**
+         * Checks whether propositions for the given {@code scope} are cached.
+         *
+         * @param scope {@link DecisionScope} to be checked.
+         * @return {@code boolean} indicating whether the scope is cached.
+         */
+        boolean isCached(DecisionScope scope);
+
+        /**
+         * Refreshes the propositions for the given {@code scopes}.
+         *
+         * @param scopes {@code List<DecisionScope>} containing the scopes to be refreshed.
+         */
+        void refresh(List<DecisionScope> scopes);
+    }
+
+    private final RefreshHandler refreshHandler;
+    private final Map<DecisionScope, AtomicInteger> readCounts = new ConcurrentHashMap<>();
+    private final Random random = new Random();
+
+    private ScheduledExecutorService executor;
+    private ScheduledFuture<?> scheduledRefresh;
+    private long refreshGeneration;
+    private long refreshIntervalMillis;
+    private int refreshScopeCount = DEFAULT_REFRESH_SCOPE_COUNT;
+    private boolean paused;
+
+    /**
+     * Constructor creates a {@code PropositionsRefreshScheduler} using the provided {@code
+     * refreshHandler}.
+     *
+     * @param refreshHandler {@link RefreshHandler} instance.
+     */
+    PropositionsRefreshScheduler(final RefreshHandler refreshHandler) {
+        this(refreshHandler, null);
+    }
+
+    /**
+     * Constructor creates a {@code PropositionsRefreshScheduler} using the provided {@code
+     * refreshHandler} and {@code executor}.
+     *
+     * @param refreshHandler {@link RefreshHandler} instance.
+     * @param executor {@link ScheduledExecutorService} used for scheduling refreshes, or null if it
+     *     should be created when the first refresh is scheduled.
+     */
+    PropositionsRefreshScheduler(
+            final RefreshHandler refreshHandler, final ScheduledExecutorService executor) {
+        this.refreshHandler = refreshHandler;
+        this.executor = executor;
+    }
+
+    /**
+     * Updates the refresh interval and the number of scopes refreshed each time.
+     *
+     * <p>Periodic refreshes are stopped if the given {@code intervalSeconds} is not positive. A
+     * positive interval lower than {@value #MIN_REFRESH_INTERVAL_SECONDS} seconds is raised to that
+     * minimum.
+     *
+     * @param intervalSeconds {@code long} containing the refresh interval in seconds.
+     * @param scopeCount {@code int} containing the maximum number of scopes refreshed each time.
+     */
+    synchronized void configure(final long intervalSeconds, final int scopeCount) {
+        refreshScopeCount = scopeCount > 0 ? scopeCount : DEFAULT_REFRESH_SCOPE_COUNT;
+
+        final long intervalMillis =
+                intervalSeconds > 0
+                        ? TimeUnit.SECONDS.toMillis(
+                                Math.max(intervalSeconds, MIN_REFRESH_INTERVAL_SECONDS))
+                        : 0L;
+        if (intervalMillis == refreshIntervalMillis) {
+            return;
+        }
+
+        Log.debug(
+                OptimizeConstants.LOG_TAG,
+                SELF_TAG,
+                "configure - Propositions refresh interval is set to (%d) ms.",
+                intervalMillis);
+        refreshIntervalMillis = intervalMillis;
+        cancelScheduledRefresh();
+        scheduleNextRefresh();
+    }
+
+    /**
+     * Records a read of the propositions for the given {@code scopes}.
+     *
+     * @param scopes {@code Collection<DecisionScope>} containing the read scopes.
+     */
+    void recordRead(final Collection<DecisionScope> scopes) {
+        for (final DecisionScope scope : scopes) {
+            AtomicInteger count = readCounts.get(scope);
+            if (count == null) {
+                if (readCounts.size() >= MAX_TRACKED_SCOPES) {
+                    decayReadCounts();
+                    if (readCounts.size() >= MAX_TRACKED_SCOPES) {
+                        // All the tracked scopes are still being read, ignore the new scope.
+                        continue;
+                    }
+                }
+                final AtomicInteger newCount = new AtomicInteger();
+                count = readCounts.putIfAbsent(scope, newCount);
+                if (count == null) {
+                    count = newCount;
+                }
+            }
+            count.incrementAndGet();
+        }
+    }
+
+    /**
+     * Pauses or resumes periodic refreshes.
+     *
+     * @param paused {@code boolean} indicating whether refreshes should be paused.
+     */
+    synchronized void setPaused(final boolean paused) {
+        if (this.paused == paused) {
+            return;
+        }
+
+        this.paused = paused;
+        if (paused) {
+            cancelScheduledRefresh();
+        } else {
+            scheduleNextRefresh();
+        }
+    }
+
+    /**
+     * Halves the recorded read counts and forgets the scopes whose count drops to zero.
+     *
+     * <p>A read recorded concurrently for a forgotten scope may be lost.
+     */
+    void decayReadCounts() {
+        for (final Map.Entry<DecisionScope, AtomicInteger> entry : readCounts.entrySet()) {
+            final AtomicInteger count = entry.getValue();
+            int value;
+            do {
+                value = count.get();
+            } while (!count.compareAndSet(value, value / 2));
+            if (value / 2 == 0) {
+                readCounts.remove(entry.getKey(), count);
+            }
+        }
+    }
+
+    /** Clears the recorded scope reads. */
+    void reset() {
+        readCounts.clear();
+    }
+
+    /** Stops periodic refreshes and releases the scheduler thread. */
+    synchronized void shutdown() {
+        cancelScheduledRefresh();
+        refreshIntervalMillis = 0L;
+        if (executor != null) {
+            executor.shutdown();
+            executor = null;
+        }
+    }
+
+    /**
+     * Refreshes the most frequently read cached scopes and schedules the next refresh.
+     *
+     * <p>This method is invoked on the scheduler thread when a scheduled refresh is due. It does
+     * nothing if the refresh was cancelled or rescheduled after it was scheduled.
+     *
+     * @param generation {@code long} containing the schedule generation of this refresh.
+     */
+    private void refreshHotScopes(final long generation) {
+        synchronized (this) {
+            if (generation != refreshGeneration) {
+                return;
+            }
+            scheduledRefresh = null;
+        }
+
+        try {
+            final List<DecisionScope> hotScopes = getHotScopes();
+            if (!hotScopes.isEmpty()) {
+                Log.trace(
+                        OptimizeConstants.LOG_TAG,
+                        SELF_TAG,
+                        "refreshHotScopes - Refreshing propositions for %d scope(s).",
+                        hotScopes.size());
+                refreshHandler.refresh(hotScopes);
+            }
+            decayReadCounts();
+        } catch (final Exception e) {
+            Log.warning(
+                    OptimizeConstants.LOG_TAG,
+                    SELF_TAG,
+                    "refreshHotScopes - Failed to refresh propositions due to an exception (%s)!",
+                    e.getLocalizedMessage());
+        } finally {
+            synchronized (this) {
+                if (generation == refreshGeneration) {
+                    scheduleNextRefresh();
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the most frequently read scopes which are currently cached, in descending order of
+     * reads.
+     *
+     * @return {@code List<DecisionScope>} containing at most the configured number of scopes.
+     */
+    List<DecisionScope> getHotScopes() {
+        // Sort a snapshot of the counts, reads recorded meanwhile must not change the order.
+        final List<DecisionScope> candidates = new ArrayList<>();
+        final Map<DecisionScope, Integer> counts = new HashMap<>();
+        for (final Map.Entry<DecisionScope, AtomicInteger> entry : readCounts.entrySet()) {
+            if (refreshHandler.isCached(entry.getKey())) {
+                candidates.add(entry.getKey());
+                counts.put(entry.getKey(), entry.getValue().get());
+            }
+        }
+        Collections.sort(
+                candidates,
+                (first, second) -> Integer.compare(counts.get(second), counts.get(first)));
+
+        final int scopeCount;
+        synchronized (this) {
+            scopeCount = refreshScopeCount;
+        }
+
+        final List<DecisionScope> hotScopes = new ArrayList<>();
+        for (final DecisionScope candidate : candidates) {
+            if (hotScopes.size() == scopeCount) {
+                break;
+            }
+            hotScopes.add(candidate);
+        }
+        return hotScopes;
+    }
+
+    private void scheduleNextRefresh() {
+        if (paused || refreshIntervalMillis <= 0 || scheduledRefresh != null) {
+            return;
+        }
+
+        if (executor == null) {
+            executor = Executors.newSingleThreadScheduledExecutor();
+        }
+
+        final double jitter = REFRESH_JITTER_RATIO * (2 * random.nextDouble() - 1);
+        final long delayMillis = refreshIntervalMillis + (long) (refreshIntervalMillis * jitter);
+        final long generation = ++refreshGeneration;
+        scheduledRefresh =
+                executor.schedule(
+                        () -> refreshHotScopes(generation), delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void cancelScheduledRefresh() {
+        refreshGeneration++;
+        if (scheduledRefresh != null) {
+            scheduledRefresh.cancel(false);
+            scheduledRefresh = null;
+        }
+    }
+}
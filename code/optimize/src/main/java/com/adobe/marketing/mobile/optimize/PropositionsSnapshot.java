@@ -0,0 +1,1030 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.optimize;
+
+import com.adobe.marketing.mobile.services.Log;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * {@code PropositionsSnapshot} class persists the cached propositions in a compact binary file.
+ *
+ * <p>The snapshot file has the following layout, with all integers in big-endian order:
+ *
+ * <ul>
+ *   <li>Header: magic number, format version, dictionary size when it was last rebuilt, dictionary
+ *       size, dictionary offsets and the scope index containing the dictionary index of each scope
+ *       name along with the offset and length of its encoded proposition.
+ *   <li>Dictionary: length-prefixed UTF-8 strings for all the map keys, scope names and repeated
+ *       string values, such as schemas and {@code scopeDetails} keys.
+ *   <li>Records: tagged, encoded proposition event data for each scope.
+ * </ul>
+ *
+ * <p>The file is memory mapped when first accessed and propositions are decoded on demand, so the
+ * cost of loading the snapshot depends on the number of scopes read rather than on the total size
+ * of the cache.
+ *
+ * <p>Saves are written on a background thread, and the saves scheduled while a write is in
+ * progress are coalesced into the next write. A write only encodes the saved propositions, the
+ * records of the other scopes are copied as is and the new strings are appended to the dictionary,
+ * which is rebuilt once it has grown to {@value #DICTIONARY_GROWTH_LIMIT} times its size after the
+ * last rebuild.
+ *
+ * <p>The snapshot can be shared by the processes of an app. It is read under a shared lock and
+ * replaced under an exclusive lock on a companion lock file, which also holds a version counter
+ * incremented on each write. The new snapshot is written to a temporary file without holding the
+ * lock, and only renamed under the exclusive lock if no other process wrote the snapshot in the
+ * meantime. A process finds out about the writes of other processes by comparing the version
+ * counter with the version it last read, see {@link #refresh()}.
+ */
+class PropositionsSnapshot {
+    private static final String SELF_TAG = "PropositionsSnapshot";
+
+    static final int MAGIC = 0x4F505453; // "OPTS"
+    static final int FORMAT_VERSION = 2;
+
+    private static final byte TAG_NULL = 0;
+    private static final byte TAG_STRING = 1;
+    private static final byte TAG_DICTIONARY_STRING = 2;
+    private static final byte TAG_INT = 3;
+    private static final byte TAG_LONG = 4;
+    private static final byte TAG_DOUBLE = 5;
+    private static final byte TAG_TRUE = 6;
+    private static final byte TAG_FALSE = 7;
+    private static final byte TAG_MAP = 8;
+    private static final byte TAG_LIST = 9;
+
+    static final String LOCK_FILE_SUFFIX = ".lock";
+
+    // Number of times the dictionary can grow from its size after the last rebuild.
+    static final int DICTIONARY_GROWTH_LIMIT = 2;
+    // Dictionary size below which the dictionary is never rebuilt.
+    static final int MIN_REBUILT_DICTIONARY_SIZE = 64;
+    // Number of attempts to write the snapshot without holding the lock, before the snapshot is
+    // written under the exclusive lock.
+    static final int MAX_UNLOCKED_SAVE_ATTEMPTS = 2;
+
+    private final File file;
+    private final File lockFile;
+
+    // File locks are held by the process, so the threads of this process take them in turn, one
+    // mutex for each snapshot file.
+    private static final Map<String, Object> fileLockMutexes = new HashMap<>();
+
+    private final Object fileLockMutex;
+    // Serializes the writes of this instance.
+    private final Object writeMutex = new Object();
+
+    // Version counter value when the snapshot was last read or written by this instance, or -1 if
+    // it is not known yet.
+    private long knownVersion = -1;
+    // Snapshot file mapped for reading, or null if it is not loaded.
+    private SnapshotFile snapshotFile;
+
+    private final Object pendingMutex = new Object();
+    private Executor executor;
+    private Map<DecisionScope, OptimizeProposition> pendingPropositions = new HashMap<>();
+    private Set<DecisionScope> pendingRemovedScopes = new HashSet<>();
+    // Whether a write of the pending saves is scheduled or in progress.
+    private boolean saveScheduled;
+    // Incremented on each clear, so the saves taken before it are not written after it.
+    private long clearCount;
+
+    /**
+     * Constructor creates a {@code PropositionsSnapshot} backed by the given {@code file}.
+     *
+     * @param file {@link File} containing the snapshot.
+     */
+    PropositionsSnapshot(final File file) {
+        this(file, null);
+    }
+
+    /**
+     * Constructor creates a {@code PropositionsSnapshot} backed by the given {@code file}, using
+     * the provided {@code executor} for writing the scheduled saves.
+     *
+     * @param file {@link File} containing the snapshot.
+     * @param executor {@link Executor} used for writing the scheduled saves, or null if it should
+     *     be created when the first save is scheduled.
+     */
+    PropositionsSnapshot(final File file, final Executor executor) {
+        this.file = file;
+        this.lockFile = new File(file.getPath() + LOCK_FILE_SUFFIX);
+        this.fileLockMutex = getFileLockMutex(file);
+        this.executor = executor;
+    }
+
+    private static Object getFileLockMutex(final File file) {
+        final String path = file.getAbsolutePath();
+        synchronized (fileLockMutexes) {
+            Object fileLockMutex = fileLockMutexes.get(path);
+            if (fileLockMutex == null) {
+                fileLockMutex = new Object();
+                fileLockMutexes.put(path, fileLockMutex);
+            }
+            return fileLockMutex;
+        }
+    }
+
+    /**
+     * Checks whether the snapshot was written by another process since it was last read or
+     * written by this instance, in which case the snapshot is read again on the next access.
+     *
+     * <p>The snapshot is not reported as changed while a save of this instance is pending, so the
+     * propositions being saved are not replaced with older ones. The change is reported once the
+     * save is written.
+     *
+     * @return {@code boolean} indicating whether the snapshot was changed by another process.
+     */
+    synchronized boolean refresh() {
+        synchronized (pendingMutex) {
+            if (saveScheduled) {
+                return false;
+            }
+        }
+
+        final long version;
+        synchronized (fileLockMutex) {
+            try (RandomAccessFile lockAccess = new RandomAccessFile(lockFile, "rw");
+                    FileChannel lockChannel = lockAccess.getChannel()) {
+                final FileLock lock = lockChannel.lock(0, Long.MAX_VALUE, true);
+                try {
+                    version = readVersion(lockAccess);
+                } finally {
+                    lock.release();
+                }
+            } catch (final IOException | RuntimeException e) {
+                Log.debug(
+                        OptimizeConstants.LOG_TAG,
+                        SELF_TAG,
+                        "refresh - Failed to read the propositions snapshot version (%s).",
+                        e.getLocalizedMessage());
+                return false;
+            }
+        }
+
+        final boolean changed = knownVersion != -1 && version != knownVersion;
+        if (changed) {
+            unload();
+        }
+        knownVersion = version;
+        return changed;
+    }
+
+    /**
+     * Checks whether the snapshot contains propositions for the given {@code scope}.
+     *
+     * @param scope {@link DecisionScope} to be checked.
+     * @return {@code boolean} indicating whether the scope is in the snapshot.
+     */
+    synchronized boolean contains(final DecisionScope scope) {
+        ensureLoaded();
+        return snapshotFile.scopeIndex.containsKey(scope);
+    }
+
+    /**
+     * Decodes the proposition for the given {@code scope} from the snapshot.
+     *
+     * @param scope {@link DecisionScope} for which the proposition is read.
+     * @return {@link OptimizeProposition} for the scope, or null if the snapshot doesn't contain a
+     *     valid proposition for it.
+     */
+    synchronized OptimizeProposition load(final DecisionScope scope) {
+        ensureLoaded();
+        final int[] record = snapshotFile.scopeIndex.get(scope);
+        if (record == null) {
+            return null;
+        }
+
+        try {
+            final Object propositionData = snapshotFile.readRecord(record);
+            if (!(propositionData instanceof Map)) {
+                return null;
+            }
+            return OptimizeProposition.fromEventData((Map<String, Object>) propositionData);
+        } catch (final RuntimeException e) {
+            Log.debug(
+                    OptimizeConstants.LOG_TAG,
+                    SELF_TAG,
+                    "load - Failed to decode the proposition for scope (%s) from the snapshot"
+                            + " (%s).",
+                    scope.getName(),
+                    e.getLocalizedMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Schedules writing the given {@code propositions} to the snapshot on the background thread.
+     *
+     * <p>Propositions already in the snapshot for other scopes are kept, except for the scopes in
+     * {@code removedScopes}. Saves scheduled before the previous ones are written are merged with
+     * them, the last save of a scope wins.
+     *
+     * @param propositions {@code Map<DecisionScope, OptimizeProposition>} containing the
+     *     propositions to be saved.
+     * @param removedScopes {@code Collection<DecisionScope>} containing the scopes to be removed
+     *     from the snapshot.
+     */
+    void scheduleSave(
+            final Map<DecisionScope, OptimizeProposition> propositions,
+            final Collection<DecisionScope> removedScopes) {
+        final Executor saveExecutor;
+        synchronized (pendingMutex) {
+            if (removedScopes != null) {
+                for (final DecisionScope scope : removedScopes) {
+                    pendingPropositions.remove(scope);
+                    pendingRemovedScopes.add(scope);
+                }
+            }
+            // Saved propositions take precedence over the removed scopes.
+            pendingRemovedScopes.removeAll(propositions.keySet());
+            pendingPropositions.putAll(propositions);
+
+            if (saveScheduled) {
+                return;
+            }
+            saveScheduled = true;
+            if (executor == null) {
+                executor = Executors.newSingleThreadExecutor();
+            }
+            saveExecutor = executor;
+        }
+
+        try {
+            saveExecutor.execute(this::writePendingSaves);
+        } catch (final RuntimeException e) {
+            Log.warning(
+                    OptimizeConstants.LOG_TAG,
+                    SELF_TAG,
+                    "scheduleSave - Failed to schedule the propositions snapshot write (%s).",
+                    e.getLocalizedMessage());
+            synchronized (pendingMutex) {
+                saveScheduled = false;
+            }
+        }
+    }
+
+    /**
+     * Writes the given {@code propositions} to the snapshot, on the calling thread.
+     *
+     * <p>Propositions already in the snapshot for other scopes are kept, except for the scopes in
+     * {@code removedScopes}.
+     *
+     * @param propositions {@code Map<DecisionScope, OptimizeProposition>} containing the
+     *     propositions to be saved.
+     * @param removedScopes {@code Collection<DecisionScope>} containing the scopes to be removed
+     *     from the snapshot.
+     */
+    void save(
+            final Map<DecisionScope, OptimizeProposition> propositions,
+            final Collection<DecisionScope> removedScopes) {
+        final long saveClearCount;
+        synchronized (pendingMutex) {
+            saveClearCount = clearCount;
+        }
+        save(propositions, removedScopes, saveClearCount);
+    }
+
+    /** Releases the background thread once the scheduled saves are written. */
+    void shutdown() {
+        synchronized (pendingMutex) {
+            if (executor instanceof ExecutorService) {
+                ((ExecutorService) executor).shutdown();
+            }
+            executor = null;
+        }
+    }
+
+    private void writePendingSaves() {
+        while (true) {
+            final Map<DecisionScope, OptimizeProposition> propositions;
+            final Set<DecisionScope> removedScopes;
+            final long saveClearCount;
+            synchronized (pendingMutex) {
+                if (pendingPropositions.isEmpty() && pendingRemovedScopes.isEmpty()) {
+                    saveScheduled = false;
+                    return;
+                }
+                propositions = pendingPropositions;
+                removedScopes = pendingRemovedScopes;
+                pendingPropositions = new HashMap<>();
+                pendingRemovedScopes = new HashSet<>();
+                saveClearCount = clearCount;
+            }
+            save(propositions, removedScopes, saveClearCount);
+        }
+    }
+
+    private void save(
+            final Map<DecisionScope, OptimizeProposition> propositions,
+            final Collection<DecisionScope> removedScopes,
+            final long saveClearCount) {
+        final Map<DecisionScope, Map<String, Object>> propositionsData = new HashMap<>();
+        for (final Map.Entry<DecisionScope, OptimizeProposition> entry : propositions.entrySet()) {
+            propositionsData.put(entry.getKey(), entry.getValue().toEventData());
+        }
+
+        synchronized (writeMutex) {
+            for (int attempt = 0; attempt < MAX_UNLOCKED_SAVE_ATTEMPTS; attempt++) {
+                if (saveUnlocked(propositionsData, removedScopes, saveClearCount)) {
+                    return;
+                }
+            }
+            // Other processes keep writing the snapshot, write it under the exclusive lock.
+            saveLocked(propositionsData, removedScopes, saveClearCount);
+        }
+    }
+
+    /**
+     * Writes the snapshot without holding the lock while the new snapshot is encoded and written.
+     *
+     * @return {@code boolean} indicating whether the save is done, false if another process wrote
+     *     the snapshot in the meantime and the save should be attempted again.
+     */
+    private boolean saveUnlocked(
+            final Map<DecisionScope, Map<String, Object>> propositionsData,
+            final Collection<DecisionScope> removedScopes,
+            final long saveClearCount) {
+        final long version;
+        final SnapshotFile currentSnapshot;
+        synchronized (fileLockMutex) {
+            try (RandomAccessFile lockAccess = new RandomAccessFile(lockFile, "rw");
+                    FileChannel lockChannel = lockAccess.getChannel()) {
+                final FileLock lock = lockChannel.lock(0, Long.MAX_VALUE, true);
+                try {
+                    version = readVersion(lockAccess);
+                    currentSnapshot = openSnapshotFile();
+                } finally {
+                    lock.release();
+                }
+            } catch (final IOException | RuntimeException e) {
+                Log.warning(
+                        OptimizeConstants.LOG_TAG,
+                        SELF_TAG,
+                        "save - Failed to lock the propositions snapshot (%s).",
+                        e.getLocalizedMessage());
+                return true;
+            }
+        }
+
+        final File tempFile = writeTempFile(currentSnapshot, propositionsData, removedScopes);
+        if (tempFile == null) {
+            return true;
+        }
+
+        synchronized (this) {
+            if (!isCurrentClearCount(saveClearCount)) {
+                tempFile.delete();
+                return true;
+            }
+
+            synchronized (fileLockMutex) {
+                try (RandomAccessFile lockAccess = new RandomAccessFile(lockFile, "rw");
+                        FileChannel lockChannel = lockAccess.getChannel()) {
+                    final FileLock lock = lockChannel.lock();
+                    try {
+                        if (readVersion(lockAccess) != version) {
+                            tempFile.delete();
+                            return false;
+                        }
+                        commit(lockAccess, tempFile, version);
+                    } finally {
+                        lock.release();
+                    }
+                } catch (final IOException | RuntimeException e) {
+                    Log.warning(
+                            OptimizeConstants.LOG_TAG,
+                            SELF_TAG,
+                            "save - Failed to replace the propositions snapshot (%s).",
+                            e.getLocalizedMessage());
+                    tempFile.delete();
+                }
+            }
+        }
+        return true;
+    }
+
+    private void saveLocked(
+            final Map<DecisionScope, Map<String, Object>> propositionsData,
+            final Collection<DecisionScope> removedScopes,
+            final long saveClearCount) {
+        synchronized (this) {
+            if (!isCurrentClearCount(saveClearCount)) {
+                return;
+            }
+
+            synchronized (fileLockMutex) {
+                try (RandomAccessFile lockAccess = new RandomAccessFile(lockFile, "rw");
+                        FileChannel lockChannel = lockAccess.getChannel()) {
+                    final FileLock lock = lockChannel.lock();
+                    try {
+                        final long version = readVersion(lockAccess);
+                        final File tempFile =
+                                writeTempFile(
+                                        openSnapshotFile(), propositionsData, removedScopes);
+                        if (tempFile != null) {
+                            commit(lockAccess, tempFile, version);
+                        }
+                    } finally {
+                        lock.release();
+                    }
+                } catch (final IOException | RuntimeException e) {
+                    Log.warning(
+                            OptimizeConstants.LOG_TAG,
+                            SELF_TAG,
+                            "save - Failed to lock the propositions snapshot (%s).",
+                            e.getLocalizedMessage());
+                }
+            }
+        }
+    }
+
+    private boolean isCurrentClearCount(final long saveClearCount) {
+        synchronized (pendingMutex) {
+            return saveClearCount == clearCount;
+        }
+    }
+
+    // Replaces the snapshot file with the temporary file, the caller holds the exclusive lock.
+    private void commit(
+            final RandomAccessFile lockAccess, final File tempFile, final long version)
+            throws IOException {
+        if (!tempFile.renameTo(file)) {
+            tempFile.delete();
+            throw new IOException("Cannot replace the snapshot file.");
+        }
+        writeVersion(lockAccess, version + 1);
+        // The write of this instance is not a change made by another process, unless the snapshot
+        // was changed by another process before.
+        if (knownVersion == version) {
+            knownVersion = version + 1;
+        }
+        unload();
+    }
+
+    // Returns the current snapshot file for a write, the caller holds a lock on the lock file.
+    private SnapshotFile openSnapshotFile() {
+        try {
+            return SnapshotFile.open(file);
+        } catch (final IOException | RuntimeException e) {
+            // The snapshot is replaced by the write.
+            return SnapshotFile.EMPTY;
+        }
+    }
+
+    private File writeTempFile(
+            final SnapshotFile currentSnapshot,
+            final Map<DecisionScope, Map<String, Object>> propositionsData,
+            final Collection<DecisionScope> removedScopes) {
+        File tempFile = null;
+        try {
+            final byte[] encodedSnapshot =
+                    encode(currentSnapshot, propositionsData, removedScopes);
+            tempFile = File.createTempFile(file.getName(), ".tmp", file.getParentFile());
+            try (FileOutputStream outputStream = new FileOutputStream(tempFile)) {
+                outputStream.write(encodedSnapshot);
+                outputStream.getFD().sync();
+            }
+            return tempFile;
+        } catch (final IOException | RuntimeException e) {
+            Log.warning(
+                    OptimizeConstants.LOG_TAG,
+                    SELF_TAG,
+                    "save - Failed to write the propositions snapshot (%s).",
+                    e.getLocalizedMessage());
+            if (tempFile != null) {
+                tempFile.delete();
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Deletes the snapshot file.
+     *
+     * <p>The saves scheduled or in progress are dropped.
+     */
+    synchronized void clear() {
+        synchronized (pendingMutex) {
+            clearCount++;
+            pendingPropositions = new HashMap<>();
+            pendingRemovedScopes = new HashSet<>();
+        }
+
+        unload();
+        if (!file.exists()) {
+            return;
+        }
+
+        synchronized (fileLockMutex) {
+            try (RandomAccessFile lockAccess = new RandomAccessFile(lockFile, "rw");
+                    FileChannel lockChannel = lockAccess.getChannel()) {
+                final FileLock lock = lockChannel.lock();
+                try {
+                    final long version = readVersion(lockAccess);
+                    if (file.exists() && !file.delete()) {
+                        Log.debug(
+                                OptimizeConstants.LOG_TAG,
+                                SELF_TAG,
+                                "clear - Failed to delete the propositions snapshot file.");
+                        return;
+                    }
+                    writeVersion(lockAccess, version + 1);
+                    knownVersion = version + 1;
+                } finally {
+                    lock.release();
+                }
+            } catch (final IOException | RuntimeException e) {
+                Log.warning(
+                        OptimizeConstants.LOG_TAG,
+                        SELF_TAG,
+                        "clear - Failed to lock the propositions snapshot (%s).",
+                        e.getLocalizedMessage());
+            }
+        }
+    }
+
+    private static long readVersion(final RandomAccessFile lockAccess) throws IOException {
+        if (lockAccess.length() < 8) {
+            return 0;
+        }
+        lockAccess.seek(0);
+        return lockAccess.readLong();
+    }
+
+    private static void writeVersion(final RandomAccessFile lockAccess, final long version)
+            throws IOException {
+        lockAccess.seek(0);
+        lockAccess.writeLong(version);
+    }
+
+    private void unload() {
+        snapshotFile = null;
+    }
+
+    private void ensureLoaded() {
+        if (snapshotFile != null) {
+            return;
+        }
+
+        synchronized (fileLockMutex) {
+            try (RandomAccessFile lockAccess = new RandomAccessFile(lockFile, "rw");
+                    FileChannel lockChannel = lockAccess.getChannel()) {
+                final FileLock lock = lockChannel.lock(0, Long.MAX_VALUE, true);
+                try {
+                    knownVersion = readVersion(lockAccess);
+                    loadSnapshotFile();
+                } finally {
+                    lock.release();
+                }
+            } catch (final IOException | RuntimeException e) {
+                Log.debug(
+                        OptimizeConstants.LOG_TAG,
+                        SELF_TAG,
+                        "ensureLoaded - Failed to lock the propositions snapshot (%s).",
+                        e.getLocalizedMessage());
+                snapshotFile = SnapshotFile.EMPTY;
+            }
+        }
+    }
+
+    // Maps the snapshot file, the caller holds a lock on the lock file.
+    private void loadSnapshotFile() {
+        try {
+            snapshotFile = SnapshotFile.open(file);
+        } catch (final IOException | RuntimeException e) {
+            Log.debug(
+                    OptimizeConstants.LOG_TAG,
+                    SELF_TAG,
+                    "loadSnapshotFile - Discarding the propositions snapshot, it cannot be read"
+                            + " (%s).",
+                    e.getLocalizedMessage());
+            snapshotFile = SnapshotFile.EMPTY;
+            file.delete();
+        }
+    }
+
+    /**
+     * Encodes the given {@code snapshotData} in the snapshot file format.
+     *
+     * @param snapshotData {@code Map<DecisionScope, Map<String, Object>>} containing the
+     *     proposition event data for each scope.
+     * @return {@code byte[]} containing the encoded snapshot.
+     * @throws IOException if the data contains a value which cannot be encoded.
+     */
+    static byte[] encode(final Map<DecisionScope, Map<String, Object>> snapshotData)
+            throws IOException {
+        return encode(SnapshotFile.EMPTY, snapshotData, null);
+    }
+
+    /**
+     * Encodes the given {@code currentSnapshot} updated with the given {@code propositionsData}
+     * and without the given {@code removedScopes}, in the snapshot file format.
+     *
+     * <p>The dictionary of the current snapshot is kept as is, with the new strings appended to
+     * it, so the records of the other scopes are copied without being decoded. The dictionary is
+     * rebuilt, and all the records encoded again, once it has grown to {@value
+     * #DICTIONARY_GROWTH_LIMIT} times its size after the last rebuild.
+     *
+     * @param currentSnapshot {@link SnapshotFile} containing the current snapshot.
+     * @param propositionsData {@code Map<DecisionScope, Map<String, Object>>} containing the
+     *     proposition event data for each saved scope.
+     * @param removedScopes {@code Collection<DecisionScope>} containing the scopes to be removed,
+     *     or null if none.
+     * @return {@code byte[]} containing the encoded snapshot.
+     * @throws IOException if the data contains a value which cannot be encoded.
+     */
+    private static byte[] encode(
+            final SnapshotFile currentSnapshot,
+            final Map<DecisionScope, Map<String, Object>> propositionsData,
+            final Collection<DecisionScope> removedScopes)
+            throws IOException {
+        final Map<DecisionScope, int[]> keptRecords = new LinkedHashMap<>();
+        for (final Map.Entry<DecisionScope, int[]> entry : currentSnapshot.scopeIndex.entrySet()) {
+            if (!propositionsData.containsKey(entry.getKey())
+                    && (removedScopes == null || !removedScopes.contains(entry.getKey()))) {
+                keptRecords.put(entry.getKey(), entry.getValue());
+            }
+        }
+
+        final int currentDictionarySize = currentSnapshot.dictionary.length;
+        final boolean rebuildDictionary =
+                currentDictionarySize
+                        > DICTIONARY_GROWTH_LIMIT
+                                * Math.max(
+                                        currentSnapshot.baseDictionarySize,
+                                        MIN_REBUILT_DICTIONARY_SIZE);
+        final Map<DecisionScope, Map<String, Object>> encodedData = new LinkedHashMap<>();
+        final Map<String, Integer> dictionaryIndexes = new LinkedHashMap<>();
+        if (rebuildDictionary) {
+            for (final Map.Entry<DecisionScope, int[]> entry : keptRecords.entrySet()) {
+                final Object propositionData = currentSnapshot.readRecord(entry.getValue());
+                if (propositionData instanceof Map) {
+                    encodedData.put(entry.getKey(), (Map<String, Object>) propositionData);
+                }
+            }
+            keptRecords.clear();
+        } else {
+            for (int i = 0; i < currentDictionarySize; i++) {
+                addToDictionary(currentSnapshot.getDictionaryString(i), dictionaryIndexes);
+            }
+        }
+        encodedData.putAll(propositionsData);
+
+        // Strings seen more than once, along with all the keys and scope names, are written to the
+        // dictionary.
+        final Map<String, Integer> stringCounts = new HashMap<>();
+        for (final Map.Entry<DecisionScope, Map<String, Object>> entry : encodedData.entrySet()) {
+            addToDictionary(entry.getKey().getName(), dictionaryIndexes);
+            countStrings(entry.getValue(), stringCounts, dictionaryIndexes);
+        }
+        for (final Map.Entry<String, Integer> entry : stringCounts.entrySet()) {
+            if (entry.getValue() > 1) {
+                addToDictionary(entry.getKey(), dictionaryIndexes);
+            }
+        }
+        final int baseDictionarySize =
+                rebuildDictionary || currentDictionarySize == 0
+                        ? dictionaryIndexes.size()
+                        : currentSnapshot.baseDictionarySize;
+
+        final ByteArrayOutputStream dictionaryBytes = new ByteArrayOutputStream();
+        final DataOutputStream dictionaryOutput = new DataOutputStream(dictionaryBytes);
+        final int[] relativeDictionaryOffsets = new int[dictionaryIndexes.size()];
+        int dictionaryIndex = 0;
+        for (final String value : dictionaryIndexes.keySet()) {
+            relativeDictionaryOffsets[dictionaryIndex++] = dictionaryOutput.size();
+            writeString(value, dictionaryOutput);
+        }
+
+        final ByteArrayOutputStream recordBytes = new ByteArrayOutputStream();
+        final DataOutputStream recordOutput = new DataOutputStream(recordBytes);
+        final List<int[]> relativeRecords = new ArrayList<>();
+        for (final Map.Entry<DecisionScope, int[]> entry : keptRecords.entrySet()) {
+            final int start = recordOutput.size();
+            recordOutput.write(currentSnapshot.getRecordBytes(entry.getValue()));
+            relativeRecords.add(
+                    new int[] {
+                        dictionaryIndexes.get(entry.getKey().getName()),
+                        start,
+                        recordOutput.size() - start
+                    });
+        }
+        for (final Map.Entry<DecisionScope, Map<String, Object>> entry : encodedData.entrySet()) {
+            final int start = recordOutput.size();
+            writeValue(entry.getValue(), recordOutput, dictionaryIndexes);
+            relativeRecords.add(
+                    new int[] {
+                        dictionaryIndexes.get(entry.getKey().getName()),
+                        start,
+                        recordOutput.size() - start
+                    });
+        }
+
+        final int headerSize =
+                5 * 4 + 4 * relativeDictionaryOffsets.length + 3 * 4 * relativeRecords.size();
+        final int recordsStart = headerSize + dictionaryOutput.size();
+
+        final ByteArrayOutputStream snapshotBytes =
+                new ByteArrayOutputStream(recordsStart + recordOutput.size());
+        final DataOutputStream snapshotOutput = new DataOutputStream(snapshotBytes);
+        snapshotOutput.writeInt(MAGIC);
+        snapshotOutput.writeInt(FORMAT_VERSION);
+        snapshotOutput.writeInt(baseDictionarySize);
+        snapshotOutput.writeInt(relativeDictionaryOffsets.length);
+        for (final int offset : relativeDictionaryOffsets) {
+            snapshotOutput.writeInt(headerSize + offset);
+        }
+        snapshotOutput.writeInt(relativeRecords.size());
+        for (final int[] record : relativeRecords) {
+            snapshotOutput.writeInt(record[0]);
+            snapshotOutput.writeInt(recordsStart + record[1]);
+            snapshotOutput.writeInt(record[2]);
+        }
+        dictionaryBytes.writeTo(snapshotOutput);
+        recordBytes.writeTo(snapshotOutput);
+        snapshotOutput.flush();
+        return snapshotBytes.toByteArray();
+    }
+
+    private static String readString(final ByteBuffer source) {
+        final byte[] bytes = new byte[readCount(source, 1)];
+        source.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // Reads the count of elements taking at least elementSize bytes each, checked against the
+    // remaining bytes, so a corrupt snapshot cannot cause an oversized or negative allocation.
+    private static int readCount(final ByteBuffer source, final int elementSize) {
+        final int count = source.getInt();
+        if (count < 0 || count > source.remaining() / elementSize) {
+            throw new IllegalStateException("Invalid count " + count + " in the snapshot.");
+        }
+        return count;
+    }
+
+    private static void addToDictionary(
+            final String value, final Map<String, Integer> dictionaryIndexes) {
+        if (!dictionaryIndexes.containsKey(value)) {
+            dictionaryIndexes.put(value, dictionaryIndexes.size());
+        }
+    }
+
+    private static void countStrings(
+            final Object value,
+            final Map<String, Integer> stringCounts,
+            final Map<String, Integer> dictionaryIndexes) {
+        if (value instanceof String) {
+            final Integer count = stringCounts.get(value);
+            stringCounts.put((String) value, count != null ? count + 1 : 1);
+        } else if (value instanceof Map) {
+            for (final Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                addToDictionary(String.valueOf(entry.getKey()), dictionaryIndexes);
+                countStrings(entry.getValue(), stringCounts, dictionaryIndexes);
+            }
+        } else if (value instanceof List) {
+            for (final Object element : (List<?>) value) {
+                countStrings(element, stringCounts, dictionaryIndexes);
+            }
+        }
+    }
+
+    private static void writeValue(
+            final Object value,
+            final DataOutputStream output,
+            final Map<String, Integer> dictionaryIndexes)
+            throws IOException {
+        if (value == null) {
+            output.writeByte(TAG_NULL);
+        } else if (value instanceof String) {
+            final Integer index = dictionaryIndexes.get(value);
+            if (index != null) {
+                output.writeByte(TAG_DICTIONARY_STRING);
+                output.writeInt(index);
+            } else {
+                output.writeByte(TAG_STRING);
+                writeString((String) value, output);
+            }
+        } else if (value instanceof Boolean) {
+            output.writeByte((Boolean) value ? TAG_TRUE : TAG_FALSE);
+        } else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            output.writeByte(TAG_INT);
+            output.writeInt(((Number) value).intValue());
+        } else if (value instanceof Long) {
+            output.writeByte(TAG_LONG);
+            output.writeLong((Long) value);
+        } else if (value instanceof Double || value instanceof Float) {
+            output.writeByte(TAG_DOUBLE);
+            output.writeDouble(((Number) value).doubleValue());
+        } else if (value instanceof Map) {
+            final Map<?, ?> map = (Map<?, ?>) value;
+            output.writeByte(TAG_MAP);
+            output.writeInt(map.size());
+            for (final Map.Entry<?, ?> entry : map.entrySet()) {
+                output.writeInt(dictionaryIndexes.get(String.valueOf(entry.getKey())));
+                writeValue(entry.getValue(), output, dictionaryIndexes);
+            }
+        } else if (value instanceof List) {
+            final List<?> list = (List<?>) value;
+            output.writeByte(TAG_LIST);
+            output.writeInt(list.size());
+            for (final Object element : list) {
+                writeValue(element, output, dictionaryIndexes);
+            }
+        } else {
+            throw new IOException(
+                    "Unsupported value type " + value.getClass().getSimpleName() + ".");
+        }
+    }
+
+    private static void writeString(final String value, final DataOutputStream output)
+            throws IOException {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    /** {@code SnapshotFile} class reads a memory mapped snapshot file. */
+    private static final class SnapshotFile {
+        static final SnapshotFile EMPTY =
+                new SnapshotFile(
+                        null,
+                        new int[0],
+                        0,
+                        Collections.<DecisionScope, int[]>emptyMap());
+
+        private final ByteBuffer buffer;
+        private final int[] dictionaryOffsets;
+        private final String[] dictionary;
+        private final int baseDictionarySize;
+        private final Map<DecisionScope, int[]> scopeIndex;
+
+        private SnapshotFile(
+                final ByteBuffer buffer,
+                final int[] dictionaryOffsets,
+                final int baseDictionarySize,
+                final Map<DecisionScope, int[]> scopeIndex) {
+            this.buffer = buffer;
+            this.dictionaryOffsets = dictionaryOffsets;
+            this.dictionary = new String[dictionaryOffsets.length];
+            this.baseDictionarySize = baseDictionarySize;
+            this.scopeIndex = scopeIndex;
+        }
+
+        /**
+         * Maps the given snapshot {@code file}, the caller holds a lock on the lock file.
+         *
+         * @param file {@link File} containing the snapshot.
+         * @return {@link SnapshotFile} for the file, or {@link #EMPTY} if the file doesn't exist.
+         * @throws IOException if the file cannot be read or is not a valid snapshot.
+         */
+        static SnapshotFile open(final File file) throws IOException {
+            if (!file.exists()) {
+                return EMPTY;
+            }
+
+            try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+                    FileChannel channel = randomAccessFile.getChannel()) {
+                final ByteBuffer buffer =
+                        channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+                    throw new IOException("Unsupported snapshot format.");
+                }
+
+                final int baseDictionarySize = buffer.getInt();
+                final int dictionarySize = readCount(buffer, 4);
+                final int[] dictionaryOffsets = new int[dictionarySize];
+                for (int i = 0; i < dictionarySize; i++) {
+                    dictionaryOffsets[i] = buffer.getInt();
+                    if (dictionaryOffsets[i] < 0 || dictionaryOffsets[i] >= buffer.capacity()) {
+                        throw new IOException("Invalid dictionary offset in the snapshot.");
+                    }
+                }
+
+                final int scopeCount = readCount(buffer, 3 * 4);
+                final Map<DecisionScope, int[]> index = new HashMap<>();
+                final int[] scopeNameIndexes = new int[scopeCount];
+                final List<int[]> records = new ArrayList<>(scopeCount);
+                for (int i = 0; i < scopeCount; i++) {
+                    scopeNameIndexes[i] = buffer.getInt();
+                    final int offset = buffer.getInt();
+                    final int length = buffer.getInt();
+                    if (scopeNameIndexes[i] < 0
+                            || scopeNameIndexes[i] >= dictionarySize
+                            || offset < 0
+                            || length < 0
+                            || length > buffer.capacity() - offset) {
+                        throw new IOException("Invalid record in the snapshot.");
+                    }
+                    records.add(new int[] {offset, length});
+                }
+
+                final SnapshotFile snapshotFile =
+                        new SnapshotFile(buffer, dictionaryOffsets, baseDictionarySize, index);
+                for (int i = 0; i < scopeCount; i++) {
+                    index.put(
+                            new DecisionScope(
+                                    snapshotFile.getDictionaryString(scopeNameIndexes[i])),
+                            records.get(i));
+                }
+                return snapshotFile;
+            }
+        }
+
+        private String getDictionaryString(final int index) {
+            String value = dictionary[index];
+            if (value == null) {
+                final ByteBuffer stringBuffer = buffer.duplicate();
+                stringBuffer.position(dictionaryOffsets[index]);
+                value = readString(stringBuffer);
+                dictionary[index] = value;
+            }
+            return value;
+        }
+
+        private Object readRecord(final int[] record) {
+            final ByteBuffer recordBuffer = buffer.duplicate();
+            recordBuffer.position(record[0]);
+            recordBuffer.limit(record[0] + record[1]);
+            return readValue(recordBuffer);
+        }
+
+        private byte[] getRecordBytes(final int[] record) {
+            final ByteBuffer recordBuffer = buffer.duplicate();
+            recordBuffer.position(record[0]);
+            final byte[] bytes = new byte[record[1]];
+            recordBuffer.get(bytes);
+            return bytes;
+        }
+
+        private Object readValue(final ByteBuffer source) {
+            final byte tag = source.get();
+            switch (tag) {
+                case TAG_NULL:
+                    return null;
+                case TAG_STRING:
+                    return readString(source);
+                case TAG_DICTIONARY_STRING:
+                    return getDictionaryString(source.getInt());
+                case TAG_INT:
+                    return source.getInt();
+                case TAG_LONG:
+                    return source.getLong();
+                case TAG_DOUBLE:
+                    return source.getDouble();
+                case TAG_TRUE:
+                    return true;
+                case TAG_FALSE:
+                    return false;
+                case TAG_MAP:
+                    // Each entry takes at least a key index and a value tag.
+                    final int mapSize = readCount(source, 4 + 1);
+                    final Map<String, Object> map = new HashMap<>();
+                    for (int i = 0; i < mapSize; i++) {
+                        final String key = getDictionaryString(source.getInt());
+                        map.put(key, readValue(source));
+                    }
+                    return map;
+                case TAG_LIST:
+                    final int listSize = readCount(source, 1);
+                    final List<Object> list = new ArrayList<>(listSize);
+                    for (int i = 0; i < listSize; i++) {
+                        list.add(readValue(source));
+                    }
+                    return list;
+                default:
+                    throw new IllegalStateException("Unknown value tag " + tag + ".");
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.optimize;
+
+import com.adobe.marketing.mobile.AdobeCallback;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * {@code PropositionsSubscription} class represents a subscription to the cached propositions for
+ * a set of decision scopes, created using {@link Optimize#subscribePropositions(java.util.List,
+ * AdobeCallback)} API.
+ *
+ * <p>The subscription callback is invoked until {@link #cancel()} is called.
+ */
+public final class PropositionsSubscription {
+    final Set<DecisionScope> scopes;
+    final AdobeCallback<Map<DecisionScope, OptimizeProposition>> callback;
+
+    // Set when a delivery is queued, further changes before it runs are conflated into it.
+    final AtomicBoolean deliveryScheduled = new AtomicBoolean(false);
+
+    // Propositions last passed to the callback.
+    // This is only accessed from the registry delivery thread.
+    Map<DecisionScope, OptimizeProposition> lastDeliveredPropositions;
+
+    private final PropositionsSubscriptionRegistry registry;
+    private volatile boolean cancelled;
+
+    PropositionsSubscription(
+            final PropositionsSubscriptionRegistry registry,
+            final Set<DecisionScope> scopes,
+            final AdobeCallback<Map<DecisionScope, OptimizeProposition>> callback) {
+        this.registry = registry;
+        this.scopes = scopes;
+        this.callback = callback;
+    }
+
+    /**
+     * Cancels this subscription, the callback is not invoked any more once this method returns,
+     * unless it is already being invoked.
+     */
+    public void cancel() {
+        cancelled = true;
+        registry.unsubscribe(this);
+    }
+
+    /**
+     * Returns whether this subscription is cancelled.
+     *
+     * @return {@code boolean} indicating whether {@link #cancel()} was called.
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+}
@@ -0,0 +1,201 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.optimize;
+
+import com.adobe.marketing.mobile.AdobeCallback;
+import com.adobe.marketing.mobile.services.Log;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * {@code PropositionsSubscriptionRegistry} class keeps the {@link PropositionsSubscription}s and
+ * delivers the cached propositions for their scopes, read directly from the {@code
+ * OptimizeExtension} propositions cache.
+ *
+ * <p>Each subscription receives the cached propositions right away and then whenever the cached
+ * propositions for its scopes change. Changes notified while a delivery is pending are conflated
+ * into it, so a slow callback only receives the latest propositions.
+ */
+final class PropositionsSubscriptionRegistry {
+    private static final String SELF_TAG = "PropositionsSubscriptionRegistry";
+
+    private static final PropositionsSubscriptionRegistry sharedInstance =
+            new PropositionsSubscriptionRegistry(Executors.newSingleThreadExecutor());
+
+    private final Executor executor;
+    private final List<PropositionsSubscription> subscriptions = new CopyOnWriteArrayList<>();
+
+    // Propositions cache of the registered OptimizeExtension, or null if it is not registered.
+    private volatile Map<DecisionScope, OptimizeProposition> cachedPropositions;
+
+    PropositionsSubscriptionRegistry(final Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Returns the registry shared by the {@link Optimize} APIs and the {@code OptimizeExtension}.
+     *
+     * @return {@link PropositionsSubscriptionRegistry} shared instance.
+     */
+    static PropositionsSubscriptionRegistry getInstance() {
+        return sharedInstance;
+    }
+
+    /**
+     * Sets the propositions cache read for the subscription deliveries.
+     *
+     * <p>All subscriptions are notified as the cached propositions may have changed.
+     *
+     * @param cachedPropositions {@code Map<DecisionScope, OptimizeProposition>} containing the
+     *     propositions cache, or null if it is not available.
+     */
+    void setCachedPropositions(final Map<DecisionScope, OptimizeProposition> cachedPropositions) {
+        this.cachedPropositions = cachedPropositions;
+        notifyAllChanged();
+    }
+
+    /**
+     * Sets the propositions cache read for the subscription deliveries, after the cached
+     * propositions for the given {@code changedScopes} changed.
+     *
+     * <p>Only the subscriptions for any of the changed scopes are notified.
+     *
+     * @param cachedPropositions {@code Map<DecisionScope, OptimizeProposition>} containing the
+     *     propositions cache, or null if it is not available.
+     * @param changedScopes {@code Collection<DecisionScope>} containing the scopes changed in the
+     *     cache.
+     */
+    void setCachedPropositions(
+            final Map<DecisionScope, OptimizeProposition> cachedPropositions,
+            final Collection<DecisionScope> changedScopes) {
+        this.cachedPropositions = cachedPropositions;
+        notifyChanged(changedScopes);
+    }
+
+    /**
+     * Creates a subscription for the given {@code scopes} and queues the delivery of their cached
+     * propositions.
+     *
+     * @param scopes {@code Collection<DecisionScope>} containing the subscribed scopes.
+     * @param callback {@code AdobeCallback<Map<DecisionScope, OptimizeProposition>>} invoked with
+     *     the cached propositions for the subscribed scopes.
+     * @return {@link PropositionsSubscription} created.
+     */
+    PropositionsSubscription subscribe(
+            final Collection<DecisionScope> scopes,
+            final AdobeCallback<Map<DecisionScope, OptimizeProposition>> callback) {
+        final PropositionsSubscription subscription =
+                new PropositionsSubscription(this, new HashSet<>(scopes), callback);
+        subscriptions.add(subscription);
+        scheduleDelivery(subscription);
+        return subscription;
+    }
+
+    /**
+     * Removes the given {@code subscription}.
+     *
+     * @param subscription {@link PropositionsSubscription} to be removed.
+     */
+    void unsubscribe(final PropositionsSubscription subscription) {
+        subscriptions.remove(subscription);
+    }
+
+    /**
+     * Queues the delivery of the cached propositions to the subscriptions for any of the given
+     * {@code scopes}.
+     *
+     * @param scopes {@code Collection<DecisionScope>} containing the scopes changed in the cache.
+     */
+    void notifyChanged(final Collection<DecisionScope> scopes) {
+        if (scopes == null || scopes.isEmpty()) {
+            return;
+        }
+
+        for (final PropositionsSubscription subscription : subscriptions) {
+            for (final DecisionScope scope : scopes) {
+                if (subscription.scopes.contains(scope)) {
+                    scheduleDelivery(subscription);
+                    break;
+                }
+            }
+        }
+    }
+
+    /** Queues the delivery of the cached propositions to all the subscriptions. */
+    void notifyAllChanged() {
+        for (final PropositionsSubscription subscription : subscriptions) {
+            scheduleDelivery(subscription);
+        }
+    }
+
+    /**
+     * Returns the number of active subscriptions.
+     *
+     * @return {@code int} containing the subscriptions count.
+     */
+    int size() {
+        return subscriptions.size();
+    }
+
+    private void scheduleDelivery(final PropositionsSubscription subscription) {
+        if (!subscription.deliveryScheduled.compareAndSet(false, true)) {
+            // A delivery is already pending, it will read the latest cached propositions.
+            return;
+        }
+
+        executor.execute(
+                () -> {
+                    subscription.deliveryScheduled.set(false);
+                    deliver(subscription);
+                });
+    }
+
+    private void deliver(final PropositionsSubscription subscription) {
+        if (subscription.isCancelled()) {
+            return;
+        }
+
+        final Map<DecisionScope, OptimizeProposition> propositions = new HashMap<>();
+        final Map<DecisionScope, OptimizeProposition> cache = cachedPropositions;
+        if (cache != null) {
+            for (final DecisionScope scope : subscription.scopes) {
+                final OptimizeProposition proposition = cache.get(scope);
+                if (proposition != null) {
+                    propositions.put(scope, proposition);
+                }
+            }
+        }
+
+        if (subscription.lastDeliveredPropositions != null
+                && subscription.lastDeliveredPropositions.equals(propositions)) {
+            return;
+        }
+        subscription.lastDeliveredPropositions = Collections.unmodifiableMap(propositions);
+
+        try {
+            subscription.callback.call(subscription.lastDeliveredPropositions);
+        } catch (final Exception e) {
+            Log.warning(
+                    OptimizeConstants.LOG_TAG,
+                    SELF_TAG,
+                    "Subscription callback failed with an exception (%s).",
+                    e.getLocalizedMessage());
+        }
+    }
+}
@@ -0,0 +1,324 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.optimize;
+
+import com.adobe.marketing.mobile.services.Log;
+import com.adobe.marketing.mobile.services.NamedCollection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * {@code ScopePrefetcher} class records the order in which decision scopes are requested and
+ * predicts the scopes likely to be requested next.
+ *
+ * <p>The observed navigation history is kept as a first-order transition table, mapping each
+ * requested scope name to the scope names requested in the next request along with the number of
+ * times the transition was seen. Scopes requested together in a request belong to the same screen,
+ * so they are never recorded as transitions between each other. The table is persisted in the
+ * provided {@link NamedCollection}, if any, when {@link #persist()} is called, so predictions
+ * survive app restarts.
+ *
+ * <p>The scopes for which no proposition was returned are kept for {@link
+ * #EMPTY_SCOPE_TTL_MILLIS}, they are not predicted again until then.
+ */
+class ScopePrefetcher {
+    private static final String SELF_TAG = "ScopePrefetcher";
+
+    // Maximum number of source scopes tracked in the transition table.
+    static final int MAX_TRACKED_SCOPES = 100;
+    // Maximum number of next scopes tracked for a given source scope.
+    static final int MAX_TRANSITIONS_PER_SCOPE = 10;
+    // Minimum number of times a transition should be seen before it is used for a prediction.
+    static final int MIN_TRANSITION_COUNT = 2;
+    // Maximum number of scopes predicted for prefetching.
+    static final int MAX_PREDICTED_SCOPES = 3;
+    // Time, in milliseconds, for which a scope with no proposition is not predicted again.
+    static final long EMPTY_SCOPE_TTL_MILLIS = TimeUnit.MINUTES.toMillis(30);
+
+    private final NamedCollection dataStore;
+
+    // Access-ordered map so the least recently requested source scope is evicted first.
+    private final Map<String, Map<String, Integer>> transitions =
+            new LinkedHashMap<>(16, 0.75f, true);
+    private final BoundedExpiringMap<Boolean> emptyScopes =
+            new BoundedExpiringMap<>(MAX_TRACKED_SCOPES, EMPTY_SCOPE_TTL_MILLIS);
+    private List<String> lastRequestedScopes = Collections.emptyList();
+    private boolean transitionsChanged;
+
+    /**
+     * Constructor creates a {@code ScopePrefetcher} and loads the previously persisted transition
+     * table from the given {@code dataStore}.
+     *
+     * @param dataStore {@link NamedCollection} used for persisting the transition table, or null
+     *     if the table should be kept in memory only.
+     */
+    ScopePrefetcher(final NamedCollection dataStore) {
+        this.dataStore = dataStore;
+        loadTransitions();
+    }
+
+    /**
+     * Records the given requested {@code scopes} in the transition table and returns the scopes
+     * likely to be requested next.
+     *
+     * <p>Each requested scope is recorded as the successor of the scopes of the previous request,
+     * except for the scopes contained in both requests. The predicted scopes never contain any of
+     * the given {@code scopes}, nor the scopes for which no proposition was recently returned.
+     *
+     * @param scopes {@code List<DecisionScope>} containing the requested scopes.
+     * @return {@code List<DecisionScope>} containing the predicted next scopes, which may be empty.
+     */
+    synchronized List<DecisionScope> recordRequest(final List<DecisionScope> scopes) {
+        if (OptimizeUtils.isNullOrEmpty(scopes)) {
+            return Collections.emptyList();
+        }
+
+        final List<String> requestedScopes = new ArrayList<>(scopes.size());
+        for (final DecisionScope scope : scopes) {
+            if (!requestedScopes.contains(scope.getName())) {
+                requestedScopes.add(scope.getName());
+            }
+        }
+
+        for (final String fromScope : lastRequestedScopes) {
+            if (requestedScopes.contains(fromScope)) {
+                continue;
+            }
+            for (final String toScope : requestedScopes) {
+                if (!lastRequestedScopes.contains(toScope)) {
+                    recordTransition(fromScope, toScope);
+                    transitionsChanged = true;
+                }
+            }
+        }
+        lastRequestedScopes = requestedScopes;
+
+        final List<DecisionScope> predictedScopes = new ArrayList<>();
+        for (final String scopeName : predictNextScopeNames(requestedScopes)) {
+            predictedScopes.add(new DecisionScope(scopeName));
+        }
+        return predictedScopes;
+    }
+
+    /**
+     * Records the result of an update request for the given {@code requestedScopes}.
+     *
+     * <p>The requested scopes not contained in {@code returnedScopes} are not predicted again for
+     * {@link #EMPTY_SCOPE_TTL_MILLIS}.
+     *
+     * @param requestedScopes {@code Collection<DecisionScope>} containing the requested scopes.
+     * @param returnedScopes {@code Collection<DecisionScope>} containing the scopes for which
+     *     propositions were returned.
+     */
+    void recordUpdateResult(
+            final Collection<DecisionScope> requestedScopes,
+            final Collection<DecisionScope> returnedScopes) {
+        if (requestedScopes == null) {
+            return;
+        }
+
+        for (final DecisionScope scope : requestedScopes) {
+            if (returnedScopes != null && returnedScopes.contains(scope)) {
+                emptyScopes.remove(scope.getName());
+            } else {
+                emptyScopes.put(scope.getName(), Boolean.TRUE);
+            }
+        }
+    }
+
+    /**
+     * Persists the transition table in the data store, if it changed since it was last persisted.
+     *
+     * <p>This is called when the app goes to the background, rather than on each request, so the
+     * data store is not written on the request path.
+     */
+    synchronized void persist() {
+        if (!transitionsChanged) {
+            return;
+        }
+        transitionsChanged = false;
+        persistTransitions();
+    }
+
+    /**
+     * Clears the transition table, in memory and in the data store, along with the scopes for
+     * which no proposition was returned.
+     *
+     * <p>This is called when the identities are reset, so no navigation history of the previous
+     * user is kept.
+     */
+    synchronized void reset() {
+        transitions.clear();
+        emptyScopes.clear();
+        lastRequestedScopes = Collections.emptyList();
+        transitionsChanged = false;
+        if (dataStore != null) {
+            dataStore.remove(OptimizeConstants.DataStoreKeys.SCOPE_TRANSITIONS);
+        }
+    }
+
+    /**
+     * Returns the number of times a transition from {@code fromScope} to {@code toScope} is seen.
+     *
+     * @param fromScope {@link DecisionScope} requested first.
+     * @param toScope {@code DecisionScope} requested next.
+     * @return {@code int} containing the transition count.
+     */
+    synchronized int getTransitionCount(
+            final DecisionScope fromScope, final DecisionScope toScope) {
+        final Map<String, Integer> nextScopes = transitions.get(fromScope.getName());
+        if (nextScopes == null) {
+            return 0;
+        }
+        final Integer count = nextScopes.get(toScope.getName());
+        return count != null ? count : 0;
+    }
+
+    private void recordTransition(final String fromScope, final String toScope) {
+        Map<String, Integer> nextScopes = transitions.get(fromScope);
+        if (nextScopes == null) {
+            if (transitions.size() >= MAX_TRACKED_SCOPES) {
+                final Iterator<String> iterator = transitions.keySet().iterator();
+                iterator.next();
+                iterator.remove();
+            }
+            nextScopes = new HashMap<>();
+            transitions.put(fromScope, nextScopes);
+        }
+
+        final Integer count = nextScopes.get(toScope);
+        if (count == null && nextScopes.size() >= MAX_TRANSITIONS_PER_SCOPE) {
+            // evict the least seen transition to make room for the new one.
+            String leastSeenScope = null;
+            int leastSeenCount = Integer.MAX_VALUE;
+            for (final Map.Entry<String, Integer> entry : nextScopes.entrySet()) {
+                if (entry.getValue() < leastSeenCount) {
+                    leastSeenScope = entry.getKey();
+                    leastSeenCount = entry.getValue();
+                }
+            }
+            nextScopes.remove(leastSeenScope);
+        }
+        nextScopes.put(toScope, count != null ? count + 1 : 1);
+    }
+
+    private List<String> predictNextScopeNames(final List<String> fromScopes) {
+        // Keep the highest count of each candidate over all the requested scopes.
+        final Map<String, Integer> candidateCounts = new HashMap<>();
+        for (final String fromScope : fromScopes) {
+            final Map<String, Integer> nextScopes = transitions.get(fromScope);
+            if (nextScopes == null) {
+                continue;
+            }
+            for (final Map.Entry<String, Integer> entry : nextScopes.entrySet()) {
+                final String toScope = entry.getKey();
+                final int count = entry.getValue();
+                if (count < MIN_TRANSITION_COUNT
+                        || fromScopes.contains(toScope)
+                        || emptyScopes.containsKey(toScope)) {
+                    continue;
+                }
+                final Integer candidateCount = candidateCounts.get(toScope);
+                if (candidateCount == null || candidateCount < count) {
+                    candidateCounts.put(toScope, count);
+                }
+            }
+        }
+        if (candidateCounts.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        final List<Map.Entry<String, Integer>> candidates =
+                new ArrayList<>(candidateCounts.entrySet());
+        Collections.sort(candidates, (first, second) -> second.getValue() - first.getValue());
+
+        final List<String> predictedScopeNames = new ArrayList<>();
+        for (final Map.Entry<String, Integer> candidate : candidates) {
+            if (predictedScopeNames.size() == MAX_PREDICTED_SCOPES) {
+                break;
+            }
+            predictedScopeNames.add(candidate.getKey());
+        }
+        return predictedScopeNames;
+    }
+
+    private void loadTransitions() {
+        if (dataStore == null) {
+            return;
+        }
+
+        final String serializedTransitions =
+                dataStore.getString(OptimizeConstants.DataStoreKeys.SCOPE_TRANSITIONS, null);
+        if (OptimizeUtils.isNullOrEmpty(serializedTransitions)) {
+            return;
+        }
+
+        try {
+            final JSONObject transitionsJson = new JSONObject(serializedTransitions);
+            final Iterator<String> fromScopes = transitionsJson.keys();
+            while (fromScopes.hasNext()) {
+                final String fromScope = fromScopes.next();
+                final JSONObject nextScopesJson = transitionsJson.getJSONObject(fromScope);
+                final Map<String, Integer> nextScopes = new HashMap<>();
+                final Iterator<String> toScopes = nextScopesJson.keys();
+                while (toScopes.hasNext()) {
+                    final String toScope = toScopes.next();
+                    nextScopes.put(toScope, nextScopesJson.getInt(toScope));
+                }
+                transitions.put(fromScope, nextScopes);
+            }
+        } catch (final JSONException e) {
+            Log.debug(
+                    OptimizeConstants.LOG_TAG,
+                    SELF_TAG,
+                    "loadTransitions - Discarding the persisted scope transitions, they cannot be"
+                            + " parsed (%s).",
+                    e.getLocalizedMessage());
+            transitions.clear();
+            dataStore.remove(OptimizeConstants.DataStoreKeys.SCOPE_TRANSITIONS);
+        }
+    }
+
+    private void persistTransitions() {
+        if (dataStore == null) {
+            return;
+        }
+
+        try {
+            final JSONObject transitionsJson = new JSONObject();
+            for (final Map.Entry<String, Map<String, Integer>> entry : transitions.entrySet()) {
+                final JSONObject nextScopesJson = new JSONObject();
+                for (final Map.Entry<String, Integer> nextScope : entry.getValue().entrySet()) {
+                    nextScopesJson.put(nextScope.getKey(), nextScope.getValue().intValue());
+                }
+                transitionsJson.put(entry.getKey(), nextScopesJson);
+            }
+            dataStore.setString(
+                    OptimizeConstants.DataStoreKeys.SCOPE_TRANSITIONS, transitionsJson.toString());
+        } catch (final JSONException e) {
+            Log.debug(
+                    OptimizeConstants.LOG_TAG,
+                    SELF_TAG,
+                    "persistTransitions - Failed to persist the scope transitions (%s).",
+                    e.getLocalizedMessage());
+        }
+    }
+}
@@ -0,0 +1,156 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.optimize;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@code ShardedUpdateRequest} class tracks an update propositions request sent as multiple Edge
+ * personalization query requests, also called shards, each containing a part of the requested
+ * scopes, so each request and its response stay within the Edge Network payload size limits. The
+ * shards are sent one after the other by the Edge extension, not in parallel.
+ *
+ * <p>The propositions returned for each shard are kept separately, so the cache can be updated as
+ * each shard completes, and merged in a single response once all the shards are completed. Scopes
+ * of a shard which failed with a recoverable error are retried in an additional shard of the same
+ * request.
+ */
+final class ShardedUpdateRequest {
+    private final Map<String, Map<DecisionScope, OptimizeProposition>> shardPropositions =
+            new HashMap<>();
+    private int pendingShardCount;
+    private int retryCount;
+    private AEPOptimizeError error;
+
+    /**
+     * Constructor creates a {@code ShardedUpdateRequest} waiting for the given number of shards.
+     *
+     * @param shardCount {@code int} containing the number of shards.
+     */
+    ShardedUpdateRequest(final int shardCount) {
+        this.pendingShardCount = shardCount;
+    }
+
+    /**
+     * Splits the given {@code scopes} in consecutive shards of at most {@code maxShardSize} scopes.
+     *
+     * @param scopes {@code List<DecisionScope>} containing the requested scopes.
+     * @param maxShardSize {@code int} containing the maximum number of scopes in a shard.
+     * @return {@code List<List<DecisionScope>>} containing the shards.
+     */
+    static List<List<DecisionScope>> shard(
+            final List<DecisionScope> scopes, final int maxShardSize) {
+        final List<List<DecisionScope>> shards = new ArrayList<>();
+        for (int start = 0; start < scopes.size(); start += maxShardSize) {
+            final int end = Math.min(start + maxShardSize, scopes.size());
+            shards.add(new ArrayList<>(scopes.subList(start, end)));
+        }
+        return shards;
+    }
+
+    /**
+     * Adds the given {@code proposition} returned for the shard with the given {@code
+     * shardEventId}.
+     *
+     * @param shardEventId {@link String} containing the unique identifier of the shard Edge event.
+     * @param scope {@link DecisionScope} of the returned proposition.
+     * @param proposition {@link OptimizeProposition} returned.
+     */
+    synchronized void addProposition(
+            final String shardEventId,
+            final DecisionScope scope,
+            final OptimizeProposition proposition) {
+        Map<DecisionScope, OptimizeProposition> propositions = shardPropositions.get(shardEventId);
+        if (propositions == null) {
+            propositions = new HashMap<>();
+            shardPropositions.put(shardEventId, propositions);
+        }
+        propositions.put(scope, proposition);
+    }
+
+    /**
+     * Returns the propositions returned for the shard with the given {@code shardEventId}.
+     *
+     * @param shardEventId {@link String} containing the unique identifier of the shard Edge event.
+     * @return {@code Map<DecisionScope, OptimizeProposition>} containing the shard propositions,
+     *     which may be empty.
+     */
+    synchronized Map<DecisionScope, OptimizeProposition> getShardPropositions(
+            final String shardEventId) {
+        final Map<DecisionScope, OptimizeProposition> propositions =
+                shardPropositions.get(shardEventId);
+        return propositions != null
+                ? new HashMap<>(propositions)
+                : Collections.<DecisionScope, OptimizeProposition>emptyMap();
+    }
+
+    /**
+     * Adds a shard retrying the scopes of a shard which failed with a recoverable error.
+     *
+     * <p>It must be called before the failed shard is marked as completed, so the request isn't
+     * completed before the retry.
+     */
+    synchronized void addRetry() {
+        retryCount++;
+        pendingShardCount++;
+    }
+
+    /**
+     * Returns the number of retries added for the request.
+     *
+     * @return {@code int} containing the retry count.
+     */
+    synchronized int getRetryCount() {
+        return retryCount;
+    }
+
+    /**
+     * Marks a shard as completed, failed or timed out.
+     *
+     * @param shardError {@link AEPOptimizeError} returned for the shard, or null if none. Only the
+     *     first error returned for the request is kept.
+     * @return {@code boolean} indicating whether all the shards are completed.
+     */
+    synchronized boolean completeShard(final AEPOptimizeError shardError) {
+        if (error == null) {
+            error = shardError;
+        }
+        pendingShardCount--;
+        return pendingShardCount == 0;
+    }
+
+    /**
+     * Returns the propositions returned for all the shards.
+     *
+     * @return {@code Map<DecisionScope, OptimizeProposition>} containing the merged propositions.
+     */
+    synchronized Map<DecisionScope, OptimizeProposition> getPropositions() {
+        final Map<DecisionScope, OptimizeProposition> propositions = new HashMap<>();
+        for (final Map<DecisionScope, OptimizeProposition> shard : shardPropositions.values()) {
+            propositions.putAll(shard);
+        }
+        return propositions;
+    }
+
+    /**
+     * Returns the first error returned for a shard.
+     *
+     * @return {@link AEPOptimizeError} returned, or null if none.
+     */
+    synchronized AEPOptimizeError getError() {
+        return error;
+    }
+}
@@ -0,0 +1,112 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.optimize;
+
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code UpdateRequestRetryPolicy} class decides when the scopes of an update propositions request
+ * which failed with a recoverable Edge error are requested again.
+ *
+ * <p>Retries are delayed with an exponential backoff and a random jitter, so devices don't retry in
+ * lockstep, and honor the retry delay returned by the Edge network. The number of retries for an
+ * update request and the retry delay are bounded, and a retry is only made if it can complete
+ * before the update request times out for its caller.
+ */
+class UpdateRequestRetryPolicy {
+    static final int MAX_RETRY_COUNT = 2;
+    static final long BASE_RETRY_DELAY_MILLIS = 250L;
+    static final long MAX_RETRY_DELAY_MILLIS = 2000L;
+    // Minimum time, in milliseconds, left for the retried request to complete after the delay.
+    static final long MIN_RETRY_TIMEOUT_MILLIS = 2000L;
+    static final long NO_RETRY = -1L;
+
+    private final Random random = new Random();
+
+    private ScheduledExecutorService executor;
+
+    /** Constructor creates a {@code UpdateRequestRetryPolicy}. */
+    UpdateRequestRetryPolicy() {
+        this(null);
+    }
+
+    /**
+     * Constructor creates a {@code UpdateRequestRetryPolicy} using the provided {@code executor}.
+     *
+     * @param executor {@link ScheduledExecutorService} used for scheduling retries, or null if it
+     *     should be created when the first retry is scheduled.
+     */
+    UpdateRequestRetryPolicy(final ScheduledExecutorService executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Returns the delay before the next retry of an update request.
+     *
+     * <p>The backoff doubles with each retry, up to {@value #MAX_RETRY_DELAY_MILLIS} milliseconds,
+     * and a random delay of up to half of it is subtracted. The returned delay is never shorter
+     * than the given {@code retryAfterMillis}. No retry is made if less than {@value
+     * #MIN_RETRY_TIMEOUT_MILLIS} milliseconds would be left, after the delay, before the given
+     * {@code remainingMillis} elapse.
+     *
+     * @param retryCount {@code int} containing the number of retries already made for the request.
+     * @param retryAfterMillis {@code long} containing the retry delay returned by the Edge network
+     *     in milliseconds, or 0 if none.
+     * @param remainingMillis {@code long} containing the time left, in milliseconds, before the
+     *     update request times out.
+     * @return {@code long} containing the retry delay in milliseconds, or {@value #NO_RETRY} if the
+     *     retry budget is exhausted, the returned retry delay is too long or the retry cannot
+     *     complete before the update request times out.
+     */
+    long getRetryDelay(
+            final int retryCount, final long retryAfterMillis, final long remainingMillis) {
+        if (retryCount >= MAX_RETRY_COUNT || retryAfterMillis > MAX_RETRY_DELAY_MILLIS) {
+            return NO_RETRY;
+        }
+
+        final long backoffMillis =
+                Math.min(MAX_RETRY_DELAY_MILLIS, BASE_RETRY_DELAY_MILLIS << retryCount);
+        final long jitterMillis;
+        synchronized (random) {
+            jitterMillis = (long) (random.nextDouble() * backoffMillis / 2);
+        }
+        final long retryDelayMillis = Math.max(backoffMillis - jitterMillis, retryAfterMillis);
+        if (retryDelayMillis + MIN_RETRY_TIMEOUT_MILLIS > remainingMillis) {
+            return NO_RETRY;
+        }
+        return retryDelayMillis;
+    }
+
+    /**
+     * Schedules the given {@code retry} to run after the given {@code delayMillis}.
+     *
+     * @param retry {@link Runnable} sending the retried request.
+     * @param delayMillis {@code long} containing the retry delay in milliseconds.
+     */
+    synchronized void schedule(final Runnable retry, final long delayMillis) {
+        if (executor == null) {
+            executor = Executors.newSingleThreadScheduledExecutor();
+        }
+        executor.schedule(retry, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /** Cancels the scheduled retries and releases the scheduler thread. */
+    synchronized void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+}
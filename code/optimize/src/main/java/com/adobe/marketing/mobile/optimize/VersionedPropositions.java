@@ -0,0 +1,162 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.optimize;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@code VersionedPropositions} class is an immutable version of the {@code OptimizeExtension}
+ * propositions cache.
+ *
+ * <p>The cache is never modified in place. Each update creates a new version from a copy of the
+ * current one, sharing its {@link OptimizeProposition} instances, which the extension then
+ * publishes with a single reference swap. Readers holding a version always see a consistent cache,
+ * either before or after a complete update.
+ *
+ * <p>Each version also belongs to a cache generation, which only changes when the cache is cleared.
+ * Update requests are tagged with the generation current when they are sent, so responses to the
+ * requests sent before the cache was cleared can be recognized and dropped.
+ */
+final class VersionedPropositions {
+    static final VersionedPropositions EMPTY =
+            new VersionedPropositions(
+                    0L, 0L, Collections.<DecisionScope, OptimizeProposition>emptyMap());
+
+    private final long version;
+    private final long generation;
+    private final Map<DecisionScope, OptimizeProposition> propositions;
+
+    private VersionedPropositions(
+            final long version,
+            final long generation,
+            final Map<DecisionScope, OptimizeProposition> propositions) {
+        this.version = version;
+        this.generation = generation;
+        this.propositions = propositions;
+    }
+
+    /**
+     * Returns the version number, incremented on each update of the cache.
+     *
+     * @return {@code long} containing the version number.
+     */
+    long getVersion() {
+        return version;
+    }
+
+    /**
+     * Returns the cache generation number, incremented each time the cache is cleared.
+     *
+     * @return {@code long} containing the generation number.
+     */
+    long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Returns the cached propositions.
+     *
+     * @return {@code Map<DecisionScope, OptimizeProposition>} unmodifiable map containing the
+     *     cached propositions.
+     */
+    Map<DecisionScope, OptimizeProposition> getPropositions() {
+        return propositions;
+    }
+
+    /**
+     * Returns the proposition cached for the given {@code scope}.
+     *
+     * @param scope {@link DecisionScope} for which the proposition is cached.
+     * @return {@link OptimizeProposition} cached for the scope, or null if none.
+     */
+    OptimizeProposition get(final DecisionScope scope) {
+        return propositions.get(scope);
+    }
+
+    /**
+     * Returns whether a proposition is cached for the given {@code scope}.
+     *
+     * @param scope {@link DecisionScope} to be checked.
+     * @return {@code boolean} indicating whether a proposition is cached for the scope.
+     */
+    boolean contains(final DecisionScope scope) {
+        return propositions.containsKey(scope);
+    }
+
+    /**
+     * Returns the number of cached propositions.
+     *
+     * @return {@code int} containing the cached propositions count.
+     */
+    int size() {
+        return propositions.size();
+    }
+
+    /**
+     * Creates the next version of the cache, with the given {@code updatedPropositions} and
+     * without the propositions for the given {@code removedScopes}.
+     *
+     * <p>Updated propositions take precedence over removed scopes.
+     *
+     * @param updatedPropositions {@code Map<DecisionScope, OptimizeProposition>} containing the
+     *     propositions to be cached.
+     * @param removedScopes {@code Collection<DecisionScope>} containing the scopes to be removed
+     *     from the cache.
+     * @return {@link VersionedPropositions} next version, or this version if the update doesn't
+     *     change the cache.
+     */
+    VersionedPropositions update(
+            final Map<DecisionScope, OptimizeProposition> updatedPropositions,
+            final Collection<DecisionScope> removedScopes) {
+        boolean changed = !OptimizeUtils.isNullOrEmpty(updatedPropositions);
+        if (!changed && removedScopes != null) {
+            for (final DecisionScope scope : removedScopes) {
+                if (propositions.containsKey(scope)) {
+                    changed = true;
+                    break;
+                }
+            }
+        }
+        if (!changed) {
+            return this;
+        }
+
+        final Map<DecisionScope, OptimizeProposition> nextPropositions =
+                new HashMap<>(propositions);
+        if (removedScopes != null) {
+            nextPropositions.keySet().removeAll(removedScopes);
+        }
+        if (updatedPropositions != null) {
+            nextPropositions.putAll(updatedPropositions);
+        }
+        return new VersionedPropositions(
+                version + 1, generation, Collections.unmodifiableMap(nextPropositions));
+    }
+
+    /**
+     * Creates the next version of the cache, without any propositions, in a new cache generation.
+     *
+     * <p>The propositions of the previous versions are not touched, they are garbage collected once
+     * no reader holds them any more.
+     *
+     * @return {@link VersionedPropositions} next version.
+     */
+    VersionedPropositions clear() {
+        return new VersionedPropositions(
+                version + 1,
+                generation + 1,
+                Collections.<DecisionScope, OptimizeProposition>emptyMap());
+    }
+}
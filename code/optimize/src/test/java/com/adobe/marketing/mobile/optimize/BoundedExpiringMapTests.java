@@ -0,0 +1,111 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.optimize;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BoundedExpiringMapTests {
+    @Test
+    public void testRemove() {
+        // setup
+        final BoundedExpiringMap<String> map = new BoundedExpiringMap<>(10, 1000L);
+        map.put("key1", "value1", 0L);
+
+        // test
+        final String value = map.remove("key1", 10L);
+
+        // verify
+        Assert.assertEquals("value1", value);
+        Assert.assertNull(map.remove("key1", 20L));
+        Assert.assertEquals(0, map.size(20L));
+    }
+
+    @Test
+    public void testRemove_expiredEntry() {
+        // setup
+        final BoundedExpiringMap<String> map = new BoundedExpiringMap<>(10, 1000L);
+        map.put("key1", "value1", 0L);
+        map.put("key2", "value2", 500L);
+
+        // test
+        final String value = map.remove("key1", 1000L);
+
+        // verify
+        Assert.assertNull(value);
+        Assert.assertEquals(1, map.size(1000L));
+        Assert.assertEquals(0, map.size(1500L));
+    }
+
+    @Test
+    public void testPut_evictsOldestEntryWhenFull() {
+        // setup
+        final BoundedExpiringMap<String> map = new BoundedExpiringMap<>(2, 1000L);
+        map.put("key1", "value1", 0L);
+        map.put("key2", "value2", 10L);
+
+        // test
+        map.put("key3", "value3", 20L);
+
+        // verify
+        Assert.assertEquals(2, map.size(30L));
+        Assert.assertNull(map.remove("key1", 30L));
+        Assert.assertEquals("value2", map.remove("key2", 30L));
+        Assert.assertEquals("value3", map.remove("key3", 30L));
+    }
+
+    @Test
+    public void testPut_replacesValue() {
+        // setup
+        final BoundedExpiringMap<String> map = new BoundedExpiringMap<>(2, 1000L);
+        map.put("key1", "value1", 0L);
+        map.put("key2", "value2", 10L);
+
+        // test
+        map.put("key1", "newValue1", 900L);
+
+        // verify
+        Assert.assertEquals(2, map.size(900L));
+        Assert.assertEquals(1, map.size(1500L));
+        Assert.assertEquals("newValue1", map.remove("key1", 1500L));
+    }
+
+    @Test
+    public void testContainsKey() {
+        // setup
+        final BoundedExpiringMap<String> map = new BoundedExpiringMap<>(10, 1000L);
+        map.put("key1", "value1", 0L);
+
+        // test
+        final boolean containsKey = map.containsKey("key1", 500L);
+
+        // verify
+        Assert.assertTrue(containsKey);
+        Assert.assertFalse(map.containsKey("key2", 500L));
+        Assert.assertFalse(map.containsKey("key1", 1000L));
+        Assert.assertEquals(0, map.size(1000L));
+    }
+
+    @Test
+    public void testClear() {
+        // setup
+        final BoundedExpiringMap<String> map = new BoundedExpiringMap<>(10, 1000L);
+        map.put("key1", "value1", 0L);
+        map.put("key2", "value2", 0L);
+
+        // test
+        map.clear();
+
+        // verify
+        Assert.assertEquals(0, map.size(10L));
+    }
+}
@@ -0,0 +1,64 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.optimize;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CompactListTests {
+
+    @Test
+    public void testCopyOf() {
+        // setup
+        final List<String> list = new ArrayList<>(Arrays.asList("en-us", null, "fr-fr"));
+
+        // test
+        final List<String> compactList = CompactList.copyOf(list);
+
+        // verify
+        Assert.assertEquals(3, compactList.size());
+        Assert.assertEquals("en-us", compactList.get(0));
+        Assert.assertNull(compactList.get(1));
+        Assert.assertEquals(list, compactList);
+        Assert.assertEquals(compactList, list);
+        Assert.assertEquals(list.hashCode(), compactList.hashCode());
+        Assert.assertNotEquals(CompactList.copyOf(Arrays.asList("en-us", "fr-fr")), compactList);
+    }
+
+    @Test
+    public void testCopyOf_sourceModified() {
+        // setup
+        final List<String> list = new ArrayList<>(Arrays.asList("en-us", "fr-fr"));
+        final List<String> compactList = CompactList.copyOf(list);
+
+        // test
+        list.add("de-de");
+
+        // verify
+        Assert.assertEquals(2, compactList.size());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testAdd_throwsUnsupportedOperationException() {
+        // test
+        CompactList.copyOf(Arrays.asList("en-us")).add("fr-fr");
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testSet_throwsUnsupportedOperationException() {
+        // test
+        CompactList.copyOf(Arrays.asList("en-us")).set(0, "fr-fr");
+    }
+}
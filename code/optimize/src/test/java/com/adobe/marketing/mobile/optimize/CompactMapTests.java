@@ -0,0 +1,109 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.optimize;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CompactMapTests {
+
+    @Test
+    public void testCopyOf() {
+        // setup
+        final Map<String, Object> map = new HashMap<>();
+        map.put("decisionProvider", "TGT");
+        map.put("activity", "111111");
+        map.put("rank", 1);
+        map.put(null, "nullKey");
+        map.put("nullValue", null);
+
+        // test
+        final Map<String, Object> compactMap = CompactMap.copyOf(map);
+
+        // verify
+        Assert.assertEquals(5, compactMap.size());
+        Assert.assertEquals("TGT", compactMap.get("decisionProvider"));
+        Assert.assertEquals(1, compactMap.get("rank"));
+        Assert.assertEquals("nullKey", compactMap.get(null));
+        Assert.assertTrue(compactMap.containsKey("nullValue"));
+        Assert.assertNull(compactMap.get("nullValue"));
+        Assert.assertFalse(compactMap.containsKey("experience"));
+        Assert.assertFalse(compactMap.containsKey(1));
+        Assert.assertEquals(map, compactMap);
+        Assert.assertEquals(compactMap, map);
+        Assert.assertEquals(map.hashCode(), compactMap.hashCode());
+    }
+
+    @Test
+    public void testCopyOf_empty() {
+        // test
+        final Map<String, Object> compactMap = CompactMap.copyOf(new HashMap<String, Object>());
+
+        // verify
+        Assert.assertTrue(compactMap.isEmpty());
+        Assert.assertNull(compactMap.get("key"));
+        Assert.assertEquals(new HashMap<String, Object>(), compactMap);
+    }
+
+    @Test
+    public void testEquals_differentValues() {
+        // setup
+        final Map<String, Object> map = new HashMap<>();
+        map.put("decisionProvider", "TGT");
+        final Map<String, Object> otherMap = new HashMap<>();
+        otherMap.put("decisionProvider", "EXD");
+
+        // test
+        final Map<String, Object> compactMap = CompactMap.copyOf(map);
+        final Map<String, Object> otherCompactMap = CompactMap.copyOf(otherMap);
+
+        // verify
+        Assert.assertNotEquals(compactMap, otherCompactMap);
+        Assert.assertNotEquals(otherMap, compactMap);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testPut_throwsUnsupportedOperationException() {
+        // setup
+        final Map<String, Object> map = new HashMap<>();
+        map.put("decisionProvider", "TGT");
+
+        // test
+        CompactMap.copyOf(map).put("activity", "111111");
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testEntrySetRemove_throwsUnsupportedOperationException() {
+        // setup
+        final Map<String, Object> map = new HashMap<>();
+        map.put("decisionProvider", "TGT");
+        final Iterator<Map.Entry<String, Object>> iterator =
+                CompactMap.copyOf(map).entrySet().iterator();
+        iterator.next();
+
+        // test
+        iterator.remove();
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testEntrySetValue_throwsUnsupportedOperationException() {
+        // setup
+        final Map<String, Object> map = new HashMap<>();
+        map.put("decisionProvider", "TGT");
+
+        // test
+        CompactMap.copyOf(map).entrySet().iterator().next().setValue("EXD");
+    }
+}
@@ -0,0 +1,143 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.optimize;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class EdgeCircuitBreakerTests {
+    @Mock EdgeCircuitBreaker.StateListener mockStateListener;
+
+    private EdgeCircuitBreaker circuitBreaker;
+
+    @Before
+    public void setup() {
+        circuitBreaker = new EdgeCircuitBreaker(mockStateListener);
+    }
+
+    @Test
+    public void testRecordFailure_opensAfterConsecutiveFailures() {
+        // test
+        for (int i = 0; i < EdgeCircuitBreaker.FAILURE_THRESHOLD - 1; i++) {
+            circuitBreaker.recordFailure(0L);
+        }
+
+        // verify
+        Assert.assertEquals(EdgeCircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        Assert.assertTrue(circuitBreaker.allowRequest(0L));
+
+        // test
+        circuitBreaker.recordFailure(0L);
+
+        // verify
+        Assert.assertEquals(EdgeCircuitBreaker.State.OPEN, circuitBreaker.getState());
+        Assert.assertFalse(circuitBreaker.allowRequest(1000L));
+        Mockito.verify(mockStateListener, Mockito.times(1))
+                .onStateChanged(EdgeCircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    public void testRecordSuccess_resetsConsecutiveFailures() {
+        // setup
+        for (int i = 0; i < EdgeCircuitBreaker.FAILURE_THRESHOLD - 1; i++) {
+            circuitBreaker.recordFailure(0L);
+        }
+
+        // test
+        circuitBreaker.recordSuccess(0L);
+        circuitBreaker.recordFailure(0L);
+
+        // verify
+        Assert.assertEquals(EdgeCircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        Mockito.verifyNoInteractions(mockStateListener);
+    }
+
+    @Test
+    public void testAllowRequest_allowsSingleProbeWhenHalfOpen() {
+        // setup
+        openCircuit(0L);
+
+        // test
+        final boolean probeAllowed =
+                circuitBreaker.allowRequest(EdgeCircuitBreaker.OPEN_DURATION_MILLIS);
+        final boolean secondRequestAllowed =
+                circuitBreaker.allowRequest(EdgeCircuitBreaker.OPEN_DURATION_MILLIS + 1L);
+
+        // verify
+        Assert.assertTrue(probeAllowed);
+        Assert.assertFalse(secondRequestAllowed);
+        Assert.assertEquals(EdgeCircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+        Mockito.verify(mockStateListener, Mockito.times(1))
+                .onStateChanged(EdgeCircuitBreaker.State.HALF_OPEN);
+    }
+
+    @Test
+    public void testRecordSuccess_closesWhenProbeSucceeds() {
+        // setup
+        openCircuit(0L);
+        circuitBreaker.allowRequest(EdgeCircuitBreaker.OPEN_DURATION_MILLIS);
+
+        // test
+        circuitBreaker.recordSuccess(EdgeCircuitBreaker.OPEN_DURATION_MILLIS + 100L);
+
+        // verify
+        Assert.assertEquals(EdgeCircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        Assert.assertTrue(circuitBreaker.allowRequest(EdgeCircuitBreaker.OPEN_DURATION_MILLIS));
+        Mockito.verify(mockStateListener, Mockito.times(1))
+                .onStateChanged(EdgeCircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    public void testRecordFailure_opensAgainWhenProbeFails() {
+        // setup
+        openCircuit(0L);
+        final long probeTime = EdgeCircuitBreaker.OPEN_DURATION_MILLIS;
+        circuitBreaker.allowRequest(probeTime);
+
+        // test
+        circuitBreaker.recordFailure(probeTime + 100L);
+
+        // verify
+        Assert.assertEquals(EdgeCircuitBreaker.State.OPEN, circuitBreaker.getState());
+        Assert.assertFalse(circuitBreaker.allowRequest(probeTime + 200L));
+        Mockito.verify(mockStateListener, Mockito.times(2))
+                .onStateChanged(EdgeCircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    public void testAllowRequest_allowsNewProbeWhenProbeResultIsNotRecorded() {
+        // setup
+        openCircuit(0L);
+        final long probeTime = EdgeCircuitBreaker.OPEN_DURATION_MILLIS;
+        circuitBreaker.allowRequest(probeTime);
+
+        // test
+        final boolean probeAllowed =
+                circuitBreaker.allowRequest(probeTime + EdgeCircuitBreaker.OPEN_DURATION_MILLIS);
+
+        // verify
+        Assert.assertTrue(probeAllowed);
+        Assert.assertEquals(EdgeCircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+    }
+
+    private void openCircuit(final long now) {
+        for (int i = 0; i < EdgeCircuitBreaker.FAILURE_THRESHOLD; i++) {
+            circuitBreaker.recordFailure(now);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.optimize;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Assert;
+import org.junit.Test;
+
+@SuppressWarnings("unchecked")
+public class EdgeRequestTemplateTests {
+    private final List<DecisionScope> scopes =
+            Arrays.asList(new DecisionScope("myMbox1"), new DecisionScope("myMbox2"));
+
+    @Test
+    public void testCreateEventData() {
+        // setup
+        final EdgeRequestTemplate template = new EdgeRequestTemplate(null);
+
+        // test
+        final Map<String, Object> eventData = template.createEventData(scopes, null, null);
+
+        // verify
+        final Map<String, Object> query = (Map<String, Object>) eventData.get("query");
+        final Map<String, Object> personalization =
+                (Map<String, Object>) query.get("personalization");
+        Assert.assertEquals(OptimizeExtension.supportedSchemas, personalization.get("schemas"));
+        Assert.assertEquals(
+                Arrays.asList("myMbox1", "myMbox2"), personalization.get("decisionScopes"));
+        Assert.assertEquals(
+                Collections.singletonMap("eventType", "personalization.request"),
+                eventData.get("xdm"));
+        Assert.assertEquals(
+                Collections.singletonMap("sendCompletion", true), eventData.get("request"));
+        Assert.assertNull(eventData.get("data"));
+        Assert.assertNull(eventData.get("datasetId"));
+    }
+
+    @Test
+    public void testCreateEventData_sharesRequestIndependentFragments() {
+        // setup
+        final EdgeRequestTemplate template = new EdgeRequestTemplate(null);
+
+        // test
+        final Map<String, Object> firstEventData = template.createEventData(scopes, null, null);
+        final Map<String, Object> secondEventData =
+                template.createEventData(
+                        Collections.singletonList(new DecisionScope("myMbox3")), null, null);
+
+        // verify
+        Assert.assertSame(firstEventData.get("xdm"), secondEventData.get("xdm"));
+        Assert.assertSame(firstEventData.get("request"), secondEventData.get("request"));
+        Assert.assertNotEquals(firstEventData.get("query"), secondEventData.get("query"));
+    }
+
+    @Test
+    public void testCreateEventData_withXdmAndData() {
+        // setup
+        final EdgeRequestTemplate template = new EdgeRequestTemplate(null);
+        final Map<String, Object> inputXdm = new HashMap<>();
+        inputXdm.put("myXdmKey", "myXdmValue");
+        inputXdm.put("eventType", "myEventType");
+        final Map<String, Object> inputData = Collections.singletonMap("myKey", "myValue");
+
+        // test
+        final Map<String, Object> eventData =
+                template.createEventData(scopes, inputXdm, inputData);
+
+        // verify
+        final Map<String, Object> xdm = (Map<String, Object>) eventData.get("xdm");
+        Assert.assertEquals(2, xdm.size());
+        Assert.assertEquals("myXdmValue", xdm.get("myXdmKey"));
+        Assert.assertEquals("personalization.request", xdm.get("eventType"));
+        Assert.assertEquals(inputData, eventData.get("data"));
+        Assert.assertEquals(2, inputXdm.size());
+        Assert.assertEquals("myEventType", inputXdm.get("eventType"));
+    }
+
+    @Test
+    public void testCreateEventData_overrideDatasetId() {
+        // setup
+        final EdgeRequestTemplate template = new EdgeRequestTemplate("111111111111111111111111");
+
+        // test
+        final Map<String, Object> eventData = template.createEventData(scopes, null, null);
+
+        // verify
+        Assert.assertEquals("111111111111111111111111", eventData.get("datasetId"));
+    }
+}
@@ -0,0 +1,278 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.optimize;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Assert;
+import org.junit.Test;
+
+@SuppressWarnings("unchecked")
+public class ImpressionDeduplicatorTests {
+    @Test
+    public void testDeduplicate_newImpression() {
+        // setup
+        final ImpressionDeduplicator deduplicator = new ImpressionDeduplicator();
+        final Map<String, Object> xdm =
+                createInteractionsXdm("decisioning.propositionDisplay", "proposition1", "offer1");
+
+        // test
+        final Map<String, Object> deduplicatedXdm = deduplicator.deduplicate(xdm, 0L, 0L);
+
+        // verify
+        Assert.assertSame(xdm, deduplicatedXdm);
+        Assert.assertEquals(0L, deduplicator.getSuppressedCount());
+    }
+
+    @Test
+    public void testDeduplicate_repeatedImpression() {
+        // setup
+        final ImpressionDeduplicator deduplicator = new ImpressionDeduplicator();
+        deduplicator.deduplicate(
+                createInteractionsXdm("decisioning.propositionDisplay", "proposition1", "offer1"),
+                0L,
+                0L);
+
+        // test
+        final Map<String, Object> deduplicatedXdm =
+                deduplicator.deduplicate(
+                        createInteractionsXdm(
+                                "decisioning.propositionDisplay", "proposition1", "offer1"),
+                        0L,
+                        1000L);
+
+        // verify
+        Assert.assertNull(deduplicatedXdm);
+        Assert.assertEquals(1L, deduplicator.getSuppressedCount());
+    }
+
+    @Test
+    public void testDeduplicate_partiallyRepeatedImpressions() {
+        // setup
+        final ImpressionDeduplicator deduplicator = new ImpressionDeduplicator();
+        deduplicator.deduplicate(
+                createInteractionsXdm("decisioning.propositionDisplay", "proposition1", "offer1"),
+                0L,
+                0L);
+
+        // test
+        final Map<String, Object> deduplicatedXdm =
+                deduplicator.deduplicate(
+                        createInteractionsXdm(
+                                "decisioning.propositionDisplay",
+                                "proposition1",
+                                "offer1",
+                                "offer2"),
+                        0L,
+                        1000L);
+
+        // verify
+        Assert.assertNotNull(deduplicatedXdm);
+        Assert.assertEquals("decisioning.propositionDisplay", deduplicatedXdm.get("eventType"));
+        final List<Map<String, Object>> items = getItems(deduplicatedXdm);
+        Assert.assertEquals(1, items.size());
+        Assert.assertEquals("offer2", items.get(0).get("id"));
+        Assert.assertEquals(1L, deduplicator.getSuppressedCount());
+    }
+
+    @Test
+    public void testDeduplicate_sameOfferInDifferentProposition() {
+        // setup
+        final ImpressionDeduplicator deduplicator = new ImpressionDeduplicator();
+        deduplicator.deduplicate(
+                createInteractionsXdm("decisioning.propositionDisplay", "proposition1", "offer1"),
+                0L,
+                0L);
+        final Map<String, Object> xdm =
+                createInteractionsXdm("decisioning.propositionDisplay", "proposition2", "offer1");
+
+        // test
+        final Map<String, Object> deduplicatedXdm = deduplicator.deduplicate(xdm, 0L, 1000L);
+
+        // verify
+        Assert.assertSame(xdm, deduplicatedXdm);
+    }
+
+    @Test
+    public void testDeduplicate_tapInteraction() {
+        // setup
+        final ImpressionDeduplicator deduplicator = new ImpressionDeduplicator();
+        deduplicator.deduplicate(
+                createInteractionsXdm("decisioning.propositionInteract", "proposition1", "offer1"),
+                0L,
+                0L);
+        final Map<String, Object> xdm =
+                createInteractionsXdm("decisioning.propositionInteract", "proposition1", "offer1");
+
+        // test
+        final Map<String, Object> deduplicatedXdm = deduplicator.deduplicate(xdm, 0L, 1000L);
+
+        // verify
+        Assert.assertSame(xdm, deduplicatedXdm);
+        Assert.assertEquals(0L, deduplicator.getSuppressedCount());
+    }
+
+    @Test
+    public void testDeduplicate_windowElapsed() {
+        // setup
+        final ImpressionDeduplicator deduplicator = new ImpressionDeduplicator();
+        deduplicator.deduplicate(
+                createInteractionsXdm("decisioning.propositionDisplay", "proposition1", "offer1"),
+                60000L,
+                0L);
+
+        // test
+        final Map<String, Object> duplicateXdm =
+                deduplicator.deduplicate(
+                        createInteractionsXdm(
+                                "decisioning.propositionDisplay", "proposition1", "offer1"),
+                        60000L,
+                        59999L);
+        final Map<String, Object> deduplicatedXdm =
+                deduplicator.deduplicate(
+                        createInteractionsXdm(
+                                "decisioning.propositionDisplay", "proposition1", "offer1"),
+                        60000L,
+                        60000L);
+
+        // verify
+        Assert.assertNull(duplicateXdm);
+        Assert.assertNotNull(deduplicatedXdm);
+        Assert.assertEquals(1L, deduplicator.getSuppressedCount());
+    }
+
+    @Test
+    public void testDeduplicate_evictsOldestImpressionWhenFull() {
+        // setup
+        final ImpressionDeduplicator deduplicator = new ImpressionDeduplicator();
+        for (int i = 0; i <= ImpressionDeduplicator.MAX_TRACKED_IMPRESSIONS; i++) {
+            deduplicator.deduplicate(
+                    createInteractionsXdm(
+                            "decisioning.propositionDisplay", "proposition1", "offer" + i),
+                    0L,
+                    i);
+        }
+
+        // test
+        final Map<String, Object> oldestXdm =
+                deduplicator.deduplicate(
+                        createInteractionsXdm(
+                                "decisioning.propositionDisplay", "proposition1", "offer0"),
+                        0L,
+                        2000L);
+
+        // verify
+        Assert.assertNotNull(oldestXdm);
+        Assert.assertEquals(0L, deduplicator.getSuppressedCount());
+    }
+
+    @Test
+    public void testOnLifecycleStart_newSession() {
+        // setup
+        final ImpressionDeduplicator deduplicator = new ImpressionDeduplicator();
+        deduplicator.deduplicate(
+                createInteractionsXdm("decisioning.propositionDisplay", "proposition1", "offer1"),
+                0L,
+                0L);
+        deduplicator.onLifecyclePause(1000L);
+
+        // test
+        deduplicator.onLifecycleStart(1000L + ImpressionDeduplicator.SESSION_TIMEOUT_MILLIS);
+
+        // verify
+        Assert.assertNotNull(
+                deduplicator.deduplicate(
+                        createInteractionsXdm(
+                                "decisioning.propositionDisplay", "proposition1", "offer1"),
+                        0L,
+                        2000L + ImpressionDeduplicator.SESSION_TIMEOUT_MILLIS));
+    }
+
+    @Test
+    public void testOnLifecycleStart_sameSession() {
+        // setup
+        final ImpressionDeduplicator deduplicator = new ImpressionDeduplicator();
+        deduplicator.deduplicate(
+                createInteractionsXdm("decisioning.propositionDisplay", "proposition1", "offer1"),
+                0L,
+                0L);
+        deduplicator.onLifecyclePause(1000L);
+
+        // test
+        deduplicator.onLifecycleStart(2000L);
+
+        // verify
+        Assert.assertNull(
+                deduplicator.deduplicate(
+                        createInteractionsXdm(
+                                "decisioning.propositionDisplay", "proposition1", "offer1"),
+                        0L,
+                        3000L));
+    }
+
+    @Test
+    public void testReset() {
+        // setup
+        final ImpressionDeduplicator deduplicator = new ImpressionDeduplicator();
+        deduplicator.deduplicate(
+                createInteractionsXdm("decisioning.propositionDisplay", "proposition1", "offer1"),
+                0L,
+                0L);
+
+        // test
+        deduplicator.reset();
+
+        // verify
+        Assert.assertNotNull(
+                deduplicator.deduplicate(
+                        createInteractionsXdm(
+                                "decisioning.propositionDisplay", "proposition1", "offer1"),
+                        0L,
+                        1000L));
+    }
+
+    private Map<String, Object> createInteractionsXdm(
+            final String eventType, final String propositionId, final String... offerIds) {
+        final List<Map<String, Object>> items = new ArrayList<>();
+        for (final String offerId : offerIds) {
+            final Map<String, Object> item = new HashMap<>();
+            item.put("id", offerId);
+            items.add(item);
+        }
+
+        final Map<String, Object> proposition = new HashMap<>();
+        proposition.put("id", propositionId);
+        proposition.put("scope", "myMbox");
+        proposition.put("items", items);
+        final List<Map<String, Object>> propositions = new ArrayList<>();
+        propositions.add(proposition);
+
+        final Map<String, Object> decisioning = new HashMap<>();
+        decisioning.put("propositions", propositions);
+        final Map<String, Object> experience = new HashMap<>();
+        experience.put("decisioning", decisioning);
+        final Map<String, Object> xdm = new HashMap<>();
+        xdm.put("eventType", eventType);
+        xdm.put("_experience", experience);
+        return xdm;
+    }
+
+    private List<Map<String, Object>> getItems(final Map<String, Object> xdm) {
+        final Map<String, Object> experience = (Map<String, Object>) xdm.get("_experience");
+        final Map<String, Object> decisioning = (Map<String, Object>) experience.get("decisioning");
+        final List<Map<String, Object>> propositions =
+                (List<Map<String, Object>>) decisioning.get("propositions");
+        return (List<Map<String, Object>>) propositions.get(0).get("items");
+    }
+}
@@ -0,0 +1,162 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.optimize;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Assert;
+import org.junit.Test;
+
+@SuppressWarnings({"unchecked"})
+public class InternPoolTests {
+
+    @Test
+    public void testIntern_returnsPooledInstance() {
+        // setup
+        final String first = new String("https://ns.adobe.com/personalization/json-content-item");
+        final String second = new String("https://ns.adobe.com/personalization/json-content-item");
+
+        // test
+        final String internedFirst = InternPool.intern(first);
+        final String internedSecond = InternPool.intern(second);
+
+        // verify
+        Assert.assertEquals(first, internedSecond);
+        Assert.assertSame(internedFirst, internedSecond);
+        Assert.assertSame(OptimizeConstants.JsonValues.SCHEMA_OFFER_JSON, internedSecond);
+    }
+
+    @Test
+    public void testIntern_null() {
+        // test
+        Assert.assertNull(InternPool.intern(null));
+    }
+
+    @Test
+    public void testIntern_longStringNotPooled() {
+        // setup
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i <= InternPool.MAX_INTERNED_LENGTH; i++) {
+            builder.append('a');
+        }
+        final String longString = builder.toString();
+        final int poolSize = InternPool.size();
+
+        // test
+        final String internedString = InternPool.intern(longString);
+
+        // verify
+        Assert.assertSame(longString, internedString);
+        Assert.assertEquals(poolSize, InternPool.size());
+    }
+
+    @Test
+    public void testInternMap_nestedKeysAndValues() {
+        // setup
+        final String activityId = new String("activity-111111");
+        final Map<String, Object> activity = new HashMap<>();
+        activity.put(new String("id"), activityId);
+        final Map<String, Object> scopeDetails = new HashMap<>();
+        scopeDetails.put(new String("decisionProvider"), new String("TGT"));
+        scopeDetails.put(new String("activity"), activity);
+        scopeDetails.put(
+                new String("strategies"),
+                new ArrayList<>(Collections.singletonList(new String("click"))));
+        scopeDetails.put("rank", 1);
+
+        // test
+        final Map<String, Object> internedScopeDetails = InternPool.internMap(scopeDetails);
+
+        // verify
+        Assert.assertEquals(scopeDetails, internedScopeDetails);
+        Assert.assertNotSame(scopeDetails, internedScopeDetails);
+        for (final String key : internedScopeDetails.keySet()) {
+            Assert.assertSame(InternPool.intern(new String(key)), key);
+        }
+        Assert.assertSame("TGT", internedScopeDetails.get("decisionProvider"));
+        Assert.assertSame(
+                "click", ((List<Object>) internedScopeDetails.get("strategies")).get(0));
+        final Map<String, Object> internedActivity =
+                (Map<String, Object>) internedScopeDetails.get("activity");
+        Assert.assertSame(activityId, internedActivity.get("id"));
+    }
+
+    @Test
+    public void testInternMap_uniqueValuesNotPooled() {
+        // setup
+        final String correlationId = new String("correlation-id-1");
+        final String sameCorrelationId = new String("correlation-id-1");
+        final int poolSize = InternPool.size();
+
+        // test
+        final Map<String, Object> internedScopeDetails =
+                InternPool.internMap(
+                        Collections.<String, Object>singletonMap("correlationID", correlationId));
+        final Map<String, Object> internedOtherScopeDetails =
+                InternPool.internMap(
+                        Collections.<String, Object>singletonMap(
+                                "correlationID", sameCorrelationId));
+
+        // verify
+        Assert.assertSame(correlationId, internedScopeDetails.get("correlationID"));
+        Assert.assertSame(sameCorrelationId, internedOtherScopeDetails.get("correlationID"));
+        Assert.assertEquals(poolSize, InternPool.size());
+    }
+
+    @Test
+    public void testInternMap_nullAndEmpty() {
+        // test
+        Assert.assertNull(InternPool.internMap(null));
+        Assert.assertSame(
+                Collections.emptyMap(), InternPool.internMap(new HashMap<String, Object>()));
+    }
+
+    @Test
+    public void testInternStringList() {
+        // setup
+        final List<String> language = Arrays.asList(new String("en-us"), new String("en-us"));
+
+        // test
+        final List<String> internedLanguage = InternPool.internStringList(language);
+
+        // verify
+        Assert.assertEquals(language, internedLanguage);
+        Assert.assertSame(internedLanguage.get(0), internedLanguage.get(1));
+        Assert.assertSame(Collections.emptyList(), InternPool.internStringList(null));
+        Assert.assertSame(
+                Collections.emptyList(), InternPool.internStringList(new ArrayList<String>()));
+    }
+
+    @Test
+    public void testInternStringMap() {
+        // setup
+        final Map<String, String> characteristics = new HashMap<>();
+        final String characteristic = new String("characteristic-value-1");
+        characteristics.put(new String("mobile"), characteristic);
+
+        // test
+        final Map<String, String> internedCharacteristics =
+                InternPool.internStringMap(characteristics);
+
+        // verify
+        Assert.assertEquals(characteristics, internedCharacteristics);
+        for (final String key : internedCharacteristics.keySet()) {
+            Assert.assertSame(InternPool.intern(new String(key)), key);
+        }
+        Assert.assertSame(characteristic, internedCharacteristics.get("mobile"));
+        Assert.assertSame(Collections.emptyMap(), InternPool.internStringMap(null));
+    }
+}
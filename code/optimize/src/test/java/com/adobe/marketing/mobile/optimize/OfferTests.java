@@ -16,6 +16,7 @@ import com.adobe.marketing.mobile.MobileCore;
 import com.adobe.marketing.mobile.services.Log;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -71,6 +72,28 @@ public class OfferTests {
         Assert.assertEquals("true", offer.getCharacteristics().get("mobile"));
     }
 
+    @Test
+    public void testBuilder_nullLanguageAndCharacteristics() {
+        final Offer offer =
+                new Offer.Builder(
+                                "xcore:personalized-offer:2222222222222222",
+                                OfferType.TEXT,
+                                "This is a plain text content!")
+                        .setLanguage(null)
+                        .setCharacteristics(null)
+                        .build();
+
+        Assert.assertSame(Collections.emptyList(), offer.getLanguage());
+        Assert.assertSame(Collections.emptyMap(), offer.getCharacteristics());
+        Assert.assertEquals(
+                new Offer.Builder(
+                                "xcore:personalized-offer:2222222222222222",
+                                OfferType.TEXT,
+                                "This is a plain text content!")
+                        .build(),
+                offer);
+    }
+
     @Test
     public void testFromEventData_validJsonOffer() throws Exception {
         Map<String, Object> offerData =
@@ -229,8 +252,8 @@ public class OfferTests {
 
         Assert.assertEquals(OfferType.JSON, offer.getType());
         Assert.assertEquals("{\"testing\":\"ho-ho\"}", offer.getContent());
-        Assert.assertNull(offer.getLanguage());
-        Assert.assertNull(offer.getCharacteristics());
+        Assert.assertTrue(offer.getLanguage().isEmpty());
+        Assert.assertTrue(offer.getCharacteristics().isEmpty());
     }
 
     @Test
@@ -251,8 +274,8 @@ public class OfferTests {
                 "https://ns.adobe.com/personalization/html-content-item", offer.getSchema());
         Assert.assertEquals(OfferType.HTML, offer.getType());
         Assert.assertEquals("<h1>Hello, Welcome!</h1>", offer.getContent());
-        Assert.assertNull(offer.getLanguage());
-        Assert.assertNull(offer.getCharacteristics());
+        Assert.assertTrue(offer.getLanguage().isEmpty());
+        Assert.assertTrue(offer.getCharacteristics().isEmpty());
     }
 
     @Test
@@ -274,8 +297,8 @@ public class OfferTests {
                 "https://ns.adobe.com/personalization/default-content-item", offer.getSchema());
         Assert.assertEquals(OfferType.UNKNOWN, offer.getType());
         Assert.assertEquals("", offer.getContent());
-        Assert.assertNull(offer.getLanguage());
-        Assert.assertNull(offer.getCharacteristics());
+        Assert.assertTrue(offer.getLanguage().isEmpty());
+        Assert.assertTrue(offer.getCharacteristics().isEmpty());
     }
 
     @Test
@@ -356,6 +379,102 @@ public class OfferTests {
         Assert.assertNull(offer);
     }
 
+    @Test
+    public void testEquals_sameOfferData() throws Exception {
+        Map<String, Object> offerData =
+                new ObjectMapper()
+                        .readValue(
+                                getClass()
+                                        .getClassLoader()
+                                        .getResource("json/OFFER_VALID_JSON.json"),
+                                HashMap.class);
+        final Offer offer = Offer.fromEventData(offerData);
+        final Offer otherOffer = Offer.fromEventData(offerData);
+
+        Assert.assertNotSame(offer, otherOffer);
+        Assert.assertEquals(offer, otherOffer);
+        Assert.assertEquals(offer.hashCode(), otherOffer.hashCode());
+    }
+
+    @Test
+    public void testEquals_sameIdAndEtagDifferentContent() {
+        final Offer offer =
+                new Offer.Builder(
+                                "xcore:personalized-offer:2222222222222222",
+                                OfferType.TEXT,
+                                "This is a plain text content!")
+                        .setEtag("7")
+                        .build();
+        final Offer otherOffer =
+                new Offer.Builder(
+                                "xcore:personalized-offer:2222222222222222",
+                                OfferType.TEXT,
+                                "This is another plain text content!")
+                        .setEtag("7")
+                        .build();
+
+        Assert.assertNotEquals(offer, otherOffer);
+    }
+
+    @Test
+    public void testEquals_sameIdEtagAndHashCodeDifferentContent() {
+        // "Aa" and "BB" have the same hash code.
+        final Offer offer =
+                new Offer.Builder("xcore:personalized-offer:2222222222222222", OfferType.TEXT, "Aa")
+                        .setEtag("7")
+                        .build();
+        final Offer otherOffer =
+                new Offer.Builder("xcore:personalized-offer:2222222222222222", OfferType.TEXT, "BB")
+                        .setEtag("7")
+                        .build();
+
+        Assert.assertEquals(offer.hashCode(), otherOffer.hashCode());
+        Assert.assertNotEquals(offer, otherOffer);
+    }
+
+    @Test
+    public void testEquals_sameIdEtagAndHashCodeDifferentCharacteristics() {
+        final Offer offer =
+                new Offer.Builder(
+                                "xcore:personalized-offer:2222222222222222",
+                                OfferType.TEXT,
+                                "This is a plain text content!")
+                        .setEtag("7")
+                        .setCharacteristics(Collections.singletonMap("mobile", "Aa"))
+                        .build();
+        final Offer otherOffer =
+                new Offer.Builder(
+                                "xcore:personalized-offer:2222222222222222",
+                                OfferType.TEXT,
+                                "This is a plain text content!")
+                        .setEtag("7")
+                        .setCharacteristics(Collections.singletonMap("mobile", "BB"))
+                        .build();
+
+        Assert.assertEquals(offer.hashCode(), otherOffer.hashCode());
+        Assert.assertNotEquals(offer, otherOffer);
+    }
+
+    @Test
+    public void testEquals_differentEtag() {
+        final Offer offer =
+                new Offer.Builder(
+                                "xcore:personalized-offer:2222222222222222",
+                                OfferType.TEXT,
+                                "This is a plain text content!")
+                        .setEtag("7")
+                        .build();
+        final Offer otherOffer =
+                new Offer.Builder(
+                                "xcore:personalized-offer:2222222222222222",
+                                OfferType.TEXT,
+                                "This is a plain text content!")
+                        .setEtag("8")
+                        .build();
+
+        Assert.assertNotEquals(offer, otherOffer);
+    }
+
     @Test
     public void testFromEventData_nullData() {
         final Offer offer = Offer.fromEventData(null);
@@ -483,6 +602,121 @@ public class OfferTests {
         Assert.assertEquals("246315", items.get(0).get("id"));
     }
 
+    @Test
+    public void testGetDisplayInteractionXdm_reusesImmutableXdm() throws Exception {
+        // setup
+        Map<String, Object> propositionData =
+                new ObjectMapper()
+                        .readValue(
+                                getClass()
+                                        .getClassLoader()
+                                        .getResource("json/PROPOSITION_VALID.json"),
+                                HashMap.class);
+        final OptimizeProposition optimizeProposition =
+                OptimizeProposition.fromEventData(propositionData);
+        Assert.assertNotNull(optimizeProposition);
+        final Offer offer = optimizeProposition.getOffers().get(0);
+
+        // test
+        final Map<String, Object> propositionInteractionXdm = offer.getDisplayInteractionXdm();
+
+        // verify
+        Assert.assertSame(propositionInteractionXdm, offer.getDisplayInteractionXdm());
+        Assert.assertNotSame(propositionInteractionXdm, offer.getTapInteractionXdm());
+        Assert.assertEquals(propositionInteractionXdm, offer.generateDisplayInteractionXdm());
+    }
+
+    @Test
+    public void testGenerateDisplayInteractionXdm_returnsMutableCopy() throws Exception {
+        // setup
+        Map<String, Object> propositionData =
+                new ObjectMapper()
+                        .readValue(
+                                getClass()
+                                        .getClassLoader()
+                                        .getResource("json/PROPOSITION_VALID.json"),
+                                HashMap.class);
+        final OptimizeProposition optimizeProposition =
+                OptimizeProposition.fromEventData(propositionData);
+        Assert.assertNotNull(optimizeProposition);
+        final Offer offer = optimizeProposition.getOffers().get(0);
+        final Map<String, Object> propositionInteractionXdm =
+                offer.generateDisplayInteractionXdm();
+        final Map<String, Object> experience =
+                (Map<String, Object>) propositionInteractionXdm.get("_experience");
+
+        // test
+        experience.clear();
+        propositionInteractionXdm.put("eventType", "myEventType");
+
+        // verify
+        Assert.assertEquals(
+                offer.getDisplayInteractionXdm(), offer.generateDisplayInteractionXdm());
+        Assert.assertEquals(
+                "decisioning.propositionDisplay",
+                offer.generateDisplayInteractionXdm().get("eventType"));
+        Assert.assertFalse(
+                ((Map<String, Object>) offer.generateDisplayInteractionXdm().get("_experience"))
+                        .isEmpty());
+    }
+
+    @Test
+    public void testGetTapInteractionXdm_reusesImmutableXdm() throws Exception {
+        // setup
+        Map<String, Object> propositionData =
+                new ObjectMapper()
+                        .readValue(
+                                getClass()
+                                        .getClassLoader()
+                                        .getResource("json/PROPOSITION_VALID.json"),
+                                HashMap.class);
+        final OptimizeProposition optimizeProposition =
+                OptimizeProposition.fromEventData(propositionData);
+        Assert.assertNotNull(optimizeProposition);
+        final Offer offer = optimizeProposition.getOffers().get(0);
+
+        // test
+        final Map<String, Object> propositionInteractionXdm = offer.getTapInteractionXdm();
+
+        // verify
+        Assert.assertSame(propositionInteractionXdm, offer.getTapInteractionXdm());
+        Assert.assertEquals(propositionInteractionXdm, offer.generateTapInteractionXdm());
+    }
+
+    @Test
+    public void testGetProposition() throws Exception {
+        // setup
+        Map<String, Object> propositionData =
+                new ObjectMapper()
+                        .readValue(
+                                getClass()
+                                        .getClassLoader()
+                                        .getResource("json/PROPOSITION_VALID_TARGET.json"),
+                                HashMap.class);
+        final OptimizeProposition optimizeProposition =
+                OptimizeProposition.fromEventData(propositionData);
+        Assert.assertNotNull(optimizeProposition);
+        final Offer offer = optimizeProposition.getOffers().get(0);
+
+        // test
+        final OptimizeProposition offerProposition = offer.getProposition();
+
+        // verify
+        Assert.assertSame(optimizeProposition, offerProposition);
+    }
+
+    @Test
+    public void testGetProposition_notContainedInProposition() {
+        // setup
+        final Offer offer = new Offer.Builder("offer1", OfferType.TEXT, "Hello").build();
+
+        // test
+        final OptimizeProposition offerProposition = offer.getProposition();
+
+        // verify
+        Assert.assertNull(offerProposition);
+    }
+
     @Test
     public void testGenerateDisplayInteractionXdm_nullPropositionReference() throws Exception {
         // setup
@@ -0,0 +1,93 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.optimize;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class OptimizeConfigurationTests {
+    @Test
+    public void testConfiguration() {
+        // setup
+        final Map<String, Object> configData = new HashMap<>();
+        configData.put("optimize.datasetId", "111111111111111111111111");
+        configData.put("optimize.prefetchEnabled", true);
+        configData.put("optimize.refreshInterval", 60);
+        configData.put("optimize.refreshScopeCount", 3);
+        configData.put("optimize.persistentCacheEnabled", true);
+        configData.put("optimize.sharedCacheEnabled", true);
+        configData.put("optimize.maxScopesPerRequest", 20);
+        configData.put("optimize.impressionDedupEnabled", true);
+        configData.put("optimize.impressionDedupWindow", 1800);
+
+        // test
+        final OptimizeConfiguration configuration = new OptimizeConfiguration(configData);
+
+        // verify
+        Assert.assertEquals("111111111111111111111111", configuration.getOverrideDatasetId());
+        Assert.assertTrue(configuration.isPrefetchEnabled());
+        Assert.assertEquals(60L, configuration.getRefreshInterval());
+        Assert.assertEquals(3, configuration.getRefreshScopeCount());
+        Assert.assertTrue(configuration.isPersistentCacheEnabled());
+        Assert.assertTrue(configuration.isSharedCacheEnabled());
+        Assert.assertEquals(20, configuration.getMaxScopesPerRequest());
+        Assert.assertTrue(configuration.isImpressionDedupEnabled());
+        Assert.assertEquals(1800L, configuration.getImpressionDedupWindow());
+        Assert.assertNotNull(configuration.getEdgeRequestTemplate());
+    }
+
+    @Test
+    public void testConfiguration_defaults() {
+        // test
+        final OptimizeConfiguration configuration = OptimizeConfiguration.DEFAULT;
+
+        // verify
+        Assert.assertNull(configuration.getOverrideDatasetId());
+        Assert.assertFalse(configuration.isPrefetchEnabled());
+        Assert.assertEquals(0L, configuration.getRefreshInterval());
+        Assert.assertEquals(
+                PropositionsRefreshScheduler.DEFAULT_REFRESH_SCOPE_COUNT,
+                configuration.getRefreshScopeCount());
+        Assert.assertFalse(configuration.isPersistentCacheEnabled());
+        Assert.assertFalse(configuration.isSharedCacheEnabled());
+        Assert.assertEquals(0, configuration.getMaxScopesPerRequest());
+        Assert.assertFalse(configuration.isImpressionDedupEnabled());
+        Assert.assertEquals(0L, configuration.getImpressionDedupWindow());
+    }
+
+    @Test
+    public void testConfiguration_invalidDatasetId() {
+        // setup
+        final Map<String, Object> configData = new HashMap<>();
+        configData.put("optimize.datasetId", 123);
+
+        // test
+        final OptimizeConfiguration configuration = new OptimizeConfiguration(configData);
+
+        // verify
+        Assert.assertNull(configuration.getOverrideDatasetId());
+    }
+
+    @Test
+    public void testIsReadFrom() {
+        // setup
+        final Map<String, Object> configData = new HashMap<>();
+        configData.put("optimize.prefetchEnabled", true);
+        final OptimizeConfiguration configuration = new OptimizeConfiguration(configData);
+
+        // test & verify
+        Assert.assertTrue(configuration.isReadFrom(configData));
+        Assert.assertFalse(configuration.isReadFrom(new HashMap<>(configData)));
+    }
+}
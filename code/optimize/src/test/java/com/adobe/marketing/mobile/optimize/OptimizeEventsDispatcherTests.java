@@ -0,0 +1,247 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.optimize;
+
+import com.adobe.marketing.mobile.Event;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class OptimizeEventsDispatcherTests {
+    private final DecisionScope homeScope = new DecisionScope("homeScope");
+    private final DecisionScope productScope = new DecisionScope("productScope");
+
+    private final List<String> processedEvents = new ArrayList<>();
+    private final Set<String> updatesInProgress = new HashSet<>();
+    private OptimizeEventsDispatcher dispatcher;
+
+    @Before
+    public void setup() {
+        dispatcher =
+                new OptimizeEventsDispatcher(
+                        "TestEventsDispatcher",
+                        event -> {
+                            if (updatesInProgress.contains(event.getName())) {
+                                return false;
+                            }
+                            processedEvents.add(event.getName());
+                            return true;
+                        },
+                        Runnable::run);
+        dispatcher.start();
+    }
+
+    @Test
+    public void testOfferGet_noQueuedUpdate() {
+        // test
+        dispatcher.offerGet(
+                createEvent("get"),
+                OptimizeEventsDispatcher.Priority.NORMAL,
+                Collections.singletonList(homeScope));
+
+        // verify
+        Assert.assertEquals(Collections.singletonList("get"), processedEvents);
+        Assert.assertEquals(0, dispatcher.size());
+    }
+
+    @Test
+    public void testOfferGet_waitsForNormalUpdateForOtherScopes() {
+        // setup
+        updatesInProgress.add("update");
+        dispatcher.offerUpdate(
+                createEvent("update"),
+                OptimizeEventsDispatcher.Priority.NORMAL,
+                Collections.singletonList(productScope));
+
+        // test
+        dispatcher.offerGet(
+                createEvent("get"),
+                OptimizeEventsDispatcher.Priority.NORMAL,
+                Collections.singletonList(homeScope));
+
+        // verify
+        Assert.assertTrue(processedEvents.isEmpty());
+        Assert.assertEquals(2, dispatcher.size());
+
+        // complete update
+        updatesInProgress.remove("update");
+        dispatcher.resume();
+
+        Assert.assertEquals(Arrays.asList("update", "get"), processedEvents);
+        Assert.assertEquals(0, dispatcher.size());
+    }
+
+    @Test
+    public void testOfferGet_passesBackgroundUpdateForOtherScopes() {
+        // setup
+        updatesInProgress.add("update");
+        dispatcher.offerUpdate(
+                createEvent("update"),
+                OptimizeEventsDispatcher.Priority.BACKGROUND,
+                Collections.singletonList(productScope));
+
+        // test
+        dispatcher.offerGet(
+                createEvent("get"),
+                OptimizeEventsDispatcher.Priority.NORMAL,
+                Collections.singletonList(homeScope));
+
+        // verify
+        Assert.assertEquals(Collections.singletonList("get"), processedEvents);
+        Assert.assertEquals(1, dispatcher.size());
+    }
+
+    @Test
+    public void testOfferGet_waitsForBackgroundUpdateForSameScope() {
+        // setup
+        updatesInProgress.add("update");
+        dispatcher.offerUpdate(
+                createEvent("update"),
+                OptimizeEventsDispatcher.Priority.BACKGROUND,
+                Arrays.asList(homeScope, productScope));
+
+        // test
+        dispatcher.offerGet(
+                createEvent("get"),
+                OptimizeEventsDispatcher.Priority.INTERACTIVE,
+                Collections.singletonList(homeScope));
+
+        // verify
+        Assert.assertTrue(processedEvents.isEmpty());
+
+        // complete update
+        updatesInProgress.remove("update");
+        dispatcher.resume();
+
+        Assert.assertEquals(Arrays.asList("update", "get"), processedEvents);
+    }
+
+    @Test
+    public void testOfferGet_unknownScopesWaitsForBackgroundUpdate() {
+        // setup
+        updatesInProgress.add("update");
+        dispatcher.offerUpdate(
+                createEvent("update"),
+                OptimizeEventsDispatcher.Priority.BACKGROUND,
+                Collections.singletonList(productScope));
+
+        // test
+        dispatcher.offerGet(createEvent("get"), OptimizeEventsDispatcher.Priority.NORMAL, null);
+
+        // verify
+        Assert.assertTrue(processedEvents.isEmpty());
+    }
+
+    @Test
+    public void testOfferGet_getsProcessedByPriority() {
+        // setup
+        updatesInProgress.add("update");
+        dispatcher.offerUpdate(
+                createEvent("update"),
+                OptimizeEventsDispatcher.Priority.NORMAL,
+                Collections.singletonList(homeScope));
+        dispatcher.offerGet(
+                createEvent("backgroundGet"),
+                OptimizeEventsDispatcher.Priority.BACKGROUND,
+                Collections.singletonList(homeScope));
+        dispatcher.offerGet(
+                createEvent("normalGet"),
+                OptimizeEventsDispatcher.Priority.NORMAL,
+                Collections.singletonList(homeScope));
+        dispatcher.offerGet(
+                createEvent("interactiveGet"),
+                OptimizeEventsDispatcher.Priority.INTERACTIVE,
+                Collections.singletonList(homeScope));
+
+        // test
+        updatesInProgress.remove("update");
+        dispatcher.resume();
+
+        // verify
+        Assert.assertEquals(
+                Arrays.asList("update", "interactiveGet", "normalGet", "backgroundGet"),
+                processedEvents);
+    }
+
+    @Test
+    public void testOfferGet_notStarted() {
+        // setup
+        final List<String> events = new ArrayList<>();
+        final OptimizeEventsDispatcher notStartedDispatcher =
+                new OptimizeEventsDispatcher(
+                        "TestEventsDispatcher",
+                        event -> {
+                            events.add(event.getName());
+                            return true;
+                        },
+                        Runnable::run);
+
+        // test
+        notStartedDispatcher.offerGet(
+                createEvent("get"),
+                OptimizeEventsDispatcher.Priority.NORMAL,
+                Collections.singletonList(homeScope));
+
+        // verify
+        Assert.assertTrue(events.isEmpty());
+
+        notStartedDispatcher.start();
+        Assert.assertEquals(Collections.singletonList("get"), events);
+    }
+
+    @Test
+    public void testPriorityFrom() {
+        Assert.assertEquals(
+                OptimizeEventsDispatcher.Priority.INTERACTIVE,
+                OptimizeEventsDispatcher.Priority.from("interactive"));
+        Assert.assertEquals(
+                OptimizeEventsDispatcher.Priority.BACKGROUND,
+                OptimizeEventsDispatcher.Priority.from("Background"));
+        Assert.assertEquals(
+                OptimizeEventsDispatcher.Priority.NORMAL,
+                OptimizeEventsDispatcher.Priority.from("normal"));
+        Assert.assertEquals(
+                OptimizeEventsDispatcher.Priority.NORMAL,
+                OptimizeEventsDispatcher.Priority.from("unknown"));
+        Assert.assertEquals(
+                OptimizeEventsDispatcher.Priority.NORMAL,
+                OptimizeEventsDispatcher.Priority.from(null));
+    }
+
+    @Test
+    public void testPriorityFrom_turkishDefaultLocale() {
+        final Locale defaultLocale = Locale.getDefault();
+        Locale.setDefault(new Locale("tr", "TR"));
+        try {
+            Assert.assertEquals(
+                    OptimizeEventsDispatcher.Priority.INTERACTIVE,
+                    OptimizeEventsDispatcher.Priority.from("INTERACTIVE"));
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
+
+    private Event createEvent(final String name) {
+        return new Event.Builder(
+                        name,
+                        "com.adobe.eventType.optimize",
+                        "com.adobe.eventSource.requestContent")
+                .build();
+    }
+}
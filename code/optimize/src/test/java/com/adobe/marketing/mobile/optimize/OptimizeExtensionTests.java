@@ -12,27 +12,36 @@
 package com.adobe.marketing.mobile.optimize;
 
 import android.util.Base64;
+import com.adobe.marketing.mobile.AdobeCallbackWithError;
+import com.adobe.marketing.mobile.AdobeError;
 import com.adobe.marketing.mobile.Event;
 import com.adobe.marketing.mobile.ExtensionApi;
 import com.adobe.marketing.mobile.ExtensionEventListener;
+import com.adobe.marketing.mobile.MobileCore;
 import com.adobe.marketing.mobile.SharedStateResolution;
 import com.adobe.marketing.mobile.SharedStateResult;
 import com.adobe.marketing.mobile.SharedStateStatus;
+import com.adobe.marketing.mobile.services.DataStoring;
 import com.adobe.marketing.mobile.services.Log;
-import com.adobe.marketing.mobile.util.SerialWorkDispatcher;
+import com.adobe.marketing.mobile.services.NamedCollection;
+import com.adobe.marketing.mobile.services.ServiceProvider;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.ArgumentMatchers;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.Mockito;
@@ -47,7 +56,7 @@ public class OptimizeExtensionTests {
     // Mocks
     @Mock ExtensionApi mockExtensionApi;
 
-    @Mock SerialWorkDispatcher<Event> mockEventsDispatcher;
+    @Mock OptimizeEventsDispatcher mockEventsDispatcher;
 
     @Before
     public void setup() {
@@ -127,6 +136,16 @@ public class OptimizeExtensionTests {
                         ArgumentMatchers.eq("com.adobe.eventType.optimize"),
                         ArgumentMatchers.eq("com.adobe.eventSource.contentComplete"),
                         ArgumentMatchers.any(ExtensionEventListener.class));
+        Mockito.verify(mockExtensionApi, Mockito.times(1))
+                .registerEventListener(
+                        ArgumentMatchers.eq("com.adobe.eventType.generic.lifecycle"),
+                        ArgumentMatchers.eq("com.adobe.eventSource.requestContent"),
+                        ArgumentMatchers.any(ExtensionEventListener.class));
+        Mockito.verify(mockExtensionApi, Mockito.times(1))
+                .registerEventListener(
+                        ArgumentMatchers.eq("com.adobe.eventType.hub"),
+                        ArgumentMatchers.eq("com.adobe.eventSource.sharedState"),
+                        ArgumentMatchers.any(ExtensionEventListener.class));
     }
 
     @Test
@@ -900,13 +919,55 @@ public class OptimizeExtensionTests {
         Assert.assertEquals("<h1>This is a HTML content</h1>", offer.getContent());
         Assert.assertEquals(1, offer.getCharacteristics().size());
         Assert.assertEquals("true", offer.getCharacteristics().get("testing"));
-        Assert.assertNull(offer.getLanguage());
+        Assert.assertTrue(offer.getLanguage().isEmpty());
 
         // incoming proposition is accumulated, not cached yet
         Assert.assertEquals(1, extension.getPropositionsInProgress().size());
         Assert.assertEquals(0, extension.getCachedPropositions().size());
     }
 
+    @Test
+    public void testHandleEdgeResponse_requestSentBeforeClearPropositions() throws Exception {
+        // setup
+        extension.setUpdateRequestEventIdsInProgress(
+                "AAAAAAAA-AAAA-AAAA-AAAA-AAAAAAAAAAAA",
+                new ArrayList<DecisionScope>() {
+                    {
+                        add(
+                                new DecisionScope(
+                                        "eyJhY3Rpdml0eUlkIjoieGNvcmU6b2ZmZXItYWN0aXZpdHk6MTExMTExMTExMTExMTExMSIsInBsYWNlbWVudElkIjoieGNvcmU6b2ZmZXItcGxhY2VtZW50OjExMTExMTExMTExMTExMTEifQ=="));
+                    }
+                });
+        extension.handleClearPropositions(
+                new Event.Builder(
+                                "Optimize Clear Propositions Request",
+                                "com.adobe.eventType.optimize",
+                                "com.adobe.eventSource.requestReset")
+                        .build());
+        final Map<String, Object> edgeResponseData =
+                new ObjectMapper()
+                        .readValue(
+                                getClass()
+                                        .getClassLoader()
+                                        .getResource("json/EVENT_DATA_EDGE_RESPONSE_VALID.json"),
+                                HashMap.class);
+        final Event testEvent =
+                new Event.Builder(
+                                "AEP Response Event Handle",
+                                "com.adobe.eventType.edge",
+                                "personalization:decisions")
+                        .setEventData(edgeResponseData)
+                        .build();
+
+        // test
+        extension.handleEdgeResponse(testEvent);
+
+        // verify
+        Mockito.verify(mockExtensionApi, Mockito.never()).dispatch(ArgumentMatchers.any());
+        Assert.assertEquals(0, extension.getPropositionsInProgress().size());
+        Assert.assertEquals(0, extension.getCachedPropositions().size());
+    }
+
     @Test
     public void testHandleEdgeResponse_validPropositionFromTargetWithClickTracking()
             throws Exception {
@@ -1017,8 +1078,8 @@ public class OptimizeExtensionTests {
                 "https://ns.adobe.com/personalization/json-content-item", offer.getSchema());
         Assert.assertEquals(OfferType.JSON, offer.getType());
         Assert.assertEquals("{\"device\":\"mobile\"}", offer.getContent());
-        Assert.assertNull(offer.getCharacteristics());
-        Assert.assertNull(offer.getLanguage());
+        Assert.assertTrue(offer.getCharacteristics().isEmpty());
+        Assert.assertTrue(offer.getLanguage().isEmpty());
 
         // incoming proposition is accumulated, not cached yet
         Assert.assertEquals(1, extension.getPropositionsInProgress().size());
@@ -1253,8 +1314,8 @@ public class OptimizeExtensionTests {
                 "https://ns.adobe.com/personalization/default-content-item", offer.getSchema());
         Assert.assertEquals(OfferType.UNKNOWN, offer.getType());
         Assert.assertEquals("", offer.getContent());
-        Assert.assertNull(offer.getCharacteristics());
-        Assert.assertNull(offer.getLanguage());
+        Assert.assertTrue(offer.getCharacteristics().isEmpty());
+        Assert.assertTrue(offer.getLanguage().isEmpty());
     }
 
     @Test
@@ -1302,132 +1363,224 @@ public class OptimizeExtensionTests {
 
             Assert.assertEquals(0, extension.getPropositionsInProgress().size());
             Assert.assertEquals(0, extension.getCachedPropositions().size());
+            Assert.assertEquals(1, extension.getUpdateRequestEventIdsErrors().size());
         }
     }
 
     @Test
-    public void testHandleEdgeErrorResponse_nullEventData() {
-        try (MockedStatic<Log> logMockedStatic = Mockito.mockStatic(Log.class)) {
+    public void testHandleUpdatePropositions_responseCallbackConsumesEdgeError() throws Exception {
+        try (MockedStatic<MobileCore> mobileCoreMockedStatic =
+                        Mockito.mockStatic(MobileCore.class);
+                MockedStatic<Base64> base64MockedStatic = Mockito.mockStatic(Base64.class)) {
+            base64MockedStatic
+                    .when(
+                            () ->
+                                    Base64.decode(
+                                            ArgumentMatchers.anyString(),
+                                            ArgumentMatchers.anyInt()))
+                    .thenAnswer(
+                            (Answer<byte[]>)
+                                    invocation ->
+                                            java.util.Base64.getDecoder()
+                                                    .decode((String) invocation.getArguments()[0]));
+
             // setup
-            final Event testEvent =
+            extension.setEventsDispatcher(mockEventsDispatcher);
+            setConfigurationSharedState(
+                    SharedStateStatus.SET,
+                    new HashMap<String, Object>() {
+                        {
+                            put("edge.configId", "ffffffff-ffff-ffff-ffff-ffffffffffff");
+                        }
+                    });
+            extension.handleUpdatePropositions(
+                    createUpdatePropositionsEvent(new DecisionScope("myMbox1")));
+
+            final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+            final ArgumentCaptor<AdobeCallbackWithError<Event>> callbackCaptor =
+                    ArgumentCaptor.forClass(AdobeCallbackWithError.class);
+            mobileCoreMockedStatic.verify(
+                    () ->
+                            MobileCore.dispatchEventWithResponseCallback(
+                                    eventCaptor.capture(),
+                                    ArgumentMatchers.anyLong(),
+                                    callbackCaptor.capture()));
+            final String requestEventId = eventCaptor.getValue().getUniqueIdentifier();
+
+            final Map<String, Object> edgeErrorResponseData =
+                    new ObjectMapper()
+                            .readValue(
+                                    getClass()
+                                            .getClassLoader()
+                                            .getResource(
+                                                    "json/EVENT_DATA_EDGE_ERROR_RESPONSE.json"),
+                                    HashMap.class);
+            edgeErrorResponseData.put("requestEventId", requestEventId);
+            extension.handleEdgeErrorResponse(
                     new Event.Builder(
                                     "AEP Error Response",
                                     "com.adobe.eventType.edge",
                                     "com.adobe.eventSource.errorResponseContent")
-                            .setEventData(null)
-                            .build();
+                            .setEventData(edgeErrorResponseData)
+                            .build());
+            Assert.assertEquals(1, extension.getUpdateRequestEventIdsErrors().size());
+            Mockito.clearInvocations(mockExtensionApi);
 
             // test
-            extension.handleEdgeErrorResponse(testEvent);
+            callbackCaptor.getValue().call(createCallbackEvent(requestEventId));
 
             // verify
-            logMockedStatic.verify(
-                    () ->
-                            Log.debug(
-                                    ArgumentMatchers.anyString(),
-                                    ArgumentMatchers.anyString(),
-                                    ArgumentMatchers.anyString(),
-                                    ArgumentMatchers.any()));
-
-            final Map<DecisionScope, OptimizeProposition> cachedPropositions =
-                    extension.getCachedPropositions();
-            Assert.assertNotNull(cachedPropositions);
-            Assert.assertTrue(cachedPropositions.isEmpty());
+            final ArgumentCaptor<Event> dispatchedEventCaptor =
+                    ArgumentCaptor.forClass(Event.class);
+            Mockito.verify(mockExtensionApi, Mockito.times(2))
+                    .dispatch(dispatchedEventCaptor.capture());
+            final Event responseEvent = dispatchedEventCaptor.getAllValues().get(0);
+            Assert.assertTrue(responseEvent.getEventData().containsKey("responseerror"));
+            Assert.assertEquals(0, extension.getUpdateRequestEventIdsErrors().size());
         }
     }
 
     @Test
-    public void testHandleEdgeErrorResponse_emptyEventData() {
-        try (MockedStatic<Log> logMockedStatic = Mockito.mockStatic(Log.class)) {
+    public void testHandleUpdatePropositions_recoverableError_retriesFailedScopes() {
+        try (MockedStatic<MobileCore> mobileCoreMockedStatic =
+                        Mockito.mockStatic(MobileCore.class);
+                MockedStatic<Base64> base64MockedStatic = Mockito.mockStatic(Base64.class)) {
+            base64MockedStatic
+                    .when(
+                            () ->
+                                    Base64.decode(
+                                            ArgumentMatchers.anyString(),
+                                            ArgumentMatchers.anyInt()))
+                    .thenAnswer(
+                            (Answer<byte[]>)
+                                    invocation ->
+                                            java.util.Base64.getDecoder()
+                                                    .decode((String) invocation.getArguments()[0]));
+
             // setup
+            final UpdateRequestRetryPolicy mockRetryPolicy =
+                    Mockito.mock(UpdateRequestRetryPolicy.class);
+            Mockito.when(
+                            mockRetryPolicy.getRetryDelay(
+                                    ArgumentMatchers.eq(0),
+                                    ArgumentMatchers.eq(1000L),
+                                    ArgumentMatchers.anyLong()))
+                    .thenReturn(1000L);
+            extension.setRetryPolicy(mockRetryPolicy);
+            extension.setEventsDispatcher(mockEventsDispatcher);
+            setConfigurationSharedState(
+                    SharedStateStatus.SET,
+                    new HashMap<String, Object>() {
+                        {
+                            put("edge.configId", "ffffffff-ffff-ffff-ffff-ffffffffffff");
+                        }
+                    });
+
             final Event testEvent =
-                    new Event.Builder(
-                                    "AEP Error Response",
-                                    "com.adobe.eventType.edge",
-                                    "com.adobe.eventSource.errorResponseContent")
-                            .setEventData(new HashMap<>())
-                            .build();
+                    createUpdatePropositionsEvent(
+                            new DecisionScope("myMbox1"), new DecisionScope("myMbox2"));
+            extension.handleUpdatePropositions(testEvent);
+
+            final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+            final ArgumentCaptor<AdobeCallbackWithError<Event>> callbackCaptor =
+                    ArgumentCaptor.forClass(AdobeCallbackWithError.class);
+            mobileCoreMockedStatic.verify(
+                    () ->
+                            MobileCore.dispatchEventWithResponseCallback(
+                                    eventCaptor.capture(),
+                                    ArgumentMatchers.anyLong(),
+                                    callbackCaptor.capture()));
+            final String requestEventId = eventCaptor.getValue().getUniqueIdentifier();
+
+            extension.handleEdgeResponse(createDecisionsEvent(requestEventId, "myMbox1"));
+            extension.handleEdgeErrorResponse(createRecoverableErrorEvent(requestEventId, 1));
+            Mockito.clearInvocations(mockExtensionApi);
 
             // test
-            extension.handleEdgeErrorResponse(testEvent);
+            callbackCaptor.getValue().call(createCallbackEvent(requestEventId));
 
             // verify
-            logMockedStatic.verify(
-                    () ->
-                            Log.debug(
-                                    ArgumentMatchers.anyString(),
-                                    ArgumentMatchers.anyString(),
-                                    ArgumentMatchers.anyString(),
-                                    ArgumentMatchers.any()));
-
-            Assert.assertEquals(0, extension.getPropositionsInProgress().size());
-            Assert.assertEquals(0, extension.getCachedPropositions().size());
-        }
-    }
+            final ArgumentCaptor<Runnable> retryCaptor = ArgumentCaptor.forClass(Runnable.class);
+            Mockito.verify(mockRetryPolicy, Mockito.times(1))
+                    .schedule(retryCaptor.capture(), ArgumentMatchers.eq(1000L));
+            final ArgumentCaptor<Event> dispatchedEventCaptor =
+                    ArgumentCaptor.forClass(Event.class);
+            Mockito.verify(mockExtensionApi, Mockito.times(1))
+                    .dispatch(dispatchedEventCaptor.capture());
+            Assert.assertEquals(
+                    "com.adobe.eventSource.contentComplete",
+                    dispatchedEventCaptor.getValue().getSource());
+            Assert.assertEquals(
+                    Collections.singletonList(new DecisionScope("myMbox1")),
+                    extension.getUpdateRequestEventIdsInProgress().get(requestEventId));
+            Assert.assertEquals(2, extension.getUpdateRequestEventIdsInProgress().size());
 
-    @Test
-    public void testHandleOptimizeRequestContent_GetPropositionsEvent_shouldAddToSerialDispatcher()
-            throws Exception {
-        extension.setEventsDispatcher(mockEventsDispatcher);
-        setConfigurationSharedState(
-                SharedStateStatus.SET,
-                new HashMap<String, Object>() {
-                    {
-                        put("edge.configId", "ffffffff-ffff-ffff-ffff-ffffffffffff");
-                    }
-                });
+            // test
+            extension.handleUpdatePropositionsCompleted(dispatchedEventCaptor.getValue());
 
-        final DecisionScope testScope =
-                new DecisionScope(
-                        "eyJhY3Rpdml0eUlkIjoieGNvcmU6b2ZmZXItYWN0aXZpdHk6MTExMTExMTExMTExMTExMSIsInBsYWNlbWVudElkIjoieGNvcmU6b2ZmZXItcGxhY2VtZW50OjExMTExMTExMTExMTExMTEifQ==");
-        final Map<String, Object> testEventData = new HashMap<>();
-        testEventData.put("requesttype", "getpropositions");
-        testEventData.put(
-                "decisionscopes",
-                new ArrayList<Map<String, Object>>() {
-                    {
-                        add(testScope.toEventData());
-                    }
-                });
-        final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+            // verify
+            Assert.assertFalse(extension.isUpdateRequestCompleted(requestEventId));
+            Assert.assertEquals(
+                    Collections.singletonList(
+                            Collections.singletonList(new DecisionScope("myMbox2"))),
+                    new ArrayList<>(extension.getUpdateRequestEventIdsInProgress().values()));
 
-        final Event testEvent =
-                new Event.Builder(
-                                "Optimize Get Propositions Request",
-                                "com.adobe.eventType.optimize",
-                                "com.adobe.eventSource.requestContent")
-                        .setEventData(testEventData)
-                        .build();
+            // test
+            retryCaptor.getValue().run();
 
-        // test
-        extension.handleOptimizeRequestContent(testEvent);
+            // verify
+            mobileCoreMockedStatic.verify(
+                    () ->
+                            MobileCore.dispatchEventWithResponseCallback(
+                                    eventCaptor.capture(),
+                                    ArgumentMatchers.anyLong(),
+                                    callbackCaptor.capture()),
+                    Mockito.times(2));
+            final Event retryEvent = eventCaptor.getValue();
+            Assert.assertEquals(
+                    Collections.singletonList("myMbox2"), getRequestedScopeNames(retryEvent));
+            mobileCoreMockedStatic.verify(
+                    () ->
+                            MobileCore.dispatchEventWithResponseCallback(
+                                    ArgumentMatchers.same(retryEvent),
+                                    ArgumentMatchers.longThat(timeout -> timeout <= 9000L),
+                                    ArgumentMatchers.any()));
+            Assert.assertEquals(1, extension.getCachedPropositions().size());
+            Assert.assertTrue(
+                    extension.getCachedPropositions().containsKey(new DecisionScope("myMbox1")));
 
-        // verify
-        Mockito.verify(mockEventsDispatcher, Mockito.times(1)).offer(eventCaptor.capture());
+            // test
+            extension.handleEdgeResponse(
+                    createDecisionsEvent(retryEvent.getUniqueIdentifier(), "myMbox2"));
+            Mockito.clearInvocations(mockExtensionApi);
+            callbackCaptor.getValue().call(createCallbackEvent(retryEvent.getUniqueIdentifier()));
 
-        final Event queuedEvent = eventCaptor.getValue();
-        Assert.assertEquals("Optimize Get Propositions Request", queuedEvent.getName());
-        Assert.assertEquals("com.adobe.eventType.optimize", queuedEvent.getType());
-        Assert.assertEquals("com.adobe.eventSource.requestContent", queuedEvent.getSource());
+            // verify
+            Mockito.verify(mockExtensionApi, Mockito.times(2))
+                    .dispatch(dispatchedEventCaptor.capture());
+            final Event responseEvent = dispatchedEventCaptor.getAllValues().get(1);
+            Assert.assertEquals("com.adobe.eventSource.responseContent", responseEvent.getSource());
+            Assert.assertEquals(testEvent.getUniqueIdentifier(), responseEvent.getResponseID());
+            Assert.assertFalse(responseEvent.getEventData().containsKey("responseerror"));
+            final List<Map<String, Object>> propositionsList =
+                    (List<Map<String, Object>>) responseEvent.getEventData().get("propositions");
+            Assert.assertEquals(2, propositionsList.size());
 
-        final String requestType = (String) queuedEvent.getEventData().get("requesttype");
-        Assert.assertEquals("getpropositions", requestType);
+            // test
+            extension.handleUpdatePropositionsCompleted(
+                    dispatchedEventCaptor.getAllValues().get(2));
 
-        final List<Map<String, Object>> scopesData =
-                (List<Map<String, Object>>) queuedEvent.getEventData().get("decisionscopes");
-        Assert.assertNotNull(scopesData);
-        final List<DecisionScope> scopes = new ArrayList<>();
-        for (final Map<String, Object> scopeData : scopesData) {
-            final DecisionScope scope = DecisionScope.fromEventData(scopeData);
-            scopes.add(scope);
+            // verify
+            Assert.assertTrue(extension.isUpdateRequestCompleted(requestEventId));
+            Assert.assertEquals(0, extension.getUpdateRequestEventIdsInProgress().size());
         }
-        Assert.assertEquals(1, scopes.size());
-        Assert.assertEquals(testScope, scopes.get(0));
     }
 
     @Test
-    public void testHandleOptimizeRequestContent_GetPropositionsEvent_whenUpdateIsInProgress() {
-        try (MockedStatic<Base64> base64MockedStatic = Mockito.mockStatic(Base64.class)) {
+    public void testHandleUpdatePropositions_recoverableError_retryBudgetExhausted() {
+        try (MockedStatic<MobileCore> mobileCoreMockedStatic =
+                        Mockito.mockStatic(MobileCore.class);
+                MockedStatic<Base64> base64MockedStatic = Mockito.mockStatic(Base64.class)) {
             base64MockedStatic
                     .when(
                             () ->
@@ -1441,6 +1594,16 @@ public class OptimizeExtensionTests {
                                                     .decode((String) invocation.getArguments()[0]));
 
             // setup
+            final UpdateRequestRetryPolicy mockRetryPolicy =
+                    Mockito.mock(UpdateRequestRetryPolicy.class);
+            Mockito.when(
+                            mockRetryPolicy.getRetryDelay(
+                                    ArgumentMatchers.anyInt(),
+                                    ArgumentMatchers.anyLong(),
+                                    ArgumentMatchers.anyLong()))
+                    .thenReturn(UpdateRequestRetryPolicy.NO_RETRY);
+            extension.setRetryPolicy(mockRetryPolicy);
+            extension.setEventsDispatcher(mockEventsDispatcher);
             setConfigurationSharedState(
                     SharedStateStatus.SET,
                     new HashMap<String, Object>() {
@@ -1448,73 +1611,362 @@ public class OptimizeExtensionTests {
                             put("edge.configId", "ffffffff-ffff-ffff-ffff-ffffffffffff");
                         }
                     });
+            extension.handleUpdatePropositions(
+                    createUpdatePropositionsEvent(new DecisionScope("myMbox1")));
 
-            final DecisionScope testScope =
-                    new DecisionScope(
-                            "eyJhY3Rpdml0eUlkIjoieGNvcmU6b2ZmZXItYWN0aXZpdHk6MTExMTExMTExMTExMTExMSIsInBsYWNlbWVudElkIjoieGNvcmU6b2ZmZXItcGxhY2VtZW50OjExMTExMTExMTExMTExMTEifQ==");
-            final Map<String, Object> testEventData = new HashMap<>();
-            testEventData.put("requesttype", "updatepropositions");
-            testEventData.put(
-                    "decisionscopes",
-                    new ArrayList<Map<String, Object>>() {
+            final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+            final ArgumentCaptor<AdobeCallbackWithError<Event>> callbackCaptor =
+                    ArgumentCaptor.forClass(AdobeCallbackWithError.class);
+            mobileCoreMockedStatic.verify(
+                    () ->
+                            MobileCore.dispatchEventWithResponseCallback(
+                                    eventCaptor.capture(),
+                                    ArgumentMatchers.anyLong(),
+                                    callbackCaptor.capture()));
+            final String requestEventId = eventCaptor.getValue().getUniqueIdentifier();
+            extension.handleEdgeErrorResponse(createRecoverableErrorEvent(requestEventId, 0));
+            Mockito.clearInvocations(mockExtensionApi);
+
+            // test
+            callbackCaptor.getValue().call(createCallbackEvent(requestEventId));
+
+            // verify
+            Mockito.verify(mockRetryPolicy, Mockito.never())
+                    .schedule(ArgumentMatchers.any(Runnable.class), ArgumentMatchers.anyLong());
+            final ArgumentCaptor<Event> dispatchedEventCaptor =
+                    ArgumentCaptor.forClass(Event.class);
+            Mockito.verify(mockExtensionApi, Mockito.times(2))
+                    .dispatch(dispatchedEventCaptor.capture());
+            Assert.assertEquals(
+                    "com.adobe.eventSource.responseContent",
+                    dispatchedEventCaptor.getAllValues().get(0).getSource());
+        }
+    }
+
+    @Test
+    public void testHandleUpdatePropositions_circuitOpen_returnsCachedPropositions() {
+        try (MockedStatic<MobileCore> mobileCoreMockedStatic =
+                        Mockito.mockStatic(MobileCore.class);
+                MockedStatic<Base64> base64MockedStatic = Mockito.mockStatic(Base64.class)) {
+            base64MockedStatic
+                    .when(
+                            () ->
+                                    Base64.decode(
+                                            ArgumentMatchers.anyString(),
+                                            ArgumentMatchers.anyInt()))
+                    .thenAnswer(
+                            (Answer<byte[]>)
+                                    invocation ->
+                                            java.util.Base64.getDecoder()
+                                                    .decode((String) invocation.getArguments()[0]));
+
+            // setup
+            final EdgeCircuitBreaker mockCircuitBreaker = Mockito.mock(EdgeCircuitBreaker.class);
+            Mockito.when(mockCircuitBreaker.allowRequest()).thenReturn(false);
+            extension.setCircuitBreaker(mockCircuitBreaker);
+            extension.setEventsDispatcher(mockEventsDispatcher);
+            setConfigurationSharedState(
+                    SharedStateStatus.SET,
+                    new HashMap<String, Object>() {
                         {
-                            add(testScope.toEventData());
+                            put("edge.configId", "ffffffff-ffff-ffff-ffff-ffffffffffff");
                         }
                     });
+
+            final DecisionScope testScope = new DecisionScope("myMbox1");
+            final Offer offer = new Offer.Builder("offer1", OfferType.TEXT, "Cached offer").build();
+            final Map<DecisionScope, OptimizeProposition> cachedPropositions = new HashMap<>();
+            cachedPropositions.put(
+                    testScope,
+                    new OptimizeProposition(
+                            "proposition1", Collections.singletonList(offer), "myMbox1", null));
+            extension.setCachedPropositions(cachedPropositions);
+
             final Event testEvent =
-                    new Event.Builder(
-                                    "Optimize Update Propositions Request",
-                                    "com.adobe.eventType.optimize",
-                                    "com.adobe.eventSource.requestContent")
-                            .setEventData(testEventData)
-                            .build();
+                    createUpdatePropositionsEvent(testScope, new DecisionScope("myMbox2"));
 
-            // simulate update
-            extension.handleOptimizeRequestContent(testEvent);
+            // test
+            extension.handleUpdatePropositions(testEvent);
 
             // verify
-            final Map<String, List<DecisionScope>> updateEventIdsInProgress =
-                    extension.getUpdateRequestEventIdsInProgress();
-            Assert.assertNotNull(updateEventIdsInProgress);
-            Assert.assertEquals(1, updateEventIdsInProgress.size());
-            Assert.assertTrue(
-                    updateEventIdsInProgress.containsValue(
-                            new ArrayList<DecisionScope>() {
-                                {
-                                    add(testScope);
-                                }
-                            }));
+            mobileCoreMockedStatic.verifyNoInteractions();
+            Mockito.verifyNoInteractions(mockEventsDispatcher);
+            Assert.assertEquals(0, extension.getUpdateRequestEventIdsInProgress().size());
 
-            // dispatch get event
-            final Map<String, Object> testGetEventData = new HashMap<>();
-            testGetEventData.put("requesttype", "getpropositions");
-            testGetEventData.put(
-                    "decisionscopes",
-                    new ArrayList<Map<String, Object>>() {
+            final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+            Mockito.verify(mockExtensionApi, Mockito.times(1)).dispatch(eventCaptor.capture());
+            final Event responseEvent = eventCaptor.getValue();
+            Assert.assertEquals("com.adobe.eventSource.responseContent", responseEvent.getSource());
+            Assert.assertEquals(testEvent.getUniqueIdentifier(), responseEvent.getResponseID());
+            final Map<String, Object> error =
+                    (Map<String, Object>) responseEvent.getEventData().get("responseerror");
+            Assert.assertEquals(503, error.get("status"));
+            final List<Map<String, Object>> propositionsList =
+                    (List<Map<String, Object>>) responseEvent.getEventData().get("propositions");
+            Assert.assertEquals(1, propositionsList.size());
+            Assert.assertEquals("proposition1", propositionsList.get(0).get("id"));
+        }
+    }
+
+    @Test
+    public void testHandleUpdatePropositions_responseCallbackRecordsCircuitBreakerResult() {
+        try (MockedStatic<MobileCore> mobileCoreMockedStatic =
+                        Mockito.mockStatic(MobileCore.class);
+                MockedStatic<Base64> base64MockedStatic = Mockito.mockStatic(Base64.class)) {
+            base64MockedStatic
+                    .when(
+                            () ->
+                                    Base64.decode(
+                                            ArgumentMatchers.anyString(),
+                                            ArgumentMatchers.anyInt()))
+                    .thenAnswer(
+                            (Answer<byte[]>)
+                                    invocation ->
+                                            java.util.Base64.getDecoder()
+                                                    .decode((String) invocation.getArguments()[0]));
+
+            // setup
+            final EdgeCircuitBreaker mockCircuitBreaker = Mockito.mock(EdgeCircuitBreaker.class);
+            Mockito.when(mockCircuitBreaker.allowRequest()).thenReturn(true);
+            extension.setCircuitBreaker(mockCircuitBreaker);
+            extension.setEventsDispatcher(mockEventsDispatcher);
+            setConfigurationSharedState(
+                    SharedStateStatus.SET,
+                    new HashMap<String, Object>() {
                         {
-                            add(testScope.toEventData());
+                            put("edge.configId", "ffffffff-ffff-ffff-ffff-ffffffffffff");
                         }
                     });
+            extension.handleUpdatePropositions(
+                    createUpdatePropositionsEvent(new DecisionScope("myMbox1")));
+            extension.handleUpdatePropositions(
+                    createUpdatePropositionsEvent(new DecisionScope("myMbox2")));
+
             final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+            final ArgumentCaptor<AdobeCallbackWithError<Event>> callbackCaptor =
+                    ArgumentCaptor.forClass(AdobeCallbackWithError.class);
+            mobileCoreMockedStatic.verify(
+                    () ->
+                            MobileCore.dispatchEventWithResponseCallback(
+                                    eventCaptor.capture(),
+                                    ArgumentMatchers.anyLong(),
+                                    callbackCaptor.capture()),
+                    Mockito.times(2));
 
-            final Event testGetEvent =
+            // test
+            callbackCaptor.getAllValues().get(0).fail(AdobeError.CALLBACK_TIMEOUT);
+
+            // verify
+            Mockito.verify(mockCircuitBreaker, Mockito.times(1)).recordFailure();
+            Mockito.verify(mockCircuitBreaker, Mockito.never()).recordSuccess();
+
+            // test
+            callbackCaptor
+                    .getAllValues()
+                    .get(1)
+                    .call(
+                            createCallbackEvent(
+                                    eventCaptor.getAllValues().get(1).getUniqueIdentifier()));
+
+            // verify
+            Mockito.verify(mockCircuitBreaker, Mockito.times(1)).recordSuccess();
+        }
+    }
+
+    @Test
+    public void testHandleUpdatePropositions_consecutiveTimeouts_dispatchesCircuitOpenEvent() {
+        try (MockedStatic<MobileCore> mobileCoreMockedStatic =
+                        Mockito.mockStatic(MobileCore.class);
+                MockedStatic<Base64> base64MockedStatic = Mockito.mockStatic(Base64.class)) {
+            base64MockedStatic
+                    .when(
+                            () ->
+                                    Base64.decode(
+                                            ArgumentMatchers.anyString(),
+                                            ArgumentMatchers.anyInt()))
+                    .thenAnswer(
+                            (Answer<byte[]>)
+                                    invocation ->
+                                            java.util.Base64.getDecoder()
+                                                    .decode((String) invocation.getArguments()[0]));
+
+            // setup
+            extension.setEventsDispatcher(mockEventsDispatcher);
+            setConfigurationSharedState(
+                    SharedStateStatus.SET,
+                    new HashMap<String, Object>() {
+                        {
+                            put("edge.configId", "ffffffff-ffff-ffff-ffff-ffffffffffff");
+                        }
+                    });
+            for (int i = 0; i < EdgeCircuitBreaker.FAILURE_THRESHOLD; i++) {
+                extension.handleUpdatePropositions(
+                        createUpdatePropositionsEvent(new DecisionScope("myMbox1")));
+            }
+
+            final ArgumentCaptor<AdobeCallbackWithError<Event>> callbackCaptor =
+                    ArgumentCaptor.forClass(AdobeCallbackWithError.class);
+            mobileCoreMockedStatic.verify(
+                    () ->
+                            MobileCore.dispatchEventWithResponseCallback(
+                                    ArgumentMatchers.any(Event.class),
+                                    ArgumentMatchers.anyLong(),
+                                    callbackCaptor.capture()),
+                    Mockito.times(EdgeCircuitBreaker.FAILURE_THRESHOLD));
+            Mockito.clearInvocations(mockExtensionApi);
+
+            // test
+            for (final AdobeCallbackWithError<Event> callback : callbackCaptor.getAllValues()) {
+                callback.fail(AdobeError.CALLBACK_TIMEOUT);
+            }
+
+            // verify
+            final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+            Mockito.verify(
+                            mockExtensionApi,
+                            Mockito.times(EdgeCircuitBreaker.FAILURE_THRESHOLD + 1))
+                    .dispatch(eventCaptor.capture());
+            final List<Event> stateChangeEvents = new ArrayList<>();
+            for (final Event dispatchedEvent : eventCaptor.getAllValues()) {
+                if ("Optimize Circuit Breaker State Change".equals(dispatchedEvent.getName())) {
+                    stateChangeEvents.add(dispatchedEvent);
+                }
+            }
+            Assert.assertEquals(1, stateChangeEvents.size());
+            Assert.assertEquals("com.adobe.eventType.optimize", stateChangeEvents.get(0).getType());
+            Assert.assertEquals(
+                    "com.adobe.eventSource.notification", stateChangeEvents.get(0).getSource());
+            Assert.assertEquals(
+                    "open", stateChangeEvents.get(0).getEventData().get("circuitbreakerstate"));
+        }
+    }
+
+    @Test
+    public void testHandleEdgeErrorResponse_nullEventData() {
+        try (MockedStatic<Log> logMockedStatic = Mockito.mockStatic(Log.class)) {
+            // setup
+            final Event testEvent =
                     new Event.Builder(
-                                    "Optimize Get Propositions Request",
-                                    "com.adobe.eventType.optimize",
-                                    "com.adobe.eventSource.requestContent")
-                            .setEventData(testGetEventData)
+                                    "AEP Error Response",
+                                    "com.adobe.eventType.edge",
+                                    "com.adobe.eventSource.errorResponseContent")
+                            .setEventData(null)
                             .build();
 
-            // simulate get
-            extension.handleOptimizeRequestContent(testGetEvent);
+            // test
+            extension.handleEdgeErrorResponse(testEvent);
 
             // verify
-            Mockito.verify(mockExtensionApi, Mockito.never()).dispatch(eventCaptor.capture());
+            logMockedStatic.verify(
+                    () ->
+                            Log.debug(
+                                    ArgumentMatchers.anyString(),
+                                    ArgumentMatchers.anyString(),
+                                    ArgumentMatchers.anyString(),
+                                    ArgumentMatchers.any()));
+
+            final Map<DecisionScope, OptimizeProposition> cachedPropositions =
+                    extension.getCachedPropositions();
+            Assert.assertNotNull(cachedPropositions);
+            Assert.assertTrue(cachedPropositions.isEmpty());
         }
     }
 
     @Test
-    public void testHandleOptimizeRequestContent_GetPropositionsEvent_whenUpdateIsComplete() {
+    public void testHandleEdgeErrorResponse_emptyEventData() {
+        try (MockedStatic<Log> logMockedStatic = Mockito.mockStatic(Log.class)) {
+            // setup
+            final Event testEvent =
+                    new Event.Builder(
+                                    "AEP Error Response",
+                                    "com.adobe.eventType.edge",
+                                    "com.adobe.eventSource.errorResponseContent")
+                            .setEventData(new HashMap<>())
+                            .build();
+
+            // test
+            extension.handleEdgeErrorResponse(testEvent);
+
+            // verify
+            logMockedStatic.verify(
+                    () ->
+                            Log.debug(
+                                    ArgumentMatchers.anyString(),
+                                    ArgumentMatchers.anyString(),
+                                    ArgumentMatchers.anyString(),
+                                    ArgumentMatchers.any()));
+
+            Assert.assertEquals(0, extension.getPropositionsInProgress().size());
+            Assert.assertEquals(0, extension.getCachedPropositions().size());
+        }
+    }
+
+    @Test
+    public void testHandleOptimizeRequestContent_GetPropositionsEvent_shouldAddToSerialDispatcher()
+            throws Exception {
+        extension.setEventsDispatcher(mockEventsDispatcher);
+        setConfigurationSharedState(
+                SharedStateStatus.SET,
+                new HashMap<String, Object>() {
+                    {
+                        put("edge.configId", "ffffffff-ffff-ffff-ffff-ffffffffffff");
+                    }
+                });
+
+        final DecisionScope testScope =
+                new DecisionScope(
+                        "eyJhY3Rpdml0eUlkIjoieGNvcmU6b2ZmZXItYWN0aXZpdHk6MTExMTExMTExMTExMTExMSIsInBsYWNlbWVudElkIjoieGNvcmU6b2ZmZXItcGxhY2VtZW50OjExMTExMTExMTExMTExMTEifQ==");
+        final Map<String, Object> testEventData = new HashMap<>();
+        testEventData.put("requesttype", "getpropositions");
+        testEventData.put(
+                "decisionscopes",
+                new ArrayList<Map<String, Object>>() {
+                    {
+                        add(testScope.toEventData());
+                    }
+                });
+        final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+
+        final Event testEvent =
+                new Event.Builder(
+                                "Optimize Get Propositions Request",
+                                "com.adobe.eventType.optimize",
+                                "com.adobe.eventSource.requestContent")
+                        .setEventData(testEventData)
+                        .build();
+
+        // test
+        extension.handleOptimizeRequestContent(testEvent);
+
+        // verify
+        Mockito.verify(mockEventsDispatcher, Mockito.times(1))
+                .offerGet(
+                        eventCaptor.capture(),
+                        ArgumentMatchers.eq(OptimizeEventsDispatcher.Priority.NORMAL),
+                        ArgumentMatchers.eq(Collections.singletonList(testScope)));
+
+        final Event queuedEvent = eventCaptor.getValue();
+        Assert.assertEquals("Optimize Get Propositions Request", queuedEvent.getName());
+        Assert.assertEquals("com.adobe.eventType.optimize", queuedEvent.getType());
+        Assert.assertEquals("com.adobe.eventSource.requestContent", queuedEvent.getSource());
+
+        final String requestType = (String) queuedEvent.getEventData().get("requesttype");
+        Assert.assertEquals("getpropositions", requestType);
+
+        final List<Map<String, Object>> scopesData =
+                (List<Map<String, Object>>) queuedEvent.getEventData().get("decisionscopes");
+        Assert.assertNotNull(scopesData);
+        final List<DecisionScope> scopes = new ArrayList<>();
+        for (final Map<String, Object> scopeData : scopesData) {
+            final DecisionScope scope = DecisionScope.fromEventData(scopeData);
+            scopes.add(scope);
+        }
+        Assert.assertEquals(1, scopes.size());
+        Assert.assertEquals(testScope, scopes.get(0));
+    }
+
+    @Test
+    public void testHandleUpdatePropositions_backgroundPriority_shouldAddToEventsDispatcher() {
         try (MockedStatic<Base64> base64MockedStatic = Mockito.mockStatic(Base64.class)) {
             base64MockedStatic
                     .when(
@@ -1529,6 +1981,7 @@ public class OptimizeExtensionTests {
                                                     .decode((String) invocation.getArguments()[0]));
 
             // setup
+            extension.setEventsDispatcher(mockEventsDispatcher);
             setConfigurationSharedState(
                     SharedStateStatus.SET,
                     new HashMap<String, Object>() {
@@ -1537,11 +1990,10 @@ public class OptimizeExtensionTests {
                         }
                     });
 
-            final DecisionScope testScope =
-                    new DecisionScope(
-                            "eyJhY3Rpdml0eUlkIjoieGNvcmU6b2ZmZXItYWN0aXZpdHk6MTExMTExMTExMTExMTExMSIsInBsYWNlbWVudElkIjoieGNvcmU6b2ZmZXItcGxhY2VtZW50OjExMTExMTExMTExMTExMTEifQ==");
+            final DecisionScope testScope = new DecisionScope("myMbox1");
             final Map<String, Object> testEventData = new HashMap<>();
             testEventData.put("requesttype", "updatepropositions");
+            testEventData.put("requestpriority", "background");
             testEventData.put(
                     "decisionscopes",
                     new ArrayList<Map<String, Object>>() {
@@ -1551,85 +2003,1206 @@ public class OptimizeExtensionTests {
                     });
             final Event testEvent =
                     new Event.Builder(
-                                    "Optimize Update Propositions Request",
+                                    "Optimize Refresh Propositions Request",
                                     "com.adobe.eventType.optimize",
                                     "com.adobe.eventSource.requestContent")
                             .setEventData(testEventData)
                             .build();
 
-            // simulate update
-            extension.handleOptimizeRequestContent(testEvent);
+            // test
+            extension.handleUpdatePropositions(testEvent);
 
             // verify
-            final Map<String, List<DecisionScope>> updateEventIdsInProgress =
-                    extension.getUpdateRequestEventIdsInProgress();
-            Assert.assertNotNull(updateEventIdsInProgress);
-            Assert.assertEquals(1, updateEventIdsInProgress.size());
-            Assert.assertTrue(
-                    updateEventIdsInProgress.containsValue(
-                            new ArrayList<DecisionScope>() {
-                                {
-                                    add(testScope);
-                                }
-                            }));
-            Mockito.clearInvocations(mockExtensionApi);
+            final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+            Mockito.verify(mockEventsDispatcher, Mockito.times(1))
+                    .offerUpdate(
+                            eventCaptor.capture(),
+                            ArgumentMatchers.eq(OptimizeEventsDispatcher.Priority.BACKGROUND),
+                            ArgumentMatchers.eq(Collections.singletonList(testScope)));
+            Assert.assertEquals("com.adobe.eventType.edge", eventCaptor.getValue().getType());
+        }
+    }
 
-            // simulate get
-            final Map<String, Object> testGetEventData = new HashMap<>();
-            testGetEventData.put("requesttype", "getpropositions");
-            testGetEventData.put(
-                    "decisionscopes",
-                    new ArrayList<Map<String, Object>>() {
-                        {
-                            add(testScope.toEventData());
-                        }
-                    });
+    @Test
+    public void testHandleUpdatePropositions_recordsRequestContext() {
+        try (MockedStatic<MobileCore> mobileCoreMockedStatic =
+                        Mockito.mockStatic(MobileCore.class);
+                MockedStatic<Base64> base64MockedStatic = Mockito.mockStatic(Base64.class)) {
+            base64MockedStatic
+                    .when(
+                            () ->
+                                    Base64.decode(
+                                            ArgumentMatchers.anyString(),
+                                            ArgumentMatchers.anyInt()))
+                    .thenAnswer(
+                            (Answer<byte[]>)
+                                    invocation ->
+                                            java.util.Base64.getDecoder()
+                                                    .decode((String) invocation.getArguments()[0]));
 
-            final Event testGetEvent =
-                    new Event.Builder(
-                                    "Optimize Get Propositions Request",
+            // setup
+            extension.setEventsDispatcher(mockEventsDispatcher);
+            setConfigurationSharedState(
+                    SharedStateStatus.SET,
+                    new HashMap<String, Object>() {
+                        {
+                            put("edge.configId", "ffffffff-ffff-ffff-ffff-ffffffffffff");
+                        }
+                    });
+
+            final DecisionScope testScope = new DecisionScope("myMbox1");
+            final DecisionScope otherScope = new DecisionScope("myMbox2");
+            final Map<String, Object> testXdm = new HashMap<>();
+            testXdm.put("myXdmKey", "myXdmValue");
+            final Map<String, Object> testEventData = new HashMap<>();
+            testEventData.put("requesttype", "updatepropositions");
+            testEventData.put(
+                    "decisionscopes",
+                    new ArrayList<Map<String, Object>>() {
+                        {
+                            add(testScope.toEventData());
+                        }
+                    });
+            testEventData.put("xdm", testXdm);
+            final Event testEvent =
+                    new Event.Builder(
+                                    "Optimize Update Propositions Request",
                                     "com.adobe.eventType.optimize",
                                     "com.adobe.eventSource.requestContent")
-                            .setEventData(testGetEventData)
+                            .setEventData(testEventData)
                             .build();
 
-            // simulate update complete
-            final Event testUpdateCompleteEvent =
+            // test
+            extension.handleUpdatePropositions(testEvent);
+
+            // verify
+            final Map<String, Object> context = extension.getScopeRequestContexts().get(testScope);
+            Assert.assertNotNull(context);
+            Assert.assertEquals(1, context.size());
+            Assert.assertEquals(testXdm, context.get("xdm"));
+            Assert.assertFalse(extension.getScopeRequestContexts().containsKey(otherScope));
+        }
+    }
+
+    @Test
+    public void testHandleUpdatePropositions_maxScopesPerRequest_shardsEdgeRequests() {
+        try (MockedStatic<MobileCore> mobileCoreMockedStatic =
+                        Mockito.mockStatic(MobileCore.class);
+                MockedStatic<Base64> base64MockedStatic = Mockito.mockStatic(Base64.class)) {
+            base64MockedStatic
+                    .when(
+                            () ->
+                                    Base64.decode(
+                                            ArgumentMatchers.anyString(),
+                                            ArgumentMatchers.anyInt()))
+                    .thenAnswer(
+                            (Answer<byte[]>)
+                                    invocation ->
+                                            java.util.Base64.getDecoder()
+                                                    .decode((String) invocation.getArguments()[0]));
+
+            // setup
+            extension.setEventsDispatcher(mockEventsDispatcher);
+            setConfigurationSharedState(
+                    SharedStateStatus.SET,
+                    new HashMap<String, Object>() {
+                        {
+                            put("edge.configId", "ffffffff-ffff-ffff-ffff-ffffffffffff");
+                            put("optimize.maxScopesPerRequest", 2);
+                        }
+                    });
+
+            final Event testEvent =
+                    createUpdatePropositionsEvent(
+                            new DecisionScope("myMbox1"),
+                            new DecisionScope("myMbox2"),
+                            new DecisionScope("myMbox3"));
+
+            // test
+            extension.handleUpdatePropositions(testEvent);
+
+            // verify
+            final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+            mobileCoreMockedStatic.verify(
+                    () ->
+                            MobileCore.dispatchEventWithResponseCallback(
+                                    eventCaptor.capture(),
+                                    ArgumentMatchers.anyLong(),
+                                    ArgumentMatchers.any(AdobeCallbackWithError.class)),
+                    Mockito.times(2));
+            final List<Event> edgeEvents = eventCaptor.getAllValues();
+            Assert.assertEquals(2, edgeEvents.size());
+            Assert.assertEquals(
+                    Arrays.asList("myMbox1", "myMbox2"), getRequestedScopeNames(edgeEvents.get(0)));
+            Assert.assertEquals(
+                    Collections.singletonList("myMbox3"),
+                    getRequestedScopeNames(edgeEvents.get(1)));
+            Assert.assertEquals(2, extension.getUpdateRequestEventIdsInProgress().size());
+            Mockito.verify(mockEventsDispatcher, Mockito.times(2))
+                    .offerUpdate(
+                            ArgumentMatchers.any(Event.class),
+                            ArgumentMatchers.any(OptimizeEventsDispatcher.Priority.class),
+                            ArgumentMatchers.anyList());
+        }
+    }
+
+    @Test
+    public void testHandleUpdatePropositions_maxScopesPerRequest_dispatchesMergedResponse() {
+        try (MockedStatic<MobileCore> mobileCoreMockedStatic =
+                        Mockito.mockStatic(MobileCore.class);
+                MockedStatic<Base64> base64MockedStatic = Mockito.mockStatic(Base64.class)) {
+            base64MockedStatic
+                    .when(
+                            () ->
+                                    Base64.decode(
+                                            ArgumentMatchers.anyString(),
+                                            ArgumentMatchers.anyInt()))
+                    .thenAnswer(
+                            (Answer<byte[]>)
+                                    invocation ->
+                                            java.util.Base64.getDecoder()
+                                                    .decode((String) invocation.getArguments()[0]));
+
+            // setup
+            extension.setEventsDispatcher(mockEventsDispatcher);
+            setConfigurationSharedState(
+                    SharedStateStatus.SET,
+                    new HashMap<String, Object>() {
+                        {
+                            put("edge.configId", "ffffffff-ffff-ffff-ffff-ffffffffffff");
+                            put("optimize.maxScopesPerRequest", 1);
+                        }
+                    });
+
+            final Event testEvent =
+                    createUpdatePropositionsEvent(
+                            new DecisionScope("myMbox1"), new DecisionScope("myMbox2"));
+            extension.handleUpdatePropositions(testEvent);
+
+            final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+            final ArgumentCaptor<AdobeCallbackWithError<Event>> callbackCaptor =
+                    ArgumentCaptor.forClass(AdobeCallbackWithError.class);
+            mobileCoreMockedStatic.verify(
+                    () ->
+                            MobileCore.dispatchEventWithResponseCallback(
+                                    eventCaptor.capture(),
+                                    ArgumentMatchers.anyLong(),
+                                    callbackCaptor.capture()),
+                    Mockito.times(2));
+            final String firstShardEventId =
+                    eventCaptor.getAllValues().get(0).getUniqueIdentifier();
+            final String secondShardEventId =
+                    eventCaptor.getAllValues().get(1).getUniqueIdentifier();
+
+            extension.handleEdgeResponse(createDecisionsEvent(firstShardEventId, "myMbox1"));
+            extension.handleEdgeResponse(createDecisionsEvent(secondShardEventId, "myMbox2"));
+            Mockito.clearInvocations(mockExtensionApi);
+
+            // test
+            callbackCaptor.getAllValues().get(0).call(createCallbackEvent(firstShardEventId));
+            callbackCaptor.getAllValues().get(1).call(createCallbackEvent(secondShardEventId));
+
+            // verify
+            final ArgumentCaptor<Event> dispatchedEventCaptor =
+                    ArgumentCaptor.forClass(Event.class);
+            Mockito.verify(mockExtensionApi, Mockito.times(3))
+                    .dispatch(dispatchedEventCaptor.capture());
+            final List<Event> dispatchedEvents = dispatchedEventCaptor.getAllValues();
+            Assert.assertEquals(
+                    "com.adobe.eventSource.contentComplete", dispatchedEvents.get(0).getSource());
+            Assert.assertEquals(
+                    "com.adobe.eventSource.responseContent", dispatchedEvents.get(1).getSource());
+            Assert.assertEquals(
+                    testEvent.getUniqueIdentifier(), dispatchedEvents.get(1).getResponseID());
+            final List<Map<String, Object>> propositionsList =
+                    (List<Map<String, Object>>)
+                            dispatchedEvents.get(1).getEventData().get("propositions");
+            Assert.assertEquals(2, propositionsList.size());
+            Assert.assertEquals(
+                    "com.adobe.eventSource.contentComplete", dispatchedEvents.get(2).getSource());
+
+            // test
+            extension.handleUpdatePropositionsCompleted(dispatchedEvents.get(0));
+            extension.handleUpdatePropositionsCompleted(dispatchedEvents.get(2));
+
+            // verify
+            Assert.assertEquals(2, extension.getCachedPropositions().size());
+            Assert.assertTrue(
+                    extension.getCachedPropositions().containsKey(new DecisionScope("myMbox1")));
+            Assert.assertTrue(
+                    extension.getCachedPropositions().containsKey(new DecisionScope("myMbox2")));
+            Assert.assertEquals(0, extension.getUpdateRequestEventIdsInProgress().size());
+        }
+    }
+
+    @Test
+    public void testHandleOptimizeRequestContent_GetPropositionsEvent_whenUpdateIsInProgress() {
+        try (MockedStatic<Base64> base64MockedStatic = Mockito.mockStatic(Base64.class)) {
+            base64MockedStatic
+                    .when(
+                            () ->
+                                    Base64.decode(
+                                            ArgumentMatchers.anyString(),
+                                            ArgumentMatchers.anyInt()))
+                    .thenAnswer(
+                            (Answer<byte[]>)
+                                    invocation ->
+                                            java.util.Base64.getDecoder()
+                                                    .decode((String) invocation.getArguments()[0]));
+
+            // setup
+            setConfigurationSharedState(
+                    SharedStateStatus.SET,
+                    new HashMap<String, Object>() {
+                        {
+                            put("edge.configId", "ffffffff-ffff-ffff-ffff-ffffffffffff");
+                        }
+                    });
+
+            final DecisionScope testScope =
+                    new DecisionScope(
+                            "eyJhY3Rpdml0eUlkIjoieGNvcmU6b2ZmZXItYWN0aXZpdHk6MTExMTExMTExMTExMTExMSIsInBsYWNlbWVudElkIjoieGNvcmU6b2ZmZXItcGxhY2VtZW50OjExMTExMTExMTExMTExMTEifQ==");
+            final Map<String, Object> testEventData = new HashMap<>();
+            testEventData.put("requesttype", "updatepropositions");
+            testEventData.put(
+                    "decisionscopes",
+                    new ArrayList<Map<String, Object>>() {
+                        {
+                            add(testScope.toEventData());
+                        }
+                    });
+            final Event testEvent =
                     new Event.Builder(
-                                    "Optimize Update Propositions Complete",
+                                    "Optimize Update Propositions Request",
                                     "com.adobe.eventType.optimize",
-                                    "com.adobe.eventSource.contentComplete")
-                            .setEventData(
-                                    new HashMap<String, Object>() {
-                                        {
-                                            put(
-                                                    "completedUpdateRequestForEventId",
-                                                    updateEventIdsInProgress.keySet().toArray()[0]);
-                                        }
-                                    })
+                                    "com.adobe.eventSource.requestContent")
+                            .setEventData(testEventData)
                             .build();
 
+            // simulate update
+            extension.handleOptimizeRequestContent(testEvent);
+
+            // verify
+            final Map<String, List<DecisionScope>> updateEventIdsInProgress =
+                    extension.getUpdateRequestEventIdsInProgress();
+            Assert.assertNotNull(updateEventIdsInProgress);
+            Assert.assertEquals(1, updateEventIdsInProgress.size());
+            Assert.assertTrue(
+                    updateEventIdsInProgress.containsValue(
+                            new ArrayList<DecisionScope>() {
+                                {
+                                    add(testScope);
+                                }
+                            }));
+
+            // dispatch get event
+            final Map<String, Object> testGetEventData = new HashMap<>();
+            testGetEventData.put("requesttype", "getpropositions");
+            testGetEventData.put(
+                    "decisionscopes",
+                    new ArrayList<Map<String, Object>>() {
+                        {
+                            add(testScope.toEventData());
+                        }
+                    });
             final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
 
-            // test
+            final Event testGetEvent =
+                    new Event.Builder(
+                                    "Optimize Get Propositions Request",
+                                    "com.adobe.eventType.optimize",
+                                    "com.adobe.eventSource.requestContent")
+                            .setEventData(testGetEventData)
+                            .build();
+
+            // simulate get
             extension.handleOptimizeRequestContent(testGetEvent);
-            extension.handleUpdatePropositionsCompleted(testUpdateCompleteEvent);
 
-            // verify
-            Mockito.verify(mockExtensionApi, Mockito.after(2000L).times(1))
-                    .dispatch(eventCaptor.capture());
-            final Event dispatchedEvent = eventCaptor.getValue();
-            Assert.assertEquals("Optimize Response", dispatchedEvent.getName());
-            Assert.assertEquals("com.adobe.eventType.optimize", dispatchedEvent.getType());
-            Assert.assertEquals(
-                    "com.adobe.eventSource.responseContent", dispatchedEvent.getSource());
-        }
+            // verify
+            Mockito.verify(mockExtensionApi, Mockito.never()).dispatch(eventCaptor.capture());
+        }
+    }
+
+    @Test
+    public void testHandleOptimizeRequestContent_GetPropositionsEvent_whenUpdateIsComplete() {
+        try (MockedStatic<Base64> base64MockedStatic = Mockito.mockStatic(Base64.class)) {
+            base64MockedStatic
+                    .when(
+                            () ->
+                                    Base64.decode(
+                                            ArgumentMatchers.anyString(),
+                                            ArgumentMatchers.anyInt()))
+                    .thenAnswer(
+                            (Answer<byte[]>)
+                                    invocation ->
+                                            java.util.Base64.getDecoder()
+                                                    .decode((String) invocation.getArguments()[0]));
+
+            // setup
+            setConfigurationSharedState(
+                    SharedStateStatus.SET,
+                    new HashMap<String, Object>() {
+                        {
+                            put("edge.configId", "ffffffff-ffff-ffff-ffff-ffffffffffff");
+                        }
+                    });
+
+            final DecisionScope testScope =
+                    new DecisionScope(
+                            "eyJhY3Rpdml0eUlkIjoieGNvcmU6b2ZmZXItYWN0aXZpdHk6MTExMTExMTExMTExMTExMSIsInBsYWNlbWVudElkIjoieGNvcmU6b2ZmZXItcGxhY2VtZW50OjExMTExMTExMTExMTExMTEifQ==");
+            final Map<String, Object> testEventData = new HashMap<>();
+            testEventData.put("requesttype", "updatepropositions");
+            testEventData.put(
+                    "decisionscopes",
+                    new ArrayList<Map<String, Object>>() {
+                        {
+                            add(testScope.toEventData());
+                        }
+                    });
+            final Event testEvent =
+                    new Event.Builder(
+                                    "Optimize Update Propositions Request",
+                                    "com.adobe.eventType.optimize",
+                                    "com.adobe.eventSource.requestContent")
+                            .setEventData(testEventData)
+                            .build();
+
+            // simulate update
+            extension.handleOptimizeRequestContent(testEvent);
+
+            // verify
+            final Map<String, List<DecisionScope>> updateEventIdsInProgress =
+                    extension.getUpdateRequestEventIdsInProgress();
+            Assert.assertNotNull(updateEventIdsInProgress);
+            Assert.assertEquals(1, updateEventIdsInProgress.size());
+            Assert.assertTrue(
+                    updateEventIdsInProgress.containsValue(
+                            new ArrayList<DecisionScope>() {
+                                {
+                                    add(testScope);
+                                }
+                            }));
+            Mockito.clearInvocations(mockExtensionApi);
+
+            // simulate get
+            final Map<String, Object> testGetEventData = new HashMap<>();
+            testGetEventData.put("requesttype", "getpropositions");
+            testGetEventData.put(
+                    "decisionscopes",
+                    new ArrayList<Map<String, Object>>() {
+                        {
+                            add(testScope.toEventData());
+                        }
+                    });
+
+            final Event testGetEvent =
+                    new Event.Builder(
+                                    "Optimize Get Propositions Request",
+                                    "com.adobe.eventType.optimize",
+                                    "com.adobe.eventSource.requestContent")
+                            .setEventData(testGetEventData)
+                            .build();
+
+            // simulate update complete
+            final Event testUpdateCompleteEvent =
+                    new Event.Builder(
+                                    "Optimize Update Propositions Complete",
+                                    "com.adobe.eventType.optimize",
+                                    "com.adobe.eventSource.contentComplete")
+                            .setEventData(
+                                    new HashMap<String, Object>() {
+                                        {
+                                            put(
+                                                    "completedUpdateRequestForEventId",
+                                                    updateEventIdsInProgress.keySet().toArray()[0]);
+                                        }
+                                    })
+                            .build();
+
+            final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+
+            // test
+            extension.handleOptimizeRequestContent(testGetEvent);
+            extension.handleUpdatePropositionsCompleted(testUpdateCompleteEvent);
+
+            // verify
+            Mockito.verify(mockExtensionApi, Mockito.after(2000L).times(1))
+                    .dispatch(eventCaptor.capture());
+            final Event dispatchedEvent = eventCaptor.getValue();
+            Assert.assertEquals("Optimize Response", dispatchedEvent.getName());
+            Assert.assertEquals("com.adobe.eventType.optimize", dispatchedEvent.getType());
+            Assert.assertEquals(
+                    "com.adobe.eventSource.responseContent", dispatchedEvent.getSource());
+        }
+    }
+
+    @Test
+    public void testHandleGetPropositions_prefetchEnabled_dispatchesPrefetchRequest() {
+        try (MockedStatic<Base64> base64MockedStatic = Mockito.mockStatic(Base64.class)) {
+            base64MockedStatic
+                    .when(
+                            () ->
+                                    Base64.decode(
+                                            ArgumentMatchers.anyString(),
+                                            ArgumentMatchers.anyInt()))
+                    .thenAnswer(
+                            (Answer<byte[]>)
+                                    invocation ->
+                                            java.util.Base64.getDecoder()
+                                                    .decode((String) invocation.getArguments()[0]));
+
+            // setup
+            setConfigurationSharedState(
+                    SharedStateStatus.SET,
+                    new HashMap<String, Object>() {
+                        {
+                            put("edge.configId", "ffffffff-ffff-ffff-ffff-ffffffffffff");
+                            put("optimize.prefetchEnabled", true);
+                        }
+                    });
+
+            final DecisionScope testScope = new DecisionScope("myMbox1");
+            final DecisionScope predictedScope = new DecisionScope("myMbox2");
+            final ScopePrefetcher mockScopePrefetcher = Mockito.mock(ScopePrefetcher.class);
+            Mockito.when(mockScopePrefetcher.recordRequest(ArgumentMatchers.anyList()))
+                    .thenReturn(
+                            new ArrayList<DecisionScope>() {
+                                {
+                                    add(predictedScope);
+                                }
+                            });
+            extension.setScopePrefetcher(mockScopePrefetcher);
+
+            final Map<String, Object> testXdm = new HashMap<>();
+            testXdm.put("myXdmKey", "myXdmValue");
+            final Map<String, Object> testData = new HashMap<>();
+            testData.put("myKey", "myValue");
+            final Map<String, Object> testContext = new HashMap<>();
+            testContext.put("xdm", testXdm);
+            testContext.put("data", testData);
+            extension.getScopeRequestContexts().put(predictedScope, testContext);
+
+            final Map<String, Object> testGetEventData = new HashMap<>();
+            testGetEventData.put("requesttype", "getpropositions");
+            testGetEventData.put(
+                    "decisionscopes",
+                    new ArrayList<Map<String, Object>>() {
+                        {
+                            add(testScope.toEventData());
+                        }
+                    });
+            final Event testGetEvent =
+                    new Event.Builder(
+                                    "Optimize Get Propositions Request",
+                                    "com.adobe.eventType.optimize",
+                                    "com.adobe.eventSource.requestContent")
+                            .setEventData(testGetEventData)
+                            .build();
+
+            final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+
+            // test
+            extension.handleGetPropositions(testGetEvent);
+
+            // verify
+            Mockito.verify(mockExtensionApi, Mockito.times(2)).dispatch(eventCaptor.capture());
+            final List<Event> dispatchedEvents = eventCaptor.getAllValues();
+            Assert.assertEquals("Optimize Response", dispatchedEvents.get(0).getName());
+
+            final Event prefetchEvent = dispatchedEvents.get(1);
+            Assert.assertEquals("Optimize Prefetch Propositions Request", prefetchEvent.getName());
+            Assert.assertEquals("com.adobe.eventType.optimize", prefetchEvent.getType());
+            Assert.assertEquals(
+                    "com.adobe.eventSource.requestContent", prefetchEvent.getSource());
+            Assert.assertEquals(
+                    "updatepropositions", prefetchEvent.getEventData().get("requesttype"));
+            final List<Map<String, Object>> prefetchScopes =
+                    (List<Map<String, Object>>) prefetchEvent.getEventData().get("decisionscopes");
+            Assert.assertEquals(1, prefetchScopes.size());
+            Assert.assertEquals(predictedScope, DecisionScope.fromEventData(prefetchScopes.get(0)));
+            Assert.assertEquals("background", prefetchEvent.getEventData().get("requestpriority"));
+            Assert.assertEquals(testXdm, prefetchEvent.getEventData().get("xdm"));
+            Assert.assertEquals(testData, prefetchEvent.getEventData().get("data"));
+        }
+    }
+
+    @Test
+    public void testHandleGetPropositions_prefetchEnabled_scopeWithoutRequestContext() {
+        try (MockedStatic<Base64> base64MockedStatic = Mockito.mockStatic(Base64.class)) {
+            base64MockedStatic
+                    .when(
+                            () ->
+                                    Base64.decode(
+                                            ArgumentMatchers.anyString(),
+                                            ArgumentMatchers.anyInt()))
+                    .thenAnswer(
+                            (Answer<byte[]>)
+                                    invocation ->
+                                            java.util.Base64.getDecoder()
+                                                    .decode((String) invocation.getArguments()[0]));
+
+            // setup
+            setConfigurationSharedState(
+                    SharedStateStatus.SET,
+                    new HashMap<String, Object>() {
+                        {
+                            put("edge.configId", "ffffffff-ffff-ffff-ffff-ffffffffffff");
+                            put("optimize.prefetchEnabled", true);
+                        }
+                    });
+
+            final ScopePrefetcher mockScopePrefetcher = Mockito.mock(ScopePrefetcher.class);
+            Mockito.when(mockScopePrefetcher.recordRequest(ArgumentMatchers.anyList()))
+                    .thenReturn(Collections.singletonList(new DecisionScope("myMbox2")));
+            extension.setScopePrefetcher(mockScopePrefetcher);
+
+            final Map<String, Object> testGetEventData = new HashMap<>();
+            testGetEventData.put("requesttype", "getpropositions");
+            testGetEventData.put(
+                    "decisionscopes",
+                    new ArrayList<Map<String, Object>>() {
+                        {
+                            add(new DecisionScope("myMbox1").toEventData());
+                        }
+                    });
+            final Event testGetEvent =
+                    new Event.Builder(
+                                    "Optimize Get Propositions Request",
+                                    "com.adobe.eventType.optimize",
+                                    "com.adobe.eventSource.requestContent")
+                            .setEventData(testGetEventData)
+                            .build();
+
+            final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+
+            // test
+            extension.handleGetPropositions(testGetEvent);
+
+            // verify
+            Mockito.verify(mockExtensionApi, Mockito.times(1)).dispatch(eventCaptor.capture());
+            Assert.assertEquals("Optimize Response", eventCaptor.getValue().getName());
+        }
+    }
+
+    @Test
+    public void testHandleGetPropositions_prefetchDisabled_doesNotRecordRequest() {
+        try (MockedStatic<Base64> base64MockedStatic = Mockito.mockStatic(Base64.class)) {
+            base64MockedStatic
+                    .when(
+                            () ->
+                                    Base64.decode(
+                                            ArgumentMatchers.anyString(),
+                                            ArgumentMatchers.anyInt()))
+                    .thenAnswer(
+                            (Answer<byte[]>)
+                                    invocation ->
+                                            java.util.Base64.getDecoder()
+                                                    .decode((String) invocation.getArguments()[0]));
+
+            // setup
+            setConfigurationSharedState(
+                    SharedStateStatus.SET,
+                    new HashMap<String, Object>() {
+                        {
+                            put("edge.configId", "ffffffff-ffff-ffff-ffff-ffffffffffff");
+                        }
+                    });
+
+            final ScopePrefetcher mockScopePrefetcher = Mockito.mock(ScopePrefetcher.class);
+            extension.setScopePrefetcher(mockScopePrefetcher);
+
+            final Map<String, Object> testGetEventData = new HashMap<>();
+            testGetEventData.put("requesttype", "getpropositions");
+            testGetEventData.put(
+                    "decisionscopes",
+                    new ArrayList<Map<String, Object>>() {
+                        {
+                            add(new DecisionScope("myMbox1").toEventData());
+                        }
+                    });
+            final Event testGetEvent =
+                    new Event.Builder(
+                                    "Optimize Get Propositions Request",
+                                    "com.adobe.eventType.optimize",
+                                    "com.adobe.eventSource.requestContent")
+                            .setEventData(testGetEventData)
+                            .build();
+
+            // test
+            extension.handleGetPropositions(testGetEvent);
+
+            // verify
+            Mockito.verify(mockExtensionApi, Mockito.times(1))
+                    .dispatch(ArgumentMatchers.any(Event.class));
+            Mockito.verifyNoInteractions(mockScopePrefetcher);
+        }
+    }
+
+    @Test
+    public void testHandleGetPropositions_refreshIntervalConfigured_configuresScheduler() {
+        try (MockedStatic<Base64> base64MockedStatic = Mockito.mockStatic(Base64.class)) {
+            base64MockedStatic
+                    .when(
+                            () ->
+                                    Base64.decode(
+                                            ArgumentMatchers.anyString(),
+                                            ArgumentMatchers.anyInt()))
+                    .thenAnswer(
+                            (Answer<byte[]>)
+                                    invocation ->
+                                            java.util.Base64.getDecoder()
+                                                    .decode((String) invocation.getArguments()[0]));
+
+            // setup
+            setConfigurationSharedState(
+                    SharedStateStatus.SET,
+                    new HashMap<String, Object>() {
+                        {
+                            put("edge.configId", "ffffffff-ffff-ffff-ffff-ffffffffffff");
+                            put("optimize.refreshInterval", 300L);
+                            put("optimize.refreshScopeCount", 2);
+                        }
+                    });
+
+            final PropositionsRefreshScheduler mockRefreshScheduler =
+                    Mockito.mock(PropositionsRefreshScheduler.class);
+            extension.setRefreshScheduler(mockRefreshScheduler);
+
+            final DecisionScope testScope = new DecisionScope("myMbox1");
+            final Map<String, Object> testGetEventData = new HashMap<>();
+            testGetEventData.put("requesttype", "getpropositions");
+            testGetEventData.put(
+                    "decisionscopes",
+                    new ArrayList<Map<String, Object>>() {
+                        {
+                            add(testScope.toEventData());
+                        }
+                    });
+            final Event testGetEvent =
+                    new Event.Builder(
+                                    "Optimize Get Propositions Request",
+                                    "com.adobe.eventType.optimize",
+                                    "com.adobe.eventSource.requestContent")
+                            .setEventData(testGetEventData)
+                            .build();
+
+            // test
+            extension.handleGetPropositions(testGetEvent);
+
+            // verify
+            Mockito.verify(mockRefreshScheduler, Mockito.times(1))
+                    .recordRead(Collections.singletonList(testScope));
+            Mockito.verify(mockRefreshScheduler, Mockito.times(1)).configure(300L, 2);
+        }
+    }
+
+    @Test
+    public void testHandleGetPropositions_persistentCacheEnabled_loadsFromSnapshot()
+            throws Exception {
+        try (MockedStatic<Base64> base64MockedStatic = Mockito.mockStatic(Base64.class)) {
+            base64MockedStatic
+                    .when(
+                            () ->
+                                    Base64.decode(
+                                            ArgumentMatchers.anyString(),
+                                            ArgumentMatchers.anyInt()))
+                    .thenAnswer(
+                            (Answer<byte[]>)
+                                    invocation ->
+                                            java.util.Base64.getDecoder()
+                                                    .decode((String) invocation.getArguments()[0]));
+
+            // setup
+            setConfigurationSharedState(
+                    SharedStateStatus.SET,
+                    new HashMap<String, Object>() {
+                        {
+                            put("edge.configId", "ffffffff-ffff-ffff-ffff-ffffffffffff");
+                            put("optimize.persistentCacheEnabled", true);
+                        }
+                    });
+
+            final Map<String, Object> testPropositionData =
+                    new ObjectMapper()
+                            .readValue(
+                                    getClass()
+                                            .getClassLoader()
+                                            .getResource("json/PROPOSITION_VALID.json"),
+                                    HashMap.class);
+            final OptimizeProposition testProposition =
+                    OptimizeProposition.fromEventData(testPropositionData);
+            final DecisionScope testScope = new DecisionScope("myMbox1");
+
+            final PropositionsSnapshot mockPropositionsSnapshot =
+                    Mockito.mock(PropositionsSnapshot.class);
+            Mockito.when(mockPropositionsSnapshot.load(testScope)).thenReturn(testProposition);
+            extension.setPropositionsSnapshot(mockPropositionsSnapshot);
+
+            final Map<String, Object> testGetEventData = new HashMap<>();
+            testGetEventData.put("requesttype", "getpropositions");
+            testGetEventData.put(
+                    "decisionscopes",
+                    new ArrayList<Map<String, Object>>() {
+                        {
+                            add(testScope.toEventData());
+                        }
+                    });
+            final Event testGetEvent =
+                    new Event.Builder(
+                                    "Optimize Get Propositions Request",
+                                    "com.adobe.eventType.optimize",
+                                    "com.adobe.eventSource.requestContent")
+                            .setEventData(testGetEventData)
+                            .build();
+
+            // test
+            extension.handleGetPropositions(testGetEvent);
+
+            // verify
+            Assert.assertEquals(testProposition, extension.getCachedPropositions().get(testScope));
+
+            final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+            Mockito.verify(mockExtensionApi, Mockito.times(1)).dispatch(eventCaptor.capture());
+            final List<Map<String, Object>> propositionsList =
+                    (List<Map<String, Object>>)
+                            eventCaptor.getValue().getEventData().get("propositions");
+            Assert.assertEquals(1, propositionsList.size());
+            Assert.assertEquals(
+                    testProposition, OptimizeProposition.fromEventData(propositionsList.get(0)));
+        }
+    }
+
+    @Test
+    public void testHandleGetPropositions_sharedCacheEnabled_syncsChangedSnapshot()
+            throws Exception {
+        try (MockedStatic<Base64> base64MockedStatic = Mockito.mockStatic(Base64.class)) {
+            base64MockedStatic
+                    .when(
+                            () ->
+                                    Base64.decode(
+                                            ArgumentMatchers.anyString(),
+                                            ArgumentMatchers.anyInt()))
+                    .thenAnswer(
+                            (Answer<byte[]>)
+                                    invocation ->
+                                            java.util.Base64.getDecoder()
+                                                    .decode((String) invocation.getArguments()[0]));
+
+            // setup
+            setConfigurationSharedState(
+                    SharedStateStatus.SET,
+                    new HashMap<String, Object>() {
+                        {
+                            put("edge.configId", "ffffffff-ffff-ffff-ffff-ffffffffffff");
+                            put("optimize.sharedCacheEnabled", true);
+                        }
+                    });
+
+            final Map<String, Object> testPropositionData =
+                    new ObjectMapper()
+                            .readValue(
+                                    getClass()
+                                            .getClassLoader()
+                                            .getResource("json/PROPOSITION_VALID.json"),
+                                    HashMap.class);
+            final OptimizeProposition testProposition =
+                    OptimizeProposition.fromEventData(testPropositionData);
+            final OptimizeProposition staleProposition =
+                    new OptimizeProposition("staleId", null, "myMbox1", null);
+            final DecisionScope testScope = new DecisionScope("myMbox1");
+            final DecisionScope removedScope = new DecisionScope("myMbox2");
+            final Map<DecisionScope, OptimizeProposition> cachedPropositions =
+                    new ConcurrentHashMap<>();
+            cachedPropositions.put(testScope, staleProposition);
+            cachedPropositions.put(
+                    removedScope, new OptimizeProposition("removedId", null, "myMbox2", null));
+            extension.setCachedPropositions(cachedPropositions);
+
+            // The snapshot was written by another process.
+            final PropositionsSnapshot mockPropositionsSnapshot =
+                    Mockito.mock(PropositionsSnapshot.class);
+            Mockito.when(mockPropositionsSnapshot.refresh()).thenReturn(true);
+            Mockito.when(mockPropositionsSnapshot.load(testScope)).thenReturn(testProposition);
+            extension.setPropositionsSnapshot(mockPropositionsSnapshot);
+
+            final Map<String, Object> testGetEventData = new HashMap<>();
+            testGetEventData.put("requesttype", "getpropositions");
+            testGetEventData.put(
+                    "decisionscopes",
+                    new ArrayList<Map<String, Object>>() {
+                        {
+                            add(testScope.toEventData());
+                        }
+                    });
+            final Event testGetEvent =
+                    new Event.Builder(
+                                    "Optimize Get Propositions Request",
+                                    "com.adobe.eventType.optimize",
+                                    "com.adobe.eventSource.requestContent")
+                            .setEventData(testGetEventData)
+                            .build();
+
+            // test
+            extension.handleGetPropositions(testGetEvent);
+
+            // verify
+            Assert.assertEquals(testProposition, extension.getCachedPropositions().get(testScope));
+            Assert.assertFalse(extension.getCachedPropositions().containsKey(removedScope));
+
+            final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+            Mockito.verify(mockExtensionApi, Mockito.times(1)).dispatch(eventCaptor.capture());
+            final List<Map<String, Object>> propositionsList =
+                    (List<Map<String, Object>>)
+                            eventCaptor.getValue().getEventData().get("propositions");
+            Assert.assertEquals(1, propositionsList.size());
+            Assert.assertEquals(
+                    testProposition, OptimizeProposition.fromEventData(propositionsList.get(0)));
+        }
+    }
+
+    @Test
+    public void testHandleSharedStateUpdate_configuration_configuresScheduler() {
+        // setup
+        setConfigurationSharedState(
+                SharedStateStatus.SET,
+                new HashMap<String, Object>() {
+                    {
+                        put("edge.configId", "ffffffff-ffff-ffff-ffff-ffffffffffff");
+                        put("optimize.refreshInterval", 300L);
+                        put("optimize.refreshScopeCount", 2);
+                    }
+                });
+        final PropositionsRefreshScheduler mockRefreshScheduler =
+                Mockito.mock(PropositionsRefreshScheduler.class);
+        extension.setRefreshScheduler(mockRefreshScheduler);
+
+        final Event testEvent =
+                new Event.Builder(
+                                "Shared state change",
+                                "com.adobe.eventType.hub",
+                                "com.adobe.eventSource.sharedState")
+                        .setEventData(
+                                new HashMap<String, Object>() {
+                                    {
+                                        put("stateowner", "com.adobe.module.configuration");
+                                    }
+                                })
+                        .build();
+
+        // test
+        extension.handleSharedStateUpdate(testEvent);
+
+        // verify
+        Mockito.verify(mockRefreshScheduler, Mockito.times(1)).configure(300L, 2);
+    }
+
+    @Test
+    public void testHandleSharedStateUpdate_otherStateOwner() {
+        // setup
+        setConfigurationSharedState(
+                SharedStateStatus.SET,
+                new HashMap<String, Object>() {
+                    {
+                        put("edge.configId", "ffffffff-ffff-ffff-ffff-ffffffffffff");
+                        put("optimize.refreshInterval", 300L);
+                    }
+                });
+        final PropositionsRefreshScheduler mockRefreshScheduler =
+                Mockito.mock(PropositionsRefreshScheduler.class);
+        extension.setRefreshScheduler(mockRefreshScheduler);
+
+        final Event testEvent =
+                new Event.Builder(
+                                "Shared state change",
+                                "com.adobe.eventType.hub",
+                                "com.adobe.eventSource.sharedState")
+                        .setEventData(
+                                new HashMap<String, Object>() {
+                                    {
+                                        put("stateowner", "com.adobe.module.identity");
+                                    }
+                                })
+                        .build();
+
+        // test
+        extension.handleSharedStateUpdate(testEvent);
+
+        // verify
+        Mockito.verify(mockRefreshScheduler, Mockito.never())
+                .configure(ArgumentMatchers.anyLong(), ArgumentMatchers.anyInt());
+    }
+
+    @Test
+    public void testHandleLifecycleRequest_pauseAndStart() {
+        // setup
+        final PropositionsRefreshScheduler mockRefreshScheduler =
+                Mockito.mock(PropositionsRefreshScheduler.class);
+        extension.setRefreshScheduler(mockRefreshScheduler);
+        final ImpressionDeduplicator mockImpressionDeduplicator =
+                Mockito.mock(ImpressionDeduplicator.class);
+        extension.setImpressionDeduplicator(mockImpressionDeduplicator);
+        final ScopePrefetcher mockScopePrefetcher = Mockito.mock(ScopePrefetcher.class);
+        extension.setScopePrefetcher(mockScopePrefetcher);
+
+        final Event testPauseEvent =
+                new Event.Builder(
+                                "LifecyclePause",
+                                "com.adobe.eventType.generic.lifecycle",
+                                "com.adobe.eventSource.requestContent")
+                        .setEventData(
+                                new HashMap<String, Object>() {
+                                    {
+                                        put("action", "pause");
+                                    }
+                                })
+                        .build();
+        final Event testStartEvent =
+                new Event.Builder(
+                                "LifecycleResume",
+                                "com.adobe.eventType.generic.lifecycle",
+                                "com.adobe.eventSource.requestContent")
+                        .setEventData(
+                                new HashMap<String, Object>() {
+                                    {
+                                        put("action", "start");
+                                    }
+                                })
+                        .build();
+
+        // test
+        extension.handleLifecycleRequest(testPauseEvent);
+        extension.handleLifecycleRequest(testStartEvent);
+
+        // verify
+        final InOrder inOrder =
+                Mockito.inOrder(
+                        mockRefreshScheduler, mockImpressionDeduplicator, mockScopePrefetcher);
+        inOrder.verify(mockRefreshScheduler).setPaused(true);
+        inOrder.verify(mockImpressionDeduplicator).onLifecyclePause();
+        inOrder.verify(mockScopePrefetcher).persist();
+        inOrder.verify(mockRefreshScheduler).setPaused(false);
+        inOrder.verify(mockImpressionDeduplicator).onLifecycleStart();
+    }
+
+    @Test
+    public void
+            testHandleOptimizeRequestContent_HandleTrackPropositions_validPropositionInteractionsForDisplay()
+                    throws Exception {
+        // setup
+        setConfigurationSharedState(
+                SharedStateStatus.SET,
+                new HashMap<String, Object>() {
+                    {
+                        put("edge.configId", "ffffffff-ffff-ffff-ffff-ffffffffffff");
+                    }
+                });
+
+        final Map<String, Object> optimizeTrackRequestData =
+                new ObjectMapper()
+                        .readValue(
+                                getClass()
+                                        .getClassLoader()
+                                        .getResource(
+                                                "json/EVENT_DATA_OPTIMIZE_TRACK_REQUEST_VALID_DISPLAY.json"),
+                                HashMap.class);
+        final Event testEvent =
+                new Event.Builder(
+                                "Optimize Track Propositions Request",
+                                "com.adobe.eventType.optimize",
+                                "com.adobe.eventSource.requestContent")
+                        .setEventData(optimizeTrackRequestData)
+                        .build();
+
+        final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+
+        // test
+        extension.handleOptimizeRequestContent(testEvent);
+
+        // verify
+        Mockito.verify(mockExtensionApi, Mockito.times(1)).dispatch(eventCaptor.capture());
+
+        final Event dispatchedEvent = eventCaptor.getValue();
+        Assert.assertEquals("com.adobe.eventType.edge", dispatchedEvent.getType());
+        Assert.assertEquals("com.adobe.eventSource.requestContent", dispatchedEvent.getSource());
+        final Map<String, Object> eventData = dispatchedEvent.getEventData();
+        Assert.assertNotNull(eventData);
+        final Map<String, Object> propositionInteractionsXdm =
+                (Map<String, Object>) eventData.get("xdm");
+        Assert.assertNotNull(propositionInteractionsXdm);
+        Assert.assertEquals(
+                "decisioning.propositionDisplay", propositionInteractionsXdm.get("eventType"));
+        final Map<String, Object> experience =
+                (Map<String, Object>) propositionInteractionsXdm.get("_experience");
+        Assert.assertNotNull(experience);
+        final Map<String, Object> decisioning = (Map<String, Object>) experience.get("decisioning");
+        Assert.assertNotNull(decisioning);
+        final List<Map<String, Object>> propositionInteractionDetailsList =
+                (List<Map<String, Object>>) decisioning.get("propositions");
+        Assert.assertNotNull(propositionInteractionDetailsList);
+        Assert.assertEquals(1, propositionInteractionDetailsList.size());
+        final Map<String, Object> propositionInteractionDetailsMap =
+                propositionInteractionDetailsList.get(0);
+        Assert.assertEquals(
+                "aaaaaaaa-aaaa-aaaa-aaaa-aaaaaaaaaaaa", propositionInteractionDetailsMap.get("id"));
+        Assert.assertEquals(
+                "eyJhY3Rpdml0eUlkIjoieGNvcmU6b2ZmZXItYWN0aXZpdHk6MTExMTExMTExMTExMTExMSIsInBsYWNlbWVudElkIjoieGNvcmU6b2ZmZXItcGxhY2VtZW50OjExMTExMTExMTExMTExMTEifQ==",
+                propositionInteractionDetailsMap.get("scope"));
+        final Map<String, Object> scopeDetails =
+                (Map<String, Object>) propositionInteractionDetailsMap.get("scopeDetails");
+        Assert.assertNotNull(scopeDetails);
+        Assert.assertTrue(scopeDetails.isEmpty());
+        final List<Map<String, Object>> items =
+                (List<Map<String, Object>>) propositionInteractionDetailsMap.get("items");
+        Assert.assertNotNull(items);
+        Assert.assertEquals(1, items.size());
+        Assert.assertEquals("xcore:personalized-offer:1111111111111111", items.get(0).get("id"));
+    }
+
+    @Test
+    public void testHandleOptimizeRequestContent_HandleTrackPropositions_impressionDedupEnabled()
+            throws Exception {
+        // setup
+        setConfigurationSharedState(
+                SharedStateStatus.SET,
+                new HashMap<String, Object>() {
+                    {
+                        put("edge.configId", "ffffffff-ffff-ffff-ffff-ffffffffffff");
+                        put("optimize.impressionDedupEnabled", true);
+                    }
+                });
+
+        final Map<String, Object> optimizeTrackRequestData =
+                new ObjectMapper()
+                        .readValue(
+                                getClass()
+                                        .getClassLoader()
+                                        .getResource(
+                                                "json/EVENT_DATA_OPTIMIZE_TRACK_REQUEST_VALID_DISPLAY.json"),
+                                HashMap.class);
+        final Event testEvent =
+                new Event.Builder(
+                                "Optimize Track Propositions Request",
+                                "com.adobe.eventType.optimize",
+                                "com.adobe.eventSource.requestContent")
+                        .setEventData(optimizeTrackRequestData)
+                        .build();
+
+        // test
+        extension.handleOptimizeRequestContent(testEvent);
+        extension.handleOptimizeRequestContent(testEvent);
+
+        // verify
+        final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+        Mockito.verify(mockExtensionApi, Mockito.times(1)).dispatch(eventCaptor.capture());
+        Assert.assertEquals("com.adobe.eventType.edge", eventCaptor.getValue().getType());
+    }
+
+    @Test
+    public void testHandleOptimizeRequestContent_HandleTrackPropositions_impressionDedupDisabled()
+            throws Exception {
+        // setup
+        setConfigurationSharedState(
+                SharedStateStatus.SET,
+                new HashMap<String, Object>() {
+                    {
+                        put("edge.configId", "ffffffff-ffff-ffff-ffff-ffffffffffff");
+                    }
+                });
+
+        final Map<String, Object> optimizeTrackRequestData =
+                new ObjectMapper()
+                        .readValue(
+                                getClass()
+                                        .getClassLoader()
+                                        .getResource(
+                                                "json/EVENT_DATA_OPTIMIZE_TRACK_REQUEST_VALID_DISPLAY.json"),
+                                HashMap.class);
+        final Event testEvent =
+                new Event.Builder(
+                                "Optimize Track Propositions Request",
+                                "com.adobe.eventType.optimize",
+                                "com.adobe.eventSource.requestContent")
+                        .setEventData(optimizeTrackRequestData)
+                        .build();
+
+        // test
+        extension.handleOptimizeRequestContent(testEvent);
+        extension.handleOptimizeRequestContent(testEvent);
+
+        // verify
+        Mockito.verify(mockExtensionApi, Mockito.times(2))
+                .dispatch(ArgumentMatchers.any(Event.class));
+    }
+
+    @Test
+    public void testHandleOptimizeRequestContent_HandleTrackPropositionsById() throws Exception {
+        // setup
+        setConfigurationSharedState(
+                SharedStateStatus.SET,
+                new HashMap<String, Object>() {
+                    {
+                        put("edge.configId", "ffffffff-ffff-ffff-ffff-ffffffffffff");
+                    }
+                });
+
+        final Map<String, Object> testPropositionData =
+                new ObjectMapper()
+                        .readValue(
+                                getClass()
+                                        .getClassLoader()
+                                        .getResource("json/PROPOSITION_VALID_TARGET.json"),
+                                HashMap.class);
+        final OptimizeProposition testOptimizeProposition =
+                OptimizeProposition.fromEventData(testPropositionData);
+        Assert.assertNotNull(testOptimizeProposition);
+        final Map<DecisionScope, OptimizeProposition> cachedPropositions = new HashMap<>();
+        cachedPropositions.put(new DecisionScope("myMbox"), testOptimizeProposition);
+        extension.setCachedPropositions(cachedPropositions);
+
+        final Event testEvent =
+                createTrackByIdEvent(
+                        "AT:eyJhY3Rpdml0eUlkIjoiMTI1NTg5IiwiZXhwZXJpZW5jZUlkIjoiMCJ9",
+                        "246315",
+                        "tap");
+
+        // test
+        extension.handleOptimizeRequestContent(testEvent);
+
+        // verify
+        final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+        Mockito.verify(mockExtensionApi, Mockito.times(1)).dispatch(eventCaptor.capture());
+        final Event dispatchedEvent = eventCaptor.getValue();
+        Assert.assertEquals("com.adobe.eventType.edge", dispatchedEvent.getType());
+        Assert.assertEquals("com.adobe.eventSource.requestContent", dispatchedEvent.getSource());
+        Assert.assertEquals(
+                testOptimizeProposition.getOffers().get(0).generateTapInteractionXdm(),
+                dispatchedEvent.getEventData().get("xdm"));
+    }
+
+    @Test
+    public void testHandleOptimizeRequestContent_HandleTrackPropositionsById_notCached() {
+        // setup
+        setConfigurationSharedState(
+                SharedStateStatus.SET,
+                new HashMap<String, Object>() {
+                    {
+                        put("edge.configId", "ffffffff-ffff-ffff-ffff-ffffffffffff");
+                    }
+                });
+
+        final Event testEvent = createTrackByIdEvent("proposition1", "offer1", "display");
+
+        // test
+        extension.handleOptimizeRequestContent(testEvent);
+
+        // verify
+        Mockito.verify(mockExtensionApi, Mockito.never())
+                .dispatch(ArgumentMatchers.any(Event.class));
     }
 
     @Test
-    public void
-            testHandleOptimizeRequestContent_HandleTrackPropositions_validPropositionInteractionsForDisplay()
-                    throws Exception {
+    public void testHandleOptimizeRequestContent_HandleTrackPropositionsById_offerNotInProposition()
+            throws Exception {
         // setup
         setConfigurationSharedState(
                 SharedStateStatus.SET,
@@ -1639,65 +3212,32 @@ public class OptimizeExtensionTests {
                     }
                 });
 
-        final Map<String, Object> optimizeTrackRequestData =
+        final Map<String, Object> testPropositionData =
                 new ObjectMapper()
                         .readValue(
                                 getClass()
                                         .getClassLoader()
-                                        .getResource(
-                                                "json/EVENT_DATA_OPTIMIZE_TRACK_REQUEST_VALID_DISPLAY.json"),
+                                        .getResource("json/PROPOSITION_VALID_TARGET.json"),
                                 HashMap.class);
-        final Event testEvent =
-                new Event.Builder(
-                                "Optimize Track Propositions Request",
-                                "com.adobe.eventType.optimize",
-                                "com.adobe.eventSource.requestContent")
-                        .setEventData(optimizeTrackRequestData)
-                        .build();
+        final OptimizeProposition testOptimizeProposition =
+                OptimizeProposition.fromEventData(testPropositionData);
+        Assert.assertNotNull(testOptimizeProposition);
+        final Map<DecisionScope, OptimizeProposition> cachedPropositions = new HashMap<>();
+        cachedPropositions.put(new DecisionScope("myMbox"), testOptimizeProposition);
+        extension.setCachedPropositions(cachedPropositions);
 
-        final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+        final Event testEvent =
+                createTrackByIdEvent(
+                        "AT:eyJhY3Rpdml0eUlkIjoiMTI1NTg5IiwiZXhwZXJpZW5jZUlkIjoiMCJ9",
+                        "111111",
+                        "display");
 
         // test
         extension.handleOptimizeRequestContent(testEvent);
 
         // verify
-        Mockito.verify(mockExtensionApi, Mockito.times(1)).dispatch(eventCaptor.capture());
-
-        final Event dispatchedEvent = eventCaptor.getValue();
-        Assert.assertEquals("com.adobe.eventType.edge", dispatchedEvent.getType());
-        Assert.assertEquals("com.adobe.eventSource.requestContent", dispatchedEvent.getSource());
-        final Map<String, Object> eventData = dispatchedEvent.getEventData();
-        Assert.assertNotNull(eventData);
-        final Map<String, Object> propositionInteractionsXdm =
-                (Map<String, Object>) eventData.get("xdm");
-        Assert.assertNotNull(propositionInteractionsXdm);
-        Assert.assertEquals(
-                "decisioning.propositionDisplay", propositionInteractionsXdm.get("eventType"));
-        final Map<String, Object> experience =
-                (Map<String, Object>) propositionInteractionsXdm.get("_experience");
-        Assert.assertNotNull(experience);
-        final Map<String, Object> decisioning = (Map<String, Object>) experience.get("decisioning");
-        Assert.assertNotNull(decisioning);
-        final List<Map<String, Object>> propositionInteractionDetailsList =
-                (List<Map<String, Object>>) decisioning.get("propositions");
-        Assert.assertNotNull(propositionInteractionDetailsList);
-        Assert.assertEquals(1, propositionInteractionDetailsList.size());
-        final Map<String, Object> propositionInteractionDetailsMap =
-                propositionInteractionDetailsList.get(0);
-        Assert.assertEquals(
-                "aaaaaaaa-aaaa-aaaa-aaaa-aaaaaaaaaaaa", propositionInteractionDetailsMap.get("id"));
-        Assert.assertEquals(
-                "eyJhY3Rpdml0eUlkIjoieGNvcmU6b2ZmZXItYWN0aXZpdHk6MTExMTExMTExMTExMTExMSIsInBsYWNlbWVudElkIjoieGNvcmU6b2ZmZXItcGxhY2VtZW50OjExMTExMTExMTExMTExMTEifQ==",
-                propositionInteractionDetailsMap.get("scope"));
-        final Map<String, Object> scopeDetails =
-                (Map<String, Object>) propositionInteractionDetailsMap.get("scopeDetails");
-        Assert.assertNotNull(scopeDetails);
-        Assert.assertTrue(scopeDetails.isEmpty());
-        final List<Map<String, Object>> items =
-                (List<Map<String, Object>>) propositionInteractionDetailsMap.get("items");
-        Assert.assertNotNull(items);
-        Assert.assertEquals(1, items.size());
-        Assert.assertEquals("xcore:personalized-offer:1111111111111111", items.get(0).get("id"));
+        Mockito.verify(mockExtensionApi, Mockito.never())
+                .dispatch(ArgumentMatchers.any(Event.class));
     }
 
     @Test
@@ -2005,6 +3545,8 @@ public class OptimizeExtensionTests {
     @Test
     public void testHandleClearPropositions() throws Exception {
         // setup
+        final PropositionsCacheView cacheView = new PropositionsCacheView();
+        extension.setCacheView(cacheView);
         final Map<String, Object> testPropositionData =
                 new ObjectMapper()
                         .readValue(
@@ -2019,6 +3561,11 @@ public class OptimizeExtensionTests {
         cachedPropositions.put(
                 new DecisionScope(testOptimizeProposition.getScope()), testOptimizeProposition);
         extension.setCachedPropositions(cachedPropositions);
+        extension
+                .getScopeRequestContexts()
+                .put(
+                        new DecisionScope(testOptimizeProposition.getScope()),
+                        new HashMap<String, Object>());
 
         final Event testEvent =
                 new Event.Builder(
@@ -2027,6 +3574,9 @@ public class OptimizeExtensionTests {
                                 "com.adobe.eventSource.requestReset")
                         .build();
 
+        final ScopePrefetcher mockScopePrefetcher = Mockito.mock(ScopePrefetcher.class);
+        extension.setScopePrefetcher(mockScopePrefetcher);
+
         // test
         extension.handleClearPropositions(testEvent);
 
@@ -2034,6 +3584,80 @@ public class OptimizeExtensionTests {
         final Map<DecisionScope, OptimizeProposition> actualCachedPropositions =
                 extension.getCachedPropositions();
         Assert.assertTrue(actualCachedPropositions.isEmpty());
+        Assert.assertTrue(extension.getScopeRequestContexts().isEmpty());
+        Mockito.verify(mockScopePrefetcher, Mockito.never()).reset();
+        Assert.assertNull(cacheView.getProposition("de03ac85-802a-4331-a905-a57053164d35"));
+        Assert.assertNull(cacheView.getOffer("xcore:personalized-offer:1111111111111111"));
+        Assert.assertEquals(0, cacheView.size());
+    }
+
+    @Test
+    public void testHandleClearPropositions_notifiesSubscriptions() throws Exception {
+        // setup
+        final PropositionsSubscriptionRegistry mockSubscriptionRegistry =
+                Mockito.mock(PropositionsSubscriptionRegistry.class);
+        extension.setSubscriptionRegistry(mockSubscriptionRegistry);
+
+        final Event testEvent =
+                new Event.Builder(
+                                "Optimize Clear Propositions Request",
+                                "com.adobe.eventType.optimize",
+                                "com.adobe.eventSource.requestReset")
+                        .build();
+
+        // test
+        extension.handleClearPropositions(testEvent);
+
+        // verify
+        Mockito.verify(mockSubscriptionRegistry, Mockito.times(1))
+                .setCachedPropositions(
+                        ArgumentMatchers.<Map<DecisionScope, OptimizeProposition>>any());
+    }
+
+    @Test
+    public void testHandleClearPropositions_clearsSnapshotBeforeCache() throws Exception {
+        // setup
+        final Map<String, Object> testPropositionData =
+                new ObjectMapper()
+                        .readValue(
+                                getClass()
+                                        .getClassLoader()
+                                        .getResource("json/PROPOSITION_VALID.json"),
+                                HashMap.class);
+        final OptimizeProposition testOptimizeProposition =
+                OptimizeProposition.fromEventData(testPropositionData);
+        Assert.assertNotNull(testOptimizeProposition);
+        final Map<DecisionScope, OptimizeProposition> cachedPropositions = new HashMap<>();
+        cachedPropositions.put(
+                new DecisionScope(testOptimizeProposition.getScope()), testOptimizeProposition);
+        extension.setCachedPropositions(cachedPropositions);
+
+        final PropositionsSnapshot mockPropositionsSnapshot =
+                Mockito.mock(PropositionsSnapshot.class);
+        final List<Integer> cachedCountsOnSnapshotClear = new ArrayList<>();
+        Mockito.doAnswer(
+                        invocation -> {
+                            cachedCountsOnSnapshotClear.add(
+                                    extension.getCachedPropositions().size());
+                            return null;
+                        })
+                .when(mockPropositionsSnapshot)
+                .clear();
+        extension.setPropositionsSnapshot(mockPropositionsSnapshot);
+
+        final Event testEvent =
+                new Event.Builder(
+                                "Optimize Clear Propositions Request",
+                                "com.adobe.eventType.optimize",
+                                "com.adobe.eventSource.requestReset")
+                        .build();
+
+        // test
+        extension.handleClearPropositions(testEvent);
+
+        // verify
+        Assert.assertEquals(Collections.singletonList(1), cachedCountsOnSnapshotClear);
+        Assert.assertTrue(extension.getCachedPropositions().isEmpty());
     }
 
     @Test
@@ -2060,6 +3684,8 @@ public class OptimizeExtensionTests {
                                 "com.adobe.eventType.generic.identity",
                                 "com.adobe.eventSource.requestReset")
                         .build();
+        final ScopePrefetcher mockScopePrefetcher = Mockito.mock(ScopePrefetcher.class);
+        extension.setScopePrefetcher(mockScopePrefetcher);
 
         // test
         extension.handleClearPropositions(testEvent);
@@ -2068,11 +3694,89 @@ public class OptimizeExtensionTests {
         final Map<DecisionScope, OptimizeProposition> actualCachedPropositions =
                 extension.getCachedPropositions();
         Assert.assertTrue(actualCachedPropositions.isEmpty());
+        Mockito.verify(mockScopePrefetcher, Mockito.times(1)).reset();
+    }
+
+    @Test
+    public void testHandleClearPropositions_coreResetIdentities_prefetcherNotCreated() {
+        // setup
+        final NamedCollection mockDataStore = Mockito.mock(NamedCollection.class);
+        Mockito.when(mockDataStore.contains(ArgumentMatchers.anyString())).thenReturn(true);
+        final DataStoring mockDataStoreService = Mockito.mock(DataStoring.class);
+        Mockito.when(mockDataStoreService.getNamedCollection(ArgumentMatchers.anyString()))
+                .thenReturn(mockDataStore);
+        final ServiceProvider mockServiceProvider = Mockito.mock(ServiceProvider.class);
+        Mockito.when(mockServiceProvider.getDataStoreService()).thenReturn(mockDataStoreService);
+        extension.setPropositionsSnapshot(Mockito.mock(PropositionsSnapshot.class));
+
+        final Event testEvent =
+                new Event.Builder(
+                                "Reset Identities Request",
+                                "com.adobe.eventType.generic.identity",
+                                "com.adobe.eventSource.requestReset")
+                        .build();
+
+        try (MockedStatic<ServiceProvider> serviceProviderMockedStatic =
+                Mockito.mockStatic(ServiceProvider.class)) {
+            serviceProviderMockedStatic
+                    .when(ServiceProvider::getInstance)
+                    .thenReturn(mockServiceProvider);
+
+            // test
+            extension.handleClearPropositions(testEvent);
+        }
+
+        // verify
+        Mockito.verify(mockDataStore, Mockito.times(1))
+                .remove(OptimizeConstants.DataStoreKeys.SCOPE_TRANSITIONS);
+        Mockito.verify(mockDataStore, Mockito.never())
+                .getString(ArgumentMatchers.anyString(), ArgumentMatchers.any());
+        Mockito.verify(mockDataStore, Mockito.never())
+                .setString(ArgumentMatchers.anyString(), ArgumentMatchers.any());
+    }
+
+    @Test
+    public void testHandleUpdatePropositionsComplete_recordsScopesWithoutPropositions() {
+        // setup
+        final DecisionScope homeScope = new DecisionScope("homeScope");
+        final DecisionScope productScope = new DecisionScope("productScope");
+        final ScopePrefetcher scopePrefetcher = new ScopePrefetcher(null);
+        for (int i = 0; i < ScopePrefetcher.MIN_TRANSITION_COUNT; i++) {
+            scopePrefetcher.recordRequest(Collections.singletonList(homeScope));
+            scopePrefetcher.recordRequest(Collections.singletonList(productScope));
+        }
+        extension.setScopePrefetcher(scopePrefetcher);
+        extension.setUpdateRequestEventIdsInProgress(
+                "AAAAAAAA-AAAA-AAAA-AAAA-AAAAAAAAAAAA", Collections.singletonList(productScope));
+
+        final Event testEvent =
+                new Event.Builder(
+                                "Optimize Update Propositions Complete",
+                                "com.adobe.eventType.optimize",
+                                "com.adobe.eventSource.contentComplete")
+                        .setEventData(
+                                new HashMap<String, Object>() {
+                                    {
+                                        put(
+                                                "completedUpdateRequestForEventId",
+                                                "AAAAAAAA-AAAA-AAAA-AAAA-AAAAAAAAAAAA");
+                                    }
+                                })
+                        .build();
+
+        // test
+        extension.handleUpdatePropositionsCompleted(testEvent);
+
+        // verify
+        Assert.assertTrue(
+                scopePrefetcher.recordRequest(Collections.singletonList(homeScope)).isEmpty());
     }
 
     @Test
     public void testHandleUpdatePropositionsComplete_updatesPropositionsCache() throws Exception {
         // setup
+        final PropositionsCacheView cacheView = new PropositionsCacheView();
+        extension.setCacheView(cacheView);
         extension.setUpdateRequestEventIdsInProgress(
                 "AAAAAAAA-AAAA-AAAA-AAAA-AAAAAAAAAAAA",
                 new ArrayList<DecisionScope>() {
@@ -2111,14 +3815,131 @@ public class OptimizeExtensionTests {
                                     }
                                 })
                         .build();
+        final Map<DecisionScope, OptimizeProposition> previousCachedPropositions =
+                extension.getCachedPropositions();
+        final long previousVersion = extension.getCachedPropositionsVersion();
 
         // test
         extension.handleUpdatePropositionsCompleted(testEvent);
 
         // verify
         Assert.assertEquals(1, extension.getCachedPropositions().size());
+        Assert.assertEquals(previousVersion + 1, extension.getCachedPropositionsVersion());
+        Assert.assertTrue(previousCachedPropositions.isEmpty());
+        Assert.assertEquals(0, extension.getPropositionsInProgress().size());
+        Assert.assertEquals(0, extension.getUpdateRequestEventIdsInProgress().size());
+        Assert.assertSame(
+                testOptimizeProposition,
+                cacheView.getProposition("de03ac85-802a-4331-a905-a57053164d35"));
+        Assert.assertSame(
+                testOptimizeProposition.getOffers().get(0),
+                cacheView.getOffer("xcore:personalized-offer:1111111111111111"));
+        final DecisionScope scope = new DecisionScope(testOptimizeProposition.getScope());
+        Assert.assertSame(
+                testOptimizeProposition,
+                cacheView.peek(Collections.singletonList(scope)).get(scope));
+    }
+
+    @Test
+    public void testHandleUpdatePropositionsComplete_snapshotDisabled_clearsSnapshotOnce() {
+        // setup
+        setConfigurationSharedState(
+                SharedStateStatus.SET,
+                new HashMap<String, Object>() {
+                    {
+                        put("edge.configId", "ffffffff-ffff-ffff-ffff-ffffffffffff");
+                    }
+                });
+        final PropositionsSnapshot mockPropositionsSnapshot =
+                Mockito.mock(PropositionsSnapshot.class);
+        extension.setPropositionsSnapshot(mockPropositionsSnapshot);
+
+        final List<String> requestEventIds =
+                Arrays.asList(
+                        "AAAAAAAA-AAAA-AAAA-AAAA-AAAAAAAAAAAA",
+                        "BBBBBBBB-BBBB-BBBB-BBBB-BBBBBBBBBBBB");
+
+        // test
+        for (final String requestEventId : requestEventIds) {
+            extension.setUpdateRequestEventIdsInProgress(
+                    requestEventId, Collections.singletonList(new DecisionScope("myMbox")));
+            final Event testEvent =
+                    new Event.Builder(
+                                    "Optimize Update Propositions Complete",
+                                    "com.adobe.eventType.optimize",
+                                    "com.adobe.eventSource.contentComplete")
+                            .setEventData(
+                                    Collections.<String, Object>singletonMap(
+                                            "completedUpdateRequestForEventId", requestEventId))
+                            .build();
+            extension.handleUpdatePropositionsCompleted(testEvent);
+        }
+
+        // verify
+        Mockito.verify(mockPropositionsSnapshot, Mockito.times(1)).clear();
+        Mockito.verify(mockPropositionsSnapshot, Mockito.never())
+                .scheduleSave(ArgumentMatchers.any(), ArgumentMatchers.any());
+    }
+
+    @Test
+    public void testHandleUpdatePropositionsComplete_requestSentBeforeClearPropositions()
+            throws Exception {
+        // setup
+        final PropositionsCacheView cacheView = new PropositionsCacheView();
+        extension.setCacheView(cacheView);
+        extension.setUpdateRequestEventIdsInProgress(
+                "AAAAAAAA-AAAA-AAAA-AAAA-AAAAAAAAAAAA",
+                new ArrayList<DecisionScope>() {
+                    {
+                        add(
+                                new DecisionScope(
+                                        "eyJhY3Rpdml0eUlkIjoieGNvcmU6b2ZmZXItYWN0aXZpdHk6MTExMTExMTExMTExMTExMSIsInBsYWNlbWVudElkIjoieGNvcmU6b2ZmZXItcGxhY2VtZW50OjExMTExMTExMTExMTExMTEifQ=="));
+                    }
+                });
+        final Map<String, Object> testPropositionData =
+                new ObjectMapper()
+                        .readValue(
+                                getClass()
+                                        .getClassLoader()
+                                        .getResource("json/PROPOSITION_VALID.json"),
+                                HashMap.class);
+        final OptimizeProposition testOptimizeProposition =
+                OptimizeProposition.fromEventData(testPropositionData);
+        Assert.assertNotNull(testOptimizeProposition);
+        final Map<DecisionScope, OptimizeProposition> propositionsInProgress = new HashMap<>();
+        propositionsInProgress.put(
+                new DecisionScope(testOptimizeProposition.getScope()), testOptimizeProposition);
+        extension.setPropositionsInProgress(propositionsInProgress);
+        extension.handleClearPropositions(
+                new Event.Builder(
+                                "Optimize Clear Propositions Request",
+                                "com.adobe.eventType.optimize",
+                                "com.adobe.eventSource.requestReset")
+                        .build());
+
+        final Event testEvent =
+                new Event.Builder(
+                                "Optimize Update Propositions Complete",
+                                "com.adobe.eventType.optimize",
+                                "com.adobe.eventSource.contentComplete")
+                        .setEventData(
+                                new HashMap<String, Object>() {
+                                    {
+                                        put(
+                                                "completedUpdateRequestForEventId",
+                                                "AAAAAAAA-AAAA-AAAA-AAAA-AAAAAAAAAAAA");
+                                    }
+                                })
+                        .build();
+
+        // test
+        extension.handleUpdatePropositionsCompleted(testEvent);
+
+        // verify
+        Assert.assertEquals(0, extension.getCachedPropositions().size());
         Assert.assertEquals(0, extension.getPropositionsInProgress().size());
         Assert.assertEquals(0, extension.getUpdateRequestEventIdsInProgress().size());
+        Assert.assertNull(cacheView.getProposition("de03ac85-802a-4331-a905-a57053164d35"));
     }
 
     @Test
@@ -2210,6 +4031,96 @@ public class OptimizeExtensionTests {
     }
 
     // Helper methods
+    private Event createUpdatePropositionsEvent(final DecisionScope... scopes) {
+        final List<Map<String, Object>> scopesData = new ArrayList<>();
+        for (final DecisionScope scope : scopes) {
+            scopesData.add(scope.toEventData());
+        }
+        final Map<String, Object> testEventData = new HashMap<>();
+        testEventData.put("requesttype", "updatepropositions");
+        testEventData.put("decisionscopes", scopesData);
+        return new Event.Builder(
+                        "Optimize Update Propositions Request",
+                        "com.adobe.eventType.optimize",
+                        "com.adobe.eventSource.requestContent")
+                .setEventData(testEventData)
+                .build();
+    }
+
+    private List<String> getRequestedScopeNames(final Event edgeEvent) {
+        final Map<String, Object> query =
+                (Map<String, Object>) edgeEvent.getEventData().get("query");
+        final Map<String, Object> personalization =
+                (Map<String, Object>) query.get("personalization");
+        return (List<String>) personalization.get("decisionScopes");
+    }
+
+    private Event createDecisionsEvent(final String requestEventId, final String scope) {
+        final Map<String, Object> itemData = new HashMap<>();
+        itemData.put("id", "offer-" + scope);
+        itemData.put("format", "text/plain");
+        itemData.put("content", "Content for " + scope);
+        final Map<String, Object> item = new HashMap<>();
+        item.put("id", "offer-" + scope);
+        item.put("schema", "https://ns.adobe.com/personalization/text-content-item");
+        item.put("data", itemData);
+        final Map<String, Object> proposition = new HashMap<>();
+        proposition.put("id", "proposition-" + scope);
+        proposition.put("scope", scope);
+        proposition.put("items", Collections.singletonList(item));
+
+        final Map<String, Object> eventData = new HashMap<>();
+        eventData.put("payload", Collections.singletonList(proposition));
+        eventData.put("requestEventId", requestEventId);
+        eventData.put("type", "personalization:decisions");
+        return new Event.Builder(
+                        "AEP Response Event Handle",
+                        "com.adobe.eventType.edge",
+                        "personalization:decisions")
+                .setEventData(eventData)
+                .build();
+    }
+
+    private Event createCallbackEvent(final String requestEventId) {
+        return new Event.Builder(
+                        "AEP Response Complete",
+                        "com.adobe.eventType.edge",
+                        "com.adobe.eventSource.contentComplete")
+                .setEventData(Collections.singletonMap("requestEventId", requestEventId))
+                .build();
+    }
+
+    private Event createTrackByIdEvent(
+            final String propositionId, final String offerId, final String interactionType) {
+        final Map<String, Object> eventData = new HashMap<>();
+        eventData.put("requesttype", "trackpropositionsbyid");
+        eventData.put("propositionid", propositionId);
+        eventData.put("offerids", Collections.singletonList(offerId));
+        eventData.put("interactiontype", interactionType);
+        return new Event.Builder(
+                        "Optimize Track Propositions Request",
+                        "com.adobe.eventType.optimize",
+                        "com.adobe.eventSource.requestContent")
+                .setEventData(eventData)
+                .build();
+    }
+
+    private Event createRecoverableErrorEvent(
+            final String requestEventId, final int retryAfterSeconds) {
+        final Map<String, Object> eventData = new HashMap<>();
+        eventData.put("type", "https://ns.adobe.com/aep/errors/EXEG-0201-503");
+        eventData.put("status", 503);
+        eventData.put("title", "Service Unavailable");
+        eventData.put("report", Collections.singletonMap("retryAfter", retryAfterSeconds));
+        eventData.put("requestEventId", requestEventId);
+        return new Event.Builder(
+                        "AEP Error Response",
+                        "com.adobe.eventType.edge",
+                        "com.adobe.eventSource.errorResponseContent")
+                .setEventData(eventData)
+                .build();
+    }
+
     private void setConfigurationSharedState(
             final SharedStateStatus status, final Map<String, Object> data) {
         Mockito.when(
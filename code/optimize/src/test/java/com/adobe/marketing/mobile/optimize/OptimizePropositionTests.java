@@ -12,6 +12,7 @@
 package com.adobe.marketing.mobile.optimize;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -48,8 +49,8 @@ public class OptimizePropositionTests {
                 offer.getSchema());
         Assert.assertEquals(OfferType.HTML, offer.getType());
         Assert.assertEquals("<h1>This is a HTML content</h1>", offer.getContent());
-        Assert.assertNull(offer.getLanguage());
-        Assert.assertNull(offer.getCharacteristics());
+        Assert.assertTrue(offer.getLanguage().isEmpty());
+        Assert.assertTrue(offer.getCharacteristics().isEmpty());
     }
 
     @Test
@@ -100,8 +101,8 @@ public class OptimizePropositionTests {
                 "https://ns.adobe.com/personalization/json-content-item", offer.getSchema());
         Assert.assertEquals(OfferType.JSON, offer.getType());
         Assert.assertEquals("{\"testing\":\"ho-ho\"}", offer.getContent());
-        Assert.assertNull(offer.getLanguage());
-        Assert.assertNull(offer.getCharacteristics());
+        Assert.assertTrue(offer.getLanguage().isEmpty());
+        Assert.assertTrue(offer.getCharacteristics().isEmpty());
     }
 
     @Test
@@ -161,6 +162,54 @@ public class OptimizePropositionTests {
                 "de03ac85-802a-4331-a905-a57053164d35", decisioning.get("propositionID"));
     }
 
+    @Test
+    public void testGetReferenceXdm_reusesImmutableXdm() throws Exception {
+        // setup
+        Map<String, Object> propositionData =
+                new ObjectMapper()
+                        .readValue(
+                                getClass()
+                                        .getClassLoader()
+                                        .getResource("json/PROPOSITION_VALID.json"),
+                                HashMap.class);
+        final OptimizeProposition optimizeProposition =
+                OptimizeProposition.fromEventData(propositionData);
+        Assert.assertNotNull(optimizeProposition);
+
+        // test
+        final Map<String, Object> propositionReferenceXdm = optimizeProposition.getReferenceXdm();
+
+        // verify
+        Assert.assertSame(propositionReferenceXdm, optimizeProposition.getReferenceXdm());
+        Assert.assertEquals(propositionReferenceXdm, optimizeProposition.generateReferenceXdm());
+    }
+
+    @Test
+    public void testGenerateReferenceXdm_returnsMutableCopy() throws Exception {
+        // setup
+        Map<String, Object> propositionData =
+                new ObjectMapper()
+                        .readValue(
+                                getClass()
+                                        .getClassLoader()
+                                        .getResource("json/PROPOSITION_VALID.json"),
+                                HashMap.class);
+        final OptimizeProposition optimizeProposition =
+                OptimizeProposition.fromEventData(propositionData);
+        Assert.assertNotNull(optimizeProposition);
+
+        final Map<String, Object> propositionReferenceXdm =
+                optimizeProposition.generateReferenceXdm();
+
+        // test
+        propositionReferenceXdm.put("eventType", "myEventType");
+
+        // verify
+        Assert.assertEquals("myEventType", propositionReferenceXdm.get("eventType"));
+        Assert.assertNull(optimizeProposition.generateReferenceXdm().get("eventType"));
+        Assert.assertNull(optimizeProposition.getReferenceXdm().get("eventType"));
+    }
+
     @Test
     public void testGenerateReferenceXdm_validPropositionFromTarget() throws Exception {
         Map<String, Object> propositionData =
@@ -190,4 +239,154 @@ public class OptimizePropositionTests {
                 "AT:eyJhY3Rpdml0eUlkIjoiMTI1NTg5IiwiZXhwZXJpZW5jZUlkIjoiMCJ9",
                 decisioning.get("propositionID"));
     }
+
+    @Test
+    public void testGenerateInteractionXdm_multipleOffers() {
+        // setup
+        final List<Offer> offers = new ArrayList<>();
+        offers.add(new Offer.Builder("0", OfferType.TEXT, "Hello").build());
+        offers.add(new Offer.Builder("1", OfferType.TEXT, "World").build());
+        final Map<String, Object> scopeDetails = new HashMap<>();
+        scopeDetails.put("decisionProvider", "TGT");
+        final OptimizeProposition optimizeProposition =
+                new OptimizeProposition("proposition1", offers, "myMbox", scopeDetails);
+
+        // test
+        final Map<String, Object> propositionInteractionXdm =
+                optimizeProposition.generateInteractionXdm(
+                        "decisioning.propositionDisplay", offers);
+
+        // verify
+        Assert.assertEquals(
+                "decisioning.propositionDisplay", propositionInteractionXdm.get("eventType"));
+        final Map<String, Object> experience =
+                (Map<String, Object>) propositionInteractionXdm.get("_experience");
+        final Map<String, Object> decisioning = (Map<String, Object>) experience.get("decisioning");
+        final List<Map<String, Object>> propositions =
+                (List<Map<String, Object>>) decisioning.get("propositions");
+        Assert.assertEquals(1, propositions.size());
+        Assert.assertEquals("proposition1", propositions.get(0).get("id"));
+        Assert.assertEquals("myMbox", propositions.get(0).get("scope"));
+        Assert.assertEquals(scopeDetails, propositions.get(0).get("scopeDetails"));
+        final List<Map<String, Object>> items =
+                (List<Map<String, Object>>) propositions.get(0).get("items");
+        Assert.assertEquals(2, items.size());
+        Assert.assertEquals("0", items.get(0).get("id"));
+        Assert.assertEquals("1", items.get(1).get("id"));
+    }
+
+    @Test
+    public void testGenerateBatchInteractionXdm_groupsOffersByProposition() {
+        // setup
+        final Map<String, Object> scopeDetails = new HashMap<>();
+        scopeDetails.put("decisionProvider", "TGT");
+        final List<Offer> offers1 = new ArrayList<>();
+        offers1.add(new Offer.Builder("0", OfferType.TEXT, "Hello").build());
+        offers1.add(new Offer.Builder("1", OfferType.TEXT, "World").build());
+        final OptimizeProposition optimizeProposition1 =
+                new OptimizeProposition("proposition1", offers1, "myMbox1", scopeDetails);
+        final List<Offer> offers2 = new ArrayList<>();
+        offers2.add(new Offer.Builder("0", OfferType.TEXT, "Hi").build());
+        final OptimizeProposition optimizeProposition2 =
+                new OptimizeProposition("proposition2", offers2, "myMbox2", scopeDetails);
+
+        final List<Offer> displayedOffers = new ArrayList<>();
+        displayedOffers.add(optimizeProposition1.getOffers().get(0));
+        displayedOffers.add(optimizeProposition2.getOffers().get(0));
+        displayedOffers.add(optimizeProposition1.getOffers().get(1));
+        displayedOffers.add(new Offer.Builder("2", OfferType.TEXT, "Orphan").build());
+
+        // test
+        final Map<String, Object> propositionInteractionXdm =
+                OptimizeProposition.generateBatchInteractionXdm(
+                        "decisioning.propositionDisplay", displayedOffers);
+
+        // verify
+        Assert.assertEquals(
+                "decisioning.propositionDisplay", propositionInteractionXdm.get("eventType"));
+        final Map<String, Object> experience =
+                (Map<String, Object>) propositionInteractionXdm.get("_experience");
+        final Map<String, Object> decisioning = (Map<String, Object>) experience.get("decisioning");
+        final List<Map<String, Object>> propositions =
+                (List<Map<String, Object>>) decisioning.get("propositions");
+        Assert.assertEquals(2, propositions.size());
+
+        Assert.assertEquals("proposition1", propositions.get(0).get("id"));
+        Assert.assertSame(
+                optimizeProposition1.getScopeDetails(), propositions.get(0).get("scopeDetails"));
+        final List<Map<String, Object>> items1 =
+                (List<Map<String, Object>>) propositions.get(0).get("items");
+        Assert.assertEquals(2, items1.size());
+        Assert.assertEquals("0", items1.get(0).get("id"));
+        Assert.assertEquals("1", items1.get(1).get("id"));
+
+        Assert.assertEquals("proposition2", propositions.get(1).get("id"));
+        final List<Map<String, Object>> items2 =
+                (List<Map<String, Object>>) propositions.get(1).get("items");
+        Assert.assertEquals(1, items2.size());
+        Assert.assertEquals("0", items2.get(0).get("id"));
+    }
+
+    @Test
+    public void testGenerateBatchInteractionXdm_noOfferInProposition() {
+        // setup
+        final List<Offer> offers = new ArrayList<>();
+        offers.add(new Offer.Builder("0", OfferType.TEXT, "Hello").build());
+
+        // test
+        final Map<String, Object> propositionInteractionXdm =
+                OptimizeProposition.generateBatchInteractionXdm(
+                        "decisioning.propositionDisplay", offers);
+
+        // verify
+        Assert.assertNull(propositionInteractionXdm);
+    }
+
+    @Test
+    public void testEquals_samePropositionData() throws Exception {
+        // setup
+        Map<String, Object> propositionData =
+                new ObjectMapper()
+                        .readValue(
+                                getClass()
+                                        .getClassLoader()
+                                        .getResource("json/PROPOSITION_VALID_TARGET.json"),
+                                HashMap.class);
+
+        // test
+        final OptimizeProposition optimizeProposition =
+                OptimizeProposition.fromEventData(propositionData);
+        final OptimizeProposition otherOptimizeProposition =
+                OptimizeProposition.fromEventData(propositionData);
+
+        // verify
+        Assert.assertNotSame(optimizeProposition, otherOptimizeProposition);
+        Assert.assertEquals(optimizeProposition, otherOptimizeProposition);
+        Assert.assertEquals(optimizeProposition.hashCode(), otherOptimizeProposition.hashCode());
+    }
+
+    @Test
+    public void testEquals_differentOffers() throws Exception {
+        // setup
+        Map<String, Object> propositionData =
+                new ObjectMapper()
+                        .readValue(
+                                getClass()
+                                        .getClassLoader()
+                                        .getResource("json/PROPOSITION_VALID.json"),
+                                HashMap.class);
+        final OptimizeProposition optimizeProposition =
+                OptimizeProposition.fromEventData(propositionData);
+
+        // test
+        final OptimizeProposition otherOptimizeProposition =
+                new OptimizeProposition(
+                        optimizeProposition.getId(),
+                        null,
+                        optimizeProposition.getScope(),
+                        optimizeProposition.getScopeDetails());
+
+        // verify
+        Assert.assertNotEquals(optimizeProposition, otherOptimizeProposition);
+    }
 }
@@ -19,6 +19,7 @@ import com.adobe.marketing.mobile.MobileCore;
 import com.adobe.marketing.mobile.services.Log;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -536,6 +537,59 @@ public class OptimizeTests {
         }
     }
 
+    @Test
+    public void testGetPropositions_interactive() {
+        try (MockedStatic<MobileCore> mobileCoreMockedStatic =
+                        Mockito.mockStatic(MobileCore.class);
+                MockedStatic<Base64> base64MockedStatic = Mockito.mockStatic(Base64.class)) {
+            // setup
+            base64MockedStatic
+                    .when(
+                            () ->
+                                    Base64.decode(
+                                            ArgumentMatchers.anyString(),
+                                            ArgumentMatchers.anyInt()))
+                    .thenAnswer(
+                            (Answer<byte[]>)
+                                    invocation ->
+                                            java.util.Base64.getDecoder()
+                                                    .decode((String) invocation.getArguments()[0]));
+
+            // test
+            final List<DecisionScope> scopes = new ArrayList<>();
+            scopes.add(
+                    new DecisionScope(
+                            "eyJhY3Rpdml0eUlkIjoieGNvcmU6b2ZmZXItYWN0aXZpdHk6MTExMTExMTExMTExMTExMSIsInBsYWNlbWVudElkIjoieGNvcmU6b2ZmZXItcGxhY2VtZW50OjExMTExMTExMTExMTExMTEifQ=="));
+
+            Optimize.getPropositions(
+                    scopes,
+                    true,
+                    new AdobeCallbackWithError<Map<DecisionScope, OptimizeProposition>>() {
+                        @Override
+                        public void fail(AdobeError adobeError) {
+                            responseError = adobeError;
+                        }
+
+                        @Override
+                        public void call(Map<DecisionScope, OptimizeProposition> propositionsMap) {
+                            responseMap = propositionsMap;
+                        }
+                    });
+
+            // verify
+            final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+            mobileCoreMockedStatic.verify(
+                    () ->
+                            MobileCore.dispatchEventWithResponseCallback(
+                                    eventCaptor.capture(),
+                                    ArgumentMatchers.anyLong(),
+                                    ArgumentMatchers.any(AdobeCallbackWithError.class)));
+            final Map<String, Object> eventData = eventCaptor.getValue().getEventData();
+            Assert.assertEquals("getpropositions", eventData.get("requesttype"));
+            Assert.assertEquals("interactive", eventData.get("requestpriority"));
+        }
+    }
+
     @Test
     public void testGetPropositions_multipleValidDecisionScopes() {
         try (MockedStatic<MobileCore> mobileCoreMockedStatic =
@@ -714,6 +768,119 @@ public class OptimizeTests {
         }
     }
 
+    @Test
+    public void testPeekCachedPropositions() throws Exception {
+        // setup
+        final Map<String, Object> propositionData =
+                new ObjectMapper()
+                        .readValue(
+                                getClass()
+                                        .getClassLoader()
+                                        .getResource("json/PROPOSITION_VALID_TARGET.json"),
+                                HashMap.class);
+        final OptimizeProposition optimizeProposition =
+                OptimizeProposition.fromEventData(propositionData);
+        Assert.assertNotNull(optimizeProposition);
+        final DecisionScope scope = new DecisionScope(optimizeProposition.getScope());
+        final Map<DecisionScope, OptimizeProposition> cachedPropositions = new HashMap<>();
+        cachedPropositions.put(scope, optimizeProposition);
+        PropositionsCacheView.getInstance().publish(cachedPropositions, null);
+
+        try {
+            // test
+            final List<DecisionScope> scopes = new ArrayList<>();
+            scopes.add(scope);
+            scopes.add(new DecisionScope("myMbox2"));
+            final Map<DecisionScope, OptimizeProposition> propositions =
+                    Optimize.peekCachedPropositions(scopes);
+
+            // verify
+            Assert.assertEquals(1, propositions.size());
+            Assert.assertSame(optimizeProposition, propositions.get(scope));
+        } finally {
+            PropositionsCacheView.getInstance().publish(null, null);
+        }
+    }
+
+    @Test
+    public void testPeekCachedPropositions_emptyDecisionScopesList() {
+        try (MockedStatic<Log> logMockedStatic = Mockito.mockStatic(Log.class)) {
+            // test
+            final Map<DecisionScope, OptimizeProposition> propositions =
+                    Optimize.peekCachedPropositions(new ArrayList<DecisionScope>());
+
+            // verify
+            Assert.assertTrue(propositions.isEmpty());
+            logMockedStatic.verify(
+                    () ->
+                            Log.warning(
+                                    ArgumentMatchers.anyString(),
+                                    ArgumentMatchers.anyString(),
+                                    ArgumentMatchers.anyString()));
+        }
+    }
+
+    @Test
+    public void testPeekCachedOfferPropositionAndScopes() throws Exception {
+        // setup
+        final Map<String, Object> propositionData =
+                new ObjectMapper()
+                        .readValue(
+                                getClass()
+                                        .getClassLoader()
+                                        .getResource("json/PROPOSITION_VALID_TARGET.json"),
+                                HashMap.class);
+        final OptimizeProposition optimizeProposition =
+                OptimizeProposition.fromEventData(propositionData);
+        Assert.assertNotNull(optimizeProposition);
+        final DecisionScope scope = new DecisionScope(optimizeProposition.getScope());
+        final PropositionsCacheIndex cacheIndex = new PropositionsCacheIndex();
+        cacheIndex.put(scope, optimizeProposition, null);
+        PropositionsCacheView.getInstance()
+                .publish(Collections.singletonMap(scope, optimizeProposition), cacheIndex);
+
+        try {
+            // test
+            final Offer offer = Optimize.peekCachedOffer("246315");
+            final OptimizeProposition proposition =
+                    Optimize.peekCachedProposition(
+                            "AT:eyJhY3Rpdml0eUlkIjoiMTI1NTg5IiwiZXhwZXJpZW5jZUlkIjoiMCJ9");
+            final List<DecisionScope> scopes = Optimize.peekCachedScopesForActivity("125589");
+
+            // verify
+            Assert.assertSame(optimizeProposition.getOffers().get(0), offer);
+            Assert.assertSame(optimizeProposition, proposition);
+            Assert.assertEquals(Collections.singletonList(scope), scopes);
+            Assert.assertNull(Optimize.peekCachedOffer("246316"));
+            Assert.assertNull(Optimize.peekCachedProposition("AT:unknown"));
+            Assert.assertTrue(Optimize.peekCachedScopesForActivity("125590").isEmpty());
+        } finally {
+            PropositionsCacheView.getInstance().publish(null, null);
+        }
+    }
+
+    @Test
+    public void testPeekCachedOfferPropositionAndScopes_emptyId() {
+        try (MockedStatic<Log> logMockedStatic = Mockito.mockStatic(Log.class)) {
+            // test
+            final Offer offer = Optimize.peekCachedOffer("");
+            final OptimizeProposition proposition = Optimize.peekCachedProposition("");
+            final List<DecisionScope> scopes = Optimize.peekCachedScopesForActivity("");
+
+            // verify
+            Assert.assertNull(offer);
+            Assert.assertNull(proposition);
+            Assert.assertTrue(scopes.isEmpty());
+            logMockedStatic.verify(
+                    () ->
+                            Log.warning(
+                                    ArgumentMatchers.anyString(),
+                                    ArgumentMatchers.anyString(),
+                                    ArgumentMatchers.anyString()),
+                    Mockito.times(3));
+        }
+    }
+
     @Test
     public void testOnPropositionsUpdate_validProposition() throws Exception {
         try (MockedStatic<MobileCore> mobileCoreMockedStatic =
@@ -878,6 +1045,141 @@ public class OptimizeTests {
         }
     }
 
+    @Test
+    public void testDisplayed() throws Exception {
+        try (MockedStatic<MobileCore> mobileCoreMockedStatic =
+                Mockito.mockStatic(MobileCore.class)) {
+            // setup
+            final Map<String, Object> propositionData =
+                    new ObjectMapper()
+                            .readValue(
+                                    getClass()
+                                            .getClassLoader()
+                                            .getResource("json/PROPOSITION_VALID_TARGET.json"),
+                                    HashMap.class);
+            final OptimizeProposition optimizeProposition =
+                    OptimizeProposition.fromEventData(propositionData);
+            Assert.assertNotNull(optimizeProposition);
+
+            // test
+            Optimize.displayed(optimizeProposition.getOffers());
+
+            // verify
+            final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+            mobileCoreMockedStatic.verify(() -> MobileCore.dispatchEvent(eventCaptor.capture()));
+            final Event event = eventCaptor.getValue();
+
+            Assert.assertNotNull(event);
+            Assert.assertEquals("com.adobe.eventType.optimize", event.getType());
+            Assert.assertEquals("com.adobe.eventSource.requestContent", event.getSource());
+            final Map<String, Object> eventData = event.getEventData();
+            Assert.assertEquals("trackpropositions", eventData.get("requesttype"));
+            Assert.assertEquals(
+                    optimizeProposition.getOffers().get(0).generateDisplayInteractionXdm(),
+                    eventData.get("propositioninteractions"));
+        }
+    }
+
+    @Test
+    public void testGenerateDisplayInteractionXdm_emptyOffersList() {
+        try (MockedStatic<Log> logMockedStatic = Mockito.mockStatic(Log.class)) {
+            // test
+            final Map<String, Object> xdm =
+                    Optimize.generateDisplayInteractionXdm(new ArrayList<Offer>());
+
+            // verify
+            Assert.assertNull(xdm);
+            logMockedStatic.verify(
+                    () ->
+                            Log.warning(
+                                    ArgumentMatchers.anyString(),
+                                    ArgumentMatchers.anyString(),
+                                    ArgumentMatchers.anyString()));
+        }
+    }
+
+    @Test
+    public void testTrackDisplayed() {
+        try (MockedStatic<MobileCore> mobileCoreMockedStatic =
+                Mockito.mockStatic(MobileCore.class)) {
+            // test
+            Optimize.trackDisplayed("proposition1", "offer1", "", "offer2");
+
+            // verify
+            final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+            mobileCoreMockedStatic.verify(() -> MobileCore.dispatchEvent(eventCaptor.capture()));
+            final Event event = eventCaptor.getValue();
+
+            Assert.assertNotNull(event);
+            Assert.assertEquals("com.adobe.eventType.optimize", event.getType());
+            Assert.assertEquals("com.adobe.eventSource.requestContent", event.getSource());
+            final Map<String, Object> eventData = event.getEventData();
+            Assert.assertEquals("trackpropositionsbyid", eventData.get("requesttype"));
+            Assert.assertEquals("proposition1", eventData.get("propositionid"));
+            final List<String> offerIds = (List<String>) eventData.get("offerids");
+            Assert.assertEquals(2, offerIds.size());
+            Assert.assertEquals("offer1", offerIds.get(0));
+            Assert.assertEquals("offer2", offerIds.get(1));
+            Assert.assertEquals("display", eventData.get("interactiontype"));
+        }
+    }
+
+    @Test
+    public void testTrackTapped() {
+        try (MockedStatic<MobileCore> mobileCoreMockedStatic =
+                Mockito.mockStatic(MobileCore.class)) {
+            // test
+            Optimize.trackTapped("proposition1", "offer1");
+
+            // verify
+            final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+            mobileCoreMockedStatic.verify(() -> MobileCore.dispatchEvent(eventCaptor.capture()));
+            final Map<String, Object> eventData = eventCaptor.getValue().getEventData();
+            Assert.assertEquals("trackpropositionsbyid", eventData.get("requesttype"));
+            Assert.assertEquals("proposition1", eventData.get("propositionid"));
+            Assert.assertEquals(1, ((List<String>) eventData.get("offerids")).size());
+            Assert.assertEquals("tap", eventData.get("interactiontype"));
+        }
+    }
+
+    @Test
+    public void testTrackDisplayed_emptyPropositionId() {
+        try (MockedStatic<MobileCore> mobileCoreMockedStatic =
+                        Mockito.mockStatic(MobileCore.class);
+                MockedStatic<Log> logMockedStatic = Mockito.mockStatic(Log.class)) {
+            // test
+            Optimize.trackDisplayed("", "offer1");
+
+            // verify
+            mobileCoreMockedStatic.verifyNoInteractions();
+            logMockedStatic.verify(
+                    () ->
+                            Log.warning(
+                                    ArgumentMatchers.anyString(),
+                                    ArgumentMatchers.anyString(),
+                                    ArgumentMatchers.anyString()));
+        }
+    }
+
+    @Test
+    public void testTrackDisplayed_noValidOfferId() {
+        try (MockedStatic<MobileCore> mobileCoreMockedStatic =
+                        Mockito.mockStatic(MobileCore.class);
+                MockedStatic<Log> logMockedStatic = Mockito.mockStatic(Log.class)) {
+            // test
+            Optimize.trackDisplayed("proposition1", "", null);
+
+            // verify
+            mobileCoreMockedStatic.verifyNoInteractions();
+            logMockedStatic.verify(
+                    () ->
+                            Log.warning(
+                                    ArgumentMatchers.anyString(),
+                                    ArgumentMatchers.anyString(),
+                                    ArgumentMatchers.anyString()));
+        }
+    }
+
     @Test
     public void test_clearCachedPropositions() {
         try (MockedStatic<MobileCore> mobileCoreMockedStatic =
@@ -201,4 +201,111 @@ public class OptimizeUtilsTest {
     public void testConvertToAdobeError_unknownErrorCode() {
         Assert.assertEquals(AdobeError.UNEXPECTED_ERROR, OptimizeUtils.convertToAdobeError(123));
     }
+
+    @Test
+    public void testGetMap_returnsSameInstance() {
+        // setup
+        final Map<String, Object> nestedMap = new HashMap<>();
+        nestedMap.put("key", "value");
+        final Map<String, Object> data = new HashMap<>();
+        data.put("map", nestedMap);
+
+        // test
+        final Map<String, Object> map = OptimizeUtils.getMap(data, "map");
+
+        // verify
+        Assert.assertSame(nestedMap, map);
+        Assert.assertNull(OptimizeUtils.getMap(data, "missing"));
+        Assert.assertNull(OptimizeUtils.getMap(null, "map"));
+    }
+
+    @Test(expected = ClassCastException.class)
+    public void testGetMap_invalidValue() {
+        // setup
+        final Map<String, Object> data = new HashMap<>();
+        data.put("map", "value");
+
+        // test
+        OptimizeUtils.getMap(data, "map");
+    }
+
+    @Test
+    public void testGetList_returnsSameInstance() {
+        // setup
+        final List<Object> nestedList = new ArrayList<>();
+        nestedList.add(1);
+        final Map<String, Object> data = new HashMap<>();
+        data.put("list", nestedList);
+
+        // test
+        final List<?> list = OptimizeUtils.getList(data, "list");
+
+        // verify
+        Assert.assertSame(nestedList, list);
+        Assert.assertNull(OptimizeUtils.getList(data, "missing"));
+    }
+
+    @Test(expected = ClassCastException.class)
+    public void testGetList_invalidValue() {
+        // setup
+        final Map<String, Object> data = new HashMap<>();
+        data.put("list", new HashMap<>());
+
+        // test
+        OptimizeUtils.getList(data, "list");
+    }
+
+    @Test
+    public void testGetStringList() {
+        // setup
+        final List<Object> nestedList = new ArrayList<>();
+        nestedList.add("en-us");
+        final Map<String, Object> data = new HashMap<>();
+        data.put("list", nestedList);
+
+        // test
+        final List<String> list = OptimizeUtils.getStringList(data, "list");
+
+        // verify
+        Assert.assertSame(nestedList, list);
+    }
+
+    @Test(expected = ClassCastException.class)
+    public void testGetStringList_nonStringElement() {
+        // setup
+        final List<Object> nestedList = new ArrayList<>();
+        nestedList.add(1);
+        final Map<String, Object> data = new HashMap<>();
+        data.put("list", nestedList);
+
+        // test
+        OptimizeUtils.getStringList(data, "list");
+    }
+
+    @Test
+    public void testGetStringMap() {
+        // setup
+        final Map<String, Object> nestedMap = new HashMap<>();
+        nestedMap.put("key", "value");
+        final Map<String, Object> data = new HashMap<>();
+        data.put("map", nestedMap);
+
+        // test
+        final Map<String, String> map = OptimizeUtils.getStringMap(data, "map");
+
+        // verify
+        Assert.assertSame(nestedMap, map);
+    }
+
+    @Test(expected = ClassCastException.class)
+    public void testGetStringMap_nonStringValue() {
+        // setup
+        final Map<String, Object> nestedMap = new HashMap<>();
+        nestedMap.put("key", 1);
+        final Map<String, Object> data = new HashMap<>();
+        data.put("map", nestedMap);
+
+        // test
+        OptimizeUtils.getStringMap(data, "map");
+    }
 }
@@ -0,0 +1,215 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.optimize;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PropositionsCacheIndexTests {
+    @Test
+    public void testPut() throws Exception {
+        // setup
+        final PropositionsCacheIndex index = new PropositionsCacheIndex();
+        final DecisionScope scope = new DecisionScope("myMbox");
+        final Map<String, Object> propositionData =
+                new ObjectMapper()
+                        .readValue(
+                                getClass()
+                                        .getClassLoader()
+                                        .getResource("json/PROPOSITION_VALID_TARGET.json"),
+                                HashMap.class);
+        final Map<String, Object> offerData =
+                new ObjectMapper()
+                        .readValue(
+                                getClass()
+                                        .getClassLoader()
+                                        .getResource("json/OFFER_VALID_JSON_TARGET.json"),
+                                HashMap.class);
+        ((List<Map<String, Object>>) propositionData.get("items")).add(offerData);
+        final OptimizeProposition proposition = OptimizeProposition.fromEventData(propositionData);
+
+        // test
+        index.put(scope, proposition, null);
+
+        // verify
+        Assert.assertSame(
+                proposition,
+                index.getProposition(
+                        "AT:eyJhY3Rpdml0eUlkIjoiMTI1NTg5IiwiZXhwZXJpZW5jZUlkIjoiMCJ9"));
+        Assert.assertSame(proposition.getOffers().get(0), index.getOffer("246315"));
+        Assert.assertSame(proposition.getOffers().get(1), index.getOffer("222429"));
+        Assert.assertEquals(Collections.singletonList(scope), index.getScopes("125589"));
+    }
+
+    @Test
+    public void testPut_replacesPreviousProposition() throws Exception {
+        // setup
+        final PropositionsCacheIndex index = new PropositionsCacheIndex();
+        final DecisionScope scope = new DecisionScope("myMbox");
+        final Map<String, Object> previousPropositionData =
+                new ObjectMapper()
+                        .readValue(
+                                getClass()
+                                        .getClassLoader()
+                                        .getResource("json/PROPOSITION_VALID_TARGET.json"),
+                                HashMap.class);
+        final OptimizeProposition previousProposition =
+                OptimizeProposition.fromEventData(previousPropositionData);
+        index.put(scope, previousProposition, null);
+        final Map<String, Object> propositionData =
+                new ObjectMapper()
+                        .readValue(
+                                getClass()
+                                        .getClassLoader()
+                                        .getResource("json/PROPOSITION_VALID.json"),
+                                HashMap.class);
+        propositionData.put("scope", "myMbox");
+        propositionData.put(
+                "scopeDetails",
+                Collections.singletonMap(
+                        "activity",
+                        Collections.singletonMap("id", "xcore:offer-activity:1111111111111111")));
+        final OptimizeProposition proposition = OptimizeProposition.fromEventData(propositionData);
+
+        // test
+        index.put(scope, proposition, previousProposition);
+
+        // verify
+        Assert.assertNull(
+                index.getProposition(
+                        "AT:eyJhY3Rpdml0eUlkIjoiMTI1NTg5IiwiZXhwZXJpZW5jZUlkIjoiMCJ9"));
+        Assert.assertNull(index.getOffer("246315"));
+        Assert.assertTrue(index.getScopes("125589").isEmpty());
+        Assert.assertSame(
+                proposition, index.getProposition("de03ac85-802a-4331-a905-a57053164d35"));
+        Assert.assertSame(
+                proposition.getOffers().get(0),
+                index.getOffer("xcore:personalized-offer:1111111111111111"));
+        Assert.assertEquals(
+                Collections.singletonList(scope),
+                index.getScopes("xcore:offer-activity:1111111111111111"));
+    }
+
+    @Test
+    public void testPut_sameIdsForMultipleScopes() throws Exception {
+        // setup
+        final PropositionsCacheIndex index = new PropositionsCacheIndex();
+        final DecisionScope scope1 = new DecisionScope("myMbox");
+        final DecisionScope scope2 = new DecisionScope("myMbox2");
+        final Map<String, Object> propositionData =
+                new ObjectMapper()
+                        .readValue(
+                                getClass()
+                                        .getClassLoader()
+                                        .getResource("json/PROPOSITION_VALID_TARGET.json"),
+                                HashMap.class);
+        final OptimizeProposition proposition1 = OptimizeProposition.fromEventData(propositionData);
+        propositionData.put("id", "AT:eyJhY3Rpdml0eUlkIjoiMTI1NTg5IiwiZXhwZXJpZW5jZUlkIjoiMSJ9");
+        propositionData.put("scope", "myMbox2");
+        final OptimizeProposition proposition2 = OptimizeProposition.fromEventData(propositionData);
+
+        // test
+        index.put(scope1, proposition1, null);
+        index.put(scope2, proposition2, null);
+
+        // verify
+        Assert.assertSame(proposition2.getOffers().get(0), index.getOffer("246315"));
+        final List<DecisionScope> scopes = index.getScopes("125589");
+        Assert.assertEquals(2, scopes.size());
+        Assert.assertTrue(scopes.contains(scope1));
+        Assert.assertTrue(scopes.contains(scope2));
+
+        index.remove(scope2, proposition2);
+        Assert.assertSame(proposition1.getOffers().get(0), index.getOffer("246315"));
+        Assert.assertEquals(Collections.singletonList(scope1), index.getScopes("125589"));
+    }
+
+    @Test
+    public void testRemove() throws Exception {
+        // setup
+        final PropositionsCacheIndex index = new PropositionsCacheIndex();
+        final DecisionScope scope = new DecisionScope("myMbox");
+        final Map<String, Object> propositionData =
+                new ObjectMapper()
+                        .readValue(
+                                getClass()
+                                        .getClassLoader()
+                                        .getResource("json/PROPOSITION_VALID_TARGET.json"),
+                                HashMap.class);
+        final OptimizeProposition proposition = OptimizeProposition.fromEventData(propositionData);
+        index.put(scope, proposition, null);
+
+        // test
+        index.remove(scope, proposition);
+
+        // verify
+        Assert.assertNull(
+                index.getProposition(
+                        "AT:eyJhY3Rpdml0eUlkIjoiMTI1NTg5IiwiZXhwZXJpZW5jZUlkIjoiMCJ9"));
+        Assert.assertNull(index.getOffer("246315"));
+        Assert.assertTrue(index.getScopes("125589").isEmpty());
+    }
+
+    @Test
+    public void testClear() throws Exception {
+        // setup
+        final PropositionsCacheIndex index = new PropositionsCacheIndex();
+        final Map<String, Object> propositionData =
+                new ObjectMapper()
+                        .readValue(
+                                getClass()
+                                        .getClassLoader()
+                                        .getResource("json/PROPOSITION_VALID_TARGET.json"),
+                                HashMap.class);
+        index.put(
+                new DecisionScope("myMbox"),
+                OptimizeProposition.fromEventData(propositionData),
+                null);
+
+        // test
+        index.clear();
+
+        // verify
+        Assert.assertNull(
+                index.getProposition(
+                        "AT:eyJhY3Rpdml0eUlkIjoiMTI1NTg5IiwiZXhwZXJpZW5jZUlkIjoiMCJ9"));
+        Assert.assertNull(index.getOffer("246315"));
+        Assert.assertTrue(index.getScopes("125589").isEmpty());
+    }
+
+    @Test
+    public void testPut_noActivityInScopeDetails() throws Exception {
+        // setup
+        final PropositionsCacheIndex index = new PropositionsCacheIndex();
+        final Map<String, Object> propositionData =
+                new ObjectMapper()
+                        .readValue(
+                                getClass()
+                                        .getClassLoader()
+                                        .getResource("json/PROPOSITION_VALID.json"),
+                                HashMap.class);
+        final OptimizeProposition proposition = OptimizeProposition.fromEventData(propositionData);
+
+        // test
+        index.put(new DecisionScope(proposition.getScope()), proposition, null);
+
+        // verify
+        Assert.assertSame(
+                proposition, index.getProposition("de03ac85-802a-4331-a905-a57053164d35"));
+        Assert.assertTrue(index.getScopes("").isEmpty());
+    }
+}
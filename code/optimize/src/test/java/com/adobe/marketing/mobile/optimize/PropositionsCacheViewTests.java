@@ -0,0 +1,211 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.optimize;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PropositionsCacheViewTests {
+    @Test
+    public void testPeek() throws Exception {
+        // setup
+        final PropositionsCacheView cacheView = new PropositionsCacheView();
+        final Map<String, Object> propositionData1 =
+                new ObjectMapper()
+                        .readValue(
+                                getClass()
+                                        .getClassLoader()
+                                        .getResource("json/PROPOSITION_VALID.json"),
+                                HashMap.class);
+        final OptimizeProposition proposition1 =
+                OptimizeProposition.fromEventData(propositionData1);
+        final Map<String, Object> propositionData2 =
+                new ObjectMapper()
+                        .readValue(
+                                getClass()
+                                        .getClassLoader()
+                                        .getResource("json/PROPOSITION_VALID_TARGET.json"),
+                                HashMap.class);
+        final OptimizeProposition proposition2 =
+                OptimizeProposition.fromEventData(propositionData2);
+        final Map<DecisionScope, OptimizeProposition> cachedPropositions = new HashMap<>();
+        cachedPropositions.put(new DecisionScope("mbox1"), proposition1);
+        cachedPropositions.put(new DecisionScope("mbox2"), proposition2);
+        cacheView.publish(cachedPropositions, null);
+
+        // test
+        final Map<DecisionScope, OptimizeProposition> propositions =
+                cacheView.peek(
+                        Arrays.asList(new DecisionScope("mbox1"), new DecisionScope("mbox3")));
+
+        // verify
+        Assert.assertEquals(1, propositions.size());
+        Assert.assertSame(proposition1, propositions.get(new DecisionScope("mbox1")));
+    }
+
+    @Test
+    public void testPeek_nothingPublished() {
+        // setup
+        final PropositionsCacheView cacheView = new PropositionsCacheView();
+
+        // test
+        final Map<DecisionScope, OptimizeProposition> propositions =
+                cacheView.peek(Collections.singletonList(new DecisionScope("mbox1")));
+
+        // verify
+        Assert.assertTrue(propositions.isEmpty());
+    }
+
+    @Test
+    public void testPublish_replacesSnapshot() throws Exception {
+        // setup
+        final Map<String, Object> propositionData1 =
+                new ObjectMapper()
+                        .readValue(
+                                getClass()
+                                        .getClassLoader()
+                                        .getResource("json/PROPOSITION_VALID.json"),
+                                HashMap.class);
+        final PropositionsCacheView cacheView = new PropositionsCacheView();
+        cacheView.publish(
+                Collections.singletonMap(
+                        new DecisionScope("mbox1"),
+                        OptimizeProposition.fromEventData(propositionData1)),
+                null);
+        final Map<String, Object> propositionData2 =
+                new ObjectMapper()
+                        .readValue(
+                                getClass()
+                                        .getClassLoader()
+                                        .getResource("json/PROPOSITION_VALID_TARGET.json"),
+                                HashMap.class);
+        final OptimizeProposition proposition2 =
+                OptimizeProposition.fromEventData(propositionData2);
+
+        // test
+        cacheView.publish(
+                Collections.singletonMap(new DecisionScope("mbox2"), proposition2), null);
+
+        // verify
+        Assert.assertEquals(1, cacheView.size());
+        final Map<DecisionScope, OptimizeProposition> propositions =
+                cacheView.peek(
+                        Arrays.asList(new DecisionScope("mbox1"), new DecisionScope("mbox2")));
+        Assert.assertEquals(1, propositions.size());
+        Assert.assertSame(proposition2, propositions.get(new DecisionScope("mbox2")));
+    }
+
+    @Test
+    public void testPublish_laterCacheChangesNotVisible() throws Exception {
+        // setup
+        final Map<String, Object> propositionData2 =
+                new ObjectMapper()
+                        .readValue(
+                                getClass()
+                                        .getClassLoader()
+                                        .getResource("json/PROPOSITION_VALID_TARGET.json"),
+                                HashMap.class);
+        final PropositionsCacheView cacheView = new PropositionsCacheView();
+        final Map<String, Object> propositionData1 =
+                new ObjectMapper()
+                        .readValue(
+                                getClass()
+                                        .getClassLoader()
+                                        .getResource("json/PROPOSITION_VALID.json"),
+                                HashMap.class);
+        final OptimizeProposition proposition1 =
+                OptimizeProposition.fromEventData(propositionData1);
+        final VersionedPropositions publishedCache =
+                VersionedPropositions.EMPTY.update(
+                        Collections.singletonMap(new DecisionScope("mbox1"), proposition1),
+                        Collections.<DecisionScope>emptyList());
+        cacheView.publish(publishedCache.getPropositions(), null);
+
+        // test
+        final VersionedPropositions nextCache =
+                publishedCache.update(
+                        Collections.singletonMap(
+                                new DecisionScope("mbox2"),
+                                OptimizeProposition.fromEventData(propositionData2)),
+                        Collections.singletonList(new DecisionScope("mbox1")));
+
+        // verify
+        Assert.assertEquals(2L, nextCache.getVersion());
+        Assert.assertEquals(1, cacheView.size());
+        final Map<DecisionScope, OptimizeProposition> propositions =
+                cacheView.peek(
+                        Arrays.asList(new DecisionScope("mbox1"), new DecisionScope("mbox2")));
+        Assert.assertEquals(1, propositions.size());
+        Assert.assertSame(proposition1, propositions.get(new DecisionScope("mbox1")));
+    }
+
+    @Test
+    public void testPublish_cacheIndex() throws Exception {
+        // setup
+        final PropositionsCacheView cacheView = new PropositionsCacheView();
+        final Map<String, Object> propositionData =
+                new ObjectMapper()
+                        .readValue(
+                                getClass()
+                                        .getClassLoader()
+                                        .getResource("json/PROPOSITION_VALID_TARGET.json"),
+                                HashMap.class);
+        final OptimizeProposition proposition = OptimizeProposition.fromEventData(propositionData);
+        final PropositionsCacheIndex cacheIndex = new PropositionsCacheIndex();
+        cacheIndex.put(new DecisionScope("myMbox"), proposition, null);
+
+        // test
+        cacheView.publish(
+                Collections.singletonMap(new DecisionScope("myMbox"), proposition), cacheIndex);
+
+        // verify
+        Assert.assertSame(
+                proposition,
+                cacheView.getProposition(
+                        "AT:eyJhY3Rpdml0eUlkIjoiMTI1NTg5IiwiZXhwZXJpZW5jZUlkIjoiMCJ9"));
+        Assert.assertSame(proposition.getOffers().get(0), cacheView.getOffer("246315"));
+        Assert.assertEquals(
+                Collections.singletonList(new DecisionScope("myMbox")),
+                cacheView.getScopesForActivity("125589"));
+    }
+
+    @Test
+    public void testPublish_nullCache() throws Exception {
+        // setup
+        final Map<String, Object> propositionData1 =
+                new ObjectMapper()
+                        .readValue(
+                                getClass()
+                                        .getClassLoader()
+                                        .getResource("json/PROPOSITION_VALID.json"),
+                                HashMap.class);
+        final PropositionsCacheView cacheView = new PropositionsCacheView();
+        cacheView.publish(
+                Collections.singletonMap(
+                        new DecisionScope("mbox1"),
+                        OptimizeProposition.fromEventData(propositionData1)),
+                null);
+
+        // test
+        cacheView.publish(null, null);
+
+        // verify
+        Assert.assertEquals(0, cacheView.size());
+        Assert.assertTrue(
+                cacheView.peek(Collections.singletonList(new DecisionScope("mbox1"))).isEmpty());
+    }
+}
@@ -0,0 +1,269 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.optimize;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+@SuppressWarnings("unchecked")
+public class PropositionsRefreshSchedulerTests {
+    private final DecisionScope homeScope = new DecisionScope("homeScope");
+    private final DecisionScope productScope = new DecisionScope("productScope");
+    private final DecisionScope cartScope = new DecisionScope("cartScope");
+
+    @Mock PropositionsRefreshScheduler.RefreshHandler mockRefreshHandler;
+    @Mock ScheduledExecutorService mockExecutor;
+    @Mock ScheduledFuture<?> mockScheduledFuture;
+
+    private PropositionsRefreshScheduler scheduler;
+
+    @Before
+    public void setup() {
+        Mockito.doReturn(mockScheduledFuture)
+                .when(mockExecutor)
+                .schedule(
+                        ArgumentMatchers.any(Runnable.class),
+                        ArgumentMatchers.anyLong(),
+                        ArgumentMatchers.any(TimeUnit.class));
+        Mockito.when(mockRefreshHandler.isCached(ArgumentMatchers.any(DecisionScope.class)))
+                .thenReturn(true);
+        scheduler = new PropositionsRefreshScheduler(mockRefreshHandler, mockExecutor);
+    }
+
+    @Test
+    public void testConfigure_schedulesRefreshWithJitter() {
+        // test
+        scheduler.configure(60L, 2);
+
+        // verify
+        final ArgumentCaptor<Long> delayCaptor = ArgumentCaptor.forClass(Long.class);
+        Mockito.verify(mockExecutor, Mockito.times(1))
+                .schedule(
+                        ArgumentMatchers.any(Runnable.class),
+                        delayCaptor.capture(),
+                        ArgumentMatchers.eq(TimeUnit.MILLISECONDS));
+        Assert.assertTrue(delayCaptor.getValue() >= 54000L);
+        Assert.assertTrue(delayCaptor.getValue() <= 66000L);
+    }
+
+    @Test
+    public void testConfigure_intervalBelowMinimum() {
+        // test
+        scheduler.configure(1L, 2);
+
+        // verify
+        final ArgumentCaptor<Long> delayCaptor = ArgumentCaptor.forClass(Long.class);
+        Mockito.verify(mockExecutor, Mockito.times(1))
+                .schedule(
+                        ArgumentMatchers.any(Runnable.class),
+                        delayCaptor.capture(),
+                        ArgumentMatchers.eq(TimeUnit.MILLISECONDS));
+        Assert.assertTrue(delayCaptor.getValue() >= 27000L);
+    }
+
+    @Test
+    public void testConfigure_disabled() {
+        // test
+        scheduler.configure(0L, 2);
+
+        // verify
+        Mockito.verifyNoInteractions(mockExecutor);
+    }
+
+    @Test
+    public void testConfigure_sameIntervalDoesNotReschedule() {
+        // test
+        scheduler.configure(60L, 2);
+        scheduler.configure(60L, 3);
+
+        // verify
+        Mockito.verify(mockExecutor, Mockito.times(1))
+                .schedule(
+                        ArgumentMatchers.any(Runnable.class),
+                        ArgumentMatchers.anyLong(),
+                        ArgumentMatchers.any(TimeUnit.class));
+        Mockito.verify(mockScheduledFuture, Mockito.never())
+                .cancel(ArgumentMatchers.anyBoolean());
+    }
+
+    @Test
+    public void testRefresh_refreshesMostReadCachedScopesInOneBatch() {
+        // setup
+        Mockito.when(mockRefreshHandler.isCached(cartScope)).thenReturn(false);
+        scheduler.recordRead(Arrays.asList(homeScope, productScope, cartScope));
+        scheduler.recordRead(Arrays.asList(productScope, cartScope));
+        scheduler.recordRead(Collections.singletonList(cartScope));
+        scheduler.configure(60L, 1);
+
+        // test
+        runScheduledRefresh(0);
+
+        // verify
+        final ArgumentCaptor<List<DecisionScope>> scopesCaptor =
+                ArgumentCaptor.forClass(List.class);
+        Mockito.verify(mockRefreshHandler, Mockito.times(1)).refresh(scopesCaptor.capture());
+        Assert.assertEquals(Collections.singletonList(productScope), scopesCaptor.getValue());
+
+        // next refresh is scheduled
+        Mockito.verify(mockExecutor, Mockito.times(2))
+                .schedule(
+                        ArgumentMatchers.any(Runnable.class),
+                        ArgumentMatchers.anyLong(),
+                        ArgumentMatchers.any(TimeUnit.class));
+    }
+
+    @Test
+    public void testRefresh_decaysReadCounts() {
+        // setup
+        scheduler.recordRead(Arrays.asList(homeScope, productScope));
+        scheduler.recordRead(Collections.singletonList(productScope));
+        scheduler.configure(60L, 2);
+
+        // test
+        runScheduledRefresh(0);
+
+        // verify
+        Assert.assertEquals(Collections.singletonList(productScope), scheduler.getHotScopes());
+    }
+
+    @Test
+    public void testRecordRead_trackedScopesBounded() {
+        // setup
+        final List<DecisionScope> scopes = new ArrayList<>();
+        for (int i = 0; i < PropositionsRefreshScheduler.MAX_TRACKED_SCOPES; i++) {
+            scopes.add(new DecisionScope("scope" + i));
+        }
+        scheduler.recordRead(scopes);
+        scheduler.recordRead(scopes);
+        scheduler.configure(60L, PropositionsRefreshScheduler.MAX_TRACKED_SCOPES + 1);
+
+        // test
+        scheduler.recordRead(Collections.singletonList(homeScope));
+
+        // verify
+        final List<DecisionScope> hotScopes = scheduler.getHotScopes();
+        Assert.assertEquals(PropositionsRefreshScheduler.MAX_TRACKED_SCOPES, hotScopes.size());
+        Assert.assertFalse(hotScopes.contains(homeScope));
+    }
+
+    @Test
+    public void testRecordRead_forgottenScopesMakeRoom() {
+        // setup
+        final List<DecisionScope> scopes = new ArrayList<>();
+        for (int i = 0; i < PropositionsRefreshScheduler.MAX_TRACKED_SCOPES; i++) {
+            scopes.add(new DecisionScope("scope" + i));
+        }
+        scheduler.recordRead(scopes);
+        scheduler.configure(60L, PropositionsRefreshScheduler.MAX_TRACKED_SCOPES + 1);
+
+        // test
+        scheduler.recordRead(Collections.singletonList(homeScope));
+
+        // verify
+        Assert.assertEquals(Collections.singletonList(homeScope), scheduler.getHotScopes());
+    }
+
+    @Test
+    public void testRefresh_noReadScopes() {
+        // setup
+        scheduler.configure(60L, 2);
+
+        // test
+        runScheduledRefresh(0);
+
+        // verify
+        Mockito.verify(mockRefreshHandler, Mockito.never()).refresh(ArgumentMatchers.anyList());
+    }
+
+    @Test
+    public void testRefresh_afterReset() {
+        // setup
+        scheduler.recordRead(Collections.singletonList(homeScope));
+        scheduler.configure(60L, 2);
+        scheduler.reset();
+
+        // test
+        runScheduledRefresh(0);
+
+        // verify
+        Mockito.verify(mockRefreshHandler, Mockito.never()).refresh(ArgumentMatchers.anyList());
+    }
+
+    @Test
+    public void testSetPaused_cancelsScheduledRefresh() {
+        // setup
+        scheduler.recordRead(Collections.singletonList(homeScope));
+        scheduler.configure(60L, 2);
+
+        // test
+        scheduler.setPaused(true);
+        runScheduledRefresh(0);
+
+        // verify
+        Mockito.verify(mockScheduledFuture, Mockito.times(1)).cancel(false);
+        Mockito.verify(mockRefreshHandler, Mockito.never()).refresh(ArgumentMatchers.anyList());
+    }
+
+    @Test
+    public void testSetPaused_resumeSchedulesRefresh() {
+        // setup
+        scheduler.recordRead(Collections.singletonList(homeScope));
+        scheduler.configure(60L, 2);
+        scheduler.setPaused(true);
+
+        // test
+        scheduler.setPaused(false);
+        runScheduledRefresh(1);
+
+        // verify
+        Mockito.verify(mockRefreshHandler, Mockito.times(1))
+                .refresh(Collections.singletonList(homeScope));
+    }
+
+    @Test
+    public void testShutdown() {
+        // setup
+        scheduler.configure(60L, 2);
+
+        // test
+        scheduler.shutdown();
+
+        // verify
+        Mockito.verify(mockScheduledFuture, Mockito.times(1)).cancel(false);
+        Mockito.verify(mockExecutor, Mockito.times(1)).shutdown();
+    }
+
+    private void runScheduledRefresh(final int index) {
+        final ArgumentCaptor<Runnable> runnableCaptor = ArgumentCaptor.forClass(Runnable.class);
+        Mockito.verify(mockExecutor, Mockito.atLeastOnce())
+                .schedule(
+                        runnableCaptor.capture(),
+                        ArgumentMatchers.anyLong(),
+                        ArgumentMatchers.any(TimeUnit.class));
+        runnableCaptor.getAllValues().get(index).run();
+    }
+}
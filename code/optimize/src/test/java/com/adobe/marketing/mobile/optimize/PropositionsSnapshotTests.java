@@ -0,0 +1,525 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.optimize;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+@SuppressWarnings({"unchecked"})
+public class PropositionsSnapshotTests {
+    @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File snapshotFile;
+    private OptimizeProposition offerProposition;
+    private OptimizeProposition targetProposition;
+
+    @Before
+    public void setup() throws Exception {
+        snapshotFile = new File(temporaryFolder.getRoot(), "propositions.snapshot");
+        offerProposition = readProposition("json/PROPOSITION_VALID.json");
+        targetProposition = readProposition("json/PROPOSITION_VALID_TARGET.json");
+    }
+
+    @Test
+    public void testSaveAndLoad() {
+        // setup
+        final DecisionScope offerScope = new DecisionScope(offerProposition.getScope());
+        final DecisionScope targetScope = new DecisionScope(targetProposition.getScope());
+        final Map<DecisionScope, OptimizeProposition> propositions = new HashMap<>();
+        propositions.put(offerScope, offerProposition);
+        propositions.put(targetScope, targetProposition);
+
+        // test
+        new PropositionsSnapshot(snapshotFile).save(propositions, null);
+
+        // verify
+        Assert.assertTrue(snapshotFile.exists());
+        final PropositionsSnapshot snapshot = new PropositionsSnapshot(snapshotFile);
+        Assert.assertTrue(snapshot.contains(offerScope));
+        Assert.assertEquals(offerProposition, snapshot.load(offerScope));
+        Assert.assertEquals(targetProposition, snapshot.load(targetScope));
+        Assert.assertEquals(
+                targetProposition.getScopeDetails(),
+                snapshot.load(targetScope).getScopeDetails());
+        Assert.assertNull(snapshot.load(new DecisionScope("unknownScope")));
+    }
+
+    @Test
+    public void testSave_keepsOtherScopes() {
+        // setup
+        final DecisionScope offerScope = new DecisionScope(offerProposition.getScope());
+        final DecisionScope targetScope = new DecisionScope(targetProposition.getScope());
+        final PropositionsSnapshot snapshot = new PropositionsSnapshot(snapshotFile);
+        snapshot.save(Collections.singletonMap(offerScope, offerProposition), null);
+
+        // test
+        snapshot.save(Collections.singletonMap(targetScope, targetProposition), null);
+
+        // verify
+        final PropositionsSnapshot reopenedSnapshot = new PropositionsSnapshot(snapshotFile);
+        Assert.assertEquals(offerProposition, reopenedSnapshot.load(offerScope));
+        Assert.assertEquals(targetProposition, reopenedSnapshot.load(targetScope));
+    }
+
+    @Test
+    public void testSave_removedScopes() {
+        // setup
+        final DecisionScope offerScope = new DecisionScope(offerProposition.getScope());
+        final DecisionScope targetScope = new DecisionScope(targetProposition.getScope());
+        final PropositionsSnapshot snapshot = new PropositionsSnapshot(snapshotFile);
+        snapshot.save(Collections.singletonMap(offerScope, offerProposition), null);
+
+        // test
+        snapshot.save(
+                Collections.singletonMap(targetScope, targetProposition),
+                Collections.singletonList(offerScope));
+
+        // verify
+        Assert.assertFalse(snapshot.contains(offerScope));
+        Assert.assertEquals(targetProposition, snapshot.load(targetScope));
+    }
+
+    @Test
+    public void testScheduleSave_coalescesSaves() {
+        // setup
+        final DecisionScope offerScope = new DecisionScope(offerProposition.getScope());
+        final DecisionScope targetScope = new DecisionScope(targetProposition.getScope());
+        final List<Runnable> scheduledWrites = new ArrayList<>();
+        final PropositionsSnapshot snapshot =
+                new PropositionsSnapshot(snapshotFile, scheduledWrites::add);
+
+        // test
+        snapshot.scheduleSave(Collections.singletonMap(offerScope, offerProposition), null);
+        snapshot.scheduleSave(
+                Collections.singletonMap(targetScope, targetProposition),
+                Collections.singletonList(offerScope));
+
+        // verify
+        Assert.assertEquals(1, scheduledWrites.size());
+        Assert.assertFalse(snapshotFile.exists());
+        scheduledWrites.get(0).run();
+        Assert.assertFalse(snapshot.contains(offerScope));
+        Assert.assertEquals(targetProposition, snapshot.load(targetScope));
+    }
+
+    @Test
+    public void testScheduleSave_afterWrite() {
+        // setup
+        final DecisionScope offerScope = new DecisionScope(offerProposition.getScope());
+        final DecisionScope targetScope = new DecisionScope(targetProposition.getScope());
+        final List<Runnable> scheduledWrites = new ArrayList<>();
+        final PropositionsSnapshot snapshot =
+                new PropositionsSnapshot(snapshotFile, scheduledWrites::add);
+        snapshot.scheduleSave(Collections.singletonMap(offerScope, offerProposition), null);
+        scheduledWrites.get(0).run();
+
+        // test
+        snapshot.scheduleSave(Collections.singletonMap(targetScope, targetProposition), null);
+
+        // verify
+        Assert.assertEquals(2, scheduledWrites.size());
+        scheduledWrites.get(1).run();
+        Assert.assertEquals(offerProposition, snapshot.load(offerScope));
+        Assert.assertEquals(targetProposition, snapshot.load(targetScope));
+    }
+
+    @Test
+    public void testSave_rebuildsGrownDictionary() {
+        // setup
+        final DecisionScope targetScope = new DecisionScope(targetProposition.getScope());
+        final DecisionScope offerScope = new DecisionScope("offerScope");
+        final PropositionsSnapshot snapshot = new PropositionsSnapshot(snapshotFile);
+        snapshot.save(Collections.singletonMap(targetScope, targetProposition), null);
+        final int saveCount = 10 * PropositionsSnapshot.MIN_REBUILT_DICTIONARY_SIZE;
+
+        // test
+        OptimizeProposition lastProposition = null;
+        for (int i = 0; i < saveCount; i++) {
+            // Offer identifier and content are the same string, so it is written to the
+            // dictionary.
+            final Offer offer = new Offer.Builder("offer" + i, OfferType.TEXT, "offer" + i).build();
+            lastProposition =
+                    new OptimizeProposition(
+                            "proposition" + i,
+                            Collections.singletonList(offer),
+                            offerScope.getName(),
+                            null);
+            snapshot.save(Collections.singletonMap(offerScope, lastProposition), null);
+        }
+
+        // verify
+        // Without being rebuilt, the dictionary would contain the offer identifiers of all saves.
+        Assert.assertTrue(snapshotFile.length() < saveCount * "offer000".length());
+        final PropositionsSnapshot reopenedSnapshot = new PropositionsSnapshot(snapshotFile);
+        Assert.assertEquals(targetProposition, reopenedSnapshot.load(targetScope));
+        Assert.assertEquals(lastProposition, reopenedSnapshot.load(offerScope));
+    }
+
+    @Test
+    public void testClear() {
+        // setup
+        final DecisionScope offerScope = new DecisionScope(offerProposition.getScope());
+        final PropositionsSnapshot snapshot = new PropositionsSnapshot(snapshotFile);
+        snapshot.save(Collections.singletonMap(offerScope, offerProposition), null);
+
+        // test
+        snapshot.clear();
+
+        // verify
+        Assert.assertFalse(snapshotFile.exists());
+        Assert.assertNull(snapshot.load(offerScope));
+    }
+
+    @Test
+    public void testClear_dropsScheduledSave() {
+        // setup
+        final DecisionScope offerScope = new DecisionScope(offerProposition.getScope());
+        final List<Runnable> scheduledWrites = new ArrayList<>();
+        final PropositionsSnapshot snapshot =
+                new PropositionsSnapshot(snapshotFile, scheduledWrites::add);
+        snapshot.scheduleSave(Collections.singletonMap(offerScope, offerProposition), null);
+
+        // test
+        snapshot.clear();
+
+        // verify
+        scheduledWrites.get(0).run();
+        Assert.assertFalse(snapshotFile.exists());
+        Assert.assertNull(snapshot.load(offerScope));
+    }
+
+    @Test
+    public void testRefresh_writtenByOtherInstance() {
+        // setup
+        final DecisionScope offerScope = new DecisionScope(offerProposition.getScope());
+        final DecisionScope targetScope = new DecisionScope(targetProposition.getScope());
+        final PropositionsSnapshot snapshot = new PropositionsSnapshot(snapshotFile);
+        final PropositionsSnapshot otherSnapshot = new PropositionsSnapshot(snapshotFile);
+        snapshot.save(Collections.singletonMap(offerScope, offerProposition), null);
+        Assert.assertFalse(snapshot.refresh());
+        Assert.assertFalse(otherSnapshot.contains(targetScope));
+
+        // test
+        otherSnapshot.save(Collections.singletonMap(targetScope, targetProposition), null);
+
+        // verify
+        Assert.assertFalse(otherSnapshot.refresh());
+        Assert.assertTrue(snapshot.refresh());
+        Assert.assertFalse(snapshot.refresh());
+        Assert.assertEquals(offerProposition, snapshot.load(offerScope));
+        Assert.assertEquals(targetProposition, snapshot.load(targetScope));
+    }
+
+    @Test
+    public void testRefresh_clearedByOtherInstance() {
+        // setup
+        final DecisionScope offerScope = new DecisionScope(offerProposition.getScope());
+        final PropositionsSnapshot snapshot = new PropositionsSnapshot(snapshotFile);
+        final PropositionsSnapshot otherSnapshot = new PropositionsSnapshot(snapshotFile);
+        snapshot.save(Collections.singletonMap(offerScope, offerProposition), null);
+        Assert.assertEquals(offerProposition, snapshot.load(offerScope));
+
+        // test
+        otherSnapshot.clear();
+
+        // verify
+        Assert.assertTrue(snapshot.refresh());
+        Assert.assertNull(snapshot.load(offerScope));
+    }
+
+    @Test
+    public void testRefresh_savePending() {
+        // setup
+        final DecisionScope offerScope = new DecisionScope(offerProposition.getScope());
+        final DecisionScope targetScope = new DecisionScope(targetProposition.getScope());
+        final List<Runnable> scheduledWrites = new ArrayList<>();
+        final PropositionsSnapshot snapshot =
+                new PropositionsSnapshot(snapshotFile, scheduledWrites::add);
+        final PropositionsSnapshot otherSnapshot = new PropositionsSnapshot(snapshotFile);
+        snapshot.save(Collections.singletonMap(offerScope, offerProposition), null);
+        Assert.assertFalse(snapshot.refresh());
+        snapshot.scheduleSave(Collections.singletonMap(offerScope, offerProposition), null);
+
+        // test
+        otherSnapshot.save(Collections.singletonMap(targetScope, targetProposition), null);
+
+        // verify
+        Assert.assertFalse(snapshot.refresh());
+        scheduledWrites.get(0).run();
+        Assert.assertTrue(snapshot.refresh());
+        Assert.assertEquals(offerProposition, snapshot.load(offerScope));
+        Assert.assertEquals(targetProposition, snapshot.load(targetScope));
+    }
+
+    @Test
+    public void testSave_writtenByOtherProcess() throws Exception {
+        // setup
+        final DecisionScope offerScope = new DecisionScope(offerProposition.getScope());
+        final PropositionsSnapshot snapshot = new PropositionsSnapshot(snapshotFile);
+        snapshot.save(Collections.singletonMap(offerScope, offerProposition), null);
+        Assert.assertFalse(snapshot.refresh());
+
+        // test
+        final Process process = startWriterProcess();
+        Assert.assertEquals(0, process.waitFor());
+
+        // verify
+        Assert.assertTrue(snapshot.refresh());
+        Assert.assertEquals(offerProposition, snapshot.load(offerScope));
+        final OptimizeProposition writtenProposition =
+                snapshot.load(new DecisionScope(SnapshotWriterProcess.SCOPE));
+        Assert.assertNotNull(writtenProposition);
+        Assert.assertEquals(SnapshotWriterProcess.PROPOSITION_ID, writtenProposition.getId());
+    }
+
+    @Test
+    public void testSave_concurrentWriterProcesses() throws Exception {
+        // setup
+        final int otherSaveCount = 30;
+        final PropositionsSnapshot snapshot = new PropositionsSnapshot(snapshotFile);
+
+        // test
+        final Process firstProcess = startWriterProcess("first", String.valueOf(otherSaveCount));
+        final Process secondProcess = startWriterProcess("second", String.valueOf(otherSaveCount));
+        // Keep writing until both processes are done, so the writes of all processes overlap.
+        int saveCount = 0;
+        while (saveCount < otherSaveCount || firstProcess.isAlive() || secondProcess.isAlive()) {
+            final DecisionScope scope = new DecisionScope("this" + saveCount);
+            snapshot.save(Collections.singletonMap(scope, offerProposition), null);
+            saveCount++;
+        }
+
+        // verify
+        Assert.assertEquals(0, firstProcess.waitFor());
+        Assert.assertEquals(0, secondProcess.waitFor());
+        final PropositionsSnapshot reopenedSnapshot = new PropositionsSnapshot(snapshotFile);
+        for (int i = 0; i < saveCount; i++) {
+            Assert.assertEquals(
+                    offerProposition, reopenedSnapshot.load(new DecisionScope("this" + i)));
+        }
+        for (int i = 0; i < otherSaveCount; i++) {
+            Assert.assertEquals(
+                    SnapshotWriterProcess.PROPOSITION_ID + i,
+                    reopenedSnapshot.load(new DecisionScope("first" + i)).getId());
+            Assert.assertEquals(
+                    SnapshotWriterProcess.PROPOSITION_ID + i,
+                    reopenedSnapshot.load(new DecisionScope("second" + i)).getId());
+        }
+    }
+
+    @Test
+    public void testLoad_whileOtherProcessWrites() throws Exception {
+        // setup
+        final int otherSaveCount = 100;
+        final DecisionScope offerScope = new DecisionScope(offerProposition.getScope());
+        final PropositionsSnapshot snapshot = new PropositionsSnapshot(snapshotFile);
+        snapshot.save(Collections.singletonMap(offerScope, offerProposition), null);
+
+        // test
+        final Process process = startWriterProcess("other", String.valueOf(otherSaveCount));
+        int readCount = 0;
+        int changedCount = 0;
+        int invalidReadCount = 0;
+        while (process.isAlive()) {
+            if (snapshot.refresh()) {
+                changedCount++;
+            }
+            if (!offerProposition.equals(snapshot.load(offerScope))) {
+                invalidReadCount++;
+            }
+            for (int i = 0; i < otherSaveCount; i++) {
+                final DecisionScope scope = new DecisionScope("other" + i);
+                if (snapshot.contains(scope)) {
+                    final OptimizeProposition proposition = snapshot.load(scope);
+                    if (proposition == null
+                            || !(SnapshotWriterProcess.PROPOSITION_ID + i)
+                                    .equals(proposition.getId())) {
+                        invalidReadCount++;
+                    }
+                }
+            }
+            readCount++;
+        }
+        if (snapshot.refresh()) {
+            changedCount++;
+        }
+
+        // verify
+        Assert.assertEquals(0, process.waitFor());
+        Assert.assertTrue(readCount > 0);
+        Assert.assertTrue(changedCount > 0);
+        Assert.assertEquals(0, invalidReadCount);
+        Assert.assertEquals(offerProposition, snapshot.load(offerScope));
+        for (int i = 0; i < otherSaveCount; i++) {
+            Assert.assertEquals(
+                    SnapshotWriterProcess.PROPOSITION_ID + i,
+                    snapshot.load(new DecisionScope("other" + i)).getId());
+        }
+    }
+
+    @Test
+    public void testLoad_noSnapshotFile() {
+        // test
+        final PropositionsSnapshot snapshot = new PropositionsSnapshot(snapshotFile);
+
+        // verify
+        Assert.assertFalse(snapshot.contains(new DecisionScope("myMbox")));
+        Assert.assertNull(snapshot.load(new DecisionScope("myMbox")));
+    }
+
+    @Test
+    public void testLoad_invalidSnapshotFile() throws Exception {
+        // setup
+        try (FileOutputStream outputStream = new FileOutputStream(snapshotFile)) {
+            outputStream.write(new byte[] {1, 2, 3, 4, 5, 6, 7, 8});
+        }
+
+        // test
+        final PropositionsSnapshot snapshot = new PropositionsSnapshot(snapshotFile);
+
+        // verify
+        Assert.assertNull(snapshot.load(new DecisionScope("myMbox")));
+        Assert.assertFalse(snapshotFile.exists());
+    }
+
+    @Test
+    public void testLoad_invalidSnapshotCounts() throws Exception {
+        // setup
+        try (DataOutputStream outputStream =
+                new DataOutputStream(new FileOutputStream(snapshotFile))) {
+            outputStream.writeInt(PropositionsSnapshot.MAGIC);
+            outputStream.writeInt(PropositionsSnapshot.FORMAT_VERSION);
+            outputStream.writeInt(0);
+            outputStream.writeInt(Integer.MAX_VALUE);
+        }
+
+        // test
+        final PropositionsSnapshot snapshot = new PropositionsSnapshot(snapshotFile);
+
+        // verify
+        Assert.assertNull(snapshot.load(new DecisionScope("myMbox")));
+        Assert.assertFalse(snapshotFile.exists());
+    }
+
+    @Test
+    public void testLoad_truncatedSnapshotFile() throws Exception {
+        // setup
+        final byte[] encodedSnapshot =
+                PropositionsSnapshot.encode(
+                        Collections.singletonMap(
+                                new DecisionScope("myMbox"), offerProposition.toEventData()));
+        try (FileOutputStream outputStream = new FileOutputStream(snapshotFile)) {
+            outputStream.write(encodedSnapshot, 0, encodedSnapshot.length / 2);
+        }
+
+        // test
+        final PropositionsSnapshot snapshot = new PropositionsSnapshot(snapshotFile);
+
+        // verify
+        Assert.assertNull(snapshot.load(new DecisionScope("myMbox")));
+        Assert.assertFalse(snapshotFile.exists());
+    }
+
+    @Test
+    public void testEncode_repeatedStringsInDictionary() throws Exception {
+        // setup
+        final Map<String, Object> propositionData = offerProposition.toEventData();
+
+        // test
+        final byte[] singleScopeSnapshot =
+                PropositionsSnapshot.encode(
+                        Collections.singletonMap(new DecisionScope("scope1"), propositionData));
+        final Map<DecisionScope, Map<String, Object>> twoScopesData = new HashMap<>();
+        twoScopesData.put(new DecisionScope("scope1"), propositionData);
+        twoScopesData.put(new DecisionScope("scope2"), propositionData);
+        final byte[] twoScopesSnapshot = PropositionsSnapshot.encode(twoScopesData);
+
+        // verify
+        final String content = offerProposition.getOffers().get(0).getContent();
+        Assert.assertTrue(
+                "Repeated content should be written once in the dictionary.",
+                twoScopesSnapshot.length < 2 * singleScopeSnapshot.length - content.length());
+    }
+
+    private OptimizeProposition readProposition(final String path) throws Exception {
+        final Map<String, Object> propositionData =
+                new ObjectMapper()
+                        .readValue(getClass().getClassLoader().getResource(path), HashMap.class);
+        return OptimizeProposition.fromEventData(propositionData);
+    }
+
+    private Process startWriterProcess(final String... args) throws Exception {
+        final List<String> command = new ArrayList<>();
+        command.add(new File(System.getProperty("java.home"), "bin/java").getPath());
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(SnapshotWriterProcess.class.getName());
+        command.add(snapshotFile.getPath());
+        command.addAll(Arrays.asList(args));
+        return new ProcessBuilder(command).redirectErrorStream(true).start();
+    }
+
+    /**
+     * Entry point of the process writing to the snapshot in the multi-process tests.
+     *
+     * <p>Arguments are the snapshot file path, followed by an optional scope name prefix and save
+     * count. When a prefix is given, each save writes the scope with the prefix and save index.
+     * Otherwise, a single save writes {@link #SCOPE}.
+     */
+    public static class SnapshotWriterProcess {
+        static final String SCOPE = "otherProcessScope";
+        static final String PROPOSITION_ID = "otherProcessPropositionId";
+
+        public static void main(final String[] args) {
+            final PropositionsSnapshot snapshot = new PropositionsSnapshot(new File(args[0]));
+            if (args.length < 3) {
+                snapshot.save(
+                        Collections.singletonMap(
+                                new DecisionScope(SCOPE), createProposition(PROPOSITION_ID, SCOPE)),
+                        null);
+                return;
+            }
+
+            final int saveCount = Integer.parseInt(args[2]);
+            for (int i = 0; i < saveCount; i++) {
+                final String scope = args[1] + i;
+                snapshot.save(
+                        Collections.singletonMap(
+                                new DecisionScope(scope),
+                                createProposition(PROPOSITION_ID + i, scope)),
+                        null);
+            }
+        }
+
+        private static OptimizeProposition createProposition(
+                final String propositionId, final String scope) {
+            final Offer offer =
+                    new Offer.Builder("otherProcessOfferId", OfferType.TEXT, "Other process")
+                            .build();
+            return new OptimizeProposition(
+                    propositionId, Collections.singletonList(offer), scope, null);
+        }
+    }
+}
@@ -0,0 +1,271 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.optimize;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PropositionsSubscriptionRegistryTests {
+    private final DecisionScope homeScope = new DecisionScope("homeScope");
+    private final DecisionScope productScope = new DecisionScope("productScope");
+
+    private final Map<DecisionScope, OptimizeProposition> cachedPropositions =
+            new ConcurrentHashMap<>();
+    private final List<Runnable> pendingDeliveries = new ArrayList<>();
+    private final List<Map<DecisionScope, OptimizeProposition>> deliveries = new ArrayList<>();
+    private PropositionsSubscriptionRegistry registry;
+
+    @Before
+    public void setup() {
+        registry = new PropositionsSubscriptionRegistry(pendingDeliveries::add);
+        registry.setCachedPropositions(cachedPropositions);
+    }
+
+    @Test
+    public void testSubscribe_deliversCachedPropositions() throws Exception {
+        // setup
+        final Map<String, Object> productPropositionData =
+                new ObjectMapper()
+                        .readValue(
+                                getClass()
+                                        .getClassLoader()
+                                        .getResource("json/PROPOSITION_VALID_TARGET.json"),
+                                HashMap.class);
+        final Map<String, Object> homePropositionData =
+                new ObjectMapper()
+                        .readValue(
+                                getClass()
+                                        .getClassLoader()
+                                        .getResource("json/PROPOSITION_VALID.json"),
+                                HashMap.class);
+        final OptimizeProposition homeProposition =
+                OptimizeProposition.fromEventData(homePropositionData);
+        cachedPropositions.put(homeScope, homeProposition);
+        cachedPropositions.put(
+                productScope, OptimizeProposition.fromEventData(productPropositionData));
+
+        // test
+        registry.subscribe(Collections.singletonList(homeScope), deliveries::add);
+        runPendingDeliveries();
+
+        // verify
+        Assert.assertEquals(1, deliveries.size());
+        Assert.assertEquals(
+                Collections.singletonMap(homeScope, homeProposition), deliveries.get(0));
+        Assert.assertEquals(1, registry.size());
+    }
+
+    @Test
+    public void testSubscribe_noCachedPropositions() {
+        // test
+        registry.subscribe(Collections.singletonList(homeScope), deliveries::add);
+        runPendingDeliveries();
+
+        // verify
+        Assert.assertEquals(1, deliveries.size());
+        Assert.assertTrue(deliveries.get(0).isEmpty());
+    }
+
+    @Test
+    public void testNotifyChanged_subscribedScope() throws Exception {
+        // setup
+        registry.subscribe(Collections.singletonList(homeScope), deliveries::add);
+        runPendingDeliveries();
+        final Map<String, Object> homePropositionData =
+                new ObjectMapper()
+                        .readValue(
+                                getClass()
+                                        .getClassLoader()
+                                        .getResource("json/PROPOSITION_VALID.json"),
+                                HashMap.class);
+        final OptimizeProposition homeProposition =
+                OptimizeProposition.fromEventData(homePropositionData);
+        cachedPropositions.put(homeScope, homeProposition);
+
+        // test
+        registry.notifyChanged(Collections.singletonList(homeScope));
+        runPendingDeliveries();
+
+        // verify
+        Assert.assertEquals(2, deliveries.size());
+        Assert.assertEquals(
+                Collections.singletonMap(homeScope, homeProposition), deliveries.get(1));
+    }
+
+    @Test
+    public void testSetCachedPropositions_changedScopes() throws Exception {
+        // setup
+        registry.subscribe(Collections.singletonList(homeScope), deliveries::add);
+        runPendingDeliveries();
+        final Map<String, Object> homePropositionData =
+                new ObjectMapper()
+                        .readValue(
+                                getClass()
+                                        .getClassLoader()
+                                        .getResource("json/PROPOSITION_VALID.json"),
+                                HashMap.class);
+        final OptimizeProposition homeProposition =
+                OptimizeProposition.fromEventData(homePropositionData);
+
+        // test
+        registry.setCachedPropositions(
+                Collections.singletonMap(homeScope, homeProposition),
+                Collections.singletonList(homeScope));
+        runPendingDeliveries();
+
+        // verify
+        Assert.assertEquals(2, deliveries.size());
+        Assert.assertEquals(
+                Collections.singletonMap(homeScope, homeProposition), deliveries.get(1));
+    }
+
+    @Test
+    public void testNotifyChanged_otherScope() throws Exception {
+        // setup
+        final Map<String, Object> productPropositionData =
+                new ObjectMapper()
+                        .readValue(
+                                getClass()
+                                        .getClassLoader()
+                                        .getResource("json/PROPOSITION_VALID_TARGET.json"),
+                                HashMap.class);
+        registry.subscribe(Collections.singletonList(homeScope), deliveries::add);
+        runPendingDeliveries();
+        cachedPropositions.put(
+                productScope, OptimizeProposition.fromEventData(productPropositionData));
+
+        // test
+        registry.notifyChanged(Collections.singletonList(productScope));
+
+        // verify
+        Assert.assertTrue(pendingDeliveries.isEmpty());
+        Assert.assertEquals(1, deliveries.size());
+    }
+
+    @Test
+    public void testNotifyChanged_unchangedPropositionsNotDelivered() throws Exception {
+        // setup
+        final Map<String, Object> homePropositionData =
+                new ObjectMapper()
+                        .readValue(
+                                getClass()
+                                        .getClassLoader()
+                                        .getResource("json/PROPOSITION_VALID.json"),
+                                HashMap.class);
+        cachedPropositions.put(homeScope, OptimizeProposition.fromEventData(homePropositionData));
+        registry.subscribe(Collections.singletonList(homeScope), deliveries::add);
+        runPendingDeliveries();
+        cachedPropositions.put(homeScope, OptimizeProposition.fromEventData(homePropositionData));
+
+        // test
+        registry.notifyChanged(Collections.singletonList(homeScope));
+        runPendingDeliveries();
+
+        // verify
+        Assert.assertEquals(1, deliveries.size());
+    }
+
+    @Test
+    public void testNotifyChanged_conflatesPendingChanges() throws Exception {
+        // setup
+        registry.subscribe(Arrays.asList(homeScope, productScope), deliveries::add);
+        runPendingDeliveries();
+        final Map<String, Object> homePropositionData =
+                new ObjectMapper()
+                        .readValue(
+                                getClass()
+                                        .getClassLoader()
+                                        .getResource("json/PROPOSITION_VALID.json"),
+                                HashMap.class);
+        final OptimizeProposition homeProposition =
+                OptimizeProposition.fromEventData(homePropositionData);
+        final Map<String, Object> productPropositionData =
+                new ObjectMapper()
+                        .readValue(
+                                getClass()
+                                        .getClassLoader()
+                                        .getResource("json/PROPOSITION_VALID_TARGET.json"),
+                                HashMap.class);
+        final OptimizeProposition productProposition =
+                OptimizeProposition.fromEventData(productPropositionData);
+
+        // test
+        cachedPropositions.put(homeScope, homeProposition);
+        registry.notifyChanged(Collections.singletonList(homeScope));
+        cachedPropositions.put(productScope, productProposition);
+        registry.notifyChanged(Collections.singletonList(productScope));
+
+        // verify
+        Assert.assertEquals(1, pendingDeliveries.size());
+        runPendingDeliveries();
+        Assert.assertEquals(2, deliveries.size());
+        final Map<DecisionScope, OptimizeProposition> expectedPropositions = new HashMap<>();
+        expectedPropositions.put(homeScope, homeProposition);
+        expectedPropositions.put(productScope, productProposition);
+        Assert.assertEquals(expectedPropositions, deliveries.get(1));
+    }
+
+    @Test
+    public void testNotifyAllChanged_clearedCache() throws Exception {
+        // setup
+        final Map<String, Object> homePropositionData =
+                new ObjectMapper()
+                        .readValue(
+                                getClass()
+                                        .getClassLoader()
+                                        .getResource("json/PROPOSITION_VALID.json"),
+                                HashMap.class);
+        cachedPropositions.put(homeScope, OptimizeProposition.fromEventData(homePropositionData));
+        registry.subscribe(Collections.singletonList(homeScope), deliveries::add);
+        runPendingDeliveries();
+        cachedPropositions.clear();
+
+        // test
+        registry.notifyAllChanged();
+        runPendingDeliveries();
+
+        // verify
+        Assert.assertEquals(2, deliveries.size());
+        Assert.assertTrue(deliveries.get(1).isEmpty());
+    }
+
+    @Test
+    public void testCancel() {
+        // setup
+        final PropositionsSubscription subscription =
+                registry.subscribe(Collections.singletonList(homeScope), deliveries::add);
+
+        // test
+        subscription.cancel();
+        runPendingDeliveries();
+
+        // verify
+        Assert.assertTrue(subscription.isCancelled());
+        Assert.assertTrue(deliveries.isEmpty());
+        Assert.assertEquals(0, registry.size());
+    }
+
+    private void runPendingDeliveries() {
+        while (!pendingDeliveries.isEmpty()) {
+            pendingDeliveries.remove(0).run();
+        }
+    }
+}
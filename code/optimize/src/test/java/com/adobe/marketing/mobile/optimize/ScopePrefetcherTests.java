@@ -0,0 +1,253 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.optimize;
+
+import com.adobe.marketing.mobile.services.NamedCollection;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class ScopePrefetcherTests {
+    private final DecisionScope homeScope = new DecisionScope("homeScope");
+    private final DecisionScope productScope = new DecisionScope("productScope");
+    private final DecisionScope cartScope = new DecisionScope("cartScope");
+
+    @Mock NamedCollection mockDataStore;
+
+    @Test
+    public void testRecordRequest_noHistory() {
+        // setup
+        final ScopePrefetcher prefetcher = new ScopePrefetcher(null);
+
+        // test
+        final List<DecisionScope> predictedScopes =
+                prefetcher.recordRequest(Collections.singletonList(homeScope));
+
+        // verify
+        Assert.assertTrue(predictedScopes.isEmpty());
+    }
+
+    @Test
+    public void testRecordRequest_recordsTransitions() {
+        // setup
+        final ScopePrefetcher prefetcher = new ScopePrefetcher(null);
+
+        // test
+        prefetcher.recordRequest(Collections.singletonList(homeScope));
+        prefetcher.recordRequest(Arrays.asList(productScope, cartScope));
+
+        // verify
+        Assert.assertEquals(1, prefetcher.getTransitionCount(homeScope, productScope));
+        Assert.assertEquals(1, prefetcher.getTransitionCount(homeScope, cartScope));
+        Assert.assertEquals(0, prefetcher.getTransitionCount(productScope, cartScope));
+    }
+
+    @Test
+    public void testRecordRequest_scopeRequestedInBothRequestsIsNotATransition() {
+        // setup
+        final ScopePrefetcher prefetcher = new ScopePrefetcher(null);
+
+        // test
+        prefetcher.recordRequest(Arrays.asList(homeScope, cartScope));
+        prefetcher.recordRequest(Arrays.asList(productScope, cartScope));
+
+        // verify
+        Assert.assertEquals(1, prefetcher.getTransitionCount(homeScope, productScope));
+        Assert.assertEquals(0, prefetcher.getTransitionCount(homeScope, cartScope));
+        Assert.assertEquals(0, prefetcher.getTransitionCount(cartScope, productScope));
+    }
+
+    @Test
+    public void testRecordRequest_repeatedScopeIsNotATransition() {
+        // setup
+        final ScopePrefetcher prefetcher = new ScopePrefetcher(null);
+
+        // test
+        prefetcher.recordRequest(Collections.singletonList(homeScope));
+        prefetcher.recordRequest(Collections.singletonList(homeScope));
+
+        // verify
+        Assert.assertEquals(0, prefetcher.getTransitionCount(homeScope, homeScope));
+    }
+
+    @Test
+    public void testRecordRequest_predictsFrequentNextScope() {
+        // setup
+        final ScopePrefetcher prefetcher = new ScopePrefetcher(null);
+        for (int i = 0; i < ScopePrefetcher.MIN_TRANSITION_COUNT; i++) {
+            prefetcher.recordRequest(Collections.singletonList(homeScope));
+            prefetcher.recordRequest(Collections.singletonList(productScope));
+        }
+
+        // test
+        final List<DecisionScope> predictedScopes =
+                prefetcher.recordRequest(Collections.singletonList(homeScope));
+
+        // verify
+        Assert.assertEquals(Collections.singletonList(productScope), predictedScopes);
+    }
+
+    @Test
+    public void testRecordRequest_doesNotPredictRequestedScope() {
+        // setup
+        final ScopePrefetcher prefetcher = new ScopePrefetcher(null);
+        for (int i = 0; i < ScopePrefetcher.MIN_TRANSITION_COUNT; i++) {
+            prefetcher.recordRequest(Collections.singletonList(homeScope));
+            prefetcher.recordRequest(Collections.singletonList(productScope));
+        }
+
+        // test
+        final List<DecisionScope> predictedScopes =
+                prefetcher.recordRequest(Arrays.asList(productScope, homeScope));
+
+        // verify
+        Assert.assertTrue(predictedScopes.isEmpty());
+    }
+
+    @Test
+    public void testRecordRequest_doesNotPredictEmptyScope() {
+        // setup
+        final ScopePrefetcher prefetcher = new ScopePrefetcher(null);
+        for (int i = 0; i < ScopePrefetcher.MIN_TRANSITION_COUNT; i++) {
+            prefetcher.recordRequest(Collections.singletonList(homeScope));
+            prefetcher.recordRequest(Collections.singletonList(productScope));
+        }
+        prefetcher.recordUpdateResult(
+                Arrays.asList(homeScope, productScope), Collections.singletonList(homeScope));
+
+        // test
+        final List<DecisionScope> predictedScopes =
+                prefetcher.recordRequest(Collections.singletonList(homeScope));
+
+        // verify
+        Assert.assertTrue(predictedScopes.isEmpty());
+    }
+
+    @Test
+    public void testRecordRequest_predictsScopeReturnedAgain() {
+        // setup
+        final ScopePrefetcher prefetcher = new ScopePrefetcher(null);
+        for (int i = 0; i < ScopePrefetcher.MIN_TRANSITION_COUNT; i++) {
+            prefetcher.recordRequest(Collections.singletonList(homeScope));
+            prefetcher.recordRequest(Collections.singletonList(productScope));
+        }
+        prefetcher.recordUpdateResult(
+                Collections.singletonList(productScope), Collections.<DecisionScope>emptyList());
+        prefetcher.recordUpdateResult(
+                Collections.singletonList(productScope), Collections.singletonList(productScope));
+
+        // test
+        final List<DecisionScope> predictedScopes =
+                prefetcher.recordRequest(Collections.singletonList(homeScope));
+
+        // verify
+        Assert.assertEquals(Collections.singletonList(productScope), predictedScopes);
+    }
+
+    @Test
+    public void testRecordRequest_doesNotPersistTransitions() {
+        // setup
+        final ScopePrefetcher prefetcher = new ScopePrefetcher(mockDataStore);
+
+        // test
+        prefetcher.recordRequest(Collections.singletonList(homeScope));
+        prefetcher.recordRequest(Collections.singletonList(productScope));
+
+        // verify
+        Mockito.verify(mockDataStore, Mockito.never())
+                .setString(ArgumentMatchers.anyString(), ArgumentMatchers.anyString());
+    }
+
+    @Test
+    public void testPersist() {
+        // setup
+        final ScopePrefetcher prefetcher = new ScopePrefetcher(mockDataStore);
+        prefetcher.recordRequest(Collections.singletonList(homeScope));
+        prefetcher.recordRequest(Collections.singletonList(productScope));
+
+        // test
+        prefetcher.persist();
+        prefetcher.persist();
+
+        // verify
+        final ArgumentCaptor<String> transitionsCaptor = ArgumentCaptor.forClass(String.class);
+        Mockito.verify(mockDataStore, Mockito.times(1))
+                .setString(
+                        ArgumentMatchers.eq("scopetransitions"), transitionsCaptor.capture());
+        Assert.assertEquals(
+                "{\"homeScope\":{\"productScope\":1}}", transitionsCaptor.getValue());
+    }
+
+    @Test
+    public void testReset() {
+        // setup
+        final ScopePrefetcher prefetcher = new ScopePrefetcher(mockDataStore);
+        for (int i = 0; i < ScopePrefetcher.MIN_TRANSITION_COUNT; i++) {
+            prefetcher.recordRequest(Collections.singletonList(homeScope));
+            prefetcher.recordRequest(Collections.singletonList(productScope));
+        }
+
+        // test
+        prefetcher.reset();
+
+        // verify
+        Mockito.verify(mockDataStore, Mockito.times(1)).remove("scopetransitions");
+        Assert.assertEquals(0, prefetcher.getTransitionCount(homeScope, productScope));
+        Assert.assertTrue(prefetcher.recordRequest(Collections.singletonList(homeScope)).isEmpty());
+        prefetcher.persist();
+        Mockito.verify(mockDataStore, Mockito.never())
+                .setString(ArgumentMatchers.anyString(), ArgumentMatchers.anyString());
+    }
+
+    @Test
+    public void testConstructor_loadsPersistedTransitions() {
+        // setup
+        Mockito.when(
+                        mockDataStore.getString(
+                                ArgumentMatchers.eq("scopetransitions"), ArgumentMatchers.any()))
+                .thenReturn("{\"homeScope\":{\"productScope\":5,\"cartScope\":1}}");
+
+        // test
+        final ScopePrefetcher prefetcher = new ScopePrefetcher(mockDataStore);
+
+        // verify
+        Assert.assertEquals(5, prefetcher.getTransitionCount(homeScope, productScope));
+        Assert.assertEquals(
+                Collections.singletonList(productScope),
+                prefetcher.recordRequest(Collections.singletonList(homeScope)));
+    }
+
+    @Test
+    public void testConstructor_invalidPersistedTransitions() {
+        // setup
+        Mockito.when(
+                        mockDataStore.getString(
+                                ArgumentMatchers.eq("scopetransitions"), ArgumentMatchers.any()))
+                .thenReturn("invalid");
+
+        // test
+        final ScopePrefetcher prefetcher = new ScopePrefetcher(mockDataStore);
+
+        // verify
+        Mockito.verify(mockDataStore, Mockito.times(1)).remove("scopetransitions");
+        Assert.assertEquals(0, prefetcher.getTransitionCount(homeScope, productScope));
+    }
+}
@@ -0,0 +1,121 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.optimize;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ShardedUpdateRequestTests {
+    private final DecisionScope homeScope = new DecisionScope("homeScope");
+    private final DecisionScope productScope = new DecisionScope("productScope");
+    private final DecisionScope cartScope = new DecisionScope("cartScope");
+
+    @Test
+    public void testShard() {
+        // test
+        final List<List<DecisionScope>> shards =
+                ShardedUpdateRequest.shard(Arrays.asList(homeScope, productScope, cartScope), 2);
+
+        // verify
+        Assert.assertEquals(2, shards.size());
+        Assert.assertEquals(Arrays.asList(homeScope, productScope), shards.get(0));
+        Assert.assertEquals(Collections.singletonList(cartScope), shards.get(1));
+    }
+
+    @Test
+    public void testShard_fewerScopesThanShardSize() {
+        // test
+        final List<List<DecisionScope>> shards =
+                ShardedUpdateRequest.shard(Arrays.asList(homeScope, productScope), 5);
+
+        // verify
+        Assert.assertEquals(1, shards.size());
+        Assert.assertEquals(Arrays.asList(homeScope, productScope), shards.get(0));
+    }
+
+    @Test
+    public void testCompleteShard_mergesShardPropositions() throws Exception {
+        // setup
+        final ShardedUpdateRequest shardedRequest = new ShardedUpdateRequest(2);
+        final Map<String, Object> homePropositionData =
+                new ObjectMapper()
+                        .readValue(
+                                getClass()
+                                        .getClassLoader()
+                                        .getResource("json/PROPOSITION_VALID.json"),
+                                HashMap.class);
+        final OptimizeProposition homeProposition =
+                OptimizeProposition.fromEventData(homePropositionData);
+        final Map<String, Object> productPropositionData =
+                new ObjectMapper()
+                        .readValue(
+                                getClass()
+                                        .getClassLoader()
+                                        .getResource("json/PROPOSITION_VALID_TARGET.json"),
+                                HashMap.class);
+        final OptimizeProposition productProposition =
+                OptimizeProposition.fromEventData(productPropositionData);
+        shardedRequest.addProposition("shard1", homeScope, homeProposition);
+        shardedRequest.addProposition("shard2", productScope, productProposition);
+
+        // test
+        Assert.assertFalse(shardedRequest.completeShard(null));
+        Assert.assertTrue(shardedRequest.completeShard(null));
+
+        // verify
+        final Map<DecisionScope, OptimizeProposition> propositions =
+                shardedRequest.getPropositions();
+        Assert.assertEquals(2, propositions.size());
+        Assert.assertEquals(homeProposition, propositions.get(homeScope));
+        Assert.assertEquals(productProposition, propositions.get(productScope));
+        Assert.assertEquals(
+                Collections.singletonMap(homeScope, homeProposition),
+                shardedRequest.getShardPropositions("shard1"));
+        Assert.assertTrue(shardedRequest.getShardPropositions("shard3").isEmpty());
+        Assert.assertNull(shardedRequest.getError());
+    }
+
+    @Test
+    public void testCompleteShard_keepsFirstError() {
+        // setup
+        final ShardedUpdateRequest shardedRequest = new ShardedUpdateRequest(3);
+        final AEPOptimizeError timeoutError = AEPOptimizeError.Companion.getTimeoutError();
+
+        // test
+        shardedRequest.completeShard(null);
+        shardedRequest.completeShard(timeoutError);
+        shardedRequest.completeShard(AEPOptimizeError.Companion.getUnexpectedError());
+
+        // verify
+        Assert.assertSame(timeoutError, shardedRequest.getError());
+    }
+
+    @Test
+    public void testAddRetry_waitsForRetriedShard() {
+        // setup
+        final ShardedUpdateRequest shardedRequest = new ShardedUpdateRequest(1);
+
+        // test
+        shardedRequest.addRetry();
+
+        // verify
+        Assert.assertEquals(1, shardedRequest.getRetryCount());
+        Assert.assertFalse(shardedRequest.completeShard(null));
+        Assert.assertTrue(shardedRequest.completeShard(null));
+    }
+}
@@ -0,0 +1,119 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.optimize;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class UpdateRequestRetryPolicyTests {
+    @Mock ScheduledExecutorService mockExecutor;
+
+    private UpdateRequestRetryPolicy retryPolicy;
+
+    @Before
+    public void setup() {
+        retryPolicy = new UpdateRequestRetryPolicy(mockExecutor);
+    }
+
+    @Test
+    public void testGetRetryDelay_exponentialBackoffWithJitter() {
+        // test
+        final long firstRetryDelay = retryPolicy.getRetryDelay(0, 0L, 10000L);
+        final long secondRetryDelay = retryPolicy.getRetryDelay(1, 0L, 10000L);
+
+        // verify
+        Assert.assertTrue(firstRetryDelay > 125L);
+        Assert.assertTrue(firstRetryDelay <= 250L);
+        Assert.assertTrue(secondRetryDelay > 250L);
+        Assert.assertTrue(secondRetryDelay <= 500L);
+    }
+
+    @Test
+    public void testGetRetryDelay_honorsRetryAfter() {
+        // test
+        final long retryDelay = retryPolicy.getRetryDelay(0, 1500L, 10000L);
+
+        // verify
+        Assert.assertEquals(1500L, retryDelay);
+    }
+
+    @Test
+    public void testGetRetryDelay_retryAfterTooLong() {
+        // test
+        final long retryDelay = retryPolicy.getRetryDelay(0, 5000L, 10000L);
+
+        // verify
+        Assert.assertEquals(UpdateRequestRetryPolicy.NO_RETRY, retryDelay);
+    }
+
+    @Test
+    public void testGetRetryDelay_retryBudgetExhausted() {
+        // test
+        final long retryDelay =
+                retryPolicy.getRetryDelay(UpdateRequestRetryPolicy.MAX_RETRY_COUNT, 0L, 10000L);
+
+        // verify
+        Assert.assertEquals(UpdateRequestRetryPolicy.NO_RETRY, retryDelay);
+    }
+
+    @Test
+    public void testGetRetryDelay_cannotCompleteBeforeTimeout() {
+        // test
+        final long retryDelay = retryPolicy.getRetryDelay(0, 1500L, 3000L);
+
+        // verify
+        Assert.assertEquals(UpdateRequestRetryPolicy.NO_RETRY, retryDelay);
+    }
+
+    @Test
+    public void testGetRetryDelay_completesBeforeTimeout() {
+        // test
+        final long retryDelay = retryPolicy.getRetryDelay(0, 1500L, 3500L);
+
+        // verify
+        Assert.assertEquals(1500L, retryDelay);
+    }
+
+    @Test
+    public void testSchedule() {
+        // setup
+        final Runnable retry = Mockito.mock(Runnable.class);
+
+        // test
+        retryPolicy.schedule(retry, 500L);
+
+        // verify
+        Mockito.verify(mockExecutor, Mockito.times(1))
+                .schedule(
+                        ArgumentMatchers.same(retry),
+                        ArgumentMatchers.eq(500L),
+                        ArgumentMatchers.eq(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testShutdown() {
+        // test
+        retryPolicy.shutdown();
+
+        // verify
+        Mockito.verify(mockExecutor, Mockito.times(1)).shutdownNow();
+    }
+}
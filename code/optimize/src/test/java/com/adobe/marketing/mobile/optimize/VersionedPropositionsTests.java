@@ -0,0 +1,203 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.optimize;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class VersionedPropositionsTests {
+    private final DecisionScope homeScope = new DecisionScope("homeScope");
+    private final DecisionScope productScope = new DecisionScope("productScope");
+
+    @Test
+    public void testUpdate() throws Exception {
+        // setup
+        final Map<String, Object> homePropositionData =
+                new ObjectMapper()
+                        .readValue(
+                                getClass()
+                                        .getClassLoader()
+                                        .getResource("json/PROPOSITION_VALID.json"),
+                                HashMap.class);
+        final OptimizeProposition homeProposition =
+                OptimizeProposition.fromEventData(homePropositionData);
+        final Map<String, Object> productPropositionData =
+                new ObjectMapper()
+                        .readValue(
+                                getClass()
+                                        .getClassLoader()
+                                        .getResource("json/PROPOSITION_VALID_TARGET.json"),
+                                HashMap.class);
+        final OptimizeProposition productProposition =
+                OptimizeProposition.fromEventData(productPropositionData);
+        final Map<DecisionScope, OptimizeProposition> updatedPropositions = new HashMap<>();
+        updatedPropositions.put(homeScope, homeProposition);
+        updatedPropositions.put(productScope, productProposition);
+
+        // test
+        final VersionedPropositions cache =
+                VersionedPropositions.EMPTY.update(
+                        updatedPropositions, Collections.<DecisionScope>emptyList());
+
+        // verify
+        Assert.assertEquals(1L, cache.getVersion());
+        Assert.assertEquals(2, cache.size());
+        Assert.assertSame(homeProposition, cache.get(homeScope));
+        Assert.assertSame(productProposition, cache.get(productScope));
+        Assert.assertEquals(0L, VersionedPropositions.EMPTY.getVersion());
+        Assert.assertEquals(0, VersionedPropositions.EMPTY.size());
+    }
+
+    @Test
+    public void testUpdate_previousVersionUnchanged() throws Exception {
+        // setup
+        final Map<String, Object> homePropositionData =
+                new ObjectMapper()
+                        .readValue(
+                                getClass()
+                                        .getClassLoader()
+                                        .getResource("json/PROPOSITION_VALID.json"),
+                                HashMap.class);
+        final OptimizeProposition homeProposition =
+                OptimizeProposition.fromEventData(homePropositionData);
+        final VersionedPropositions previousCache =
+                VersionedPropositions.EMPTY.update(
+                        Collections.singletonMap(homeScope, homeProposition),
+                        Collections.<DecisionScope>emptyList());
+        final Map<String, Object> productPropositionData =
+                new ObjectMapper()
+                        .readValue(
+                                getClass()
+                                        .getClassLoader()
+                                        .getResource("json/PROPOSITION_VALID_TARGET.json"),
+                                HashMap.class);
+        final OptimizeProposition productProposition =
+                OptimizeProposition.fromEventData(productPropositionData);
+
+        // test
+        final VersionedPropositions cache =
+                previousCache.update(
+                        Collections.singletonMap(productScope, productProposition),
+                        Collections.singletonList(homeScope));
+
+        // verify
+        Assert.assertEquals(2L, cache.getVersion());
+        Assert.assertEquals(0L, cache.getGeneration());
+        Assert.assertEquals(1, cache.size());
+        Assert.assertFalse(cache.contains(homeScope));
+        Assert.assertSame(productProposition, cache.get(productScope));
+        Assert.assertEquals(1L, previousCache.getVersion());
+        Assert.assertEquals(1, previousCache.size());
+        Assert.assertSame(homeProposition, previousCache.get(homeScope));
+        Assert.assertFalse(previousCache.contains(productScope));
+    }
+
+    @Test
+    public void testUpdate_updatedPropositionTakesPrecedenceOverRemovedScope() throws Exception {
+        // setup
+        final Map<String, Object> homePropositionData =
+                new ObjectMapper()
+                        .readValue(
+                                getClass()
+                                        .getClassLoader()
+                                        .getResource("json/PROPOSITION_VALID.json"),
+                                HashMap.class);
+        final OptimizeProposition homeProposition =
+                OptimizeProposition.fromEventData(homePropositionData);
+
+        // test
+        final VersionedPropositions cache =
+                VersionedPropositions.EMPTY.update(
+                        Collections.singletonMap(homeScope, homeProposition),
+                        Collections.singletonList(homeScope));
+
+        // verify
+        Assert.assertSame(homeProposition, cache.get(homeScope));
+    }
+
+    @Test
+    public void testUpdate_noChange() throws Exception {
+        // setup
+        final Map<String, Object> homePropositionData =
+                new ObjectMapper()
+                        .readValue(
+                                getClass()
+                                        .getClassLoader()
+                                        .getResource("json/PROPOSITION_VALID.json"),
+                                HashMap.class);
+        final VersionedPropositions previousCache =
+                VersionedPropositions.EMPTY.update(
+                        Collections.singletonMap(
+                                homeScope, OptimizeProposition.fromEventData(homePropositionData)),
+                        Collections.<DecisionScope>emptyList());
+
+        // test
+        final VersionedPropositions cache =
+                previousCache.update(
+                        Collections.<DecisionScope, OptimizeProposition>emptyMap(),
+                        Collections.singletonList(productScope));
+
+        // verify
+        Assert.assertSame(previousCache, cache);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testGetPropositions_unmodifiable() throws Exception {
+        // setup
+        final Map<String, Object> homePropositionData =
+                new ObjectMapper()
+                        .readValue(
+                                getClass()
+                                        .getClassLoader()
+                                        .getResource("json/PROPOSITION_VALID.json"),
+                                HashMap.class);
+        final VersionedPropositions cache =
+                VersionedPropositions.EMPTY.update(
+                        Collections.singletonMap(
+                                homeScope, OptimizeProposition.fromEventData(homePropositionData)),
+                        Collections.<DecisionScope>emptyList());
+
+        // test
+        cache.getPropositions().remove(homeScope);
+    }
+
+    @Test
+    public void testClear() throws Exception {
+        // setup
+        final Map<String, Object> homePropositionData =
+                new ObjectMapper()
+                        .readValue(
+                                getClass()
+                                        .getClassLoader()
+                                        .getResource("json/PROPOSITION_VALID.json"),
+                                HashMap.class);
+        final VersionedPropositions previousCache =
+                VersionedPropositions.EMPTY.update(
+                        Collections.singletonMap(
+                                homeScope, OptimizeProposition.fromEventData(homePropositionData)),
+                        Collections.<DecisionScope>emptyList());
+
+        // test
+        final VersionedPropositions cache = previousCache.clear();
+
+        // verify
+        Assert.assertEquals(2L, cache.getVersion());
+        Assert.assertEquals(1L, cache.getGeneration());
+        Assert.assertEquals(0, cache.size());
+        Assert.assertEquals(0L, previousCache.getGeneration());
+        Assert.assertEquals(1, previousCache.size());
+    }
+}